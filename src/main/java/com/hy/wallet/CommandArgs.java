@@ -0,0 +1,159 @@
+package com.hy.wallet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 命令行参数解析
+ * 命令名之后不以 "--" 开头的参数为位置参数，其余为选项：声明时以 "=" 结尾的名称取值（--名称=值），
+ * 其余为开关（--名称）。未声明的选项、开关带值、取值缺失或格式错误、位置参数个数不符时抛出 {@link UsageException}，
+ * 由 {@link Main} 输出原因与用法并以2退出。
+ */
+final class CommandArgs {
+
+    /**
+     * 命令行用法错误
+     */
+    static final class UsageException extends IllegalArgumentException {
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    private final List<String> positional = new ArrayList<>();
+    private final Map<String, String> values = new HashMap<>();
+    private final Set<String> flags = new HashSet<>();
+
+    private CommandArgs() {
+    }
+
+    /**
+     * 解析命令名之后的参数
+     *
+     * @param args    启动参数（args[0] 为命令名）
+     * @param options 可用的选项名，如 "threads=" 表示 --threads=值，"summary" 表示开关 --summary
+     * @return 解析结果
+     */
+    static CommandArgs parse(String[] args, String... options) {
+        Set<String> valued = new HashSet<>();
+        Set<String> switches = new HashSet<>();
+        for (String option : options) {
+            if (option.endsWith("=")) {
+                valued.add(option.substring(0, option.length() - 1));
+            } else {
+                switches.add(option);
+            }
+        }
+        CommandArgs parsed = new CommandArgs();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                parsed.positional.add(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            String name = arg.substring(2, eq < 0 ? arg.length() : eq);
+            if (eq < 0 && switches.contains(name)) {
+                parsed.flags.add(name);
+            } else if (eq >= 0 && valued.contains(name)) {
+                parsed.values.put(name, arg.substring(eq + 1));
+            } else {
+                throw new UsageException("无法识别的选项：" + arg);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * 要求位置参数个数在 [min, max] 之内
+     *
+     * @return this
+     */
+    CommandArgs expect(int min, int max) {
+        if (positional.size() < min || positional.size() > max) {
+            throw new UsageException("参数个数不符：" + positional);
+        }
+        return this;
+    }
+
+    /** 位置参数个数 */
+    int count() {
+        return positional.size();
+    }
+
+    /** 第i个位置参数（从0开始） */
+    String arg(int i) {
+        return positional.get(i);
+    }
+
+    /** 第i个位置参数解析为整数 */
+    int intArg(int i) {
+        return number(positional.get(i), "", Integer::parseInt);
+    }
+
+    /** 第i个位置参数解析为整数，不存在时返回默认值 */
+    int intArg(int i, int defaultValue) {
+        return i < positional.size() ? intArg(i) : defaultValue;
+    }
+
+    /** 第i个位置参数解析为长整数 */
+    long longArg(int i) {
+        return number(positional.get(i), "", Long::parseLong);
+    }
+
+    /** 第i个位置参数解析为长整数，不存在时返回默认值 */
+    long longArg(int i, long defaultValue) {
+        return i < positional.size() ? longArg(i) : defaultValue;
+    }
+
+    /** 开关是否出现 */
+    boolean flag(String name) {
+        return flags.contains(name);
+    }
+
+    /** 选项是否出现 */
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    /** 选项的值，未出现时返回默认值 */
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * 选项的值经转换后返回，未出现时返回默认值；转换抛出的IllegalArgumentException原样传出
+     */
+    <T> T get(String name, Function<String, T> parser, T defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : parser.apply(value);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : number(value, "--" + name + "=", Integer::parseInt);
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : number(value, "--" + name + "=", Long::parseLong);
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : number(value, "--" + name + "=", Double::parseDouble);
+    }
+
+    private static <T> T number(String value, String prefix, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new UsageException("不是有效的数字：" + prefix + value);
+        }
+    }
+}
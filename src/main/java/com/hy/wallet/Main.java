@@ -1,12 +1,56 @@
 package com.hy.wallet;
 
+import com.hy.wallet.cluster.Coordinator;
+import com.hy.wallet.core.Chain;
+import com.hy.wallet.core.LatencyBenchmark;
 import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.core.WarmUp;
+import com.hy.wallet.export.ColumnarExport;
+import com.hy.wallet.export.SealedReader;
+import com.hy.wallet.export.SealedWriter;
+import com.hy.wallet.job.BatchJob;
+import com.hy.wallet.job.WalletCsv;
+import com.hy.wallet.ledger.IssuanceLedger;
+import com.hy.wallet.ledger.Issuer;
 import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.pipeline.Pipeline;
+import com.hy.wallet.pipeline.WalletPipeline;
+import com.hy.wallet.pool.WalletPool;
+import com.hy.wallet.sched.ScheduleBenchmark;
+import com.hy.wallet.sched.WalletScheduler;
+import com.hy.wallet.services.WatchOnlyService;
+import com.hy.wallet.soak.SoakTest;
+import com.hy.wallet.utils.MultiHash;
+import com.hy.wallet.verify.AllocationBudget;
+import com.hy.wallet.verify.ColumnarEngine;
+import com.hy.wallet.verify.DifferentialHarness;
+import com.hy.wallet.verify.ServiceEngine;
+import com.hy.wallet.verify.Target;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Console;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 主程序入口类
@@ -21,12 +65,50 @@ public class Main {
      * 提供两种功能：
      * 1) 生成1个钱包
      * 2) 批量生成钱包（输入生成数量）
+     * 3) 通过助记词恢复钱包、派生指定索引钱包
+     * 4) 导出账户扩展公钥，并以扩展公钥派生观察地址（不涉及私钥）
+     * 带参数运行时执行命令行任务（不进入菜单）：
+     * - batch-job &lt;任务目录&gt; &lt;数量&gt; [分段大小]：创建可断点续跑的批量生成任务，分段写入CSV
+     * - resume &lt;任务目录&gt;：从上次中断处继续执行任务
+     * - cluster &lt;输出目录&gt; &lt;进程数&gt; random|range ...：多进程分片生成并合并输出
+     * - pipeline &lt;输出CSV文件&gt; &lt;数量&gt; [--no-validate]：分阶段流水线生成
+     * - soak &lt;输出CSV文件&gt; &lt;时长&gt; [--选项=值 ...]：长时间浸泡测试，输出时间序列并按阈值判定通过与否
+     * - export &lt;输出文件.hyx&gt; &lt;数量&gt; [--chunk-kb=N] [--threads=N] [--no-validate]：按块生成列式批次并直接写出分块压缩加密的导出文件
+     * - export-decrypt &lt;文件.hyx&gt; &lt;输出CSV|-&gt; [--chunk=K]：流式解密整个文件，或只解密第K块
+     * - export-verify &lt;文件.hyx&gt;：逐块解密校验（不输出明文）
+     * - pool &lt;池目录&gt; &lt;取出数量&gt; &lt;输出CSV|-&gt; [--high=N] [--low=N] [--threads=N]：打开持久钱包池，取出钱包并报告取出延迟
+     * - issue &lt;账本文件&gt; &lt;数量&gt; &lt;输出CSV|-&gt; [--threads=N] [--chunk=N] [--window-us=N]：生成钱包，各地址经发放账本组提交落盘后才写出
+     * - issue-range &lt;账本文件&gt; &lt;起始索引&gt; &lt;数量&gt; &lt;输出CSV|-&gt; [--threads=N] [--chunk=N] [--window-us=N]：从标准输入读取助记词，派生索引区间并按索引记账后写出
+     * - ledger-scan &lt;账本文件&gt; [--chain=eth] [--address=...] [--summary]：扫描发放账本，按条件列出记录并汇总
+     * - verify [用例数] [--seed=N] [--from=N] [--targets=...] [--engines=...]：公开测试向量与随机差分用例，比较生产路径与参照实现
+     * - alloc [钱包数] [--budget=文件] [--record=文件] [--kernel=scalar|vector]：测量各生成接口、阶段与各链每个钱包的堆分配字节数，超出预算时以1退出；
+     *   默认预算按当前哈希内核选择，--kernel 指定时当前内核不符即以1退出
+     * - schedule [批量钱包数] [交互请求数] [--workers=N] [--chunk=N] [--interval-ms=N]：批量任务运行期间按固定间隔发出交互请求，
+     *   对比FIFO线程池与优先级调度器下交互请求的延迟
+     * - latency [次数] [--warmup=N]：分别以顺序与各链并发模式测量 generateOne / generateFromMnemonic 的单个钱包延迟及分阶段耗时
+     * - train [数量]：执行代表性负载后退出，用于生成AppCDS归档（见 pom.xml 的 fast-startup 配置）
+     * 系统属性：
+     * - -Dhy.wallet.chains=btc,eth,sol,tron：交互模式只生成指定的链，未选中链的类不会加载
+     * - -Dhy.wallet.warmup=true：交互模式启动后台预热，加快第一个钱包的返回
+     * - -Dhy.wallet.concurrent-chains=true|false|auto：交互模式单个钱包的各链是否并发派生（默认auto，多核时开启）
      *
-     * @param args 启动参数（不使用）
+     * @param args 启动参数（为空时进入交互菜单）
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(runCommand(args));
+        }
         Scanner scanner = new Scanner(System.in);
-        WalletGenerator generator = new WalletGenerator();
+        WalletGenerator generator;
+        try {
+            generator = new WalletGenerator(Chain.fromSystemProperty(),
+                    WalletGenerator.concurrentChainsFromSystemProperty());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        WarmUp.startIfEnabled(generator);
 
         while (true) {
             try {
@@ -36,8 +118,10 @@ public class Main {
                 System.out.println("2. 批量生成钱包（需输入生成数量）");
                 System.out.println("3. 通过助记词生成钱包（输入12个英文单词）");
                 System.out.println("4. 派生指定索引的钱包（输入助记词和索引号）");
-                System.out.println("5. 退出");
-                System.out.print("请输入选项(1/2/3/4/5): ");
+                System.out.println("5. 导出账户扩展公钥（xpub/zpub，供观察钱包使用）");
+                System.out.println("6. 通过扩展公钥批量派生观察地址（无需助记词与私钥）");
+                System.out.println("7. 退出");
+                System.out.print("请输入选项(1/2/3/4/5/6/7): ");
 
                 String option = scanner.nextLine().trim();
                 switch (option) {
@@ -90,7 +174,16 @@ public class Main {
                             System.err.println("索引号格式错误！");
                         }
                     }
-                    case "5", "退出" -> {
+                    case "5" -> {
+                        System.out.println("请输入12个英文助记词（单词之间使用单个空格分隔）:");
+                        String line = scanner.nextLine().trim();
+                        List<String> mnemonic = parseAndValidateMnemonic(line);
+                        if (mnemonic == null) break;
+                        WalletGenerator.AccountXpubs xpubs = generator.exportAccountXpubs(mnemonic);
+                        printAccountXpubs(xpubs);
+                    }
+                    case "6" -> deriveWatchOnly(scanner);
+                    case "7", "退出" -> {
                         System.out.println("程序已退出。");
                         return;
                     }
@@ -104,6 +197,608 @@ public class Main {
         }
     }
 
+    /**
+     * 执行命令行任务
+     * @param args 启动参数
+     * @return 进程退出码：0成功，1执行失败，2参数错误
+     */
+    private static int runCommand(String[] args) {
+        try {
+            return switch (args[0]) {
+                case "batch-job", "resume" -> runBatchJob(args);
+                case "cluster" -> runCluster(args);
+                case "pipeline" -> runPipeline(args);
+                case "soak" -> runSoak(args);
+                case "export" -> runExport(args);
+                case "export-decrypt", "export-verify" -> runExportRead(args);
+                case "pool" -> runPool(args);
+                case "issue" -> runIssue(args);
+                case "issue-range" -> runIssueRange(args);
+                case "ledger-scan" -> runLedgerScan(args);
+                case "verify" -> runVerify(args);
+                case "latency" -> runLatency(args);
+                case "schedule" -> runSchedule(args);
+                case "alloc" -> runAlloc(args);
+                case "train" -> runTrain(args);
+                default -> usage();
+            };
+        } catch (CommandArgs.UsageException e) {
+            System.err.println(e.getMessage());
+            return usage();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (Exception e) {
+            log.error("任务执行失败", e);
+            System.err.println("任务执行失败: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * batch-job / resume：单进程可断点续跑的批量任务
+     */
+    private static int runBatchJob(String[] args) throws Exception {
+        BatchJob job;
+        if (args[0].equals("batch-job")) {
+            CommandArgs a = CommandArgs.parse(args).expect(2, 3);
+            job = BatchJob.create(Path.of(a.arg(0)), a.longArg(1), a.intArg(2, BatchJob.DEFAULT_SEGMENT_SIZE));
+        } else {
+            job = BatchJob.open(Path.of(CommandArgs.parse(args).expect(1, 1).arg(0)));
+        }
+        System.out.printf("任务目录: %s，总数: %d，分段大小: %d%n", job.dir(), job.total(), job.segmentSize());
+        BatchJob.Result result = job.run(new WalletGenerator());
+        if (result.alreadyCompleted()) {
+            System.out.println("任务此前已完成，无需继续。");
+        }
+        System.out.printf("任务完成：%d 条记录，%d 个分段，共 %d 字节%n",
+                result.committedRecords(), result.segments(), result.outputBytes());
+        return 0;
+    }
+
+    /**
+     * cluster：多进程分片生成，区间模式的助记词从标准输入读取（不出现在命令行与进程列表中）
+     */
+    private static int runCluster(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args).expect(4, 6);
+        Path dir = Path.of(a.arg(0));
+        int workers = a.intArg(1);
+        Coordinator.Result result;
+        switch (a.arg(2)) {
+            case "random" -> {
+                a.expect(4, 5);
+                result = Coordinator.generateRandom(dir, a.longArg(3),
+                        Coordinator.Options.of(workers, a.intArg(4, Coordinator.DEFAULT_SHARD_SIZE)));
+            }
+            case "range" -> {
+                a.expect(5, 6);
+                int start = a.intArg(3);
+                int count = a.intArg(4);
+                int shardSize = a.intArg(5, Coordinator.DEFAULT_SHARD_SIZE);
+                System.err.println("请输入12个英文助记词（单词之间使用单个空格分隔）:");
+                String line = new Scanner(System.in).nextLine().trim();
+                List<String> mnemonic = parseAndValidateMnemonic(line);
+                if (mnemonic == null) {
+                    return 2;
+                }
+                result = Coordinator.deriveRange(dir, mnemonic, start, count, Coordinator.Options.of(workers, shardSize));
+            }
+            default -> {
+                return usage();
+            }
+        }
+        System.out.printf("任务完成：%d 条记录，%d 个分片，重新分配 %d 次，输出文件: %s%n",
+                result.records(), result.shards(), result.reassigned(), result.output());
+        return 0;
+    }
+
+    /**
+     * pipeline：单进程分阶段流水线生成，写出CSV并打印各阶段统计
+     */
+    private static int runPipeline(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "no-validate").expect(2, 2);
+        long count = a.longArg(1);
+        WalletPipeline.Options defaults = WalletPipeline.Options.defaults();
+        WalletPipeline.Options options = new WalletPipeline.Options(defaults.queueCapacity(), defaults.threadBudget(),
+                !a.flag("no-validate"), defaults.controlIntervalMillis());
+        Pipeline.Report report;
+        try (Writer out = Files.newBufferedWriter(Path.of(a.arg(0)))) {
+            report = WalletPipeline.generate(count, out, options);
+        }
+        System.out.println("=".repeat(80));
+        System.out.printf(" %-12s | %7s | %10s | %12s | %10s%n", "阶段", "线程", "处理数", "服务时间(µs)", "阻塞(ms)");
+        System.out.println("-".repeat(80));
+        for (Pipeline.StageStats st : report.stages()) {
+            System.out.printf(" %-12s | %7d | %10d | %12.1f | %10d%n",
+                    st.name(), st.threads(), st.processed(), st.avgServiceMicros(), st.blockedMillis());
+        }
+        System.out.println("-".repeat(80));
+        System.out.printf(" 共 %d 个钱包，耗时 %.2f 秒，%.1f 个/秒，线程调整 %d 次%n", report.items(),
+                report.elapsedNanos() / 1e9, report.itemsPerSecond(), report.rebalances());
+        System.out.println("=".repeat(80));
+        return 0;
+    }
+
+    /**
+     * soak：浸泡测试，通过返回0，未通过返回1
+     */
+    private static int runSoak(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "rate=", "threads=", "sample=", "no-validate", "max-pause-ms=",
+                "max-gc-percent=", "max-heap-growth-mb-h=", "min-rate=").expect(2, 2);
+        SoakTest.Options d = SoakTest.Options.of(SoakTest.parseDuration(a.arg(1)));
+        SoakTest.Thresholds t = d.thresholds();
+        Duration sample = a.get("sample", SoakTest::parseDuration, d.sampleInterval());
+        SoakTest.Options options = new SoakTest.Options(d.duration(), a.getDouble("rate", d.targetRate()),
+                a.getInt("threads", d.threads()), sample, d.batchSize(), d.validate() && !a.flag("no-validate"),
+                new SoakTest.Thresholds(a.getLong("max-pause-ms", t.maxPauseMillis()),
+                        a.getDouble("max-gc-percent", t.maxGcTimePercent()),
+                        a.getDouble("max-heap-growth-mb-h", t.maxHeapGrowthMbPerHour()),
+                        a.getDouble("min-rate", t.minWalletsPerSecond())));
+        System.out.printf("浸泡测试：时长 %s，%s，%d 个线程，每 %s 采样%n", options.duration(),
+                options.targetRate() > 0 ? "目标 " + options.targetRate() + " 个/秒" : "全速", options.threads(),
+                options.sampleInterval());
+        SoakTest.Result r;
+        try (Writer out = Files.newBufferedWriter(Path.of(a.arg(0)))) {
+            r = SoakTest.run(options, out);
+        }
+        r.print(System.out);
+        return r.passed() ? 0 : 1;
+    }
+
+    /**
+     * export：多线程按块生成列式批次，CSV行直接进入分块压缩加密写入器，明文不落盘；口令从控制台或标准输入读取
+     */
+    private static int runExport(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "chunk-kb=", "threads=", "no-validate").expect(2, 2);
+        long count = a.longArg(1);
+        SealedWriter.Options sealed = SealedWriter.Options.defaults();
+        if (a.has("chunk-kb")) {
+            sealed = sealed.withChunkSize(Math.multiplyExact(a.getInt("chunk-kb", 0), 1024));
+        }
+        int threads = a.getInt("threads", Math.max(1, Runtime.getRuntime().availableProcessors()));
+        char[] password = readPassphrase("导出口令", true);
+        SealedWriter.Summary summary;
+        ColumnarExport.Result result;
+        try (SealedWriter out = SealedWriter.create(Path.of(a.arg(0)), password, sealed)) {
+            Arrays.fill(password, '\0');
+            result = ColumnarExport.generate(new WalletGenerator(), count, threads, ColumnarExport.DEFAULT_CHUNK,
+                    !a.flag("no-validate"), out);
+            summary = out.finish();
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+        System.out.printf("导出完成：%d 个钱包，%d 块，明文 %d 字节 → 加密文件 %d 字节（%.1f%%），耗时 %.2f 秒%n",
+                result.wallets(), summary.chunks(), summary.plainBytes(), summary.fileBytes(),
+                summary.plainBytes() == 0 ? 0.0 : summary.fileBytes() * 100.0 / summary.plainBytes(),
+                result.elapsedNanos() / 1e9);
+        return 0;
+    }
+
+    /**
+     * export-decrypt / export-verify：读取加密导出文件
+     */
+    private static int runExportRead(String[] args) throws Exception {
+        boolean verify = args[0].equals("export-verify");
+        CommandArgs a = verify ? CommandArgs.parse(args).expect(1, 1) : CommandArgs.parse(args, "chunk=").expect(2, 2);
+        int chunk = a.getInt("chunk", -1);
+        char[] password = readPassphrase("导出口令", false);
+        try (SealedReader reader = SealedReader.open(Path.of(a.arg(0)), password)) {
+            Arrays.fill(password, '\0');
+            if (verify) {
+                SealedReader.Verification v = reader.verify();
+                System.out.printf("校验通过：%d 块，%d 行（含表头），明文 %d 字节，文件 %d 字节%n",
+                        v.chunks(), v.records(), v.plainBytes(), v.fileBytes());
+                return 0;
+            }
+            String target = a.arg(1);
+            if (target.equals("-")) {
+                decrypt(reader, chunk, System.out);
+            } else {
+                try (OutputStream out = Files.newOutputStream(Path.of(target))) {
+                    decrypt(reader, chunk, out);
+                }
+                System.out.printf("解密完成：%s 行，输出文件: %s%n",
+                        chunk >= 0 ? String.valueOf(reader.records(chunk)) : String.valueOf(reader.records()), target);
+            }
+            return 0;
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    private static void decrypt(SealedReader reader, int chunk, OutputStream out) throws IOException {
+        if (chunk >= 0) {
+            reader.decryptChunkTo(chunk, out);
+            out.flush();
+        } else {
+            reader.decryptTo(out);
+        }
+    }
+
+    /**
+     * pool：打开（或创建）持久钱包池，等待补充到高水位后取出指定数量的钱包写出为CSV，并报告取出延迟；
+     * 未取出的钱包加密保留在池目录中，下次运行时恢复
+     */
+    private static int runPool(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "high=", "low=", "threads=").expect(3, 3);
+        Path dir = Path.of(a.arg(0));
+        int count = a.intArg(1);
+        WalletPool.Options defaults = WalletPool.Options.defaults();
+        int high = a.getInt("high", defaults.highWatermark());
+        WalletPool.Options options = defaults.withWatermarks(high, a.getInt("low", high / 2))
+                .withRefillThreads(a.getInt("threads", defaults.refillThreads()));
+        String target = a.arg(2);
+        PrintStream report = target.equals("-") ? System.err : System.out;
+        char[] password = readPassphrase("钱包池口令", !Files.exists(dir.resolve(WalletPool.SPOOL_FILE)));
+        WalletGenerator generator = new WalletGenerator(Chain.fromSystemProperty());
+        long begin = System.nanoTime();
+        try (WalletPool pool = WalletPool.open(dir, password, generator, options)) {
+            Arrays.fill(password, '\0');
+            WalletPool.Metrics opened = pool.metrics();
+            pool.awaitReady(Math.min(count, options.highWatermark()), 1, TimeUnit.HOURS);
+            report.printf("钱包池就绪：%d 个（从存储恢复 %d 个），耗时 %.2f 秒%n", pool.ready(), opened.restored(),
+                    (System.nanoTime() - begin) / 1e9);
+            try (Writer out = openCsv(target)) {
+                for (int i = 0; i < count; i++) {
+                    WalletCsv.writeRow(pool.take(), out);
+                }
+            }
+            WalletPool.Metrics m = pool.metrics();
+            report.printf("取出 %d 个（其中 %d 次需等待补充），剩余就绪 %d 个，补充 %d 个%n", m.taken(), m.emptyTakes(),
+                    m.ready(), m.refilled());
+            report.printf("取出延迟（µs）：平均 %.1f，p50 %.1f，p99 %.1f，最大 %.1f%n", m.takeLatency().meanMicros(),
+                    m.takeLatency().p50Micros(), m.takeLatency().p99Micros(), m.takeLatency().maxMicros());
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+        return 0;
+    }
+
+    /**
+     * issue：多线程按块生成钱包，每块的全部地址记入发放账本并持久确认后才写出为CSV，最后报告组提交情况
+     */
+    private static int runIssue(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "threads=", "chunk=", "window-us=").expect(3, 3);
+        long count = a.longArg(1);
+        int threads = a.getInt("threads", Math.max(1, Runtime.getRuntime().availableProcessors()));
+        int chunk = a.getInt("chunk", Issuer.DEFAULT_CHUNK);
+        IssuanceLedger.Options options = IssuanceLedger.Options.defaults();
+        options = options.withWindowMicros(a.getLong("window-us", options.windowMicros()));
+        String target = a.arg(2);
+        PrintStream report = target.equals("-") ? System.err : System.out;
+        WalletGenerator generator = new WalletGenerator(Chain.fromSystemProperty());
+        Issuer.Result result;
+        IssuanceLedger.Metrics m;
+        try (IssuanceLedger ledger = IssuanceLedger.open(Path.of(a.arg(0)), options)) {
+            try (Writer out = openCsv(target)) {
+                result = Issuer.run(generator, ledger, count, threads, chunk, out);
+            }
+            m = ledger.metrics();
+        }
+        report.printf("发放 %d 个钱包（记录号 %d 起），%d 个地址已记入账本，耗时 %.2f 秒，%.1f 个/秒%n", result.wallets(),
+                result.firstRecord(), result.entries(), result.elapsedNanos() / 1e9, result.walletsPerSecond());
+        printLedgerMetrics(report, m);
+        return 0;
+    }
+
+    /**
+     * issue-range：从标准输入读取助记词，多线程按块派生索引区间，每块地址以派生索引记入发放账本并持久确认后才写出为CSV
+     */
+    private static int runIssueRange(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "threads=", "chunk=", "window-us=").expect(4, 4);
+        int start = a.intArg(1);
+        int count = a.intArg(2);
+        int threads = a.getInt("threads", Math.max(1, Runtime.getRuntime().availableProcessors()));
+        int chunk = a.getInt("chunk", Issuer.DEFAULT_CHUNK);
+        IssuanceLedger.Options options = IssuanceLedger.Options.defaults();
+        options = options.withWindowMicros(a.getLong("window-us", options.windowMicros()));
+        String target = a.arg(3);
+        PrintStream report = target.equals("-") ? System.err : System.out;
+        System.err.println("请输入12个英文助记词（单词之间使用单个空格分隔）:");
+        String line = new Scanner(System.in).nextLine().trim();
+        List<String> mnemonic = parseAndValidateMnemonic(line);
+        if (mnemonic == null) {
+            return 2;
+        }
+        WalletGenerator generator = new WalletGenerator(Chain.fromSystemProperty());
+        Issuer.Result result;
+        IssuanceLedger.Metrics m;
+        try (IssuanceLedger ledger = IssuanceLedger.open(Path.of(a.arg(0)), options)) {
+            try (Writer out = openCsv(target)) {
+                result = Issuer.deriveRange(generator, ledger, mnemonic, start, count, threads, chunk, out);
+            }
+            m = ledger.metrics();
+        }
+        report.printf("派生发放索引 %d 起的 %d 个钱包，%d 个地址已记入账本，耗时 %.2f 秒，%.1f 个/秒%n",
+                result.firstRecord(), result.wallets(), result.entries(), result.elapsedNanos() / 1e9,
+                result.walletsPerSecond());
+        printLedgerMetrics(report, m);
+        return 0;
+    }
+
+    private static void printLedgerMetrics(PrintStream report, IssuanceLedger.Metrics m) {
+        report.printf("组提交：%d 次写入+fsync，平均每批 %.1f 条；账本共 %d 条（打开时已有 %d 条）%n", m.batches(),
+                m.meanBatch(), m.durable(), m.recovered());
+        report.printf("确认延迟（µs）：p50 %.1f，p99 %.1f；写入+fsync（µs）：p50 %.1f，p99 %.1f%n",
+                m.ackLatency().p50Micros(), m.ackLatency().p99Micros(), m.syncLatency().p50Micros(),
+                m.syncLatency().p99Micros());
+    }
+
+    /**
+     * 打开CSV输出并写出表头；"-" 表示标准输出，关闭时只刷新而不关闭标准输出
+     */
+    private static Writer openCsv(String target) throws IOException {
+        Writer out = target.equals("-") ? new PrintWriter(System.out) {
+            @Override
+            public void close() {
+                flush();
+            }
+        } : Files.newBufferedWriter(Path.of(target));
+        out.write(WalletCsv.HEADER);
+        out.write('\n');
+        return out;
+    }
+
+    /**
+     * ledger-scan：只读扫描发放账本，按链、地址过滤列出记录（制表符分隔），最后输出汇总与尾部状态
+     */
+    private static int runLedgerScan(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "chain=", "address=", "summary").expect(1, 1);
+        Set<Chain> wanted = a.get("chain", Chain::parse, EnumSet.allOf(Chain.class));
+        String wantedAddress = a.get("address", null);
+        boolean list = !a.flag("summary");
+        long[] perChain = new long[Chain.values().length];
+        long[] matched = new long[1];
+        long[] timeRange = {Long.MAX_VALUE, Long.MIN_VALUE};
+        PrintWriter out = new PrintWriter(System.out);
+        IssuanceLedger.ScanResult r = IssuanceLedger.scan(Path.of(a.arg(0)), (e, seq) -> {
+            perChain[e.chain().ordinal()]++;
+            timeRange[0] = Math.min(timeRange[0], e.timestampMillis());
+            timeRange[1] = Math.max(timeRange[1], e.timestampMillis());
+            if (!wanted.contains(e.chain()) || (wantedAddress != null && !wantedAddress.equals(e.address()))) {
+                return;
+            }
+            matched[0]++;
+            if (list) {
+                out.append(Long.toString(seq)).append('\t').append(Instant.ofEpochMilli(e.timestampMillis()).toString())
+                        .append('\t').append(e.chain().name()).append('\t').append(e.kind().name()).append('\t')
+                        .append(Long.toString(e.reference())).append('\t').append(e.address()).append('\n');
+            }
+        });
+        out.flush();
+        PrintStream report = list ? System.err : System.out;
+        report.printf("账本 %s：%d 条记录，%d 字节", a.arg(0), r.records(), r.fileBytes());
+        if (r.records() > 0) {
+            report.printf("，时间 %s ~ %s", Instant.ofEpochMilli(timeRange[0]), Instant.ofEpochMilli(timeRange[1]));
+        }
+        report.println();
+        for (Chain c : Chain.values()) {
+            if (perChain[c.ordinal()] > 0) {
+                report.printf("  %-5s %d%n", c, perChain[c.ordinal()]);
+            }
+        }
+        report.printf("匹配 %d 条%n", matched[0]);
+        if (r.tornBytes() > 0) {
+            report.printf("尾部 %d 字节不完整（写入途中崩溃留下，下次以读写方式打开时截断）%n", r.tornBytes());
+        }
+        return 0;
+    }
+
+    /**
+     * verify：公开测试向量 + 随机差分用例，比较生产路径（逐个钱包与列式批量）与bitcoinj/web3j/BouncyCastle参照实现；
+     * 全部一致时退出码为0，否则输出编号最小的不一致及其完整输入并以1退出
+     */
+    private static int runVerify(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "threads=", "seed=", "from=", "bip39-every=", "targets=", "engines=")
+                .expect(0, 1);
+        DifferentialHarness.Options d = DifferentialHarness.Options.defaults(
+                a.longArg(0, DifferentialHarness.Options.DEFAULT_CASES));
+        DifferentialHarness.Options options = new DifferentialHarness.Options(d.cases(), a.getLong("from", d.firstCase()),
+                a.getLong("seed", d.runSeed()), a.getInt("threads", d.threads()), d.blockSize(),
+                a.getInt("bip39-every", d.bip39Every()), a.get("targets", Target::parse, d.targets()));
+        String engines = a.get("engines", ServiceEngine.NAME + "," + ColumnarEngine.NAME);
+        DifferentialHarness harness = DifferentialHarness.withEngines(options, engines);
+        System.out.printf("差分校验：%d 个用例（编号 %d 起），运行种子 %d，%d 个线程，引擎 %s%n", options.cases(),
+                options.firstCase(), options.runSeed(), options.threads(), engines);
+        DifferentialHarness.Report r = harness.run();
+        r.print(System.out);
+        return r.passed() ? 0 : 1;
+    }
+
+    /**
+     * latency：顺序与各链并发两种模式交替生成单个钱包，报告两种接口的p50/p99延迟与分阶段耗时
+     */
+    private static int runLatency(String[] args) {
+        CommandArgs a = CommandArgs.parse(args, "warmup=").expect(0, 1);
+        LatencyBenchmark.run(Chain.fromSystemProperty(), a.intArg(0, LatencyBenchmark.DEFAULT_ROUNDS),
+                a.getInt("warmup", LatencyBenchmark.DEFAULT_WARMUP)).print(System.out);
+        return 0;
+    }
+
+    /**
+     * schedule：同一批量任务与同样节奏的交互请求，分别交给FIFO线程池（批量任务按块提交）与 {@link WalletScheduler}，
+     * 报告交互请求延迟、批量任务耗时与调度器各通道的排队等待
+     */
+    private static int runSchedule(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "workers=", "chunk=", "interval-ms=").expect(0, 2);
+        WalletScheduler.Options options = a.has("workers")
+                ? WalletScheduler.Options.ofWorkers(a.getInt("workers", 0)) : WalletScheduler.Options.defaults();
+        options = options.withChunkSize(a.getInt("chunk", options.chunkSize()));
+        ScheduleBenchmark.run(new WalletGenerator(Chain.fromSystemProperty()),
+                a.intArg(0, ScheduleBenchmark.DEFAULT_BULK), a.intArg(1, ScheduleBenchmark.DEFAULT_REQUESTS),
+                a.getLong("interval-ms", ScheduleBenchmark.DEFAULT_INTERVAL_MS), options).print(System.out);
+        return 0;
+    }
+
+    /**
+     * alloc：测量每个钱包的堆分配字节数并与预算比较；--record 时按测量值乘以余量写出新的预算文件
+     * --kernel 固定要求的哈希内核，避免向量模块未加载时静默改用标量内核、拿标量预算去比较
+     */
+    private static int runAlloc(String[] args) throws Exception {
+        CommandArgs a = CommandArgs.parse(args, "budget=", "record=", "headroom=", "kernel=").expect(0, 1);
+        Path budgetFile = a.get("budget", Path::of, null);
+        Path recordFile = a.get("record", Path::of, null);
+        double headroom = a.getDouble("headroom", AllocationBudget.DEFAULT_HEADROOM);
+        String kernel = a.get("kernel", null);
+        if (kernel != null) {
+            if (!kernel.equals("scalar") && !kernel.equals("vector")) {
+                throw new IllegalArgumentException("--kernel 只能为 scalar 或 vector：" + kernel);
+            }
+            if (kernel.equals("vector") != MultiHash.vectorized()) {
+                System.err.println("当前哈希内核为 " + MultiHash.kernel() + "，要求 " + kernel
+                        + "（向量内核需以 --add-modules jdk.incubator.vector 启动，标量内核用 -D" + MultiHash.PROPERTY + "=false）");
+                return 1;
+            }
+        }
+        // 重新生成预算时不需要已有预算（新内核的默认预算可能尚不存在），只在指定 --budget 时对照显示
+        boolean compare = recordFile == null || budgetFile != null;
+        Properties budgets = compare ? AllocationBudget.loadBudgets(budgetFile) : new Properties();
+        AllocationBudget.Report r = AllocationBudget.run(a.intArg(0, AllocationBudget.DEFAULT_WALLETS), budgets);
+        System.out.printf("堆分配：每项预热并测量 %d 个钱包，哈希内核 %s，预算 %s%n", r.wallets(), r.kernel(),
+                !compare ? "-" : budgetFile == null ? "默认（JAR内 " + AllocationBudget.defaultResource() + "）" : budgetFile);
+        r.print(System.out);
+        if (recordFile != null) {
+            try (Writer out = Files.newBufferedWriter(recordFile)) {
+                AllocationBudget.writeBudgets(r, headroom, out);
+            }
+            System.out.printf(" 已按测量值 x %.2f 写出预算：%s%n", headroom, recordFile);
+            return 0;
+        }
+        System.out.println(r.passed() ? " 结论：全部在预算内" : " 结论：" + r.violations().size() + " 项超出预算");
+        return r.passed() ? 0 : 1;
+    }
+
+    /**
+     * 读取口令：有控制台时不回显（新建时需输入两次确认），否则从标准输入读取一行；
+     * 口令不经过命令行参数，也不构造String
+     *
+     * @param label   提示名称（如"导出口令"）
+     * @param confirm 是否需要确认（新建文件时），同时要求至少8个字符
+     */
+    private static char[] readPassphrase(String label, boolean confirm) throws IOException {
+        Console console = System.console();
+        char[] password;
+        if (console != null) {
+            password = console.readPassword("请输入" + label + ": ");
+            if (password != null && confirm) {
+                char[] again = console.readPassword("请再次输入" + label + ": ");
+                boolean same = Arrays.equals(password, again);
+                if (again != null) {
+                    Arrays.fill(again, '\0');
+                }
+                if (!same) {
+                    Arrays.fill(password, '\0');
+                    throw new IllegalArgumentException("两次输入的口令不一致！");
+                }
+            }
+        } else {
+            System.err.println("请输入" + label + "（一行）:");
+            password = readSecretLine(System.in);
+        }
+        if (password == null || password.length == 0) {
+            throw new IllegalArgumentException("未输入口令！");
+        }
+        if (confirm && password.length < 8) {
+            Arrays.fill(password, '\0');
+            throw new IllegalArgumentException(label + "至少8个字符！");
+        }
+        return password;
+    }
+
+    /**
+     * 从输入流按UTF-8读取一行到字符数组（不含行尾），读取缓冲用完即清零
+     */
+    private static char[] readSecretLine(InputStream in) throws IOException {
+        byte[] bytes = new byte[256];
+        int n = 0;
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            if (n == bytes.length) {
+                byte[] grown = Arrays.copyOf(bytes, n * 2);
+                Arrays.fill(bytes, (byte) 0);
+                bytes = grown;
+            }
+            bytes[n++] = (byte) b;
+        }
+        if (n > 0 && bytes[n - 1] == '\r') {
+            n--;
+        }
+        CharBuffer chars = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes, 0, n));
+        char[] line = Arrays.copyOfRange(chars.array(), chars.position(), chars.limit());
+        Arrays.fill(chars.array(), '\0');
+        Arrays.fill(bytes, (byte) 0);
+        return line;
+    }
+
+    /**
+     * train：执行与交互模式相同的生成、打印与校验路径（输出丢弃），供 -XX:ArchiveClassesAtExit 记录需要归档的类
+     */
+    private static int runTrain(String[] args) throws Exception {
+        int count = CommandArgs.parse(args).expect(0, 1).intArg(0, WarmUp.DEFAULT_ROUNDS);
+        if (count <= 0) {
+            throw new IllegalArgumentException("数量必须为正整数！");
+        }
+        WalletGenerator generator = new WalletGenerator(Chain.fromSystemProperty());
+        long begin = System.nanoTime();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            WarmUp.run(generator, 1);
+            List<String> mnemonic = null;
+            for (int i = 0; i < count; i++) {
+                WalletInfo wallet = generator.generateOne();
+                printWallet(wallet, i + 1, true);
+                mnemonic = wallet.getMnemonic();
+            }
+            mnemonic = parseAndValidateMnemonic(String.join(" ", mnemonic));
+            printWallet(generator.generateFromMnemonic(mnemonic, 1), 1, true);
+            StringBuilder csv = new StringBuilder();
+            for (WalletInfo wallet : generator.generateBatch(count)) {
+                printWallet(wallet, 1, false);
+                WalletCsv.writeRow(wallet, csv);
+            }
+        } finally {
+            System.setOut(console);
+        }
+        System.out.printf("训练完成：%d 个钱包，链 %s，耗时 %d 毫秒%n", count * 2 + 1, generator.chains(),
+                (System.nanoTime() - begin) / 1_000_000);
+        return 0;
+    }
+
+    private static int usage() {
+        System.err.println("用法 / Usage:");
+        System.err.println("  batch-job <任务目录> <数量> [分段大小，默认" + BatchJob.DEFAULT_SEGMENT_SIZE + "]");
+        System.err.println("  resume <任务目录>");
+        System.err.println("  cluster <输出目录> <进程数> random <数量> [分片大小，默认" + Coordinator.DEFAULT_SHARD_SIZE + "]");
+        System.err.println("  cluster <输出目录> <进程数> range <起始索引> <数量> [分片大小]   （助记词从标准输入读取）");
+        System.err.println("  pipeline <输出CSV文件> <数量> [--no-validate]");
+        System.err.println("  soak <输出CSV文件> <时长，如 90s/30m/2h> [--rate=个每秒] [--threads=N] [--sample=10s] [--no-validate]");
+        System.err.println("       [--max-pause-ms=200] [--max-gc-percent=10] [--max-heap-growth-mb-h=64] [--min-rate=0]");
+        System.err.println("  export <输出文件.hyx> <数量> [--chunk-kb=" + SealedWriter.Options.DEFAULT_CHUNK_SIZE / 1024
+                + "] [--threads=N] [--no-validate]   （口令从控制台或标准输入读取）");
+        System.err.println("  export-decrypt <文件.hyx> <输出CSV文件|-> [--chunk=块序号]");
+        System.err.println("  export-verify <文件.hyx>");
+        System.err.println("  pool <池目录> <取出数量> <输出CSV文件|-> [--high=" + WalletPool.Options.DEFAULT_HIGH_WATERMARK
+                + "] [--low=高水位/2] [--threads=N]   （口令从控制台或标准输入读取）");
+        System.err.println("  issue <账本文件> <数量> <输出CSV文件|-> [--threads=N] [--chunk=" + Issuer.DEFAULT_CHUNK
+                + "] [--window-us=0]");
+        System.err.println("  issue-range <账本文件> <起始索引> <数量> <输出CSV文件|-> [--threads=N] [--chunk="
+                + Issuer.DEFAULT_CHUNK + "] [--window-us=0]   （助记词从标准输入读取）");
+        System.err.println("  ledger-scan <账本文件> [--chain=btc,eth,...] [--address=地址] [--summary]");
+        System.err.println("  verify [用例数，默认" + DifferentialHarness.Options.DEFAULT_CASES + "] [--threads=N] [--seed=N] [--from=N] [--bip39-every="
+                + DifferentialHarness.Options.DEFAULT_BIP39_EVERY + "]");
+        System.err.println("         [--targets=eth,sol,...] [--engines=" + ServiceEngine.NAME + "," + ColumnarEngine.NAME + "]");
+        System.err.println("  alloc [钱包数，默认" + AllocationBudget.DEFAULT_WALLETS
+                + "] [--budget=预算文件] [--record=输出预算文件] [--headroom="
+                + AllocationBudget.DEFAULT_HEADROOM + "] [--kernel=scalar|vector]");
+        System.err.println("  schedule [批量钱包数，默认" + ScheduleBenchmark.DEFAULT_BULK + "] [交互请求数，默认"
+                + ScheduleBenchmark.DEFAULT_REQUESTS + "] [--workers=N] [--chunk=" + WalletScheduler.Options.DEFAULT_CHUNK_SIZE
+                + "] [--interval-ms=" + ScheduleBenchmark.DEFAULT_INTERVAL_MS + "]");
+        System.err.println("  latency [次数，默认" + LatencyBenchmark.DEFAULT_ROUNDS + "] [--warmup=N]");
+        System.err.println("  train [数量]   （生成AppCDS归档用的训练负载）");
+        return 2;
+    }
+
     /**
      * 解析并校验助记词
      * @param line 输入行
@@ -116,7 +811,7 @@ public class Main {
             return null;
         }
         String[] parts = line.split(" ");
-        List<String> mnemonic = new java.util.ArrayList<>();
+        List<String> mnemonic = new ArrayList<>();
         for (String p : parts)
             mnemonic.add(p.toLowerCase());
         // 使用bitcoinj进行BIP39严格校验（词表与校验和）
@@ -135,6 +830,64 @@ public class Main {
         return null;
     }
 
+    /**
+     * 交互式读取扩展公钥与索引区间，派生并打印观察地址。
+     * @param scanner 控制台输入
+     */
+    private static void deriveWatchOnly(Scanner scanner) {
+        System.out.println("请选择链：1. BTC (Legacy)  2. BTC (SegWit)  3. ETH (EVM)  4. TRON (TRC20)");
+        System.out.print("请输入选项(1/2/3/4): ");
+        String chain = scanner.nextLine().trim();
+        if (!chain.matches("[1-4]")) {
+            System.err.println("链选项无效！");
+            return;
+        }
+        System.out.println("请输入账户层级扩展公钥（xpub/zpub）:");
+        String xpub = scanner.nextLine().trim();
+        int start;
+        int count;
+        try {
+            System.out.print("请输入起始索引(非负整数): ");
+            start = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("请输入派生数量(正整数): ");
+            count = Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.err.println("索引或数量格式错误！");
+            return;
+        }
+        if (start < 0 || count <= 0) {
+            System.err.println("起始索引必须为非负整数，数量必须为正整数！");
+            return;
+        }
+        List<WatchOnlyService.IndexedAddress> addresses = switch (chain) {
+            case "1" -> WatchOnlyService.deriveBtcLegacy(xpub, start, count);
+            case "2" -> WatchOnlyService.deriveBtcSegwit(xpub, start, count);
+            case "3" -> WatchOnlyService.deriveEth(xpub, start, count);
+            default -> WatchOnlyService.deriveTron(xpub, start, count);
+        };
+        System.out.println("=".repeat(80));
+        for (WatchOnlyService.IndexedAddress a : addresses) {
+            System.out.printf(" %-10d | %s%n", a.index(), a.address());
+        }
+        System.out.println("=".repeat(80));
+    }
+
+    /**
+     * 打印各链账户层级扩展公钥。
+     * @param xpubs 扩展公钥集合
+     */
+    private static void printAccountXpubs(WalletGenerator.AccountXpubs xpubs) {
+        String border = "=".repeat(80);
+        System.out.println(border);
+        System.out.println(" [账户扩展公钥 / Account Extended Public Keys]");
+        System.out.println("-".repeat(80));
+        printXpubRow("BTC (Legacy)", "m/44'/0'/0'", xpubs.btcLegacyXpub());
+        printXpubRow("BTC (SegWit)", "m/84'/0'/0'", xpubs.btcSegwitZpub());
+        printXpubRow("ETH (EVM)", "m/44'/60'/0'", xpubs.ethXpub());
+        printXpubRow("TRON (TRC20)", "m/44'/195'/0'", xpubs.tronXpub());
+        System.out.println(border);
+    }
+
     /**
      * 按指定输出模板打印单个钱包信息。
      *
@@ -182,7 +935,16 @@ public class Main {
         }
     }
 
+    private static void printXpubRow(String chain, String path, String xpub) {
+        System.out.printf(" %-20s | Path: %s%n", chain, path);
+        System.out.printf(" %-20s | Xpub: %s%n", "", xpub);
+        System.out.println("-".repeat(80));
+    }
+
     private static void printRow(String chain, String address, String privateKey) {
+        if (address == null) {
+            return; // 未选择的链
+        }
         System.out.printf(" %-20s | Addr: %s%n", chain, address);
         System.out.printf(" %-20s | Priv: %s%n", "", privateKey);
         System.out.println("-".repeat(80)); // 每行之间的分隔符
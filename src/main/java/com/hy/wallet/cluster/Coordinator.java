@@ -0,0 +1,492 @@
+package com.hy.wallet.cluster;
+
+import com.hy.wallet.job.SegmentFiles;
+import com.hy.wallet.job.WalletCsv;
+import com.hy.wallet.utils.CryptoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多进程分片生成协调器
+ * - 把任务切分为分片：N个独立随机钱包，或同一助记词的不相交索引区间；
+ * - 在本机启动若干工作进程（{@link Worker}），经回环地址上的套接字分配分片，令牌经环境变量传递；
+ * - 跟踪心跳，工作进程退出、断开或超时未发心跳时强制结束该进程，其分片重新分配给新启动的工作进程；
+ * - 全部分片完成后按分片序号合并为一个有序输出文件（单一表头），并删除分片文件。
+ * 分片文件写在共享的分片目录中，多主机部署时需将该目录置于共享文件系统。
+ */
+public final class Coordinator {
+    private static final Logger log = LoggerFactory.getLogger(Coordinator.class);
+
+    /** 默认分片大小 */
+    public static final int DEFAULT_SHARD_SIZE = 10_000;
+    /** 合并后的输出文件名 */
+    public static final String OUTPUT_FILE = "wallets.csv";
+
+    private static final String SHARD_DIR = "shards";
+    private static final String LOG_DIR = "workers";
+    private static final long CHECK_INTERVAL_MS = 500;
+    private static final long MIN_STARTUP_TIMEOUT_MS = 30_000;
+
+    /**
+     * 运行参数
+     *
+     * @param workers            并发工作进程数
+     * @param shardSize          分片大小（每个分片的记录数）
+     * @param heartbeatTimeoutMs 心跳超时（毫秒），超过即视为工作进程失效
+     * @param maxAttempts        单个分片最多尝试次数
+     */
+    public record Options(int workers, int shardSize, long heartbeatTimeoutMs, int maxAttempts) {
+        public Options {
+            if (workers <= 0 || workers > 256) {
+                throw new IllegalArgumentException("工作进程数必须在1到256之间");
+            }
+            if (shardSize <= 0 || shardSize > 1_000_000) {
+                throw new IllegalArgumentException("分片大小必须在1到1000000之间");
+            }
+            if (heartbeatTimeoutMs < 1000) {
+                throw new IllegalArgumentException("心跳超时不能小于1000毫秒");
+            }
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("最大尝试次数必须为正整数");
+            }
+        }
+
+        /**
+         * 默认心跳超时15秒，单个分片最多尝试3次
+         */
+        public static Options of(int workers, int shardSize) {
+            return new Options(workers, shardSize, 15_000, 3);
+        }
+    }
+
+    /**
+     * 执行结果
+     *
+     * @param output     合并后的输出文件
+     * @param records    记录数
+     * @param shards     分片数
+     * @param reassigned 重新分配的分片次数
+     */
+    public record Result(Path output, long records, int shards, int reassigned) {
+    }
+
+    private static final class Shard {
+        private final ShardSpec spec;
+        private int attempts;
+        private boolean done;
+
+        private Shard(ShardSpec spec) {
+            this.spec = spec;
+        }
+    }
+
+    private static final class WorkerHandle {
+        private final int id;
+        private final Process process;
+        private final long spawnedAt = System.currentTimeMillis();
+        private boolean connected;
+
+        private WorkerHandle(int id, Process process) {
+            this.id = id;
+            this.process = process;
+        }
+    }
+
+    private final Path dir;
+    private final Path shardDir;
+    private final Path logDir;
+    private final Options options;
+    private final List<Shard> shards;
+    private final List<String> mnemonic;
+    private final String header;
+    private final String token = HexFormat.of().formatHex(CryptoUtils.secureRandom().generateSeed(32));
+
+    private final Object lock = new Object();
+    private final Deque<Shard> pending = new ArrayDeque<>();
+    private final Map<Integer, WorkerHandle> workers = new HashMap<>();
+    private int remaining;
+    private int reassigned;
+    private int nextWorkerId;
+    private int spawns;
+    private Exception failure;
+    private int port;
+
+    private Coordinator(Path dir, Options options, List<ShardSpec> specs, List<String> mnemonic, String header) {
+        this.dir = dir;
+        this.shardDir = dir.resolve(SHARD_DIR);
+        this.logDir = dir.resolve(LOG_DIR);
+        this.options = options;
+        this.mnemonic = mnemonic;
+        this.header = header;
+        this.shards = new ArrayList<>(specs.size());
+        for (ShardSpec spec : specs) {
+            Shard shard = new Shard(spec);
+            shards.add(shard);
+            pending.add(shard);
+        }
+        this.remaining = shards.size();
+    }
+
+    /**
+     * 多进程生成count个独立随机钱包
+     *
+     * @param dir     输出目录
+     * @param count   钱包数量
+     * @param options 运行参数
+     * @return 执行结果
+     */
+    public static Result generateRandom(Path dir, long count, Options options) throws IOException, InterruptedException {
+        if (count <= 0) {
+            throw new IllegalArgumentException("生成数量必须为正整数");
+        }
+        List<ShardSpec> specs = new ArrayList<>();
+        for (long first = 0; first < count; first += options.shardSize()) {
+            int n = (int) Math.min(options.shardSize(), count - first);
+            specs.add(new ShardSpec(specs.size(), ShardSpec.Kind.RANDOM, first, n));
+        }
+        return new Coordinator(dir, options, specs, null, WalletCsv.HEADER).run();
+    }
+
+    /**
+     * 多进程派生同一助记词的索引区间 [start, start+count)（BIP39校验应在调用前完成）
+     *
+     * @param dir      输出目录
+     * @param mnemonic 12个英文助记词（规范化为小写）
+     * @param start    起始地址索引
+     * @param count    数量
+     * @param options  运行参数
+     * @return 执行结果
+     */
+    public static Result deriveRange(Path dir, List<String> mnemonic, int start, int count, Options options)
+            throws IOException, InterruptedException {
+        if (start < 0 || count <= 0 || (long) start + count > (1L << 31)) {
+            throw new IllegalArgumentException("索引区间无效：start=" + start + ", count=" + count);
+        }
+        List<ShardSpec> specs = new ArrayList<>();
+        for (long first = start; first < (long) start + count; first += options.shardSize()) {
+            int n = (int) Math.min(options.shardSize(), (long) start + count - first);
+            specs.add(new ShardSpec(specs.size(), ShardSpec.Kind.RANGE, first, n));
+        }
+        return new Coordinator(dir, options, specs, List.copyOf(mnemonic), WalletCsv.DERIVED_HEADER).run();
+    }
+
+    private Result run() throws IOException, InterruptedException {
+        Path output = dir.resolve(OUTPUT_FILE);
+        if (Files.exists(output)) {
+            throw new IllegalStateException("输出文件已存在：" + output);
+        }
+        Files.createDirectories(shardDir);
+        Files.createDirectories(logDir);
+
+        try (ServerSocket server = new ServerSocket(0, 64, InetAddress.getLoopbackAddress())) {
+            port = server.getLocalPort();
+            Thread acceptor = new Thread(() -> accept(server), "cluster-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            try {
+                synchronized (lock) {
+                    int initial = Math.min(options.workers(), shards.size());
+                    for (int i = 0; i < initial; i++) {
+                        spawn();
+                    }
+                    while (remaining > 0 && failure == null) {
+                        lock.wait(CHECK_INTERVAL_MS);
+                        reapUnconnected();
+                    }
+                    // 唤醒空闲连接，通知其工作进程退出
+                    lock.notifyAll();
+                }
+            } finally {
+                shutdownWorkers();
+            }
+        }
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IllegalStateException("分片任务失败: " + failure.getMessage(), failure);
+            }
+        }
+
+        long records = merge(output);
+        log.info("合并完成：{} 条记录，{} 个分片，重新分配 {} 次", records, shards.size(), reassigned);
+        return new Result(output, records, shards.size(), reassigned);
+    }
+
+    private void accept(ServerSocket server) {
+        while (true) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return;
+            }
+            Thread t = new Thread(() -> serve(socket), "cluster-conn");
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /**
+     * 单个工作进程连接：认证后循环分配分片，直至没有更多分片或连接失效
+     */
+    private void serve(Socket socket) {
+        WorkerHandle handle = null;
+        Shard current = null;
+        try (socket) {
+            socket.setSoTimeout((int) options.heartbeatTimeoutMs());
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            String[] hello = Protocol.receive(in, 3);
+            if (hello.length != 3 || !Protocol.HELLO.equals(hello[0])
+                    || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), hello[2].getBytes(StandardCharsets.UTF_8))) {
+                log.warn("拒绝未通过认证的连接：{}", socket.getRemoteSocketAddress());
+                return;
+            }
+            synchronized (lock) {
+                handle = workers.get(Integer.parseInt(hello[1]));
+                if (handle == null) {
+                    return;
+                }
+                handle.connected = true;
+            }
+            while (true) {
+                current = nextShard();
+                if (current == null) {
+                    Protocol.send(out, Protocol.NONE);
+                    return;
+                }
+                ShardSpec spec = current.spec;
+                Protocol.send(out, Protocol.SHARD, spec.id(), spec.kind(), spec.start(), spec.count(),
+                        mnemonic == null ? "-" : String.join(",", mnemonic));
+                awaitResult(in, current);
+                current = null;
+            }
+        } catch (Exception e) {
+            if (handle != null) {
+                lost(handle, current, e);
+            }
+        }
+    }
+
+    /**
+     * 等待分片结果；期间只接受心跳，超过心跳超时无任何消息时读取抛出SocketTimeoutException
+     */
+    private void awaitResult(BufferedReader in, Shard shard) throws IOException {
+        while (true) {
+            String[] msg = Protocol.receive(in, 4);
+            switch (msg[0]) {
+                case Protocol.HEARTBEAT -> {
+                }
+                case Protocol.DONE -> {
+                    if (msg.length != 4 || Integer.parseInt(msg[1]) != shard.spec.id()) {
+                        throw new IOException("分片完成消息不匹配");
+                    }
+                    Path file = shardDir.resolve(shard.spec.fileName());
+                    if (!SegmentFiles.matches(file, Long.parseLong(msg[2]), Long.parseLong(msg[3], 16))) {
+                        throw new IOException("分片文件校验失败：" + file);
+                    }
+                    complete(shard);
+                    return;
+                }
+                case Protocol.FAILED -> throw new IOException("工作进程报告分片失败：" + (msg.length > 2 ? msg[2] : ""));
+                default -> throw new IOException("无法识别的消息：" + msg[0]);
+            }
+        }
+    }
+
+    private Shard nextShard() throws InterruptedException {
+        synchronized (lock) {
+            while (failure == null && remaining > 0) {
+                Shard shard = pending.pollFirst();
+                if (shard != null) {
+                    return shard;
+                }
+                lock.wait();
+            }
+            return null;
+        }
+    }
+
+    private void complete(Shard shard) {
+        synchronized (lock) {
+            shard.done = true;
+            remaining--;
+            log.info("分片 {} 完成，剩余 {}/{}", shard.spec.id(), remaining, shards.size());
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * 工作进程失效：强制结束进程，未完成的分片放回队首，并补充新的工作进程
+     */
+    private void lost(WorkerHandle handle, Shard shard, Exception cause) {
+        handle.process.destroyForcibly();
+        synchronized (lock) {
+            workers.remove(handle.id);
+            if (shard != null && !shard.done) {
+                shard.attempts++;
+                reassigned++;
+                log.warn("工作进程 {} 失效（{}），分片 {} 重新分配（已尝试{}次）",
+                        handle.id, cause.getMessage(), shard.spec.id(), shard.attempts);
+                if (shard.attempts >= options.maxAttempts()) {
+                    failure = new IllegalStateException("分片 " + shard.spec.id() + " 已失败" + shard.attempts + "次："
+                            + cause.getMessage(), cause);
+                } else {
+                    pending.addFirst(shard);
+                }
+            } else if (remaining > 0) {
+                log.warn("工作进程 {} 失效：{}", handle.id, cause.getMessage());
+            }
+            replenish();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * 启动后迟迟未连接或已退出的工作进程视为失效（调用方持有锁）
+     */
+    private void reapUnconnected() {
+        long startupTimeout = Math.max(MIN_STARTUP_TIMEOUT_MS, options.heartbeatTimeoutMs());
+        long now = System.currentTimeMillis();
+        List<WorkerHandle> dead = new ArrayList<>();
+        for (WorkerHandle h : workers.values()) {
+            if (!h.connected && (!h.process.isAlive() || now - h.spawnedAt > startupTimeout)) {
+                dead.add(h);
+            }
+        }
+        for (WorkerHandle h : dead) {
+            log.warn("工作进程 {} 未能连接协调进程（退出码：{}）", h.id,
+                    h.process.isAlive() ? "运行中" : String.valueOf(h.process.exitValue()));
+            h.process.destroyForcibly();
+            workers.remove(h.id);
+        }
+        if (!dead.isEmpty()) {
+            replenish();
+        }
+    }
+
+    /**
+     * 待分配分片多于存活工作进程时补充新进程（调用方持有锁）
+     */
+    private void replenish() {
+        if (failure != null || remaining == 0) {
+            return;
+        }
+        int maxSpawns = options.workers() * (options.maxAttempts() + 1);
+        while (workers.size() < Math.min(options.workers(), pending.size() + busyCount())) {
+            if (spawns >= maxSpawns) {
+                if (workers.isEmpty()) {
+                    failure = new IllegalStateException("工作进程启动次数超过上限（" + maxSpawns + "），请查看 "
+                            + logDir + " 下的日志");
+                }
+                return;
+            }
+            try {
+                spawn();
+            } catch (IOException e) {
+                failure = e;
+                return;
+            }
+        }
+    }
+
+    private int busyCount() {
+        return remaining - pending.size();
+    }
+
+    /**
+     * 启动一个工作进程（调用方持有锁）
+     */
+    private void spawn() throws IOException {
+        int id = ++nextWorkerId;
+        spawns++;
+        long heartbeatMs = Math.max(250, options.heartbeatTimeoutMs() / 4);
+        ProcessBuilder pb = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                Worker.class.getName(),
+                Integer.toString(port), Integer.toString(id), shardDir.toAbsolutePath().toString(),
+                Long.toString(heartbeatMs));
+        pb.environment().put(Protocol.TOKEN_ENV, token);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.appendTo(logDir.resolve("worker-" + id + ".log").toFile()));
+        workers.put(id, new WorkerHandle(id, pb.start()));
+        log.info("已启动工作进程 {}", id);
+    }
+
+    private void shutdownWorkers() throws InterruptedException {
+        List<WorkerHandle> handles;
+        synchronized (lock) {
+            handles = new ArrayList<>(workers.values());
+        }
+        for (WorkerHandle h : handles) {
+            if (!h.process.waitFor(10, TimeUnit.SECONDS)) {
+                h.process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * 按分片序号顺序拼接为单一输出文件（原子改名），随后删除分片文件
+     *
+     * @return 记录数
+     */
+    private long merge(Path output) throws IOException {
+        Path tmp = output.resolveSibling(output.getFileName() + ".tmp");
+        long records = 0;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer head = ByteBuffer.wrap((header + "\n").getBytes(StandardCharsets.UTF_8));
+            while (head.hasRemaining()) {
+                out.write(head);
+            }
+            for (Shard shard : shards) {
+                try (FileChannel in = FileChannel.open(shardDir.resolve(shard.spec.fileName()), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long pos = 0; pos < size; ) {
+                        pos += in.transferTo(pos, size - pos, out);
+                    }
+                }
+                records += shard.spec.count();
+            }
+            out.force(true);
+        }
+        SegmentFiles.promote(tmp, output);
+
+        for (Shard shard : shards) {
+            Files.deleteIfExists(shardDir.resolve(shard.spec.fileName()));
+        }
+        // 失效工作进程遗留的临时文件
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(shardDir, "*.tmp-*")) {
+            for (Path p : stale) {
+                Files.deleteIfExists(p);
+            }
+        }
+        return records;
+    }
+}
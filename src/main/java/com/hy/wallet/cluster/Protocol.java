@@ -0,0 +1,66 @@
+package com.hy.wallet.cluster;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 协调进程与工作进程之间的行文本协议（仅监听回环地址）
+ * <pre>
+ * 工作进程 → 协调进程：
+ *   HELLO workerId token           连接后首条消息，token经环境变量传入，不出现在命令行
+ *   HEARTBEAT workerId shardId     定时心跳（空闲时shardId为-1）
+ *   DONE shardId bytes crc         分片文件已原子改名为正式文件
+ *   FAILED shardId message         分片执行失败
+ * 协调进程 → 工作进程：
+ *   SHARD id kind start count mnemonic   分配分片（mnemonic以逗号连接，随机模式为"-"）
+ *   NONE                                 没有更多分片，工作进程退出
+ * </pre>
+ */
+final class Protocol {
+
+    /** 认证令牌环境变量名 */
+    static final String TOKEN_ENV = "HY_WALLET_CLUSTER_TOKEN";
+
+    static final String HELLO = "HELLO";
+    static final String HEARTBEAT = "HEARTBEAT";
+    static final String DONE = "DONE";
+    static final String FAILED = "FAILED";
+    static final String SHARD = "SHARD";
+    static final String NONE = "NONE";
+
+    private Protocol() {
+    }
+
+    /**
+     * 发送一条消息（字段以空格连接）；心跳线程与主线程共用同一输出，需加锁
+     */
+    static void send(Writer out, Object... fields) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(fields[i]);
+        }
+        sb.append('\n');
+        synchronized (out) {
+            out.write(sb.toString());
+            out.flush();
+        }
+    }
+
+    /**
+     * 读取一条消息
+     *
+     * @param limit 最多拆分的字段数（最后一个字段保留其中的空格）
+     */
+    static String[] receive(BufferedReader in, int limit) throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            throw new EOFException("连接已关闭");
+        }
+        return line.split(" ", limit);
+    }
+}
@@ -0,0 +1,29 @@
+package com.hy.wallet.cluster;
+
+/**
+ * 分片描述
+ *
+ * @param id    分片序号（合并输出按此顺序）
+ * @param kind  分片类型
+ * @param start 随机模式：本分片第一条记录的全局序号；区间模式：起始地址索引
+ * @param count 记录数
+ */
+public record ShardSpec(int id, Kind kind, long start, int count) {
+
+    /**
+     * 分片类型
+     */
+    public enum Kind {
+        /** 独立随机钱包 */
+        RANDOM,
+        /** 同一助记词的连续索引区间 */
+        RANGE
+    }
+
+    /**
+     * 分片输出文件名
+     */
+    public String fileName() {
+        return String.format("shard-%06d.csv", id);
+    }
+}
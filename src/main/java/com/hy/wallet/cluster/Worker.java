@@ -0,0 +1,144 @@
+package com.hy.wallet.cluster;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.job.SegmentFiles;
+import com.hy.wallet.job.WalletCsv;
+import com.hy.wallet.model.WalletBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * 分片工作进程
+ * 由 {@link Coordinator} 启动，经回环地址连接协调进程，循环领取分片、生成并写出分片文件，
+ * 期间由后台线程定时发送心跳。分片文件先写入本进程专属的临时文件，完成后原子改名。
+ */
+public final class Worker {
+    private static final Logger log = LoggerFactory.getLogger(Worker.class);
+
+    private Worker() {
+    }
+
+    /**
+     * 工作进程入口（由协调进程启动）
+     *
+     * @param args 协调进程端口、工作进程编号、分片输出目录、心跳间隔（毫秒）
+     */
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.err.println("用法: Worker <port> <worker-id> <shard-dir> <heartbeat-ms>");
+            System.exit(2);
+        }
+        try {
+            System.exit(run(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Path.of(args[2]),
+                    Long.parseLong(args[3])));
+        } catch (Exception e) {
+            log.error("工作进程异常退出", e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 运行工作进程直至协调进程通知结束
+     *
+     * @param port        协调进程端口
+     * @param workerId    工作进程编号
+     * @param shardDir    分片输出目录
+     * @param heartbeatMs 心跳间隔（毫秒）
+     * @return 进程退出码
+     */
+    public static int run(int port, int workerId, Path shardDir, long heartbeatMs) throws IOException {
+        String token = System.getenv(Protocol.TOKEN_ENV);
+        if (token == null) {
+            throw new IllegalStateException("缺少环境变量 " + Protocol.TOKEN_ENV + "，工作进程只能由协调进程启动");
+        }
+        AtomicInteger currentShard = new AtomicInteger(-1);
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            Protocol.send(out, Protocol.HELLO, workerId, token);
+            heartbeat.scheduleAtFixedRate(() -> {
+                try {
+                    Protocol.send(out, Protocol.HEARTBEAT, workerId, currentShard.get());
+                } catch (IOException e) {
+                    // 连接断开由主线程的读取发现
+                }
+            }, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+            WalletGenerator generator = new WalletGenerator();
+            while (true) {
+                String[] msg = Protocol.receive(in, 6);
+                if (Protocol.NONE.equals(msg[0])) {
+                    log.info("工作进程 {} 无更多分片，退出", workerId);
+                    return 0;
+                }
+                if (!Protocol.SHARD.equals(msg[0]) || msg.length != 6) {
+                    throw new IOException("无法识别的消息：" + msg[0]);
+                }
+                ShardSpec spec = new ShardSpec(Integer.parseInt(msg[1]), ShardSpec.Kind.valueOf(msg[2]),
+                        Long.parseLong(msg[3]), Integer.parseInt(msg[4]));
+                currentShard.set(spec.id());
+                try {
+                    List<String> mnemonic = spec.kind() == ShardSpec.Kind.RANGE ? Arrays.asList(msg[5].split(",")) : null;
+                    Path finalFile = shardDir.resolve(spec.fileName());
+                    Path tmp = shardDir.resolve(spec.fileName() + ".tmp-" + workerId);
+                    CRC32 crc = new CRC32();
+                    long bytes = SegmentFiles.write(tmp, crc, w -> writeShard(generator, spec, mnemonic, w));
+                    SegmentFiles.promote(tmp, finalFile);
+                    Protocol.send(out, Protocol.DONE, spec.id(), bytes, Long.toHexString(crc.getValue()));
+                    log.info("工作进程 {} 完成分片 {}（{} 条）", workerId, spec.id(), spec.count());
+                } catch (Exception e) {
+                    log.error("分片 {} 执行失败", spec.id(), e);
+                    Files.deleteIfExists(shardDir.resolve(spec.fileName() + ".tmp-" + workerId));
+                    Protocol.send(out, Protocol.FAILED, spec.id(), String.valueOf(e.getMessage()).replace('\n', ' '));
+                } finally {
+                    currentShard.set(-1);
+                }
+            }
+        } finally {
+            heartbeat.shutdownNow();
+        }
+    }
+
+    /**
+     * 生成分片内容（不含表头，表头由合并输出统一写入）
+     */
+    private static void writeShard(WalletGenerator generator, ShardSpec spec, List<String> mnemonic, Writer w)
+            throws IOException {
+        WalletBatch wallets = spec.kind() == ShardSpec.Kind.RANDOM
+                ? generator.generateColumnar(spec.count())
+                : generator.deriveRangeColumnar(mnemonic, Math.toIntExact(spec.start()), spec.count());
+        try {
+            if (spec.kind() == ShardSpec.Kind.RANDOM) {
+                WalletCsv.writeRows(wallets, w);
+            } else {
+                WalletCsv.writeDerivedRows(wallets, w);
+            }
+        } finally {
+            wallets.clear();
+        }
+    }
+}
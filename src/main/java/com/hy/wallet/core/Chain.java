@@ -0,0 +1,58 @@
+package com.hy.wallet.core;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 支持的链
+ * {@link WalletGenerator} 只派生选中的链，未选中链的服务类及其依赖（bitcoinj网络参数、web3j等）不会被加载。
+ */
+public enum Chain {
+    /** BTC Legacy 与 Native SegWit */
+    BTC,
+    /** ETH (EVM) */
+    ETH,
+    /** SOL (Solana) */
+    SOL,
+    /** TRON (TRC20) */
+    TRON;
+
+    /** 指定链选择的系统属性，例如 -Dhy.wallet.chains=eth,sol */
+    public static final String PROPERTY = "hy.wallet.chains";
+
+    /**
+     * 解析逗号分隔的链列表（不区分大小写），空值或 all 表示全部
+     *
+     * @param spec 链列表
+     * @return 链集合
+     */
+    public static Set<Chain> parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.trim().equalsIgnoreCase("all")) {
+            return EnumSet.allOf(Chain.class);
+        }
+        EnumSet<Chain> chains = EnumSet.noneOf(Chain.class);
+        for (String part : spec.split(",")) {
+            String name = part.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                chains.add(Chain.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("未知的链：" + part.trim() + "（可选 btc,eth,sol,tron）");
+            }
+        }
+        if (chains.isEmpty()) {
+            throw new IllegalArgumentException("至少需要选择一条链");
+        }
+        return chains;
+    }
+
+    /**
+     * 读取系统属性 {@value #PROPERTY} 指定的链选择，未指定时为全部
+     */
+    public static Set<Chain> fromSystemProperty() {
+        return parse(System.getProperty(PROPERTY));
+    }
+}
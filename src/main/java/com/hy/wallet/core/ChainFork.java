@@ -0,0 +1,110 @@
+package com.hy.wallet.core;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单个钱包各链派生的并发执行（低延迟模式）
+ * 第一个任务在调用线程上执行，其余任务各起一个虚拟线程；任一任务失败后，尚未开始的任务直接跳过。
+ * 调用线程总是等待全部已开始的任务结束后才返回或抛出第一个异常，
+ * 因此调用方随后清零种子时不会有任务仍在读取它。
+ * 未使用 StructuredTaskScope：该API在JDK 21中仍为预览特性，需要 --enable-preview 编译与运行。
+ */
+final class ChainFork {
+
+    /**
+     * 派生任务
+     *
+     * @param stage 统计阶段
+     * @param body  派生并写入钱包信息（各任务写入不同字段）
+     */
+    record Task(LatencyBreakdown.Stage stage, Runnable body) {
+    }
+
+    private ChainFork() {
+    }
+
+    /**
+     * 依次执行全部任务（顺序模式）
+     *
+     * @param tasks   任务
+     * @param latency 分阶段耗时
+     */
+    static void runSequential(List<Task> tasks, LatencyBreakdown latency) {
+        for (Task task : tasks) {
+            long begin = System.nanoTime();
+            task.body().run();
+            latency.record(task.stage(), System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * 并发执行全部任务，任一失败时取消其余尚未开始的任务
+     *
+     * @param tasks   任务
+     * @param latency 分阶段耗时
+     */
+    static void runConcurrent(List<Task> tasks, LatencyBreakdown latency) {
+        int n = tasks.size();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(n - 1);
+        for (int i = 1; i < n; i++) {
+            Task task = tasks.get(i);
+            Runnable fork = () -> {
+                try {
+                    execute(task, latency, failure);
+                } finally {
+                    done.countDown();
+                }
+            };
+            try {
+                Thread.ofVirtual().name("wallet-chain-" + task.stage().name().toLowerCase()).start(fork);
+            } catch (Throwable t) {
+                // 线程未能启动：后续任务不再提交
+                failure.compareAndSet(null, t);
+                for (int j = i; j < n; j++) {
+                    done.countDown();
+                }
+                break;
+            }
+        }
+        execute(tasks.get(0), latency, failure);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                // 必须等到全部任务结束，中断状态在返回前恢复
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException re) {
+            throw re;
+        }
+        if (t instanceof Error err) {
+            throw err;
+        }
+        if (t != null) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static void execute(Task task, LatencyBreakdown latency, AtomicReference<Throwable> failure) {
+        if (failure.get() != null) {
+            return;
+        }
+        long begin = System.nanoTime();
+        try {
+            task.body().run();
+            latency.record(task.stage(), System.nanoTime() - begin);
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.hy.wallet.core;
+
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.utils.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个钱包延迟对比
+ * 顺序与各链并发两种模式的生成器交替生成单个钱包（避免频率、GC等随时间的变化只落在其中一种模式上），
+ * 分别统计 generateOne / generateFromMnemonic 的延迟与分阶段耗时。
+ */
+public final class LatencyBenchmark {
+
+    /** 默认测量次数 */
+    public static final int DEFAULT_ROUNDS = 200;
+    /** 默认预热次数 */
+    public static final int DEFAULT_WARMUP = WarmUp.DEFAULT_ROUNDS * 4;
+
+    /**
+     * 对比结果
+     *
+     * @param rounds                 每种模式的测量次数
+     * @param warmup                 预热次数
+     * @param chains                 生成的链
+     * @param oneSequential          顺序模式 generateOne 延迟
+     * @param oneConcurrent          各链并发模式 generateOne 延迟
+     * @param fromMnemonicSequential 顺序模式 generateFromMnemonic 延迟
+     * @param fromMnemonicConcurrent 各链并发模式 generateFromMnemonic 延迟
+     * @param sequential             顺序模式的分阶段耗时
+     * @param concurrent             各链并发模式的分阶段耗时
+     */
+    public record Result(int rounds, int warmup, Set<Chain> chains,
+                         LatencyHistogram.Snapshot oneSequential, LatencyHistogram.Snapshot oneConcurrent,
+                         LatencyHistogram.Snapshot fromMnemonicSequential,
+                         LatencyHistogram.Snapshot fromMnemonicConcurrent,
+                         Map<LatencyBreakdown.Stage, LatencyHistogram.Snapshot> sequential,
+                         Map<LatencyBreakdown.Stage, LatencyHistogram.Snapshot> concurrent) {
+
+        /**
+         * 输出对比表（p50 / p99，微秒）
+         */
+        public void print(PrintStream out) {
+            out.printf("单个钱包延迟：每种模式 %d 次（预热 %d 次），链 %s，可用处理器 %d 个%n", rounds, warmup, chains,
+                    Runtime.getRuntime().availableProcessors());
+            out.println("=".repeat(80));
+            out.printf(" %-22s %20s %20s%n", "p50 / p99（µs）", "顺序", "各链并发");
+            printRow(out, "generateOne", oneSequential, oneConcurrent);
+            printRow(out, "generateFromMnemonic", fromMnemonicSequential, fromMnemonicConcurrent);
+            out.println("-".repeat(80));
+            for (Map.Entry<LatencyBreakdown.Stage, LatencyHistogram.Snapshot> e : sequential.entrySet()) {
+                printRow(out, e.getKey().label(), e.getValue(), concurrent.get(e.getKey()));
+            }
+            out.println("=".repeat(80));
+            out.printf(" 各链并发相对顺序的p50变化：generateOne %+.1f%%，generateFromMnemonic %+.1f%%%n",
+                    percentChange(oneSequential.p50Micros(), oneConcurrent.p50Micros()),
+                    percentChange(fromMnemonicSequential.p50Micros(), fromMnemonicConcurrent.p50Micros()));
+        }
+
+        private static void printRow(PrintStream out, String name, LatencyHistogram.Snapshot a,
+                                     LatencyHistogram.Snapshot b) {
+            out.printf(" %-22s %20s %20s%n", name, format(a), format(b));
+        }
+
+        private static String format(LatencyHistogram.Snapshot s) {
+            return s == null ? "-" : String.format("%.0f / %.0f", s.p50Micros(), s.p99Micros());
+        }
+
+        private static double percentChange(double before, double after) {
+            return before == 0 ? 0 : (after - before) * 100 / before;
+        }
+    }
+
+    private LatencyBenchmark() {
+    }
+
+    /**
+     * 两种模式各预热后交替测量
+     *
+     * @param chains 生成的链
+     * @param rounds 每种模式的测量次数
+     * @param warmup 预热次数
+     * @return 对比结果
+     */
+    public static Result run(Set<Chain> chains, int rounds, int warmup) {
+        if (rounds <= 0 || warmup < 0) {
+            throw new IllegalArgumentException("次数必须为正整数！");
+        }
+        for (boolean concurrent : new boolean[]{false, true}) {
+            WalletGenerator generator = new WalletGenerator(chains, concurrent);
+            WarmUp.run(generator, warmup);
+            for (int i = 0; i < warmup; i++) {
+                generator.generateOne();
+            }
+        }
+        // 预热使用的生成器丢弃，其样本不计入统计
+        WalletGenerator[] generators = {new WalletGenerator(chains, false), new WalletGenerator(chains, true)};
+        LatencyHistogram[] one = {new LatencyHistogram(), new LatencyHistogram()};
+        LatencyHistogram[] fromMnemonic = {new LatencyHistogram(), new LatencyHistogram()};
+        for (int i = 0; i < rounds; i++) {
+            for (int m = 0; m < generators.length; m++) {
+                long begin = System.nanoTime();
+                WalletInfo wallet = generators[m].generateOne();
+                long mid = System.nanoTime();
+                generators[m].generateFromMnemonic(wallet.getMnemonic(), i);
+                one[m].record(mid - begin);
+                fromMnemonic[m].record(System.nanoTime() - mid);
+            }
+        }
+        return new Result(rounds, warmup, chains, one[0].snapshot(), one[1].snapshot(), fromMnemonic[0].snapshot(),
+                fromMnemonic[1].snapshot(), generators[0].latency().snapshot(), generators[1].latency().snapshot());
+    }
+}
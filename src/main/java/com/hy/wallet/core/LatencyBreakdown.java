@@ -0,0 +1,80 @@
+package com.hy.wallet.core;
+
+import com.hy.wallet.utils.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 单个钱包生成（generateOne / generateFromMnemonic）的分阶段耗时统计
+ * 每个阶段一个 {@link LatencyHistogram}，记录无锁，可由并发派生的各链任务同时写入。
+ * 并发模式下各链阶段的耗时之和大于 {@link Stage#CHAINS}（墙钟），两者之差即并发节省的时间。
+ */
+public final class LatencyBreakdown {
+
+    /**
+     * 统计阶段
+     */
+    public enum Stage {
+        /** 生成熵并编码为助记词（仅 generateOne） */
+        MNEMONIC("熵与助记词"),
+        /** PBKDF2-HMAC-SHA512 计算BIP39种子 */
+        SEED("BIP39种子"),
+        /** BTC Legacy 派生与编码 */
+        BTC_LEGACY("BTC Legacy"),
+        /** BTC Native SegWit 派生与编码 */
+        BTC_SEGWIT("BTC SegWit"),
+        /** ETH 派生与编码 */
+        ETH("ETH"),
+        /** Solana 派生与编码 */
+        SOL("SOL"),
+        /** TRON 派生与编码 */
+        TRON("TRON"),
+        /** 全部选中链派生的墙钟耗时 */
+        CHAINS("各链合计（墙钟）"),
+        /** 单个钱包总耗时 */
+        TOTAL("总耗时");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        /** 显示名称 */
+        public String label() {
+            return label;
+        }
+    }
+
+    private final EnumMap<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+
+    public LatencyBreakdown() {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * 记录一次阶段耗时
+     *
+     * @param stage 阶段
+     * @param nanos 纳秒
+     */
+    public void record(Stage stage, long nanos) {
+        histograms.get(stage).record(nanos);
+    }
+
+    /**
+     * 各阶段统计快照（只包含有样本的阶段，按阶段顺序排列）
+     */
+    public Map<Stage, LatencyHistogram.Snapshot> snapshot() {
+        Map<Stage, LatencyHistogram.Snapshot> result = new EnumMap<>(Stage.class);
+        for (Map.Entry<Stage, LatencyHistogram> e : histograms.entrySet()) {
+            if (e.getValue().count() > 0) {
+                result.put(e.getKey(), e.getValue().snapshot());
+            }
+        }
+        return result;
+    }
+}
@@ -1,93 +1,263 @@
 package com.hy.wallet.core;
 
+import com.hy.wallet.model.WalletBatch;
 import com.hy.wallet.model.WalletInfo;
 import com.hy.wallet.services.BTCService;
 import com.hy.wallet.services.ETHService;
+import com.hy.wallet.services.SolanaDeriver;
 import com.hy.wallet.services.SolanaService;
 import com.hy.wallet.services.TronService;
+import com.hy.wallet.utils.Bip32;
+import com.hy.wallet.utils.Bip39Seed;
 import com.hy.wallet.utils.CryptoUtils;
+import com.hy.wallet.utils.SecretArena;
 import org.bitcoinj.crypto.MnemonicCode;
-import org.bitcoinj.wallet.DeterministicSeed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 钱包生成核心类
  * 负责：
  * 1. 使用SecureRandom生成128比特熵并生成12词BIP39助记词
- * 2. 从助记词派生BIP32种子
+ * 2. 从助记词派生BIP32种子：每次调用（批量时整批）的种子、BIP32节点与Solana派生状态分配在同一个
+ *    堆外 {@link SecretArena} 中逐个钱包复用，调用结束时整体清零
  * 3. 调用各链服务生成地址与私钥
+ * 4. 导出各链账户层级扩展公钥（观察钱包使用）
+ * 批量生成/区间派生既可返回 {@link WalletInfo} 列表，也可返回列式的 {@link WalletBatch}。
+ * 可只选择部分链（见 {@link Chain}），未选中的链不派生，其服务类也不会被加载。
+ * 单个钱包生成（generateOne / generateFromMnemonic）可开启低延迟模式，各链派生并发执行，
+ * 分阶段耗时见 {@link #latency()}。
  */
 public class WalletGenerator {
     private static final Logger log = LoggerFactory.getLogger(WalletGenerator.class);
 
+    /** 单个钱包各链并发派生开关的系统属性：true / false / auto（默认，多核时开启） */
+    public static final String CONCURRENT_CHAINS_PROPERTY = "hy.wallet.concurrent-chains";
+
+    /**
+     * 账户层级扩展公钥集合（均为 index 的父级账户节点，不含任何私钥）
+     *
+     * @param btcLegacyXpub BTC Legacy：m/44'/0'/0'
+     * @param btcSegwitZpub BTC Native SegWit：m/84'/0'/0'
+     * @param ethXpub       ETH：m/44'/60'/0'
+     * @param tronXpub      TRON：m/44'/195'/0'
+     */
+    public record AccountXpubs(String btcLegacyXpub, String btcSegwitZpub, String ethXpub, String tronXpub) {
+    }
+
+    /** 需要派生的链 */
+    private final Set<Chain> chains;
+
+    /** 单个钱包生成时各链是否并发派生 */
+    private final boolean concurrentChains;
+
+    /** 单个钱包生成的分阶段耗时 */
+    private final LatencyBreakdown latency = new LatencyBreakdown();
+
+    /**
+     * 派生全部链
+     */
+    public WalletGenerator() {
+        this(EnumSet.allOf(Chain.class));
+    }
+
+    /**
+     * 只派生指定的链，未选中链在钱包信息中对应字段为null
+     * @param chains 需要派生的链（非空）
+     */
+    public WalletGenerator(Set<Chain> chains) {
+        this(chains, false);
+    }
+
+    /**
+     * 只派生指定的链，并指定单个钱包生成时是否并发派生各链
+     * 并发模式下每条链（BTC Legacy/SegWit分开）一个任务，由调用线程与虚拟线程同时执行，
+     * 只影响 generateOne / generateFromMnemonic，批量与区间派生仍逐个顺序执行（批量已按钱包并行更划算）。
+     * @param chains 需要派生的链（非空）
+     * @param concurrentChains 是否并发派生
+     */
+    public WalletGenerator(Set<Chain> chains, boolean concurrentChains) {
+        if (chains.isEmpty()) {
+            throw new IllegalArgumentException("至少需要选择一条链");
+        }
+        this.chains = EnumSet.copyOf(chains);
+        this.concurrentChains = concurrentChains;
+    }
+
+    /**
+     * 从系统属性 {@value #CONCURRENT_CHAINS_PROPERTY} 读取并发派生开关
+     * 未设置或为auto时，仅在可用处理器多于一个时开启（单核上并发只增加线程切换开销）。
+     * @return 是否并发派生
+     */
+    public static boolean concurrentChainsFromSystemProperty() {
+        String value = System.getProperty(CONCURRENT_CHAINS_PROPERTY, "auto").trim();
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (!value.equalsIgnoreCase("auto")) {
+            log.warn("并发派生开关格式错误：{}，按auto处理", value);
+        }
+        return Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    /**
+     * 需要派生的链
+     */
+    public Set<Chain> chains() {
+        return EnumSet.copyOf(chains);
+    }
+
+    /**
+     * 单个钱包生成时各链是否并发派生
+     */
+    public boolean concurrentChains() {
+        return concurrentChains;
+    }
+
+    /**
+     * 单个钱包生成（generateOne / generateFromMnemonic）的分阶段耗时统计
+     */
+    public LatencyBreakdown latency() {
+        return latency;
+    }
+
     /**
      * 生成单个钱包。
      * @return 封装好的钱包信息
      */
     public WalletInfo generateOne() {
-        try {
+        byte[] entropy = new byte[16];
+        try (Secrets secrets = new Secrets()) {
+            long begin = System.nanoTime();
             // 1) 生成128位熵（12词）
-            byte[] entropy = new byte[16];
             SecureRandom sr = CryptoUtils.secureRandom();
             sr.nextBytes(entropy);
 
             // 2) BIP39助记词
             List<String> mnemonic = MnemonicCode.INSTANCE.toMnemonic(entropy);
+            long mnemonicDone = System.nanoTime();
+            latency.record(LatencyBreakdown.Stage.MNEMONIC, mnemonicDone - begin);
 
             // 3) BIP32种子（空口令）
-            DeterministicSeed seed = new DeterministicSeed(mnemonic, null, "", 0L);
-            byte[] seedBytes = seed.getSeedBytes();
+            Bip39Seed.toSeed(mnemonic, "", secrets.seed, 0);
+            latency.record(LatencyBreakdown.Stage.SEED, System.nanoTime() - mnemonicDone);
 
             // 4) 生成各链地址与私钥 (默认index=0)
-            WalletInfo info = new WalletInfo();
-            info.setMnemonic(mnemonic);
-
-            // BTC：Legacy & Native SegWit
-            BTCService.BtcPair legacy = BTCService.generateLegacy(seedBytes, 0);
-            BTCService.BtcPair segwit = BTCService.generateSegwit(seedBytes, 0);
-            info.setBtcLegacyAddress(legacy.address());
-            info.setBtcLegacyWif(legacy.wif());
-            info.setBtcSegwitAddress(segwit.address());
-            info.setBtcSegwitWif(segwit.wif());
-
-            // ETH
-            ETHService.EthPair ethPair = ETHService.generateEth(seedBytes, 0);
-            info.setEthAddress(ethPair.address());
-            info.setEthPrivateHex(ethPair.privateHex());
-
-            // SOL
-            SolanaService.SolPair solPair = SolanaService.generateSol(seedBytes, 0);
-            info.setSolAddress(solPair.address());
-            info.setSolPrivate(solPair.privateEncoded());
-
-            // TRON
-            TronService.TronPair tronPair = TronService.generateTron(seedBytes, 0);
-            info.setTronAddress(tronPair.address());
-            info.setTronPrivateHex(tronPair.privateHex());
-
+            WalletInfo info = buildSingle(mnemonic, secrets, 0);
+            latency.record(LatencyBreakdown.Stage.TOTAL, System.nanoTime() - begin);
             return info;
         } catch (Exception e) {
             log.error("生成钱包失败", e);
             throw new RuntimeException("生成钱包失败: " + e.getMessage(), e);
+        } finally {
+            Arrays.fill(entropy, (byte) 0);
         }
     }
 
     /**
      * 批量生成多个钱包。
+     * 种子写入同一个堆外缓冲区，派生完各链地址后立即被下一个钱包覆盖，结束时随敏感数据区清零。
      * @param count 生成数量
      * @return 钱包列表
      */
     public List<WalletInfo> generateBatch(int count) {
-        List<WalletInfo> list = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            list.add(generateOne());
+        List<WalletInfo> list = new ArrayList<>(Math.max(count, 0));
+        byte[] entropy = new byte[16];
+        try (Secrets secrets = new Secrets()) {
+            SecureRandom sr = CryptoUtils.secureRandom();
+            for (int i = 0; i < count; i++) {
+                // 熵 -> 助记词 -> 种子 -> 各链地址与私钥 (默认index=0)
+                sr.nextBytes(entropy);
+                List<String> mnemonic = MnemonicCode.INSTANCE.toMnemonic(entropy);
+                Bip39Seed.toSeed(mnemonic, "", secrets.seed, 0);
+                list.add(buildWallet(mnemonic, secrets, 0));
+            }
+            return list;
+        } catch (Exception e) {
+            log.error("生成钱包失败", e);
+            throw new RuntimeException("生成钱包失败: " + e.getMessage(), e);
+        } finally {
+            Arrays.fill(entropy, (byte) 0);
+        }
+    }
+
+    /**
+     * 批量生成多个钱包，结果以列式批次保存（只保存熵、原始私钥与地址哈希，不创建字符串）。
+     * 种子、BIP32节点与Solana派生状态在整批共用的堆外敏感数据区中逐个钱包覆盖，结束时清零。
+     * @param count 生成数量
+     * @return 列式批次（含明文私钥，用完应调用 {@link WalletBatch#clear()}）
+     */
+    public WalletBatch generateColumnar(int count) {
+        WalletBatch batch = new WalletBatch(count, chains);
+        byte[] entropy = new byte[WalletBatch.ENTROPY_LENGTH];
+        PendingAddresses pending = new PendingAddresses(batch, count);
+        try (Secrets secrets = new Secrets()) {
+            SecureRandom sr = CryptoUtils.secureRandom();
+            for (int i = 0; i < count; i++) {
+                sr.nextBytes(entropy);
+                Bip39Seed.toSeed(MnemonicCode.INSTANCE.toMnemonic(entropy), "", secrets.seed, 0);
+                int row = batch.add(entropy, 0, 0);
+                deriveInto(batch, row, secrets, 0, pending);
+            }
+            pending.flush();
+            return batch;
+        } catch (Exception e) {
+            batch.clear();
+            log.error("生成钱包失败", e);
+            throw new RuntimeException("生成钱包失败: " + e.getMessage(), e);
+        } finally {
+            Arrays.fill(entropy, (byte) 0);
+        }
+    }
+
+    /**
+     * 使用助记词派生连续索引区间 [start, start+count) 的钱包，结果以列式批次保存（BIP39校验应在调用前完成）。
+     * @param mnemonic 12个英文助记词（规范化为小写）
+     * @param start 起始地址索引
+     * @param count 数量
+     * @return 列式批次，按索引顺序排列（索引见 {@link WalletBatch#indexColumn()}）
+     */
+    public WalletBatch deriveRangeColumnar(List<String> mnemonic, int start, int count) {
+        if (start < 0 || count <= 0 || (long) start + count > (1L << 31)) {
+            throw new IllegalArgumentException("索引区间无效：start=" + start + ", count=" + count);
+        }
+        WalletBatch batch = new WalletBatch(count, chains);
+        byte[] entropy = null;
+        try (Secrets secrets = new Secrets()) {
+            entropy = MnemonicCode.INSTANCE.toEntropy(mnemonic);
+            Bip39Seed.toSeed(mnemonic, "", secrets.seed, 0);
+            for (int i = 0; i < count; i++) {
+                batch.add(entropy, 0, start + i);
+            }
+            PendingAddresses pending = new PendingAddresses(batch, count);
+            for (int i = 0; i < count; i++) {
+                deriveSecp256k1Into(batch, i, secrets, start + i, pending);
+            }
+            pending.flush();
+            if (chains.contains(Chain.SOL)) {
+                deriveSolanaRangeInto(batch, secrets, start, count, 0);
+            }
+            return batch;
+        } catch (Exception e) {
+            batch.clear();
+            log.error("批量派生钱包失败", e);
+            throw new RuntimeException("批量派生钱包失败: " + e.getMessage(), e);
+        } finally {
+            if (entropy != null) {
+                Arrays.fill(entropy, (byte) 0);
+            }
         }
-        return list;
     }
 
     /**
@@ -106,41 +276,339 @@ public class WalletGenerator {
      * @return 钱包信息
      */
     public WalletInfo generateFromMnemonic(List<String> mnemonic, int index) {
-        try {
+        try (Secrets secrets = new Secrets()) {
+            long begin = System.nanoTime();
             // BIP32种子（空口令）
-            DeterministicSeed seed = new DeterministicSeed(mnemonic, null, "", 0L);
-            byte[] seedBytes = seed.getSeedBytes();
-
-            WalletInfo info = new WalletInfo();
-            info.setMnemonic(mnemonic);
-
-            // BTC：Legacy & Native SegWit
-            BTCService.BtcPair legacy = BTCService.generateLegacy(seedBytes, index);
-            BTCService.BtcPair segwit = BTCService.generateSegwit(seedBytes, index);
-            info.setBtcLegacyAddress(legacy.address());
-            info.setBtcLegacyWif(legacy.wif());
-            info.setBtcSegwitAddress(segwit.address());
-            info.setBtcSegwitWif(segwit.wif());
-
-            // ETH
-            ETHService.EthPair ethPair = ETHService.generateEth(seedBytes, index);
-            info.setEthAddress(ethPair.address());
-            info.setEthPrivateHex(ethPair.privateHex());
-
-            // SOL
-            SolanaService.SolPair solPair = SolanaService.generateSol(seedBytes, index);
-            info.setSolAddress(solPair.address());
-            info.setSolPrivate(solPair.privateEncoded());
-
-            // TRON
-            TronService.TronPair tronPair = TronService.generateTron(seedBytes, index);
-            info.setTronAddress(tronPair.address());
-            info.setTronPrivateHex(tronPair.privateHex());
-
+            Bip39Seed.toSeed(mnemonic, "", secrets.seed, 0);
+            latency.record(LatencyBreakdown.Stage.SEED, System.nanoTime() - begin);
+            WalletInfo info = buildSingle(mnemonic, secrets, index);
+            latency.record(LatencyBreakdown.Stage.TOTAL, System.nanoTime() - begin);
             return info;
         } catch (Exception e) {
             log.error("基于助记词生成钱包失败", e);
             throw new RuntimeException("基于助记词生成钱包失败: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * 使用助记词派生连续索引区间 [start, start+count) 的钱包（BIP39校验应在调用前完成）。
+     * 种子只计算一次，适合大区间派生。
+     * @param mnemonic 12个英文助记词（规范化为小写）
+     * @param start 起始地址索引
+     * @param count 数量
+     * @return 钱包列表，按索引顺序排列
+     */
+    public List<WalletInfo> generateRange(List<String> mnemonic, int start, int count) {
+        if (start < 0 || count <= 0 || (long) start + count > (1L << 31)) {
+            throw new IllegalArgumentException("索引区间无效：start=" + start + ", count=" + count);
+        }
+        List<WalletInfo> list = new ArrayList<>(count);
+        try (Secrets secrets = new Secrets()) {
+            Bip39Seed.toSeed(mnemonic, "", secrets.seed, 0);
+            for (int i = 0; i < count; i++) {
+                list.add(buildWallet(mnemonic, secrets, start + i));
+            }
+            return list;
+        } catch (Exception e) {
+            log.error("批量派生钱包失败", e);
+            throw new RuntimeException("批量派生钱包失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 导出助记词对应的各链账户层级扩展公钥（BIP39校验应在调用前完成）。
+     * 导出结果可交给观察钱包服务派生地址，而无需再接触种子或私钥。
+     * @param mnemonic 12个英文助记词（规范化为小写）
+     * @return 各链账户扩展公钥
+     */
+    public AccountXpubs exportAccountXpubs(List<String> mnemonic) {
+        try (Secrets secrets = new Secrets()) {
+            Bip39Seed.toSeed(mnemonic, "", secrets.seed, 0);
+            Bip32 node = secrets.node();
+            return new AccountXpubs(
+                    BTCService.legacyAccountXpub(node, secrets.seed),
+                    BTCService.segwitAccountZpub(node, secrets.seed),
+                    ETHService.accountXpub(node, secrets.seed),
+                    TronService.accountXpub(node, secrets.seed));
+        } catch (Exception e) {
+            log.error("导出账户扩展公钥失败", e);
+            throw new RuntimeException("导出账户扩展公钥失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 使用助记词批量派生连续账户区间的Solana地址（BIP39校验应在调用前完成）。
+     * @param mnemonic 12个英文助记词（规范化为小写）
+     * @param start 起始账户索引
+     * @param count 数量
+     * @param style 路径约定：m/44'/501'/i'/0' 或 m/44'/501'/i'
+     * @return 地址与私钥列表，按索引顺序排列
+     */
+    public List<SolanaService.SolPair> generateSolRange(List<String> mnemonic, int start, int count,
+                                                        SolanaDeriver.PathStyle style) {
+        try (Secrets secrets = new Secrets()) {
+            Bip39Seed.toSeed(mnemonic, "", secrets.seed, 0);
+            return SolanaService.generateSolRange(secrets.sol(), secrets.seed, start, count, style);
+        } catch (Exception e) {
+            log.error("批量派生Solana地址失败", e);
+            throw new RuntimeException("批量派生Solana地址失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 由种子生成指定索引的选中各链地址与私钥
+     * 每条链的服务调用放在独立方法中，未选中链的服务类在运行期不会被解析与加载。
+     */
+    private WalletInfo buildWallet(List<String> mnemonic, Secrets secrets, int index) {
+        WalletInfo info = new WalletInfo();
+        info.setMnemonic(mnemonic);
+        if (chains.contains(Chain.BTC)) {
+            deriveBtc(info, secrets.node(), secrets.seed, index);
+        }
+        if (chains.contains(Chain.ETH)) {
+            deriveEth(info, secrets.node(), secrets.seed, index);
+        }
+        if (chains.contains(Chain.SOL)) {
+            deriveSolana(info, secrets.sol(), secrets.seed, index);
+        }
+        if (chains.contains(Chain.TRON)) {
+            deriveTron(info, secrets.node(), secrets.seed, index);
+        }
+        return info;
+    }
+
+    /**
+     * 单个钱包：由种子生成指定索引的选中各链地址与私钥，记录各链耗时
+     * 并发模式下各任务写入钱包信息的不同字段，全部任务结束后才返回（敏感数据区随后由调用方关闭）；
+     * 每个secp256k1任务使用各自的节点（在派发前从敏感数据区分配），只读共享种子。
+     */
+    private WalletInfo buildSingle(List<String> mnemonic, Secrets secrets, int index) {
+        WalletInfo info = new WalletInfo();
+        info.setMnemonic(mnemonic);
+        ByteBuffer seed = secrets.seed;
+        List<ChainFork.Task> tasks = new ArrayList<>(5);
+        if (chains.contains(Chain.BTC)) {
+            Bip32 legacy = secrets.node();
+            Bip32 segwit = concurrentChains ? secrets.newNode() : legacy;
+            tasks.add(new ChainFork.Task(LatencyBreakdown.Stage.BTC_LEGACY, () -> deriveBtcLegacy(info, legacy, seed, index)));
+            tasks.add(new ChainFork.Task(LatencyBreakdown.Stage.BTC_SEGWIT, () -> deriveBtcSegwit(info, segwit, seed, index)));
+        }
+        if (chains.contains(Chain.ETH)) {
+            Bip32 node = concurrentChains ? secrets.newNode() : secrets.node();
+            tasks.add(new ChainFork.Task(LatencyBreakdown.Stage.ETH, () -> deriveEth(info, node, seed, index)));
+        }
+        if (chains.contains(Chain.SOL)) {
+            SolanaDeriver sol = secrets.sol();
+            tasks.add(new ChainFork.Task(LatencyBreakdown.Stage.SOL, () -> deriveSolana(info, sol, seed, index)));
+        }
+        if (chains.contains(Chain.TRON)) {
+            Bip32 node = concurrentChains ? secrets.newNode() : secrets.node();
+            tasks.add(new ChainFork.Task(LatencyBreakdown.Stage.TRON, () -> deriveTron(info, node, seed, index)));
+        }
+        long begin = System.nanoTime();
+        if (concurrentChains && tasks.size() > 1) {
+            ChainFork.runConcurrent(tasks, latency);
+        } else {
+            ChainFork.runSequential(tasks, latency);
+        }
+        latency.record(LatencyBreakdown.Stage.CHAINS, System.nanoTime() - begin);
+        return info;
+    }
+
+    /**
+     * 由种子派生选中各链并写入列式批次的指定行
+     */
+    private void deriveInto(WalletBatch batch, int row, Secrets secrets, int index, PendingAddresses pending) {
+        deriveSecp256k1Into(batch, row, secrets, index, pending);
+        if (chains.contains(Chain.SOL)) {
+            deriveSolanaRangeInto(batch, secrets, index, 1, row);
+        }
+    }
+
+    /**
+     * 由种子派生Solana账户区间 [start, start+count) 并写入列式批次自firstRow起的连续行
+     */
+    private static void deriveSolanaRangeInto(WalletBatch batch, Secrets secrets, int start, int count, int firstRow) {
+        SolanaService.deriveRangeInto(secrets.sol(), secrets.seed, start, count, batch, firstRow);
+    }
+
+    /**
+     * 由种子派生选中的secp256k1各链并写入列式批次的指定行（ETH/TRON地址哈希由pending成组计算）
+     */
+    private void deriveSecp256k1Into(WalletBatch batch, int row, Secrets secrets, int index, PendingAddresses pending) {
+        if (chains.contains(Chain.BTC)) {
+            BTCService.deriveInto(secrets.node(), secrets.seed, index, batch, row);
+        }
+        pending.derive(row, secrets, index);
+    }
+
+    /**
+     * 一次生成调用（批量时为整批）的敏感数据：种子缓冲区、BIP32节点与Solana派生器都分配在同一个堆外
+     * {@link SecretArena} 中，逐个钱包复用；close时清零HMAC状态并关闭敏感数据区（清零全部slab）。
+     * 节点与派生器按需创建，未选中链的派生器类不会被加载。
+     */
+    private static final class Secrets implements AutoCloseable {
+        private final SecretArena arena = new SecretArena();
+        private final List<Bip32> nodes = new ArrayList<>(1);
+        final ByteBuffer seed = arena.allocate(Bip39Seed.SEED_LENGTH);
+        private SolanaDeriver sol;
+
+        /** 共用的BIP32节点 */
+        Bip32 node() {
+            return nodes.isEmpty() ? newNode() : nodes.get(0);
+        }
+
+        /** 另分配一个BIP32节点（供并发任务各自使用） */
+        Bip32 newNode() {
+            Bip32 node = new Bip32(arena);
+            nodes.add(node);
+            return node;
+        }
+
+        /** 共用的Solana派生器 */
+        SolanaDeriver sol() {
+            if (sol == null) {
+                sol = new SolanaDeriver(arena);
+            }
+            return sol;
+        }
+
+        @Override
+        public void close() {
+            for (Bip32 node : nodes) {
+                node.wipe();
+            }
+            if (sol != null) {
+                sol.wipe();
+            }
+            arena.close();
+        }
+    }
+
+    /**
+     * 列式派生中ETH/TRON公钥的暂存区：行号连续递增地写入，每攒满 {@value #BLOCK} 行
+     * 用 {@link com.hy.wallet.utils.MultiHash} 批量计算一次Keccak地址哈希（公钥不含秘密，无需清零）
+     */
+    private static final class PendingAddresses {
+        private static final int BLOCK = 256;
+
+        private final WalletBatch batch;
+        private final byte[] ethPubKeys;
+        private final byte[] tronPubKeys;
+        private int firstRow;
+        private int pending;
+
+        PendingAddresses(WalletBatch batch, int count) {
+            int rows = Math.min(BLOCK, count);
+            this.batch = batch;
+            this.ethPubKeys = batch.has(Chain.ETH) ? new byte[rows * ETHService.PUBLIC_KEY_LENGTH] : null;
+            this.tronPubKeys = batch.has(Chain.TRON) ? new byte[rows * ETHService.PUBLIC_KEY_LENGTH] : null;
+        }
+
+        void derive(int row, Secrets secrets, int index) {
+            if (ethPubKeys == null && tronPubKeys == null) {
+                return;
+            }
+            if (pending == 0) {
+                firstRow = row;
+            }
+            int pubOff = pending * ETHService.PUBLIC_KEY_LENGTH;
+            if (ethPubKeys != null) {
+                ETHService.deriveKeyInto(secrets.node(), secrets.seed, index, batch, row, ethPubKeys, pubOff);
+            }
+            if (tronPubKeys != null) {
+                TronService.deriveKeyInto(secrets.node(), secrets.seed, index, batch, row, tronPubKeys, pubOff);
+            }
+            if (++pending == BLOCK) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending == 0) {
+                return;
+            }
+            if (ethPubKeys != null) {
+                ETHService.hashAddressesInto(ethPubKeys, pending, batch, firstRow);
+            }
+            if (tronPubKeys != null) {
+                TronService.hashAddressesInto(tronPubKeys, pending, batch, firstRow);
+            }
+            pending = 0;
+        }
+    }
+
+    /**
+     * 生成步骤：由种子派生secp256k1各链（BTC Legacy/SegWit、ETH、TRON）的地址与私钥并写入钱包信息
+     * @param info 钱包信息
+     * @param seedBytes BIP39种子
+     * @param index 地址索引
+     */
+    public static void deriveSecp256k1Chains(WalletInfo info, byte[] seedBytes, int index) {
+        Bip32 node = new Bip32();
+        try {
+            ByteBuffer seed = ByteBuffer.wrap(seedBytes);
+            deriveBtc(info, node, seed, index);
+            deriveEth(info, node, seed, index);
+            deriveTron(info, node, seed, index);
+        } finally {
+            node.wipe();
+        }
+    }
+
+    /** BTC：Legacy & Native SegWit */
+    private static void deriveBtc(WalletInfo info, Bip32 node, ByteBuffer seed, int index) {
+        deriveBtcLegacy(info, node, seed, index);
+        deriveBtcSegwit(info, node, seed, index);
+    }
+
+    /** BTC Legacy */
+    private static void deriveBtcLegacy(WalletInfo info, Bip32 node, ByteBuffer seed, int index) {
+        BTCService.BtcPair legacy = BTCService.generateLegacy(node, seed, index);
+        info.setBtcLegacyAddress(legacy.address());
+        info.setBtcLegacyWif(legacy.wif());
+    }
+
+    /** BTC Native SegWit */
+    private static void deriveBtcSegwit(WalletInfo info, Bip32 node, ByteBuffer seed, int index) {
+        BTCService.BtcPair segwit = BTCService.generateSegwit(node, seed, index);
+        info.setBtcSegwitAddress(segwit.address());
+        info.setBtcSegwitWif(segwit.wif());
+    }
+
+    /** ETH */
+    private static void deriveEth(WalletInfo info, Bip32 node, ByteBuffer seed, int index) {
+        ETHService.EthPair ethPair = ETHService.generateEth(node, seed, index);
+        info.setEthAddress(ethPair.address());
+        info.setEthPrivateHex(ethPair.privateHex());
+    }
+
+    /** TRON */
+    private static void deriveTron(WalletInfo info, Bip32 node, ByteBuffer seed, int index) {
+        TronService.TronPair tronPair = TronService.generateTron(node, seed, index);
+        info.setTronAddress(tronPair.address());
+        info.setTronPrivateHex(tronPair.privateHex());
+    }
+
+    /**
+     * 生成步骤：由种子派生Solana（Ed25519）地址与私钥并写入钱包信息
+     * @param info 钱包信息
+     * @param seedBytes BIP39种子
+     * @param index 账户索引
+     */
+    public static void deriveSolana(WalletInfo info, byte[] seedBytes, int index) {
+        SolanaDeriver deriver = new SolanaDeriver();
+        try {
+            deriveSolana(info, deriver, ByteBuffer.wrap(seedBytes), index);
+        } finally {
+            deriver.wipe();
+        }
+    }
+
+    /** SOL */
+    private static void deriveSolana(WalletInfo info, SolanaDeriver deriver, ByteBuffer seed, int index) {
+        SolanaService.SolPair solPair = SolanaService.generateSol(deriver, seed, index);
+        info.setSolAddress(solPair.address());
+        info.setSolPrivate(solPair.privateEncoded());
+    }
 }
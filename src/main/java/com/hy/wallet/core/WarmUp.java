@@ -0,0 +1,95 @@
+package com.hy.wallet.core;
+
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 后台预热
+ * 交互模式下用户还在阅读菜单时，以最低优先级的守护线程使用公开测试助记词反复执行
+ * “种子 → 各链派生 → 校验”，提前完成类加载与JIT编译，使第一个真实钱包更快返回。
+ * 预热只使用固定的BIP39测试向量，不生成也不保留任何真实密钥材料。
+ */
+public final class WarmUp {
+    private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+    /** 开启预热的系统属性：-Dhy.wallet.warmup=true，或直接指定轮数，如 -Dhy.wallet.warmup=32 */
+    public static final String PROPERTY = "hy.wallet.warmup";
+
+    /** 默认预热轮数 */
+    public static final int DEFAULT_ROUNDS = 16;
+
+    /** BIP39公开测试向量（全零熵） */
+    private static final List<String> TEST_MNEMONIC = Arrays.asList(
+            "abandon", "abandon", "abandon", "abandon", "abandon", "abandon",
+            "abandon", "abandon", "abandon", "abandon", "abandon", "about");
+
+    private WarmUp() {
+    }
+
+    /**
+     * 按系统属性 {@value #PROPERTY} 决定是否启动预热
+     *
+     * @param generator 交互模式使用的生成器（预热其选中的链）
+     * @return 预热线程，未开启时返回null
+     */
+    public static Thread startIfEnabled(WalletGenerator generator) {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank() || value.equalsIgnoreCase("false")) {
+            return null;
+        }
+        int rounds;
+        if (value.equalsIgnoreCase("true")) {
+            rounds = DEFAULT_ROUNDS;
+        } else {
+            try {
+                rounds = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn("预热轮数格式错误：{}，使用默认值 {}", value, DEFAULT_ROUNDS);
+                rounds = DEFAULT_ROUNDS;
+            }
+        }
+        return rounds > 0 ? start(generator, rounds) : null;
+    }
+
+    /**
+     * 启动预热守护线程
+     *
+     * @param generator 生成器
+     * @param rounds    预热轮数（每轮派生一个索引并校验）
+     * @return 预热线程
+     */
+    public static Thread start(WalletGenerator generator, int rounds) {
+        Thread t = new Thread(() -> run(generator, rounds), "warm-up");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        t.start();
+        return t;
+    }
+
+    /**
+     * 在当前线程执行预热
+     *
+     * @param generator 生成器
+     * @param rounds    预热轮数
+     */
+    public static void run(WalletGenerator generator, int rounds) {
+        long begin = System.nanoTime();
+        try {
+            for (int i = 0; i < rounds; i++) {
+                WalletInfo wallet = generator.generateFromMnemonic(TEST_MNEMONIC, i);
+                if (!Validator.passes(wallet)) {
+                    log.warn("预热钱包校验未通过（索引 {}）", i);
+                }
+            }
+            log.debug("预热完成：{} 轮，耗时 {} 毫秒", rounds, (System.nanoTime() - begin) / 1_000_000);
+        } catch (RuntimeException e) {
+            // 预热失败不影响正常使用
+            log.warn("预热失败：{}", e.getMessage());
+        }
+    }
+}
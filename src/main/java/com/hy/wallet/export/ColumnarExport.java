@@ -0,0 +1,124 @@
+package com.hy.wallet.export;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.job.WalletCsv;
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.validation.Validator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 列式批量导出：多个线程按块以 {@link WalletGenerator#generateColumnar} 生成随机钱包，
+ * 由 {@link WalletCsv#writeRows} 直接从列式批次写出CSV行，不为每个钱包创建 WalletInfo。
+ * 块内各行连续写出，块之间的顺序不固定（随机钱包无先后关系）。
+ */
+public final class ColumnarExport {
+
+    /** 默认每块钱包数 */
+    public static final int DEFAULT_CHUNK = 256;
+
+    /**
+     * 导出结果
+     *
+     * @param wallets      写出的钱包数
+     * @param elapsedNanos 耗时
+     */
+    public record Result(long wallets, long elapsedNanos) {
+
+        /** 每秒写出的钱包数 */
+        public double walletsPerSecond() {
+            return elapsedNanos == 0 ? 0 : wallets * 1e9 / elapsedNanos;
+        }
+    }
+
+    private ColumnarExport() {
+    }
+
+    /**
+     * 生成count个随机钱包并按 {@link WalletCsv} 格式写出（含表头）
+     *
+     * @param generator 钱包生成器
+     * @param count     钱包数
+     * @param threads   生成线程数
+     * @param chunk     每块钱包数
+     * @param validate  是否对每个钱包执行 {@link Validator} 全量校验（未通过时中止导出）
+     * @param out       输出（写入时加锁，块内各行连续）
+     * @return 导出结果
+     */
+    public static Result generate(WalletGenerator generator, long count, int threads, int chunk, boolean validate,
+                                  Writer out) throws IOException, InterruptedException {
+        if (count <= 0 || threads <= 0 || chunk <= 0) {
+            throw new IllegalArgumentException("导出参数无效：count=" + count + ", threads=" + threads
+                    + ", chunk=" + chunk);
+        }
+        out.write(WalletCsv.HEADER);
+        out.write('\n');
+        AtomicLong next = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long begin = System.nanoTime();
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    exportLoop(generator, count, chunk, validate, next, failure, out);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "export-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Throwable f = failure.get();
+        if (f instanceof IOException e) {
+            throw e;
+        }
+        if (f instanceof RuntimeException e) {
+            throw e;
+        }
+        if (f != null) {
+            throw new IOException("导出失败: " + f.getMessage(), f);
+        }
+        out.flush();
+        return new Result(count, System.nanoTime() - begin);
+    }
+
+    private static void exportLoop(WalletGenerator generator, long count, int chunk, boolean validate,
+                                   AtomicLong next, AtomicReference<Throwable> failure, Writer out)
+            throws IOException {
+        StringBuilder rows = new StringBuilder();
+        while (failure.get() == null) {
+            long start = next.getAndAdd(chunk);
+            if (start >= count) {
+                return;
+            }
+            int n = (int) Math.min(chunk, count - start);
+            WalletBatch batch = generator.generateColumnar(n);
+            try {
+                if (validate) {
+                    WalletBatch.Row row = batch.row(0);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (!Validator.passes(row.at(i))) {
+                            throw new IllegalStateException("钱包校验未通过：" + row.getEthAddress());
+                        }
+                    }
+                }
+                rows.setLength(0);
+                WalletCsv.writeRows(batch, rows);
+                synchronized (out) {
+                    out.append(rows);
+                }
+            } finally {
+                batch.clear();
+                rows.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.hy.wallet.export;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * 加密导出容器格式（.hyx）
+ * <pre>
+ * 文件头（36字节）：magic "HYWE" | 版本(1) | KDF(1，1=PBKDF2-HMAC-SHA256) | 保留(2)
+ *                  | KDF迭代次数(4) | 盐(16) | nonce前缀(4) | 分块明文上限(4)
+ * 数据块 0..n-1：   AES-256-GCM(Deflate(分块明文))，含16字节认证标签，依次紧密排列
+ * 索引：           AES-256-GCM(块数(4) | 每块: 文件偏移(8) 密文长度(4) 明文长度(4) 记录数(4))
+ * 文件尾（16字节）：索引偏移(8) | 索引密文长度(4) | magic "HYWI"
+ * </pre>
+ * 密钥由口令经PBKDF2派生（每个文件随机盐）。第k块的nonce为 nonce前缀 || k（8字节大端），
+ * 索引使用 k = 2^64-1；文件头作为每次加密的附加认证数据，任何篡改、截断或块重排都会导致解密失败。
+ * 分块只在记录（行）边界切分，任意一块都可单独解密得到完整记录。
+ */
+final class SealedFormat {
+
+    static final byte[] MAGIC = "HYWE".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] TRAILER_MAGIC = "HYWI".getBytes(StandardCharsets.US_ASCII);
+    static final byte VERSION = 1;
+    static final byte KDF_PBKDF2_SHA256 = 1;
+    static final int HEADER_LENGTH = 36;
+    static final int TRAILER_LENGTH = 16;
+    static final int SALT_LENGTH = 16;
+    static final int NONCE_PREFIX_LENGTH = 4;
+    static final int TAG_BITS = 128;
+    static final int TAG_LENGTH = TAG_BITS / 8;
+    static final int INDEX_ENTRY_LENGTH = 20;
+    static final long INDEX_COUNTER = -1L;
+
+    /**
+     * 文件头字段
+     */
+    record Header(int iterations, byte[] salt, byte[] noncePrefix, int chunkSize) {
+
+        byte[] encode() {
+            ByteBuffer b = ByteBuffer.allocate(HEADER_LENGTH);
+            b.put(MAGIC).put(VERSION).put(KDF_PBKDF2_SHA256).putShort((short) 0)
+                    .putInt(iterations).put(salt).put(noncePrefix).putInt(chunkSize);
+            return b.array();
+        }
+
+        static Header decode(byte[] bytes) {
+            ByteBuffer b = ByteBuffer.wrap(bytes);
+            byte[] magic = new byte[MAGIC.length];
+            b.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IllegalArgumentException("不是加密导出文件（文件头标识不符）");
+            }
+            byte version = b.get();
+            byte kdf = b.get();
+            b.getShort();
+            if (version != VERSION || kdf != KDF_PBKDF2_SHA256) {
+                throw new IllegalArgumentException("不支持的加密导出文件版本：" + version + "/" + kdf);
+            }
+            int iterations = b.getInt();
+            byte[] salt = new byte[SALT_LENGTH];
+            b.get(salt);
+            byte[] prefix = new byte[NONCE_PREFIX_LENGTH];
+            b.get(prefix);
+            int chunkSize = b.getInt();
+            if (iterations <= 0 || chunkSize <= 0) {
+                throw new IllegalArgumentException("加密导出文件头已损坏");
+            }
+            return new Header(iterations, salt, prefix, chunkSize);
+        }
+    }
+
+    /**
+     * 索引项
+     *
+     * @param offset       密文在文件中的偏移
+     * @param cipherLength 密文长度（含认证标签）
+     * @param plainLength  解压后的明文长度
+     * @param records      块内记录（行）数
+     */
+    record IndexEntry(long offset, int cipherLength, int plainLength, int records) {
+    }
+
+    private SealedFormat() {
+    }
+
+    /**
+     * 由口令派生AES-256密钥
+     */
+    static SecretKey deriveKey(char[] password, byte[] salt, int iterations) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, 256);
+        byte[] raw = null;
+        try {
+            raw = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+            return new SecretKeySpec(raw, "AES");
+        } finally {
+            spec.clearPassword();
+            if (raw != null) {
+                Arrays.fill(raw, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * 第counter块的GCM参数：nonce前缀 || counter
+     */
+    static GCMParameterSpec nonce(byte[] prefix, long counter) {
+        byte[] iv = ByteBuffer.allocate(NONCE_PREFIX_LENGTH + 8).put(prefix).putLong(counter).array();
+        return new GCMParameterSpec(TAG_BITS, iv);
+    }
+
+    /**
+     * 初始化AES-GCM（文件头作为附加认证数据）
+     */
+    static Cipher cipher(int mode, SecretKey key, byte[] prefix, long counter, byte[] header)
+            throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, key, nonce(prefix, counter));
+        cipher.updateAAD(header);
+        return cipher;
+    }
+}
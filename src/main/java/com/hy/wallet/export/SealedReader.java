@@ -0,0 +1,269 @@
+package com.hy.wallet.export;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 加密导出读取器（格式见 {@link SealedFormat}）
+ * 打开时只读取文件头、文件尾与加密索引（口令错误或索引被篡改在此时即可发现），
+ * 之后按索引定位，可单独解密任意第k块，也可按块序流式解密或校验整个文件，内存占用只与单块大小有关。
+ * 认证失败、长度不符、块数或记录数与索引不一致都以 {@link IOException} 报告。
+ */
+public final class SealedReader implements Closeable {
+
+    /**
+     * 全文件校验结果
+     *
+     * @param chunks     块数
+     * @param records    记录（行）数
+     * @param plainBytes 明文总字节数
+     * @param fileBytes  加密文件字节数
+     */
+    public record Verification(int chunks, long records, long plainBytes, long fileBytes) {
+    }
+
+    private final FileChannel channel;
+    private final SecretKey key;
+    private final byte[] header;
+    private final byte[] noncePrefix;
+    private final SealedFormat.IndexEntry[] index;
+    private final long fileBytes;
+
+    private SealedReader(FileChannel channel, SecretKey key, byte[] header, byte[] noncePrefix,
+                         SealedFormat.IndexEntry[] index, long fileBytes) {
+        this.channel = channel;
+        this.key = key;
+        this.header = header;
+        this.noncePrefix = noncePrefix;
+        this.index = index;
+        this.fileBytes = fileBytes;
+    }
+
+    /**
+     * 打开加密导出文件并解密索引
+     *
+     * @param file     文件
+     * @param password 口令（不会被保留，调用方负责清零）
+     * @return 读取器
+     */
+    public static SealedReader open(Path file, char[] password) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size < SealedFormat.HEADER_LENGTH + SealedFormat.TRAILER_LENGTH) {
+                throw new IOException("加密导出文件不完整：" + size + " 字节");
+            }
+            byte[] header = readFully(ch, 0, SealedFormat.HEADER_LENGTH);
+            SealedFormat.Header h;
+            try {
+                h = SealedFormat.Header.decode(header);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            ByteBuffer trailer = ByteBuffer.wrap(readFully(ch, size - SealedFormat.TRAILER_LENGTH,
+                    SealedFormat.TRAILER_LENGTH));
+            long indexOffset = trailer.getLong();
+            int indexLength = trailer.getInt();
+            byte[] magic = new byte[SealedFormat.TRAILER_MAGIC.length];
+            trailer.get(magic);
+            if (!Arrays.equals(magic, SealedFormat.TRAILER_MAGIC)
+                    || indexOffset < SealedFormat.HEADER_LENGTH || indexLength < SealedFormat.TAG_LENGTH + 4
+                    || indexOffset + indexLength != size - SealedFormat.TRAILER_LENGTH) {
+                throw new IOException("加密导出文件尾已损坏或文件被截断");
+            }
+            SecretKey key = SealedFormat.deriveKey(password, h.salt(), h.iterations());
+            byte[] plainIndex;
+            try {
+                plainIndex = SealedFormat.cipher(Cipher.DECRYPT_MODE, key, h.noncePrefix(),
+                        SealedFormat.INDEX_COUNTER, header).doFinal(readFully(ch, indexOffset, indexLength));
+            } catch (AEADBadTagException e) {
+                throw new IOException("索引解密失败：口令错误或文件已被篡改", e);
+            }
+            SealedReader reader = new SealedReader(ch, key, header, h.noncePrefix(),
+                    parseIndex(plainIndex, indexOffset), size);
+            ch = null;
+            return reader;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("解密初始化失败", e);
+        } finally {
+            if (ch != null) {
+                ch.close();
+            }
+        }
+    }
+
+    /**
+     * 解析并检查索引：各块从文件头之后依次紧密排列，最后一块结束于索引起点
+     */
+    private static SealedFormat.IndexEntry[] parseIndex(byte[] plain, long indexOffset) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(plain);
+        int count = b.getInt();
+        if (count < 0 || b.remaining() != (long) count * SealedFormat.INDEX_ENTRY_LENGTH) {
+            throw new IOException("索引格式错误");
+        }
+        SealedFormat.IndexEntry[] entries = new SealedFormat.IndexEntry[count];
+        long expected = SealedFormat.HEADER_LENGTH;
+        for (int i = 0; i < count; i++) {
+            SealedFormat.IndexEntry e = new SealedFormat.IndexEntry(b.getLong(), b.getInt(), b.getInt(), b.getInt());
+            if (e.offset() != expected || e.cipherLength() < SealedFormat.TAG_LENGTH || e.plainLength() < 0
+                    || e.records() < 0) {
+                throw new IOException("索引第 " + i + " 项无效");
+            }
+            expected += e.cipherLength();
+            entries[i] = e;
+        }
+        if (expected != indexOffset) {
+            throw new IOException("索引与数据区长度不一致");
+        }
+        return entries;
+    }
+
+    private static byte[] readFully(FileChannel ch, long at, int length) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(length);
+        long pos = at;
+        while (b.hasRemaining()) {
+            int n = ch.read(b, pos);
+            if (n < 0) {
+                throw new IOException("加密导出文件被截断");
+            }
+            pos += n;
+        }
+        return b.array();
+    }
+
+    /** 块数 */
+    public int chunks() {
+        return index.length;
+    }
+
+    /** 第k块的记录（行）数 */
+    public int records(int chunk) {
+        return index[checkChunk(chunk)].records();
+    }
+
+    /** 索引记录的总记录（行）数 */
+    public long records() {
+        long total = 0;
+        for (SealedFormat.IndexEntry e : index) {
+            total += e.records();
+        }
+        return total;
+    }
+
+    private int checkChunk(int chunk) {
+        if (chunk < 0 || chunk >= index.length) {
+            throw new IllegalArgumentException("块序号超出范围：" + chunk + "（共 " + index.length + " 块）");
+        }
+        return chunk;
+    }
+
+    /**
+     * 解密并解压第k块
+     *
+     * @param chunk 块序号（从0开始）
+     * @return 明文（完整的若干行），调用方用完后应清零
+     */
+    public byte[] readChunk(int chunk) throws IOException {
+        SealedFormat.IndexEntry e = index[checkChunk(chunk)];
+        byte[] compressed = null;
+        Inflater inflater = new Inflater();
+        try {
+            Cipher cipher = SealedFormat.cipher(Cipher.DECRYPT_MODE, key, noncePrefix, chunk, header);
+            compressed = cipher.doFinal(readFully(channel, e.offset(), e.cipherLength()));
+            byte[] plain = new byte[e.plainLength()];
+            inflater.setInput(compressed);
+            int n = 0;
+            while (n < plain.length && !inflater.finished()) {
+                int r = inflater.inflate(plain, n, plain.length - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += r;
+            }
+            if (n != plain.length || !inflater.finished()) {
+                Arrays.fill(plain, (byte) 0);
+                throw new IOException("第 " + chunk + " 块解压后长度与索引不符");
+            }
+            return plain;
+        } catch (AEADBadTagException ex) {
+            throw new IOException("第 " + chunk + " 块认证失败：文件已被篡改", ex);
+        } catch (GeneralSecurityException ex) {
+            throw new IOException("第 " + chunk + " 块解密失败", ex);
+        } catch (DataFormatException ex) {
+            throw new IOException("第 " + chunk + " 块解压失败", ex);
+        } finally {
+            inflater.end();
+            if (compressed != null) {
+                Arrays.fill(compressed, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * 解密第k块并写出
+     */
+    public void decryptChunkTo(int chunk, OutputStream out) throws IOException {
+        byte[] plain = readChunk(chunk);
+        try {
+            out.write(plain);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /**
+     * 按块序流式解密整个文件并写出
+     */
+    public void decryptTo(OutputStream out) throws IOException {
+        for (int k = 0; k < index.length; k++) {
+            decryptChunkTo(k, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * 逐块解密校验（不输出明文）：认证标签、解压长度与每块记录数均须与索引一致
+     *
+     * @return 校验结果
+     */
+    public Verification verify() throws IOException {
+        long records = 0;
+        long plainBytes = 0;
+        for (int k = 0; k < index.length; k++) {
+            byte[] plain = readChunk(k);
+            try {
+                int lines = 0;
+                for (byte b : plain) {
+                    if (b == '\n') {
+                        lines++;
+                    }
+                }
+                if (lines != index[k].records()) {
+                    throw new IOException("第 " + k + " 块记录数 " + lines + " 与索引 " + index[k].records() + " 不符");
+                }
+                records += lines;
+                plainBytes += plain.length;
+            } finally {
+                Arrays.fill(plain, (byte) 0);
+            }
+        }
+        return new Verification(index.length, records, plainBytes, fileBytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,371 @@
+package com.hy.wallet.export;
+
+import com.hy.wallet.job.SegmentFiles;
+import com.hy.wallet.utils.CryptoUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * 加密导出写入器（格式见 {@link SealedFormat}）
+ * 以 {@link Writer} 形式接收按行组织的记录，在行边界处按目标大小切分成块；
+ * 每块的压缩（Deflater）与AES-256-GCM加密提交到线程池并行执行，结果按块序写入临时文件，
+ * 在途块数有上限，写盘慢时反压调用方。明文只存在于内存中，压缩/加密完成后立即清零。
+ * 只有调用 {@link #finish()} 后才写出索引、落盘并原子改名为正式文件；
+ * 未完成就 {@link #close()}（例如生成过程出错）会丢弃临时文件，不会留下看似完整的导出文件。
+ * 写入器本身非线程安全，应由单个线程写入。
+ */
+public final class SealedWriter extends Writer {
+
+    /**
+     * 导出参数
+     *
+     * @param chunkSize        目标分块大小（明文字符数，在其后的第一个行尾切分）
+     * @param threads          压缩加密线程数
+     * @param compressionLevel Deflater压缩级别（0-9，-1为默认）
+     * @param kdfIterations    PBKDF2迭代次数
+     */
+    public record Options(int chunkSize, int threads, int compressionLevel, int kdfIterations) {
+
+        /** 默认分块大小：4 MiB */
+        public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+        /** 默认PBKDF2-HMAC-SHA256迭代次数 */
+        public static final int DEFAULT_KDF_ITERATIONS = 600_000;
+
+        public Options {
+            if (chunkSize <= 0 || threads <= 0 || kdfIterations <= 0
+                    || compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("导出参数无效：" + chunkSize + "/" + threads + "/"
+                        + compressionLevel + "/" + kdfIterations);
+            }
+        }
+
+        /**
+         * 默认参数：4 MiB分块、线程数等于CPU核数、最快压缩级别、60万次迭代。
+         * 记录中的密钥与地址本身不可压缩，可压缩的只有助记词与分隔符，
+         * 级别1与默认级别的压缩率只差约2%，速度却快约一半。
+         */
+        public static Options defaults() {
+            return new Options(DEFAULT_CHUNK_SIZE, Math.max(1, Runtime.getRuntime().availableProcessors()),
+                    Deflater.BEST_SPEED, DEFAULT_KDF_ITERATIONS);
+        }
+
+        /** 仅修改分块大小的副本 */
+        public Options withChunkSize(int size) {
+            return new Options(size, threads, compressionLevel, kdfIterations);
+        }
+    }
+
+    /**
+     * 导出结果
+     *
+     * @param chunks     块数
+     * @param records    记录（行）数
+     * @param plainBytes 明文总字节数
+     * @param fileBytes  加密文件字节数
+     */
+    public record Summary(int chunks, long records, long plainBytes, long fileBytes) {
+    }
+
+    /** 已提交、按块序等待写盘的块 */
+    private record Pending(Future<byte[]> cipher, int plainLength, int records) {
+    }
+
+    private static final AtomicInteger POOL_SEQ = new AtomicInteger();
+
+    private final Path file;
+    private final Path tmp;
+    private final FileChannel channel;
+    private final Options options;
+    private final SecretKey key;
+    private final byte[] header;
+    private final byte[] noncePrefix;
+    private final ExecutorService pool;
+    private final int maxInFlight;
+    private final ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+    private final List<SealedFormat.IndexEntry> index = new ArrayList<>();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private char[] buf;
+    private int length;
+    private int chunkRecords;
+    private boolean nonAscii;
+    private long counter;
+    private long position = SealedFormat.HEADER_LENGTH;
+    private long records;
+    private long plainBytes;
+    private boolean finished;
+    private boolean closed;
+
+    private SealedWriter(Path file, FileChannel channel, Options options, SecretKey key, SealedFormat.Header h) {
+        this.file = file;
+        this.tmp = tmpFile(file);
+        this.channel = channel;
+        this.options = options;
+        this.key = key;
+        this.header = h.encode();
+        this.noncePrefix = h.noncePrefix();
+        this.buf = new char[options.chunkSize() + 1024];
+        this.maxInFlight = options.threads() * 2;
+        int poolId = POOL_SEQ.incrementAndGet();
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(options.threads(), r -> {
+            Thread t = new Thread(r, "sealed-export-" + poolId + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 创建加密导出文件（先写入同目录下的 .tmp 临时文件）
+     *
+     * @param file     正式文件路径
+     * @param password 口令（不会被保留，调用方负责清零）
+     * @param options  导出参数
+     * @return 写入器
+     */
+    public static SealedWriter create(Path file, char[] password, Options options) throws IOException {
+        SecureRandom random = CryptoUtils.secureRandom();
+        byte[] salt = new byte[SealedFormat.SALT_LENGTH];
+        byte[] prefix = new byte[SealedFormat.NONCE_PREFIX_LENGTH];
+        random.nextBytes(salt);
+        random.nextBytes(prefix);
+        SealedFormat.Header h = new SealedFormat.Header(options.kdfIterations(), salt, prefix, options.chunkSize());
+        SecretKey key;
+        try {
+            key = SealedFormat.deriveKey(password, salt, options.kdfIterations());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("当前JDK不支持PBKDF2WithHmacSHA256", e);
+        }
+        Path tmp = tmpFile(file);
+        FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        SealedWriter writer = new SealedWriter(file, ch, options, key, h);
+        writer.writeFully(ByteBuffer.wrap(writer.header), 0);
+        return writer;
+    }
+
+    private static Path tmpFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        put((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = 0; i < len; i++) {
+            put(cbuf[off + i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = 0; i < len; i++) {
+            put(str.charAt(off + i));
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (closed || finished) {
+            throw new IOException("加密导出写入器已关闭");
+        }
+        if (length == buf.length) {
+            // 单行超过分块大小时扩容，旧数组清零
+            char[] grown = Arrays.copyOf(buf, buf.length * 2);
+            Arrays.fill(buf, '\0');
+            buf = grown;
+        }
+        buf[length++] = c;
+        nonAscii |= c >= 0x80;
+        if (c == '\n') {
+            chunkRecords++;
+            if (length >= options.chunkSize()) {
+                cut();
+            }
+        }
+    }
+
+    /**
+     * 切出当前块：编码为UTF-8、清零字符缓冲，并提交压缩加密
+     */
+    private void cut() throws IOException {
+        if (length == 0) {
+            return;
+        }
+        byte[] bytes;
+        int plainLength;
+        if (nonAscii) {
+            ByteBuffer plain = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8, length * 3L));
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(buf, 0, length), plain, true);
+            encoder.flush(plain);
+            bytes = plain.array();
+            plainLength = plain.position();
+        } else {
+            // CSV记录通常全为ASCII，直接逐字符转字节
+            bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) buf[i];
+            }
+            plainLength = length;
+        }
+        Arrays.fill(buf, 0, length, '\0');
+        length = 0;
+        nonAscii = false;
+
+        long chunk = counter++;
+        while (inFlight.size() >= maxInFlight) {
+            drainOne();
+        }
+        inFlight.add(new Pending(pool.submit(() -> seal(bytes, plainLength, chunk)), plainLength, chunkRecords));
+        records += chunkRecords;
+        plainBytes += plainLength;
+        chunkRecords = 0;
+    }
+
+    /**
+     * 压缩并加密一块（在线程池中执行），完成后清零明文与压缩中间结果
+     */
+    private byte[] seal(byte[] plain, int plainLength, long chunk) throws GeneralSecurityException {
+        Deflater deflater = new Deflater(options.compressionLevel());
+        byte[] compressed = new byte[Math.max(64, plainLength / 2)];
+        int n = 0;
+        try {
+            deflater.setInput(plain, 0, plainLength);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (n == compressed.length) {
+                    byte[] grown = Arrays.copyOf(compressed, compressed.length * 2);
+                    Arrays.fill(compressed, (byte) 0);
+                    compressed = grown;
+                }
+                n += deflater.deflate(compressed, n, compressed.length - n);
+            }
+            Cipher cipher = SealedFormat.cipher(Cipher.ENCRYPT_MODE, key, noncePrefix, chunk, header);
+            return cipher.doFinal(compressed, 0, n);
+        } finally {
+            deflater.end();
+            Arrays.fill(plain, (byte) 0);
+            Arrays.fill(compressed, (byte) 0);
+        }
+    }
+
+    /**
+     * 按块序取出最早提交的块并写盘
+     */
+    private void drainOne() throws IOException {
+        Pending p = inFlight.poll();
+        byte[] cipher;
+        try {
+            cipher = p.cipher().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("加密导出被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("分块压缩加密失败", e.getCause());
+        }
+        writeFully(ByteBuffer.wrap(cipher), position);
+        index.add(new SealedFormat.IndexEntry(position, cipher.length, p.plainLength(), p.records()));
+        position += cipher.length;
+    }
+
+    private void writeFully(ByteBuffer b, long at) throws IOException {
+        long pos = at;
+        while (b.hasRemaining()) {
+            pos += channel.write(b, pos);
+        }
+    }
+
+    /**
+     * 块只能在行边界切分，flush不会强制切块；数据在 {@link #finish()} 之后才算写出
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * 切出最后一块、等待全部块写盘，写出加密索引与文件尾，fsync后原子改名为正式文件
+     *
+     * @return 导出结果
+     */
+    public Summary finish() throws IOException {
+        if (closed || finished) {
+            throw new IOException("加密导出写入器已关闭");
+        }
+        cut();
+        while (!inFlight.isEmpty()) {
+            drainOne();
+        }
+        ByteBuffer plainIndex = ByteBuffer.allocate(4 + index.size() * SealedFormat.INDEX_ENTRY_LENGTH);
+        plainIndex.putInt(index.size());
+        for (SealedFormat.IndexEntry e : index) {
+            plainIndex.putLong(e.offset()).putInt(e.cipherLength()).putInt(e.plainLength()).putInt(e.records());
+        }
+        byte[] sealedIndex;
+        try {
+            sealedIndex = SealedFormat.cipher(Cipher.ENCRYPT_MODE, key, noncePrefix, SealedFormat.INDEX_COUNTER, header)
+                    .doFinal(plainIndex.array());
+        } catch (GeneralSecurityException e) {
+            throw new IOException("索引加密失败", e);
+        }
+        long indexOffset = position;
+        writeFully(ByteBuffer.wrap(sealedIndex), indexOffset);
+        ByteBuffer trailer = ByteBuffer.allocate(SealedFormat.TRAILER_LENGTH)
+                .putLong(indexOffset).putInt(sealedIndex.length).put(SealedFormat.TRAILER_MAGIC).flip();
+        writeFully(trailer, indexOffset + sealedIndex.length);
+        channel.force(true);
+        long fileBytes = channel.size();
+        channel.close();
+        pool.shutdown();
+        SegmentFiles.promote(tmp, file);
+        finished = true;
+        return new Summary(index.size(), records, plainBytes, fileBytes);
+    }
+
+    /**
+     * 释放资源；未调用 {@link #finish()} 时清零缓冲并删除临时文件
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (finished) {
+            return;
+        }
+        Arrays.fill(buf, '\0');
+        pool.shutdownNow();
+        channel.close();
+        Files.deleteIfExists(tmp);
+    }
+}
@@ -0,0 +1,296 @@
+package com.hy.wallet.job;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.model.WalletBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * 可断点续跑的批量生成任务
+ * 任务目录结构：
+ * <pre>
+ * job.properties        任务参数（总数、分段大小），创建时原子写入
+ * journal.log           仅追加的任务日志，见 {@link JobJournal}
+ * segment-000000.csv    已提交的输出分段，每段自带表头，见 {@link WalletCsv}
+ * segment-000001.csv.tmp 正在写入的分段（未提交）
+ * </pre>
+ * 每个分段依次经历 STARTED → 写临时文件并fsync → WRITTEN → 原子改名 → COMMITTED，
+ * 内存中最多只保留一个分段的钱包。进程在任意时刻中断后，{@link #run} 会：
+ * - 校验最后一个已提交分段的长度与CRC32；
+ * - 已写完（WRITTEN）但未提交的分段直接补提交，不重新生成；
+ * - 其余未提交的残留文件删除后从该分段重新生成。
+ * 因此输出记录既不重复也不遗漏。
+ */
+public final class BatchJob {
+    private static final Logger log = LoggerFactory.getLogger(BatchJob.class);
+
+    /** 默认分段大小（每个分段文件的钱包数） */
+    public static final int DEFAULT_SEGMENT_SIZE = 10_000;
+    /** 分段大小上限，决定单个分段驻留内存的上限 */
+    public static final int MAX_SEGMENT_SIZE = 1_000_000;
+
+    private static final String JOB_FILE = "job.properties";
+    private static final String JOURNAL_FILE = "journal.log";
+    private static final String LOCK_FILE = "job.lock";
+    private static final String FORMAT_VERSION = "1";
+
+    /**
+     * 任务执行结果
+     *
+     * @param committedRecords 已提交记录数
+     * @param segments         已提交分段数
+     * @param outputBytes      已提交分段的总字节数
+     * @param alreadyCompleted 执行前任务即已完成
+     */
+    public record Result(long committedRecords, int segments, long outputBytes, boolean alreadyCompleted) {
+    }
+
+    /**
+     * 恢复得到的执行位置
+     */
+    private record Cursor(int nextSegment, long committedRecords, long outputOffset, boolean completed) {
+    }
+
+    private final Path dir;
+    private final long total;
+    private final int segmentSize;
+
+    private BatchJob(Path dir, long total, int segmentSize) {
+        this.dir = dir;
+        this.total = total;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 在指定目录创建新任务
+     *
+     * @param dir         任务目录（不存在则创建；不能已包含任务）
+     * @param total       生成总数
+     * @param segmentSize 分段大小
+     * @return 任务
+     */
+    public static BatchJob create(Path dir, long total, int segmentSize) throws IOException {
+        if (total <= 0) {
+            throw new IllegalArgumentException("生成总数必须为正整数");
+        }
+        if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("分段大小必须在1到" + MAX_SEGMENT_SIZE + "之间");
+        }
+        if (Files.exists(dir.resolve(JOB_FILE))) {
+            throw new IllegalStateException("目录中已存在任务，请使用 resume 继续执行：" + dir);
+        }
+        Files.createDirectories(dir);
+        Properties props = new Properties();
+        props.setProperty("version", FORMAT_VERSION);
+        props.setProperty("total", Long.toString(total));
+        props.setProperty("segmentSize", Integer.toString(segmentSize));
+        Path tmp = dir.resolve(JOB_FILE + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            Writer w = new OutputStreamWriter(Channels.newOutputStream(ch), StandardCharsets.UTF_8);
+            props.store(w, "hy-wallet batch job");
+            w.flush();
+            ch.force(true);
+        }
+        SegmentFiles.promote(tmp, dir.resolve(JOB_FILE));
+        return new BatchJob(dir, total, segmentSize);
+    }
+
+    /**
+     * 打开已存在的任务
+     *
+     * @param dir 任务目录
+     * @return 任务
+     */
+    public static BatchJob open(Path dir) throws IOException {
+        Path file = dir.resolve(JOB_FILE);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("目录中不存在任务：" + dir);
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+        if (!FORMAT_VERSION.equals(props.getProperty("version"))) {
+            throw new IllegalStateException("不支持的任务格式版本：" + props.getProperty("version"));
+        }
+        return new BatchJob(dir, Long.parseLong(props.getProperty("total")),
+                Integer.parseInt(props.getProperty("segmentSize")));
+    }
+
+    /** 任务目录 */
+    public Path dir() {
+        return dir;
+    }
+
+    /** 生成总数 */
+    public long total() {
+        return total;
+    }
+
+    /** 分段大小 */
+    public int segmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * 从上次中断处继续执行直至完成（新任务则从头开始）
+     *
+     * @param generator 钱包生成器
+     * @return 执行结果
+     */
+    public Result run(WalletGenerator generator) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.tryLock();
+             JobJournal journal = JobJournal.open(dir.resolve(JOURNAL_FILE))) {
+            if (lock == null) {
+                throw new IllegalStateException("任务正在被其他进程执行：" + dir);
+            }
+            Cursor cursor = recover(journal);
+            int segment = cursor.nextSegment();
+            long committed = cursor.committedRecords();
+            long offset = cursor.outputOffset();
+            if (committed > 0 && committed < total) {
+                log.info("从分段 {} 继续执行，已提交 {}/{} 条", segment, committed, total);
+            }
+
+            while (committed < total) {
+                int n = (int) Math.min(segmentSize, total - committed);
+                journal.append(new JobJournal.Entry(JobJournal.Stage.STARTED, segment, committed, n, offset, 0, 0));
+
+                WalletBatch wallets = generator.generateColumnar(n);
+                Path tmp = tmpFile(segment);
+                CRC32 crc = new CRC32();
+                long bytes;
+                try {
+                    bytes = writeSegment(tmp, wallets, crc);
+                } finally {
+                    wallets.clear();
+                }
+                JobJournal.Entry written = new JobJournal.Entry(JobJournal.Stage.WRITTEN, segment, committed, n,
+                        offset, bytes, crc.getValue());
+                journal.append(written);
+
+                SegmentFiles.promote(tmp, segmentFile(segment));
+                JobJournal.Entry done = commit(journal, written);
+                committed = done.committedRecords();
+                offset = done.endOffset();
+                segment++;
+                log.info("分段 {} 已提交，累计 {}/{} 条", done.segment(), committed, total);
+            }
+            if (!cursor.completed()) {
+                journal.append(new JobJournal.Entry(JobJournal.Stage.COMPLETED, segment, committed, 0, offset, 0, 0));
+            }
+            return new Result(committed, segment, offset, cursor.completed());
+        }
+    }
+
+    /**
+     * 根据日志恢复执行位置：校验最后一个已提交分段，补提交已写完的分段，清理未提交的残留文件
+     */
+    private Cursor recover(JobJournal journal) throws IOException {
+        JobJournal.Entry lastCommitted = null;
+        JobJournal.Entry pending = null;
+        boolean completed = false;
+        for (JobJournal.Entry e : journal.entries()) {
+            switch (e.stage()) {
+                case COMMITTED -> {
+                    lastCommitted = e;
+                    pending = null;
+                }
+                case STARTED, WRITTEN -> pending = e;
+                case COMPLETED -> completed = true;
+            }
+        }
+
+        int next = 0;
+        long committed = 0;
+        long offset = 0;
+        if (lastCommitted != null) {
+            if (!matches(segmentFile(lastCommitted.segment()), lastCommitted)) {
+                throw new IllegalStateException("已提交分段文件缺失或内容与日志不符：" + segmentFile(lastCommitted.segment()));
+            }
+            if (lastCommitted.committedRecords() > total) {
+                throw new IllegalStateException("任务日志记录数超过任务总数：" + lastCommitted.committedRecords());
+            }
+            next = lastCommitted.segment() + 1;
+            committed = lastCommitted.committedRecords();
+            offset = lastCommitted.endOffset();
+        }
+
+        // 临时文件已完整落盘（WRITTEN）：改名可能已完成也可能未完成，补齐后直接提交
+        if (pending != null && pending.segment() == next && pending.stage() == JobJournal.Stage.WRITTEN) {
+            Path finalFile = segmentFile(next);
+            Path tmp = tmpFile(next);
+            boolean promoted = matches(finalFile, pending);
+            if (!promoted && matches(tmp, pending)) {
+                SegmentFiles.promote(tmp, finalFile);
+                promoted = true;
+            }
+            if (promoted) {
+                JobJournal.Entry done = commit(journal, pending);
+                log.info("分段 {} 已写完但未提交，已补提交", next);
+                next++;
+                committed = done.committedRecords();
+                offset = done.endOffset();
+            }
+        }
+
+        // 未提交分段的残留：临时文件删除后重新生成；正式文件不应存在
+        Files.deleteIfExists(tmpFile(next));
+        if (Files.exists(segmentFile(next))) {
+            throw new IllegalStateException("发现日志中未记录的分段文件：" + segmentFile(next));
+        }
+        return new Cursor(next, committed, offset, completed);
+    }
+
+    private static JobJournal.Entry commit(JobJournal journal, JobJournal.Entry written) throws IOException {
+        JobJournal.Entry done = new JobJournal.Entry(JobJournal.Stage.COMMITTED, written.segment(),
+                written.firstRecord(), written.records(), written.outputOffset(), written.bytes(), written.segmentCrc());
+        journal.append(done);
+        return done;
+    }
+
+    /**
+     * 写出分段临时文件（含表头）并落盘
+     *
+     * @return 文件字节数
+     */
+    private static long writeSegment(Path tmp, WalletBatch wallets, CRC32 crc) throws IOException {
+        return SegmentFiles.write(tmp, crc, w -> {
+            w.write(WalletCsv.HEADER);
+            w.write('\n');
+            WalletCsv.writeRows(wallets, w);
+        });
+    }
+
+    /**
+     * 文件存在且长度、CRC32均与日志记录一致
+     */
+    private static boolean matches(Path file, JobJournal.Entry entry) throws IOException {
+        return SegmentFiles.matches(file, entry.bytes(), entry.segmentCrc());
+    }
+
+    private Path segmentFile(int segment) {
+        return dir.resolve(String.format("segment-%06d.csv", segment));
+    }
+
+    private Path tmpFile(int segment) {
+        return dir.resolve(String.format("segment-%06d.csv.tmp", segment));
+    }
+}
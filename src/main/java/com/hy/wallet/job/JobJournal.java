@@ -0,0 +1,173 @@
+package com.hy.wallet.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 批处理任务日志（仅追加）
+ * 每条记录一行文本，末尾附带该行内容的CRC32，写入后立即fsync：
+ * <pre>
+ * STAGE segment firstRecord records outputOffset bytes segmentCrc *lineCrc
+ * </pre>
+ * 打开时从头校验，遇到不完整或校验失败的记录（写入途中崩溃留下的尾部）即截断丢弃。
+ * 实例非线程安全。
+ */
+public final class JobJournal implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(JobJournal.class);
+
+    /**
+     * 分段所处阶段
+     */
+    public enum Stage {
+        /** 开始生成该分段 */
+        STARTED,
+        /** 临时文件已写完并落盘，bytes/segmentCrc有效 */
+        WRITTEN,
+        /** 临时文件已原子改名为正式分段文件 */
+        COMMITTED,
+        /** 任务全部完成 */
+        COMPLETED
+    }
+
+    /**
+     * 日志记录
+     *
+     * @param stage        阶段
+     * @param segment      分段序号（从0开始）
+     * @param firstRecord  本分段第一条记录的全局序号，即此前已提交的记录数
+     * @param records      本分段记录数
+     * @param outputOffset 本分段在整体输出中的起始字节偏移（此前全部分段字节数之和）
+     * @param bytes        分段文件字节数（STARTED阶段为0）
+     * @param segmentCrc   分段文件CRC32（STARTED阶段为0）
+     */
+    public record Entry(Stage stage, int segment, long firstRecord, int records,
+                        long outputOffset, long bytes, long segmentCrc) {
+
+        /** 本分段提交后的累计记录数 */
+        public long committedRecords() {
+            return firstRecord + records;
+        }
+
+        /** 本分段提交后的累计输出字节数 */
+        public long endOffset() {
+            return outputOffset + bytes;
+        }
+    }
+
+    private final FileChannel channel;
+    private final List<Entry> entries;
+
+    private JobJournal(FileChannel channel, List<Entry> entries) {
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    /**
+     * 打开（不存在则创建）日志文件，读取全部有效记录并截断损坏的尾部
+     *
+     * @param file 日志文件
+     * @return 日志
+     */
+    public static JobJournal open(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long validLength = 0;
+        if (Files.exists(file)) {
+            byte[] content = Files.readAllBytes(file);
+            int lineStart = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] != '\n') {
+                    continue;
+                }
+                Entry entry = parse(new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                if (entry == null) {
+                    break;
+                }
+                entries.add(entry);
+                lineStart = i + 1;
+                validLength = lineStart;
+            }
+            if (validLength < content.length) {
+                log.warn("任务日志 {} 尾部存在 {} 字节不完整记录，已截断", file, content.length - validLength);
+            }
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(validLength);
+            channel.position(validLength);
+            channel.force(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new JobJournal(channel, entries);
+    }
+
+    /**
+     * 已读取与已追加的全部有效记录（按写入顺序）
+     */
+    public List<Entry> entries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * 追加一条记录并落盘
+     *
+     * @param entry 记录
+     */
+    public void append(Entry entry) throws IOException {
+        String body = entry.stage() + " " + entry.segment() + " " + entry.firstRecord() + " " + entry.records()
+                + " " + entry.outputOffset() + " " + entry.bytes() + " " + Long.toHexString(entry.segmentCrc());
+        String line = body + " *" + Long.toHexString(crc(body)) + "\n";
+        ByteBuffer buf = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        channel.force(false);
+        entries.add(entry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 解析单行记录，格式或校验和不正确时返回null
+     */
+    private static Entry parse(String line) {
+        int star = line.lastIndexOf(" *");
+        if (star < 0) {
+            return null;
+        }
+        String body = line.substring(0, star);
+        String[] f = body.split(" ");
+        try {
+            if (f.length != 7 || Long.parseLong(line.substring(star + 2), 16) != crc(body)) {
+                return null;
+            }
+            return new Entry(Stage.valueOf(f[0]), Integer.parseInt(f[1]), Long.parseLong(f[2]),
+                    Integer.parseInt(f[3]), Long.parseLong(f[4]), Long.parseLong(f[5]), Long.parseLong(f[6], 16));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long crc(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,98 @@
+package com.hy.wallet.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 输出分段文件工具类
+ * 先写临时文件并fsync、再原子改名为正式文件并fsync所在目录，
+ * 保证正式文件要么不存在、要么内容完整；长度与CRC32用于事后校验。
+ */
+public class SegmentFiles {
+    private static final Logger log = LoggerFactory.getLogger(SegmentFiles.class);
+
+    /**
+     * 分段内容写出回调
+     */
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    /**
+     * 写出临时文件并落盘
+     *
+     * @param tmp  临时文件
+     * @param crc  输出：累计文件内容的CRC32
+     * @param body 内容
+     * @return 文件字节数
+     */
+    public static long write(Path tmp, CRC32 crc, Body body) throws IOException {
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            Writer w = new BufferedWriter(new OutputStreamWriter(
+                    new CheckedOutputStream(Channels.newOutputStream(ch), crc), StandardCharsets.UTF_8), 1 << 16);
+            body.writeTo(w);
+            w.flush();
+            ch.force(true);
+            return ch.size();
+        }
+    }
+
+    /**
+     * 计算文件内容的CRC32
+     */
+    public static long crc(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                crc.update(buf, 0, n);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * 文件存在且长度、CRC32均与期望一致
+     */
+    public static boolean matches(Path file, long bytes, long crc) throws IOException {
+        return Files.exists(file) && Files.size(file) == bytes && crc(file) == crc;
+    }
+
+    /**
+     * 临时文件原子改名为正式文件，并使目录项落盘
+     */
+    public static void promote(Path tmp, Path finalFile) throws IOException {
+        Files.move(tmp, finalFile, StandardCopyOption.ATOMIC_MOVE);
+        fsyncDirectory(finalFile.toAbsolutePath().getParent());
+    }
+
+    /**
+     * 目录项落盘，保证改名/新建在崩溃后仍可见
+     */
+    public static void fsyncDirectory(Path dir) {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            // 部分平台（如Windows）不支持打开目录fsync，依赖文件系统自身的元数据日志
+            log.debug("目录fsync不受支持：{}", dir);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hy.wallet.job;
+
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.model.WalletView;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 钱包CSV序列化工具类
+ * 每个钱包一行，字段顺序见 {@link #HEADER}；助记词以单个空格连接。
+ * 所有字段均为Base58/Bech32/十六进制或BIP39英文单词，不含逗号与换行，无需转义；未派生的链写为空字段。
+ */
+public class WalletCsv {
+
+    /** 表头（不含换行） */
+    public static final String HEADER = "mnemonic,btc_legacy_address,btc_legacy_wif,btc_segwit_address,btc_segwit_wif,"
+            + "eth_address,eth_private_hex,sol_address,sol_private,tron_address,tron_private_hex";
+
+    /** 同一助记词按索引派生时的表头（不含换行）：以索引代替助记词列 */
+    public static final String DERIVED_HEADER = "index,btc_legacy_address,btc_legacy_wif,btc_segwit_address,btc_segwit_wif,"
+            + "eth_address,eth_private_hex,sol_address,sol_private,tron_address,tron_private_hex";
+
+    private static final int COLUMNS = 11;
+
+    /**
+     * 写出一行（含换行）
+     *
+     * @param wallet 钱包信息
+     * @param out    输出
+     */
+    public static void writeRow(WalletView wallet, Appendable out) throws IOException {
+        out.append(String.join(" ", wallet.getMnemonic())).append(',');
+        appendKeys(wallet, out);
+    }
+
+    /**
+     * 写出按索引派生的一行（含换行），格式见 {@link #DERIVED_HEADER}
+     *
+     * @param index  地址索引
+     * @param wallet 钱包信息
+     * @param out    输出
+     */
+    public static void writeDerivedRow(long index, WalletView wallet, Appendable out) throws IOException {
+        out.append(Long.toString(index)).append(',');
+        appendKeys(wallet, out);
+    }
+
+    /**
+     * 写出列式批次的全部行（不含表头），格式同 {@link #writeRow}
+     *
+     * @param batch 列式批次
+     * @param out   输出
+     */
+    public static void writeRows(WalletBatch batch, Appendable out) throws IOException {
+        batch.precomputeEncodings();
+        WalletBatch.Row row = batch.size() == 0 ? null : batch.row(0);
+        for (int i = 0; i < batch.size(); i++) {
+            writeRow(row.at(i), out);
+        }
+    }
+
+    /**
+     * 写出列式批次的全部行（不含表头），以各行的地址索引代替助记词列，格式同 {@link #writeDerivedRow}
+     *
+     * @param batch 列式批次
+     * @param out   输出
+     */
+    public static void writeDerivedRows(WalletBatch batch, Appendable out) throws IOException {
+        batch.precomputeEncodings();
+        WalletBatch.Row row = batch.size() == 0 ? null : batch.row(0);
+        for (int i = 0; i < batch.size(); i++) {
+            row.at(i);
+            writeDerivedRow(row.index(), row, out);
+        }
+    }
+
+    /**
+     * 解析一行（不含换行）
+     *
+     * @param line CSV行
+     * @return 钱包信息
+     */
+    public static WalletInfo parseRow(String line) {
+        String[] f = line.split(",", -1);
+        if (f.length != COLUMNS) {
+            throw new IllegalArgumentException("CSV列数错误：期望" + COLUMNS + "列，实际" + f.length + "列");
+        }
+        WalletInfo info = new WalletInfo();
+        List<String> mnemonic = Arrays.asList(f[0].split(" "));
+        info.setMnemonic(mnemonic);
+        info.setBtcLegacyAddress(f[1]);
+        info.setBtcLegacyWif(f[2]);
+        info.setBtcSegwitAddress(f[3]);
+        info.setBtcSegwitWif(f[4]);
+        info.setEthAddress(f[5]);
+        info.setEthPrivateHex(f[6]);
+        info.setSolAddress(f[7]);
+        info.setSolPrivate(f[8]);
+        info.setTronAddress(f[9]);
+        info.setTronPrivateHex(f[10]);
+        return info;
+    }
+
+    private static void appendKeys(WalletView wallet, Appendable out) throws IOException {
+        out.append(field(wallet.getBtcLegacyAddress())).append(',')
+                .append(field(wallet.getBtcLegacyWif())).append(',')
+                .append(field(wallet.getBtcSegwitAddress())).append(',')
+                .append(field(wallet.getBtcSegwitWif())).append(',')
+                .append(field(wallet.getEthAddress())).append(',')
+                .append(field(wallet.getEthPrivateHex())).append(',')
+                .append(field(wallet.getSolAddress())).append(',')
+                .append(field(wallet.getSolPrivate())).append(',')
+                .append(field(wallet.getTronAddress())).append(',')
+                .append(field(wallet.getTronPrivateHex())).append('\n');
+    }
+
+    private static String field(String value) {
+        return value == null ? "" : value;
+    }
+}
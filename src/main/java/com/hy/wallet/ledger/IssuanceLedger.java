@@ -0,0 +1,573 @@
+package com.hy.wallet.ledger;
+
+import com.hy.wallet.core.Chain;
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.model.WalletView;
+import com.hy.wallet.utils.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * 地址发放账本（仅追加，组提交）
+ * 每个生成或派生的地址在交给调用方之前先记入账本（链、地址、派生索引或记录号、时间戳），格式见 {@link LedgerFormat}。
+ * 多个生产线程调用 {@link #append} 入队并立即得到序号，由单个写线程把队列中积攒的记录合并为一次写入加一次fsync；
+ * {@link #awaitDurable} 在该序号及之前的全部记录落盘后返回，即持久确认。fsync期间到达的记录自然进入下一批，
+ * 也可设置批次窗口让写线程在首条记录到达后再等待一段时间。
+ * 每批记录带批次头（长度、记录数、CRC32），打开时按批次顺序校验，整批丢弃写入途中崩溃留下的最后一个不完整批次
+ * （其中的记录此前都未被确认；一次写入的各页落盘顺序不确定，该批次可能只有后半部分落盘）；
+ * 损坏的批次之后仍有完整批次时说明是文件中部损坏，拒绝打开而不截断，以免丢弃已确认的记录。
+ * 打开期间持有同目录下 {@code <账本文件名>.lock} 的排他文件锁，同一账本不能被两个进程同时打开。
+ */
+public final class IssuanceLedger implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(IssuanceLedger.class);
+
+    /**
+     * 引用类型
+     */
+    public enum Reference {
+        /** 派生索引（助记词派生的地址索引） */
+        INDEX,
+        /** 调用方的记录号（随机生成的钱包，如批量任务中的全局序号） */
+        RECORD
+    }
+
+    /**
+     * 账本记录
+     *
+     * @param chain           链
+     * @param address         地址（ASCII，不超过238个字符）
+     * @param kind            引用类型
+     * @param reference       派生索引或记录号
+     * @param timestampMillis 发放时间（毫秒时间戳）
+     */
+    public record Entry(Chain chain, String address, Reference kind, long reference, long timestampMillis) {
+        public Entry {
+            if (chain == null || kind == null || address == null || address.isEmpty()
+                    || address.length() > LedgerFormat.MAX_ADDRESS_LENGTH
+                    || !address.chars().allMatch(c -> c > 0x20 && c < 0x7f)) {
+                throw new IllegalArgumentException("账本记录无效：" + chain + " " + address);
+            }
+        }
+    }
+
+    /**
+     * 账本参数
+     *
+     * @param queueCapacity 队列中待写入记录数上限，达到后 append 阻塞
+     * @param maxBatch      单次写入加fsync的最大记录数（不超过65536）
+     * @param windowMicros  批次窗口（微秒）：首条记录到达后最多再等待的时间，0表示只合并fsync期间积攒的记录
+     */
+    public record Options(int queueCapacity, int maxBatch, long windowMicros) {
+        /** 默认队列上限 */
+        public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+        /** 默认单批上限 */
+        public static final int DEFAULT_MAX_BATCH = 4096;
+
+        public Options {
+            if (queueCapacity <= 0 || maxBatch <= 0 || maxBatch > LedgerFormat.MAX_BATCH_RECORDS || windowMicros < 0) {
+                throw new IllegalArgumentException("账本参数无效：queue=" + queueCapacity + ", batch=" + maxBatch
+                        + ", window=" + windowMicros);
+            }
+        }
+
+        /**
+         * 默认参数：队列65536条，每批最多4096条，不设批次窗口
+         */
+        public static Options defaults() {
+            return new Options(DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH, 0);
+        }
+
+        /** 以新的批次窗口替换 */
+        public Options withWindowMicros(long micros) {
+            return new Options(queueCapacity, maxBatch, micros);
+        }
+    }
+
+    /**
+     * 运行指标
+     *
+     * @param recovered    打开时已有的记录数
+     * @param durable      已落盘的最大序号（即账本记录总数）
+     * @param batches      写入加fsync的次数
+     * @param bytes        本次打开以来写入的字节数
+     * @param ackLatency   入队到持久确认的耗时
+     * @param syncLatency  每批写入加fsync的耗时
+     */
+    public record Metrics(long recovered, long durable, long batches, long bytes,
+                          LatencyHistogram.Snapshot ackLatency, LatencyHistogram.Snapshot syncLatency) {
+
+        /** 每批平均记录数 */
+        public double meanBatch() {
+            return batches == 0 ? 0 : (double) (durable - recovered) / batches;
+        }
+    }
+
+    /**
+     * 扫描结果
+     *
+     * @param records    有效记录数
+     * @param validBytes 有效部分的字节数
+     * @param fileBytes  文件字节数（大于validBytes说明尾部不完整）
+     */
+    public record ScanResult(long records, long validBytes, long fileBytes) {
+
+        /** 尾部不完整的字节数 */
+        public long tornBytes() {
+            return fileBytes - validBytes;
+        }
+    }
+
+    private final FileChannel channel;
+    /** 持有账本排他锁的通道，关闭即释放 */
+    private final FileChannel lockChannel;
+    private final Options options;
+    private final long recovered;
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    private final LatencyHistogram ackLatency = new LatencyHistogram();
+    private final LatencyHistogram syncLatency = new LatencyHistogram();
+    private final Thread writer;
+
+    /** 已分配的最大序号 */
+    private long appended;
+    /** 已落盘的最大序号 */
+    private long durable;
+    /** 已入队的RECORD类记录中最大的记录号 */
+    private long lastRecord;
+    private long batches;
+    private long bytes;
+    private boolean closed;
+    private volatile Throwable failure;
+
+    /**
+     * 待写入记录及其入队时间
+     */
+    private record Pending(Entry entry, long enqueuedNanos) {
+    }
+
+    private IssuanceLedger(FileChannel channel, FileChannel lockChannel, Options options, long records,
+                           long lastRecord) {
+        this.channel = channel;
+        this.lockChannel = lockChannel;
+        this.options = options;
+        this.recovered = records;
+        this.appended = records;
+        this.durable = records;
+        this.lastRecord = lastRecord;
+        this.writer = new Thread(this::writeLoop, "issuance-ledger-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * 打开（不存在则创建）账本，校验全部记录、截断损坏的尾部并启动写线程
+     * 账本已被其他进程打开时抛出 {@link IllegalStateException}；文件中部损坏时抛出 {@link IOException}。
+     *
+     * @param file    账本文件
+     * @param options 参数
+     * @return 账本
+     */
+    public static IssuanceLedger open(Path file, Options options) throws IOException {
+        FileChannel lockChannel = lock(file);
+        FileChannel channel = null;
+        try {
+            long records = 0;
+            long valid = 0;
+            long[] lastRecord = {0};
+            if (Files.exists(file) && !isTornHeader(file)) {
+                ScanResult scan = scan(file, (entry, seq) -> {
+                    if (entry.kind() == Reference.RECORD) {
+                        lastRecord[0] = Math.max(lastRecord[0], entry.reference());
+                    }
+                });
+                records = scan.records();
+                valid = scan.validBytes();
+                if (scan.tornBytes() > 0) {
+                    log.warn("发放账本 {} 尾部存在 {} 字节不完整记录，已截断", file, scan.tornBytes());
+                }
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            initialize(channel, valid);
+            IssuanceLedger ledger = new IssuanceLedger(channel, lockChannel, options, records, lastRecord[0]);
+            ledger.writer.start();
+            return ledger;
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 取得账本的排他锁，返回持有锁的通道
+     */
+    private static FileChannel lock(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("发放账本正在被其他进程使用：" + file);
+        }
+        return channel;
+    }
+
+    /**
+     * 截断到有效部分（空文件写入文件头）并落盘
+     */
+    private static void initialize(FileChannel channel, long valid) throws IOException {
+        long end = valid;
+        if (end == 0) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.wrap(LedgerFormat.header());
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            end = LedgerFormat.HEADER_LENGTH;
+        }
+        channel.truncate(end);
+        channel.position(end);
+        channel.force(true);
+    }
+
+    /**
+     * 文件为空或只有不完整的文件头（创建后写入文件头途中崩溃），可以重新初始化
+     */
+    private static boolean isTornHeader(Path file) throws IOException {
+        if (Files.size(file) >= LedgerFormat.HEADER_LENGTH) {
+            return false;
+        }
+        byte[] content = Files.readAllBytes(file);
+        return Arrays.equals(content, 0, content.length, LedgerFormat.header(), 0, content.length);
+    }
+
+    /**
+     * 顺序扫描账本（只读，不修改文件）
+     * 损坏的批次之后仍能找到完整批次时抛出 {@link IOException}（文件中部损坏，不是写入途中崩溃留下的尾部）。
+     *
+     * @param file    账本文件
+     * @param visitor 按顺序接收每条有效记录及其序号（从1开始）
+     * @return 扫描结果
+     */
+    public static ScanResult scan(Path file, ObjLongConsumer<Entry> visitor) throws IOException {
+        long size = Files.size(file);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            byte[] header = new byte[LedgerFormat.HEADER_LENGTH];
+            LedgerFormat.checkHeader(header, in.readNBytes(header, 0, header.length));
+            LedgerFormat.Reader reader = new LedgerFormat.Reader(in);
+            long seq = 0;
+            Entry entry;
+            while ((entry = reader.next()) != null) {
+                visitor.accept(entry, ++seq);
+            }
+            long valid = reader.validBytes();
+            if (valid < size) {
+                checkTail(file, valid, seq);
+            }
+            return new ScanResult(seq, valid, size);
+        }
+    }
+
+    /**
+     * 确认从第一个损坏的批次起到文件末尾再没有完整批次
+     */
+    private static void checkTail(Path file, long valid, long records) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long next = LedgerFormat.findBatch(ch, valid + 1);
+            if (next >= 0) {
+                throw new IOException("发放账本 " + file + " 从第 " + (records + 1) + " 条记录起的批次（偏移 " + valid
+                        + "）损坏，但偏移 " + next + " 处仍有完整批次：不是写入途中崩溃留下的尾部，拒绝截断");
+            }
+        }
+    }
+
+    /**
+     * 把一个钱包的全部地址（未派生的链跳过）加入记录列表
+     *
+     * @param out             记录列表
+     * @param wallet          钱包
+     * @param kind            引用类型
+     * @param reference       派生索引或记录号
+     * @param timestampMillis 发放时间
+     */
+    public static void addWallet(List<Entry> out, WalletView wallet, Reference kind, long reference,
+                                 long timestampMillis) {
+        add(out, Chain.BTC, wallet.getBtcLegacyAddress(), kind, reference, timestampMillis);
+        add(out, Chain.BTC, wallet.getBtcSegwitAddress(), kind, reference, timestampMillis);
+        add(out, Chain.ETH, wallet.getEthAddress(), kind, reference, timestampMillis);
+        add(out, Chain.SOL, wallet.getSolAddress(), kind, reference, timestampMillis);
+        add(out, Chain.TRON, wallet.getTronAddress(), kind, reference, timestampMillis);
+    }
+
+    /**
+     * 把列式批次全部行的地址加入记录列表：派生索引取自批次的索引列，记录号为 firstRecord + 行号
+     *
+     * @param out             记录列表
+     * @param batch           列式批次
+     * @param kind            引用类型
+     * @param firstRecord     第0行的记录号（kind为INDEX时忽略）
+     * @param timestampMillis 发放时间
+     */
+    public static void addBatch(List<Entry> out, WalletBatch batch, Reference kind, long firstRecord,
+                                long timestampMillis) {
+        if (batch.size() == 0) {
+            return;
+        }
+        batch.precomputeEncodings();
+        WalletBatch.Row row = batch.row(0);
+        for (int i = 0; i < batch.size(); i++) {
+            row.at(i);
+            addWallet(out, row, kind, kind == Reference.INDEX ? row.index() : firstRecord + i, timestampMillis);
+        }
+    }
+
+    private static void add(List<Entry> out, Chain chain, String address, Reference kind, long reference,
+                            long timestampMillis) {
+        if (address != null) {
+            out.add(new Entry(chain, address, kind, reference, timestampMillis));
+        }
+    }
+
+    /**
+     * 入队一组记录（队列已满时等待），返回最后一条记录的序号；尚未落盘，交出地址前应调用 {@link #awaitDurable}
+     *
+     * @param entries 记录
+     * @return 最后一条记录的序号（entries为空时为当前已分配的最大序号）
+     */
+    public long append(List<Entry> entries) throws IOException, InterruptedException {
+        long now = System.nanoTime();
+        lock.lockInterruptibly();
+        try {
+            for (Entry entry : entries) {
+                while (queue.size() >= options.queueCapacity()) {
+                    checkUsable();
+                    notFull.await();
+                }
+                checkUsable();
+                if (queue.isEmpty()) {
+                    notEmpty.signal();
+                }
+                queue.add(new Pending(entry, now));
+                appended++;
+                if (entry.kind() == Reference.RECORD) {
+                    lastRecord = Math.max(lastRecord, entry.reference());
+                }
+            }
+            if (queue.size() >= options.maxBatch()) {
+                notEmpty.signal();
+            }
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待序号不大于seq的全部记录落盘
+     *
+     * @param seq 序号（由 {@link #append} 返回）
+     */
+    public void awaitDurable(long seq) throws IOException, InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (durable < seq) {
+                checkFailure();
+                durableAdvanced.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 入队并等待落盘（持久确认）
+     *
+     * @param entries 记录
+     * @return 最后一条记录的序号
+     */
+    public long appendDurable(List<Entry> entries) throws IOException, InterruptedException {
+        long seq = append(entries);
+        awaitDurable(seq);
+        return seq;
+    }
+
+    /** 已落盘的最大序号 */
+    public long durable() {
+        lock.lock();
+        try {
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 账本中（含已入队未落盘的）最大的记录号，没有RECORD类记录时为0 */
+    public long lastRecord() {
+        lock.lock();
+        try {
+            return lastRecord;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 运行指标 */
+    public Metrics metrics() {
+        lock.lock();
+        try {
+            return new Metrics(recovered, durable, batches, bytes, ackLatency.snapshot(), syncLatency.snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("发放账本已关闭");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable f = failure;
+        if (f != null) {
+            throw new IOException("发放账本写入失败: " + f.getMessage(), f);
+        }
+    }
+
+    /**
+     * 写线程：取出一批记录，锁外编码为一个批次、写入并fsync，再推进落盘序号；关闭时先写完队列中剩余的记录
+     */
+    private void writeLoop() {
+        Pending[] batch = new Pending[options.maxBatch()];
+        ByteBuffer buf = ByteBuffer.allocate(LedgerFormat.BATCH_HEADER_LENGTH
+                + options.maxBatch() * LedgerFormat.MAX_RECORD_LENGTH);
+        CRC32 crc = new CRC32();
+        try {
+            while (true) {
+                int n = 0;
+                lock.lock();
+                try {
+                    while (queue.isEmpty() && !closed) {
+                        notEmpty.await();
+                    }
+                    if (queue.isEmpty()) {
+                        return;
+                    }
+                    long remaining = TimeUnit.MICROSECONDS.toNanos(options.windowMicros());
+                    while (remaining > 0 && !closed && queue.size() < options.maxBatch()) {
+                        remaining = notEmpty.awaitNanos(remaining);
+                    }
+                    while (n < batch.length && !queue.isEmpty()) {
+                        batch[n++] = queue.poll();
+                    }
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                long begin = System.nanoTime();
+                buf.clear();
+                int start = LedgerFormat.beginBatch(buf);
+                for (int i = 0; i < n; i++) {
+                    LedgerFormat.encode(batch[i].entry(), buf, crc);
+                }
+                LedgerFormat.endBatch(buf, start, n, crc);
+                buf.flip();
+                int written = buf.remaining();
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+                channel.force(false);
+                long end = System.nanoTime();
+                syncLatency.record(end - begin);
+                for (int i = 0; i < n; i++) {
+                    ackLatency.record(end - batch[i].enqueuedNanos());
+                    batch[i] = null;
+                }
+                lock.lock();
+                try {
+                    durable += n;
+                    batches++;
+                    bytes += written;
+                    durableAdvanced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.error("发放账本写入失败", e);
+            failure = e;
+            lock.lock();
+            try {
+                durableAdvanced.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 写完队列中剩余的记录后关闭；此后 append 抛出 IllegalStateException
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                lockChannel.close();
+            }
+        }
+        checkFailure();
+    }
+}
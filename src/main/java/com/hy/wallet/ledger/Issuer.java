@@ -0,0 +1,164 @@
+package com.hy.wallet.ledger;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.job.WalletCsv;
+import com.hy.wallet.model.WalletBatch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 记账发放：多个线程按块生成随机钱包（{@link #run}）或按助记词派生索引区间（{@link #deriveRange}），
+ * 每块地址经账本持久确认后才写出到输出。各线程的确认由账本写线程合并为组提交，fsync次数远小于钱包数。
+ */
+public final class Issuer {
+
+    /** 默认每块钱包数 */
+    public static final int DEFAULT_CHUNK = 16;
+
+    /**
+     * 发放结果
+     *
+     * @param wallets      发放的钱包数
+     * @param entries      记入账本的地址数
+     * @param firstRecord  本次第一个钱包的记录号（派生区间时为起始索引）
+     * @param elapsedNanos 耗时
+     */
+    public record Result(long wallets, long entries, long firstRecord, long elapsedNanos) {
+
+        /** 每秒发放的钱包数 */
+        public double walletsPerSecond() {
+            return elapsedNanos == 0 ? 0 : wallets * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * 按块产出钱包的来源
+     */
+    @FunctionalInterface
+    private interface Source {
+        /**
+         * 产出第 offset 个起的 n 个钱包
+         */
+        WalletBatch chunk(long offset, int n);
+    }
+
+    private Issuer() {
+    }
+
+    /**
+     * 生成并发放指定数量的钱包（CSV行，不含表头）
+     * 记录号从账本中已有的最大记录号加1起连续分配，跨多次运行保持唯一。
+     *
+     * @param generator 钱包生成器
+     * @param ledger    发放账本
+     * @param count     钱包数
+     * @param threads   生成线程数
+     * @param chunk     每块钱包数（每块一次持久确认）
+     * @param out       输出（写入时加锁，块内各行连续）
+     * @return 发放结果
+     */
+    public static Result run(WalletGenerator generator, IssuanceLedger ledger, long count, int threads, int chunk,
+                             Writer out) throws IOException, InterruptedException {
+        long firstRecord = ledger.lastRecord() + 1;
+        return issue((offset, n) -> generator.generateColumnar(n), IssuanceLedger.Reference.RECORD, firstRecord,
+                ledger, count, threads, chunk, out);
+    }
+
+    /**
+     * 按助记词派生索引区间 [start, start+count) 的钱包并发放（CSV行，不含表头），账本记录引用派生索引
+     *
+     * @param generator 钱包生成器
+     * @param ledger    发放账本
+     * @param mnemonic  12个英文助记词（BIP39校验应在调用前完成）
+     * @param start     起始地址索引
+     * @param count     钱包数
+     * @param threads   派生线程数
+     * @param chunk     每块钱包数（每块一次持久确认，并各自计算一次种子）
+     * @param out       输出（写入时加锁，块内各行连续）
+     * @return 发放结果
+     */
+    public static Result deriveRange(WalletGenerator generator, IssuanceLedger ledger, List<String> mnemonic,
+                                     int start, int count, int threads, int chunk, Writer out)
+            throws IOException, InterruptedException {
+        if (start < 0 || count <= 0 || (long) start + count > (1L << 31)) {
+            throw new IllegalArgumentException("索引区间无效：start=" + start + ", count=" + count);
+        }
+        return issue((offset, n) -> generator.deriveRangeColumnar(mnemonic, start + (int) offset, n),
+                IssuanceLedger.Reference.INDEX, start, ledger, count, threads, chunk, out);
+    }
+
+    private static Result issue(Source source, IssuanceLedger.Reference kind, long firstRecord,
+                                IssuanceLedger ledger, long count, int threads, int chunk, Writer out)
+            throws IOException, InterruptedException {
+        if (count <= 0 || threads <= 0 || chunk <= 0) {
+            throw new IllegalArgumentException("发放参数无效：count=" + count + ", threads=" + threads
+                    + ", chunk=" + chunk);
+        }
+        AtomicLong next = new AtomicLong();
+        AtomicLong entries = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long begin = System.nanoTime();
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    issueLoop(source, kind, ledger, count, chunk, firstRecord, next, entries, failure, out);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "issuer-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Throwable f = failure.get();
+        if (f instanceof IOException e) {
+            throw e;
+        }
+        if (f instanceof RuntimeException e) {
+            throw e;
+        }
+        if (f != null) {
+            throw new IOException("发放失败: " + f.getMessage(), f);
+        }
+        out.flush();
+        return new Result(count, entries.get(), firstRecord, System.nanoTime() - begin);
+    }
+
+    private static void issueLoop(Source source, IssuanceLedger.Reference kind, IssuanceLedger ledger, long count,
+                                  int chunk, long firstRecord, AtomicLong next, AtomicLong entries,
+                                  AtomicReference<Throwable> failure, Writer out)
+            throws IOException, InterruptedException {
+        List<IssuanceLedger.Entry> pending = new ArrayList<>();
+        StringBuilder rows = new StringBuilder();
+        while (failure.get() == null) {
+            long start = next.getAndAdd(chunk);
+            if (start >= count) {
+                return;
+            }
+            int n = (int) Math.min(chunk, count - start);
+            WalletBatch batch = source.chunk(start, n);
+            try {
+                pending.clear();
+                IssuanceLedger.addBatch(pending, batch, kind, firstRecord + start, System.currentTimeMillis());
+                ledger.appendDurable(pending);
+                entries.addAndGet(pending.size());
+                rows.setLength(0);
+                WalletCsv.writeRows(batch, rows);
+                synchronized (out) {
+                    out.append(rows);
+                }
+            } finally {
+                batch.clear();
+                rows.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.hy.wallet.ledger;
+
+import com.hy.wallet.core.Chain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 发放账本文件格式（.hyl）
+ * <pre>
+ * 文件头（8字节）：magic "HYLG" | 版本(1) | 保留(3)
+ * 批次：           批次头(12) | 记录 × 记录数
+ * 批次头：         记录部分字节数(4) | 记录数(4) | CRC32(4)
+ * 记录：           长度(1) | 类型(1) | 时间戳毫秒(8) | 索引或记录号(8) | 地址ASCII(长度-17) | CRC32(4)
+ * </pre>
+ * 每个批次是写线程一次写入加一次fsync的内容，批次头的CRC32覆盖记录部分字节数、记录数与整个记录部分。
+ * 长度为类型到地址的字节数；类型低4位为链（1=BTC 2=ETH 3=SOL 4=TRON），最高位为1表示引用的是派生索引，
+ * 为0表示调用方的记录号；记录的CRC32覆盖长度到地址。记录序号即记录在文件中的位置（从1开始），不单独存储。
+ * 读取以批次为单位：批次不完整或任何校验失败时整批无效，读取在此停止。一次写入的各页落盘顺序不确定，
+ * 崩溃后最后一个批次可能只有后半部分落盘，因此只有其后再也找不到完整批次时才视为写入途中崩溃留下的尾部
+ * （见 {@link #findBatch}；下一批只会在上一批fsync成功后写入），否则是文件中部损坏。
+ */
+final class LedgerFormat {
+
+    static final byte[] MAGIC = "HYLG".getBytes(StandardCharsets.US_ASCII);
+    static final byte VERSION = 2;
+    static final int HEADER_LENGTH = 8;
+    static final int BATCH_HEADER_LENGTH = 12;
+    /** 单个批次的最大记录数 */
+    static final int MAX_BATCH_RECORDS = 1 << 16;
+    /** 长度字段之后、地址之前的定长部分：类型(1) 时间戳(8) 引用(8) */
+    static final int FIXED_LENGTH = 17;
+    static final int MAX_ADDRESS_LENGTH = 255 - FIXED_LENGTH;
+    /** 单条记录的最大字节数 */
+    static final int MAX_RECORD_LENGTH = 1 + 255 + 4;
+    /** 单条记录的最小字节数（地址至少1个字符） */
+    static final int MIN_RECORD_LENGTH = 1 + FIXED_LENGTH + 1 + 4;
+
+    private static final int INDEX_FLAG = 0x80;
+
+    private LedgerFormat() {
+    }
+
+    static byte[] header() {
+        return ByteBuffer.allocate(HEADER_LENGTH).put(MAGIC).put(VERSION).array();
+    }
+
+    /**
+     * 校验文件头
+     */
+    static void checkHeader(byte[] header, int length) throws IOException {
+        if (length < HEADER_LENGTH || !Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IOException("不是发放账本文件（文件头标识不符）");
+        }
+        if (header[MAGIC.length] != VERSION) {
+            throw new IOException("不支持的发放账本版本：" + header[MAGIC.length]);
+        }
+    }
+
+    /** 单条记录的编码长度 */
+    static int recordLength(IssuanceLedger.Entry entry) {
+        return 1 + FIXED_LENGTH + entry.address().length() + 4;
+    }
+
+    /**
+     * 编码一条记录写入缓冲区（剩余空间须不小于 {@link #recordLength}）
+     */
+    static void encode(IssuanceLedger.Entry entry, ByteBuffer out, CRC32 crc) {
+        int start = out.position();
+        String address = entry.address();
+        out.put((byte) (FIXED_LENGTH + address.length()));
+        int type = chainCode(entry.chain()) | (entry.kind() == IssuanceLedger.Reference.INDEX ? INDEX_FLAG : 0);
+        out.put((byte) type).putLong(entry.timestampMillis()).putLong(entry.reference());
+        for (int i = 0; i < address.length(); i++) {
+            out.put((byte) address.charAt(i));
+        }
+        crc.reset();
+        crc.update(out.array(), out.arrayOffset() + start, out.position() - start);
+        out.putInt((int) crc.getValue());
+    }
+
+    /**
+     * 开始一个批次：在当前位置预留批次头，之后用 {@link #encode} 写入记录
+     *
+     * @return 批次起始位置（传给 {@link #endBatch}）
+     */
+    static int beginBatch(ByteBuffer out) {
+        int start = out.position();
+        out.position(start + BATCH_HEADER_LENGTH);
+        return start;
+    }
+
+    /**
+     * 结束批次：填写批次头
+     *
+     * @param start 由 {@link #beginBatch} 返回的起始位置
+     * @param count 批次中的记录数
+     */
+    static void endBatch(ByteBuffer out, int start, int count, CRC32 crc) {
+        int length = out.position() - start - BATCH_HEADER_LENGTH;
+        out.putInt(start, length).putInt(start + 4, count);
+        byte[] a = out.array();
+        int base = out.arrayOffset() + start;
+        crc.reset();
+        crc.update(a, base, 8);
+        crc.update(a, base + BATCH_HEADER_LENGTH, length);
+        out.putInt(start + 8, (int) crc.getValue());
+    }
+
+    /**
+     * 读取位于 buf[off] 的批次头
+     *
+     * @return 记录部分字节数；记录数或长度不合理时返回-1
+     */
+    static int batchLength(byte[] buf, int off) {
+        ByteBuffer b = ByteBuffer.wrap(buf, off, BATCH_HEADER_LENGTH);
+        int length = b.getInt();
+        int count = b.getInt();
+        if (count <= 0 || count > MAX_BATCH_RECORDS
+                || length < count * MIN_RECORD_LENGTH || length > count * MAX_RECORD_LENGTH) {
+            return -1;
+        }
+        return length;
+    }
+
+    /**
+     * 校验并解码位于 buf[off] 的完整批次（批次头起，长度已由 {@link #batchLength} 确认）
+     *
+     * @param out 接收批次中的记录；批次无效时可能已加入部分记录，由调用方丢弃
+     * @return 批次CRC32一致、每条记录有效且恰好占满记录部分时返回true
+     */
+    static boolean decodeBatch(byte[] buf, int off, CRC32 crc, List<IssuanceLedger.Entry> out) {
+        ByteBuffer b = ByteBuffer.wrap(buf, off, BATCH_HEADER_LENGTH);
+        int length = b.getInt();
+        int count = b.getInt();
+        int expected = b.getInt();
+        crc.reset();
+        crc.update(buf, off, 8);
+        crc.update(buf, off + BATCH_HEADER_LENGTH, length);
+        if ((int) crc.getValue() != expected) {
+            return false;
+        }
+        int pos = off + BATCH_HEADER_LENGTH;
+        int end = pos + length;
+        for (int i = 0; i < count; i++) {
+            IssuanceLedger.Entry entry = decode(buf, pos, end - pos, crc);
+            if (entry == null) {
+                return false;
+            }
+            out.add(entry);
+            pos += 1 + (buf[pos] & 0xff) + 4;
+        }
+        return pos == end;
+    }
+
+    /**
+     * 解码位于 buf[off] 的一条记录（长度字段起）
+     *
+     * @param avail buf 中从 off 起可用的字节数
+     * @return 记录；不完整、长度或类型非法、地址含非可打印字符或校验失败时返回null
+     */
+    static IssuanceLedger.Entry decode(byte[] buf, int off, int avail, CRC32 crc) {
+        if (avail < 1) {
+            return null;
+        }
+        int len = buf[off] & 0xff;
+        if (len < FIXED_LENGTH + 1 || avail < 1 + len + 4) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buf, off, 1 + len);
+        ByteBuffer b = ByteBuffer.wrap(buf, off + 1, len + 4);
+        int type = b.get() & 0xff;
+        long timestamp = b.getLong();
+        long reference = b.getLong();
+        for (int i = off + 1 + FIXED_LENGTH; i < off + 1 + len; i++) {
+            if (buf[i] <= 0x20 || buf[i] >= 0x7f) {
+                return null;
+            }
+        }
+        b.position(off + 1 + len);
+        Chain chain = chainOf(type & 0x0f);
+        if (b.getInt() != (int) crc.getValue() || chain == null || (type & 0x70) != 0) {
+            return null;
+        }
+        String address = new String(buf, off + 1 + FIXED_LENGTH, len - FIXED_LENGTH, StandardCharsets.US_ASCII);
+        IssuanceLedger.Reference kind = (type & INDEX_FLAG) != 0
+                ? IssuanceLedger.Reference.INDEX : IssuanceLedger.Reference.RECORD;
+        return new IssuanceLedger.Entry(chain, address, kind, reference, timestamp);
+    }
+
+    /**
+     * 从指定偏移起逐字节查找第一个完整、有效的批次
+     * 用于区分尾部与中部损坏：写入途中崩溃只会损坏最后一个批次，其后不会再有完整批次。
+     *
+     * @param channel 账本文件
+     * @param from    起始偏移
+     * @return 批次的偏移，找不到时为-1
+     */
+    static long findBatch(FileChannel channel, long from) throws IOException {
+        int step = 1 << 16;
+        byte[] buf = new byte[step + BATCH_HEADER_LENGTH + MAX_RECORD_LENGTH];
+        byte[] frame = new byte[0];
+        CRC32 crc = new CRC32();
+        List<IssuanceLedger.Entry> entries = new ArrayList<>();
+        long size = channel.size();
+        for (long pos = from; pos < size; pos += step) {
+            int n = read(channel, pos, buf, (int) Math.min(buf.length, size - pos));
+            for (int i = 0; i < Math.min(step, n - BATCH_HEADER_LENGTH); i++) {
+                // 先用批次头与第一条记录排除绝大多数位置，再读入整批校验CRC32
+                int length = batchLength(buf, i);
+                if (length < 0 || pos + i + BATCH_HEADER_LENGTH + length > size
+                        || decode(buf, i + BATCH_HEADER_LENGTH, n - i - BATCH_HEADER_LENGTH, crc) == null) {
+                    continue;
+                }
+                if (frame.length < BATCH_HEADER_LENGTH + length) {
+                    frame = new byte[BATCH_HEADER_LENGTH + length];
+                }
+                read(channel, pos + i, frame, BATCH_HEADER_LENGTH + length);
+                entries.clear();
+                if (decodeBatch(frame, 0, crc, entries)) {
+                    return pos + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从文件偏移pos起读取len字节到buf开头（文件足够长）
+     *
+     * @return 读取的字节数
+     */
+    private static int read(FileChannel channel, long pos, byte[] buf, int len) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(buf, 0, len);
+        while (b.hasRemaining()) {
+            if (channel.read(b, pos + b.position()) < 0) {
+                break;
+            }
+        }
+        return b.position();
+    }
+
+    /**
+     * 顺序读取记录的解码器（按批次流式读取，文件大小不受内存限制）
+     */
+    static final class Reader {
+        private final InputStream in;
+        private byte[] buf = new byte[1 << 16];
+        private final CRC32 crc = new CRC32();
+        private final List<IssuanceLedger.Entry> batch = new ArrayList<>();
+        private int next;
+        private long validBytes = HEADER_LENGTH;
+
+        Reader(InputStream in) {
+            this.in = in;
+        }
+
+        /** 最后一个完整批次之后的文件偏移 */
+        long validBytes() {
+            return validBytes;
+        }
+
+        /**
+         * 读取下一条记录
+         *
+         * @return 记录；到达文件末尾或遇到不完整、损坏的批次时返回null（该批次的记录一条也不返回）
+         */
+        IssuanceLedger.Entry next() throws IOException {
+            if (next == batch.size() && !readBatch()) {
+                return null;
+            }
+            return batch.get(next++);
+        }
+
+        private boolean readBatch() throws IOException {
+            batch.clear();
+            next = 0;
+            if (in.readNBytes(buf, 0, BATCH_HEADER_LENGTH) != BATCH_HEADER_LENGTH) {
+                return false;
+            }
+            int length = batchLength(buf, 0);
+            if (length < 0) {
+                return false;
+            }
+            if (buf.length < BATCH_HEADER_LENGTH + length) {
+                buf = Arrays.copyOf(buf, BATCH_HEADER_LENGTH + length);
+            }
+            if (in.readNBytes(buf, BATCH_HEADER_LENGTH, length) != length || !decodeBatch(buf, 0, crc, batch)) {
+                batch.clear();
+                return false;
+            }
+            validBytes += BATCH_HEADER_LENGTH + length;
+            return true;
+        }
+    }
+
+    private static int chainCode(Chain chain) {
+        return switch (chain) {
+            case BTC -> 1;
+            case ETH -> 2;
+            case SOL -> 3;
+            case TRON -> 4;
+        };
+    }
+
+    private static Chain chainOf(int code) {
+        return switch (code) {
+            case 1 -> Chain.BTC;
+            case 2 -> Chain.ETH;
+            case 3 -> Chain.SOL;
+            case 4 -> Chain.TRON;
+            default -> null;
+        };
+    }
+}
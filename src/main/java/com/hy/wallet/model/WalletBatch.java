@@ -0,0 +1,485 @@
+package com.hy.wallet.model;
+
+import com.hy.wallet.core.Chain;
+import com.hy.wallet.utils.EthChecksum;
+import com.hy.wallet.utils.MultiHash;
+import org.bitcoinj.core.Base58;
+import org.bitcoinj.core.Bech32;
+import org.bitcoinj.crypto.MnemonicCode;
+import org.bitcoinj.crypto.MnemonicException;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 列式钱包批次
+ * 以连续的原始字节列保存一批钱包（第i行位于各列的 i*定长 处），替代N个 {@link WalletInfo} 对象：
+ * - 助记词保存为16字节熵，地址保存为20字节哈希或32字节公钥，私钥保存为32字节原始值；
+ * - 字符串（助记词、Base58/Bech32地址、WIF/十六进制私钥）仅在通过 {@link Row} 读取时按需编码；
+ * - 输出与校验可直接读取列数组（各列以 xxxColumn() 暴露，返回内部数组本身，不做拷贝）；
+ * - 整批输出前可调用 {@link #precomputeEncodings()}，用 {@link MultiHash} 批量算出各行的Base58Check校验码与EIP-55哈希。
+ * 每行约 16 + 8 + 4×(32+20) + 64 = 296 字节（全部链），而对象形式约2~3KB。
+ * 未选择的链不分配对应列，读取时返回null。批次含明文私钥，用完应调用 {@link #clear()} 清零。
+ */
+public final class WalletBatch {
+
+    /** 熵长度（12词助记词） */
+    public static final int ENTROPY_LENGTH = 16;
+    /** secp256k1私钥、Ed25519私钥（种子）与公钥长度 */
+    public static final int KEY_LENGTH = 32;
+    /** 地址哈希长度（BTC hash160、ETH/TRON keccak末20字节） */
+    public static final int HASH_LENGTH = 20;
+
+    /** BTC主网WIF版本字节 */
+    private static final int WIF_VERSION = 0x80;
+    /** BTC主网P2PKH版本字节 */
+    private static final int P2PKH_VERSION = 0x00;
+    /** TRON地址前缀 */
+    private static final int TRON_PREFIX = 0x41;
+    /** Base58Check校验码长度 */
+    private static final int CHECKSUM_LENGTH = 4;
+    /** EIP-55只用到地址十六进制串Keccak哈希的前20字节（40个半字节） */
+    private static final int ETH_CHECKSUM_HASH_LENGTH = 20;
+
+    private final int capacity;
+    private final Set<Chain> chains;
+    private int size;
+
+    private final byte[] entropy;
+    private final long[] indexes;
+    private final byte[] btcLegacyKeys;
+    private final byte[] btcLegacyHashes;
+    private final byte[] btcSegwitKeys;
+    private final byte[] btcSegwitHashes;
+    private final byte[] ethKeys;
+    private final byte[] ethAddresses;
+    private final byte[] solSecretKeys;
+    private final byte[] solPublicKeys;
+    private final byte[] tronKeys;
+    private final byte[] tronAddresses;
+
+    /** 预计算编码覆盖的行数：第 [0, encodedRows) 行的校验码已算好 */
+    private int encodedRows;
+    private byte[] btcLegacyChecksums;
+    private byte[] btcLegacyWifChecksums;
+    private byte[] btcSegwitWifChecksums;
+    private byte[] ethChecksumHashes;
+    private byte[] tronChecksums;
+
+    /**
+     * @param capacity 最大行数
+     * @param chains   需要保存的链
+     */
+    public WalletBatch(int capacity, Set<Chain> chains) {
+        if (capacity <= 0 || (long) capacity * ENTROPY_LENGTH > Integer.MAX_VALUE
+                || (long) capacity * KEY_LENGTH > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("批次容量无效：" + capacity);
+        }
+        this.capacity = capacity;
+        this.chains = EnumSet.copyOf(chains);
+        this.entropy = new byte[capacity * ENTROPY_LENGTH];
+        this.indexes = new long[capacity];
+        boolean btc = chains.contains(Chain.BTC);
+        boolean eth = chains.contains(Chain.ETH);
+        boolean sol = chains.contains(Chain.SOL);
+        boolean tron = chains.contains(Chain.TRON);
+        this.btcLegacyKeys = btc ? new byte[capacity * KEY_LENGTH] : null;
+        this.btcLegacyHashes = btc ? new byte[capacity * HASH_LENGTH] : null;
+        this.btcSegwitKeys = btc ? new byte[capacity * KEY_LENGTH] : null;
+        this.btcSegwitHashes = btc ? new byte[capacity * HASH_LENGTH] : null;
+        this.ethKeys = eth ? new byte[capacity * KEY_LENGTH] : null;
+        this.ethAddresses = eth ? new byte[capacity * HASH_LENGTH] : null;
+        this.solSecretKeys = sol ? new byte[capacity * KEY_LENGTH] : null;
+        this.solPublicKeys = sol ? new byte[capacity * KEY_LENGTH] : null;
+        this.tronKeys = tron ? new byte[capacity * KEY_LENGTH] : null;
+        this.tronAddresses = tron ? new byte[capacity * HASH_LENGTH] : null;
+    }
+
+    /**
+     * 追加一行（各链列由派生代码随后写入该行）
+     *
+     * @param entropySrc 熵来源
+     * @param off        熵在来源中的偏移
+     * @param index      地址索引
+     * @return 新行的行号
+     */
+    public int add(byte[] entropySrc, int off, long index) {
+        if (size == capacity) {
+            throw new IllegalStateException("批次已满：" + capacity);
+        }
+        int row = size++;
+        System.arraycopy(entropySrc, off, entropy, row * ENTROPY_LENGTH, ENTROPY_LENGTH);
+        indexes[row] = index;
+        return row;
+    }
+
+    /** 当前行数 */
+    public int size() {
+        return size;
+    }
+
+    /** 最大行数 */
+    public int capacity() {
+        return capacity;
+    }
+
+    /** 批次保存的链 */
+    public Set<Chain> chains() {
+        return EnumSet.copyOf(chains);
+    }
+
+    /** 是否保存了指定链 */
+    public boolean has(Chain chain) {
+        return chains.contains(chain);
+    }
+
+    /**
+     * 行视图（每次调用新建一个轻量对象；遍历时可用 {@link Row#at(int)} 复用同一视图）
+     *
+     * @param row 行号
+     */
+    public Row row(int row) {
+        return new Row().at(row);
+    }
+
+    /**
+     * 清零全部列（含熵与私钥）与预计算的校验码并将行数置0，批次可复用
+     */
+    public void clear() {
+        for (byte[] column : new byte[][]{entropy, btcLegacyKeys, btcLegacyHashes, btcSegwitKeys, btcSegwitHashes,
+                ethKeys, ethAddresses, solSecretKeys, solPublicKeys, tronKeys, tronAddresses,
+                btcLegacyChecksums, btcLegacyWifChecksums, btcSegwitWifChecksums, ethChecksumHashes, tronChecksums}) {
+            if (column != null) {
+                Arrays.fill(column, (byte) 0);
+            }
+        }
+        Arrays.fill(indexes, 0);
+        size = 0;
+        encodedRows = 0;
+    }
+
+    /**
+     * 为当前全部行批量预计算字符串编码所需的哈希：
+     * BTC Legacy地址、两种WIF与TRON地址的Base58Check校验码（双重SHA-256），以及ETH地址的EIP-55哈希（Keccak-256）。
+     * 之后通过 {@link Row} 读取这些字段时直接使用结果，不再逐行求哈希。应在各链列写入完成后调用；
+     * 之后新追加的行不在预计算范围内，读取时照常逐行计算。
+     */
+    public void precomputeEncodings() {
+        int rows = size;
+        if (btcLegacyHashes != null) {
+            btcLegacyChecksums = checksums(btcLegacyChecksums, P2PKH_VERSION, btcLegacyHashes, HASH_LENGTH, false, rows);
+            btcLegacyWifChecksums = checksums(btcLegacyWifChecksums, WIF_VERSION, btcLegacyKeys, KEY_LENGTH, true, rows);
+            btcSegwitWifChecksums = checksums(btcSegwitWifChecksums, WIF_VERSION, btcSegwitKeys, KEY_LENGTH, true, rows);
+        }
+        if (tronAddresses != null) {
+            tronChecksums = checksums(tronChecksums, TRON_PREFIX, tronAddresses, HASH_LENGTH, false, rows);
+        }
+        if (ethAddresses != null) {
+            if (ethChecksumHashes == null) {
+                ethChecksumHashes = new byte[capacity * ETH_CHECKSUM_HASH_LENGTH];
+            }
+            // 各行地址的小写十六进制ASCII（每行40字节）连续排列，整批做Keccak-256
+            byte[] hex = Hex.encode(ethAddresses, 0, rows * HASH_LENGTH);
+            byte[] hashes = new byte[rows * 32];
+            MultiHash.keccak256(hex, 0, 2 * HASH_LENGTH, rows, hashes, 0);
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(hashes, i * 32, ethChecksumHashes, i * ETH_CHECKSUM_HASH_LENGTH,
+                        ETH_CHECKSUM_HASH_LENGTH);
+            }
+        }
+        encodedRows = rows;
+    }
+
+    /**
+     * 批量计算 Base58Check(version || column[i] || [0x01]) 的4字节校验码
+     *
+     * @param cache      校验码缓存（为null时按容量分配）
+     * @param version    版本字节
+     * @param column     数据列
+     * @param width      每行数据长度
+     * @param compressed 是否追加压缩公钥标志0x01（WIF）
+     * @param rows       行数
+     * @return 校验码缓存
+     */
+    private byte[] checksums(byte[] cache, int version, byte[] column, int width, boolean compressed, int rows) {
+        byte[] out = cache != null ? cache : new byte[capacity * CHECKSUM_LENGTH];
+        int len = 1 + width + (compressed ? 1 : 0);
+        byte[] payloads = new byte[rows * len];
+        byte[] hashes = new byte[rows * 32];
+        try {
+            for (int i = 0; i < rows; i++) {
+                int p = i * len;
+                payloads[p] = (byte) version;
+                System.arraycopy(column, i * width, payloads, p + 1, width);
+                if (compressed) {
+                    payloads[p + len - 1] = 0x01;
+                }
+            }
+            MultiHash.doubleSha256(payloads, 0, len, rows, hashes, 0);
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(hashes, i * 32, out, i * CHECKSUM_LENGTH, CHECKSUM_LENGTH);
+            }
+            return out;
+        } finally {
+            // WIF载荷含私钥
+            Arrays.fill(payloads, (byte) 0);
+            Arrays.fill(hashes, (byte) 0);
+        }
+    }
+
+    /** 熵列：每行 {@value #ENTROPY_LENGTH} 字节 */
+    public byte[] entropyColumn() {
+        return entropy;
+    }
+
+    /** 地址索引列 */
+    public long[] indexColumn() {
+        return indexes;
+    }
+
+    /** BTC Legacy私钥列：每行 {@value #KEY_LENGTH} 字节 */
+    public byte[] btcLegacyKeyColumn() {
+        return btcLegacyKeys;
+    }
+
+    /** BTC Legacy公钥hash160列：每行 {@value #HASH_LENGTH} 字节 */
+    public byte[] btcLegacyHashColumn() {
+        return btcLegacyHashes;
+    }
+
+    /** BTC SegWit私钥列：每行 {@value #KEY_LENGTH} 字节 */
+    public byte[] btcSegwitKeyColumn() {
+        return btcSegwitKeys;
+    }
+
+    /** BTC SegWit公钥hash160（见证程序）列：每行 {@value #HASH_LENGTH} 字节 */
+    public byte[] btcSegwitHashColumn() {
+        return btcSegwitHashes;
+    }
+
+    /** ETH私钥列：每行 {@value #KEY_LENGTH} 字节 */
+    public byte[] ethKeyColumn() {
+        return ethKeys;
+    }
+
+    /** ETH地址列（keccak末20字节）：每行 {@value #HASH_LENGTH} 字节 */
+    public byte[] ethAddressColumn() {
+        return ethAddresses;
+    }
+
+    /** SOL私钥（Ed25519种子）列：每行 {@value #KEY_LENGTH} 字节 */
+    public byte[] solSecretKeyColumn() {
+        return solSecretKeys;
+    }
+
+    /** SOL公钥（即地址）列：每行 {@value #KEY_LENGTH} 字节 */
+    public byte[] solPublicKeyColumn() {
+        return solPublicKeys;
+    }
+
+    /** TRON私钥列：每行 {@value #KEY_LENGTH} 字节 */
+    public byte[] tronKeyColumn() {
+        return tronKeys;
+    }
+
+    /** TRON地址列（keccak末20字节，不含0x41前缀）：每行 {@value #HASH_LENGTH} 字节 */
+    public byte[] tronAddressColumn() {
+        return tronAddresses;
+    }
+
+    /**
+     * 行视图（享元）：不保存数据，只记录行号，读取时从列中编码字符串
+     */
+    public final class Row implements WalletView {
+        private int row;
+
+        private Row() {
+        }
+
+        /**
+         * 移动到指定行
+         *
+         * @param row 行号
+         * @return 当前视图
+         */
+        public Row at(int row) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("行号越界：" + row + "，行数 " + size);
+            }
+            this.row = row;
+            return this;
+        }
+
+        /** 行号 */
+        public int row() {
+            return row;
+        }
+
+        /** 地址索引 */
+        public long index() {
+            return indexes[row];
+        }
+
+        @Override
+        public List<String> getMnemonic() {
+            try {
+                return MnemonicCode.INSTANCE.toMnemonic(
+                        Arrays.copyOfRange(entropy, row * ENTROPY_LENGTH, (row + 1) * ENTROPY_LENGTH));
+            } catch (MnemonicException.MnemonicLengthException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String getBtcLegacyAddress() {
+            return btcLegacyHashes == null ? null
+                    : base58Check(P2PKH_VERSION, btcLegacyHashes, HASH_LENGTH, false, btcLegacyChecksums);
+        }
+
+        @Override
+        public String getBtcLegacyWif() {
+            return btcLegacyKeys == null ? null
+                    : base58Check(WIF_VERSION, btcLegacyKeys, KEY_LENGTH, true, btcLegacyWifChecksums);
+        }
+
+        @Override
+        public String getBtcSegwitAddress() {
+            return btcSegwitHashes == null ? null : segwitAddress(hash(btcSegwitHashes));
+        }
+
+        @Override
+        public String getBtcSegwitWif() {
+            return btcSegwitKeys == null ? null
+                    : base58Check(WIF_VERSION, btcSegwitKeys, KEY_LENGTH, true, btcSegwitWifChecksums);
+        }
+
+        @Override
+        public String getEthAddress() {
+            if (ethAddresses == null) {
+                return null;
+            }
+            String lower = Hex.toHexString(ethAddresses, row * HASH_LENGTH, HASH_LENGTH);
+            return row < encodedRows
+                    ? EthChecksum.toChecksumAddress(lower, ethChecksumHashes, row * ETH_CHECKSUM_HASH_LENGTH)
+                    : EthChecksum.toChecksumAddress(lower);
+        }
+
+        @Override
+        public String getEthPrivateHex() {
+            return ethKeys == null ? null : "0x" + Hex.toHexString(ethKeys, row * KEY_LENGTH, KEY_LENGTH);
+        }
+
+        @Override
+        public String getSolAddress() {
+            return solPublicKeys == null ? null
+                    : Base58.encode(Arrays.copyOfRange(solPublicKeys, row * KEY_LENGTH, (row + 1) * KEY_LENGTH));
+        }
+
+        @Override
+        public String getSolPrivate() {
+            if (solSecretKeys == null) {
+                return null;
+            }
+            // 64字节 secret key：32字节私钥 + 32字节公钥
+            byte[] secret64 = new byte[2 * KEY_LENGTH];
+            System.arraycopy(solSecretKeys, row * KEY_LENGTH, secret64, 0, KEY_LENGTH);
+            System.arraycopy(solPublicKeys, row * KEY_LENGTH, secret64, KEY_LENGTH, KEY_LENGTH);
+            try {
+                return Base58.encode(secret64);
+            } finally {
+                Arrays.fill(secret64, (byte) 0);
+            }
+        }
+
+        @Override
+        public String getTronAddress() {
+            return tronAddresses == null ? null
+                    : base58Check(TRON_PREFIX, tronAddresses, HASH_LENGTH, false, tronChecksums);
+        }
+
+        @Override
+        public String getTronPrivateHex() {
+            return tronKeys == null ? null : "0x" + Hex.toHexString(tronKeys, row * KEY_LENGTH, KEY_LENGTH);
+        }
+
+        /**
+         * 转换为独立的 {@link WalletInfo} 对象
+         */
+        public WalletInfo toWalletInfo() {
+            WalletInfo info = new WalletInfo();
+            info.setMnemonic(getMnemonic());
+            info.setBtcLegacyAddress(getBtcLegacyAddress());
+            info.setBtcLegacyWif(getBtcLegacyWif());
+            info.setBtcSegwitAddress(getBtcSegwitAddress());
+            info.setBtcSegwitWif(getBtcSegwitWif());
+            info.setEthAddress(getEthAddress());
+            info.setEthPrivateHex(getEthPrivateHex());
+            info.setSolAddress(getSolAddress());
+            info.setSolPrivate(getSolPrivate());
+            info.setTronAddress(getTronAddress());
+            info.setTronPrivateHex(getTronPrivateHex());
+            return info;
+        }
+
+        private byte[] hash(byte[] column) {
+            return Arrays.copyOfRange(column, row * HASH_LENGTH, (row + 1) * HASH_LENGTH);
+        }
+
+        /**
+         * Base58Check(version || column[row] || [0x01])；WIF（压缩公钥）为 version=0x80 且追加0x01。
+         * 本行已预计算时直接使用缓存的校验码，否则逐行做双重SHA-256。
+         */
+        private String base58Check(int version, byte[] column, int width, boolean compressed, byte[] checksums) {
+            int len = width + (compressed ? 1 : 0);
+            if (row >= encodedRows) {
+                byte[] payload = new byte[len];
+                System.arraycopy(column, row * width, payload, 0, width);
+                if (compressed) {
+                    payload[width] = 0x01;
+                }
+                try {
+                    return Base58.encodeChecked(version, payload);
+                } finally {
+                    Arrays.fill(payload, (byte) 0);
+                }
+            }
+            byte[] encoded = new byte[1 + len + CHECKSUM_LENGTH];
+            encoded[0] = (byte) version;
+            System.arraycopy(column, row * width, encoded, 1, width);
+            if (compressed) {
+                encoded[len] = 0x01;
+            }
+            System.arraycopy(checksums, row * CHECKSUM_LENGTH, encoded, 1 + len, CHECKSUM_LENGTH);
+            try {
+                return Base58.encode(encoded);
+            } finally {
+                Arrays.fill(encoded, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Native SegWit v0 地址：Bech32("bc", [0] || convertBits(程序, 8→5))
+     */
+    private static String segwitAddress(byte[] program) {
+        byte[] data = new byte[1 + (program.length * 8 + 4) / 5];
+        int acc = 0;
+        int bits = 0;
+        int j = 1;
+        for (byte b : program) {
+            acc = (acc << 8) | (b & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                bits -= 5;
+                data[j++] = (byte) ((acc >>> bits) & 0x1F);
+            }
+        }
+        if (bits > 0) {
+            data[j] = (byte) ((acc << (5 - bits)) & 0x1F);
+        }
+        return Bech32.encode(Bech32.Encoding.BECH32, "bc", data);
+    }
+}
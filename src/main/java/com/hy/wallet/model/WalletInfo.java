@@ -6,7 +6,7 @@ import java.util.List;
  * 钱包信息模型类
  * 封装单个钱包的助记词、各链地址以及对应私钥/密钥格式。
  */
-public class WalletInfo {
+public class WalletInfo implements WalletView {
     // 助记词（12个英文单词）
     private List<String> mnemonic;
 
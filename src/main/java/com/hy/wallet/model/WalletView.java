@@ -0,0 +1,34 @@
+package com.hy.wallet.model;
+
+import java.util.List;
+
+/**
+ * 钱包只读视图
+ * 由 {@link WalletInfo}（逐个对象）与 {@link WalletBatch.Row}（列式批次中的一行）共同实现，
+ * 输出与校验代码面向此接口即可同时处理两种形式。未派生的链对应方法返回null。
+ */
+public interface WalletView {
+
+    /** 12个助记词单词 */
+    List<String> getMnemonic();
+
+    String getBtcLegacyAddress();
+
+    String getBtcLegacyWif();
+
+    String getBtcSegwitAddress();
+
+    String getBtcSegwitWif();
+
+    String getEthAddress();
+
+    String getEthPrivateHex();
+
+    String getSolAddress();
+
+    String getSolPrivate();
+
+    String getTronAddress();
+
+    String getTronPrivateHex();
+}
@@ -0,0 +1,109 @@
+package com.hy.wallet.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界多生产者多消费者无锁队列（Dmitry Vyukov 的环形数组算法）
+ * 每个槽位带一个序号：序号等于入队位置时可写，等于入队位置+1时可读；
+ * 生产者/消费者各自以CAS推进 tail/head，不使用锁，队满/队空时立即返回而不阻塞，
+ * 由调用方决定自旋、让出或休眠（见 {@link Pipeline}）。
+ *
+ * @param <E> 元素类型
+ */
+public final class BoundedMpmcQueue<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public BoundedMpmcQueue(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("队列容量必须在2到2^30之间");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队
+     *
+     * @param e 元素（非null）
+     * @return 队满时返回false
+     */
+    public boolean offer(E e) {
+        long pos = tail.get();
+        int idx;
+        while (true) {
+            idx = (int) pos & mask;
+            long dif = sequences.getAcquire(idx) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = tail.get();
+            } else if (dif < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+        buffer.setPlain(idx, e);
+        sequences.setRelease(idx, pos + 1);
+        return true;
+    }
+
+    /**
+     * 出队
+     *
+     * @return 队空时返回null
+     */
+    public E poll() {
+        long pos = head.get();
+        int idx;
+        while (true) {
+            idx = (int) pos & mask;
+            long dif = sequences.getAcquire(idx) - (pos + 1);
+            if (dif == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = head.get();
+            } else if (dif < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+        E e = buffer.getPlain(idx);
+        buffer.setPlain(idx, null);
+        sequences.setRelease(idx, pos + mask + 1);
+        return e;
+    }
+
+    /**
+     * 当前元素数（并发下为近似值）
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * 容量
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
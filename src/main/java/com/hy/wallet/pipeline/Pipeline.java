@@ -0,0 +1,491 @@
+package com.hy.wallet.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 分阶段流水线执行器
+ * - 阶段之间以有界无锁队列（{@link BoundedMpmcQueue}）连接，每个阶段有独立的工作线程数（最小/最大值由调用方给出）；
+ * - 下游队列满时上游线程在入队处等待，慢速的输出端会逐级反压直至源头阶段，内存中的在途元素数有上界；
+ * - 控制线程按固定间隔采样各阶段的服务时间与队列深度，在总线程预算内逐步调整各阶段线程数：
+ *   线程数按服务时间占比分配，输入队列积压而输出队列有余量的阶段优先增加，输出队列积压的阶段不再增加。
+ * 每个元素依次经过全部阶段（不过滤），任一阶段抛出异常即终止整个流水线。
+ */
+public final class Pipeline {
+    private static final Logger log = LoggerFactory.getLogger(Pipeline.class);
+
+    /** 队列积压阈值（占容量比例） */
+    private static final double HIGH_WATER = 0.75;
+    /** 队列有余量阈值（占容量比例） */
+    private static final double LOW_WATER = 0.5;
+    /** 服务时间指数平滑系数 */
+    private static final double EWMA_ALPHA = 0.3;
+
+    /**
+     * 源头阶段：每次产生一个新元素
+     */
+    @FunctionalInterface
+    public interface Source<O> {
+        O next() throws Exception;
+    }
+
+    /**
+     * 中间阶段：处理一个元素并传给下游
+     */
+    @FunctionalInterface
+    public interface Step<I, O> {
+        O apply(I in) throws Exception;
+    }
+
+    /**
+     * 输出阶段：消费一个元素（单线程调用）
+     */
+    @FunctionalInterface
+    public interface Sink<I> {
+        void accept(I in) throws Exception;
+    }
+
+    /**
+     * 阶段统计
+     *
+     * @param name             阶段名
+     * @param threads          目标线程数（控制线程最近一次的分配结果）
+     * @param processed        已处理元素数
+     * @param avgServiceMicros 平均单个元素服务时间（微秒）
+     * @param blockedMillis    因下游队列满而等待的累计时间（毫秒）
+     * @param queueDepth       输入队列当前深度（源头阶段为0）
+     * @param queueCapacity    输入队列容量（源头阶段为0）
+     */
+    public record StageStats(String name, int threads, long processed, double avgServiceMicros,
+                             long blockedMillis, int queueDepth, int queueCapacity) {
+    }
+
+    /**
+     * 运行报告
+     *
+     * @param items        处理元素数
+     * @param elapsedNanos 总耗时（纳秒）
+     * @param rebalances   线程数调整次数
+     * @param stages       各阶段统计
+     */
+    public record Report(long items, long elapsedNanos, int rebalances, List<StageStats> stages) {
+
+        /** 吞吐量（元素/秒） */
+        public double itemsPerSecond() {
+            return elapsedNanos == 0 ? 0 : items * 1e9 / elapsedNanos;
+        }
+    }
+
+    private enum Kind {SOURCE, STEP, SINK}
+
+    private record StageDef(String name, Kind kind, Object fn, int minThreads, int maxThreads) {
+    }
+
+    /**
+     * 流水线参数（各阶段共用）
+     */
+    private static final class Config {
+        private final List<StageDef> defs = new ArrayList<>();
+        private int queueCapacity = 1024;
+        private int threadBudget = -1;
+        private long controlIntervalMillis = 200;
+    }
+
+    /**
+     * 流水线构建器，泛型参数为当前最后一个阶段的输出类型
+     */
+    public static final class Builder<T> {
+        private final Config config;
+
+        private Builder(Config config) {
+            this.config = config;
+        }
+
+        /**
+         * 追加中间阶段
+         *
+         * @param name       阶段名
+         * @param step       处理函数（需线程安全）
+         * @param minThreads 最少线程数
+         * @param maxThreads 最多线程数
+         */
+        public <R> Builder<R> then(String name, Step<? super T, ? extends R> step, int minThreads, int maxThreads) {
+            config.defs.add(def(name, Kind.STEP, step, minThreads, maxThreads));
+            return new Builder<>(config);
+        }
+
+        /**
+         * 阶段间队列容量（默认1024）
+         */
+        public Builder<T> queueCapacity(int capacity) {
+            config.queueCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * 全部阶段的线程总数上限（默认CPU核数+阶段数）
+         */
+        public Builder<T> threadBudget(int budget) {
+            config.threadBudget = budget;
+            return this;
+        }
+
+        /**
+         * 控制线程的采样与调整间隔（默认200毫秒）
+         */
+        public Builder<T> controlIntervalMillis(long millis) {
+            config.controlIntervalMillis = millis;
+            return this;
+        }
+
+        /**
+         * 追加输出阶段（单线程）并完成构建
+         *
+         * @param name 阶段名
+         * @param sink 输出函数
+         */
+        public Pipeline sink(String name, Sink<? super T> sink) {
+            config.defs.add(def(name, Kind.SINK, sink, 1, 1));
+            return new Pipeline(config);
+        }
+    }
+
+    /**
+     * 以源头阶段开始构建流水线
+     *
+     * @param name       阶段名
+     * @param source     元素生成函数（需线程安全）
+     * @param minThreads 最少线程数
+     * @param maxThreads 最多线程数
+     */
+    public static <T> Builder<T> source(String name, Source<? extends T> source, int minThreads, int maxThreads) {
+        Config config = new Config();
+        config.defs.add(def(name, Kind.SOURCE, source, minThreads, maxThreads));
+        return new Builder<>(config);
+    }
+
+    private static StageDef def(String name, Kind kind, Object fn, int minThreads, int maxThreads) {
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("阶段 " + name + " 线程数范围无效：" + minThreads + ".." + maxThreads);
+        }
+        return new StageDef(name, kind, fn, minThreads, maxThreads);
+    }
+
+    /**
+     * 运行期阶段状态
+     */
+    private static final class Stage {
+        private final StageDef def;
+        private final BoundedMpmcQueue<Object> input;
+        private final BoundedMpmcQueue<Object> output;
+        /** 已领取的元素数（源头阶段为已发放的序号） */
+        private final AtomicLong claimed = new AtomicLong();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder blockedNanos = new LongAdder();
+        private final AtomicInteger running = new AtomicInteger();
+        private volatile int target;
+        private int threadSeq;
+        // 以下字段仅由控制线程访问
+        private long lastProcessed;
+        private long lastBusyNanos;
+        private double serviceNanos;
+
+        private Stage(StageDef def, BoundedMpmcQueue<Object> input, BoundedMpmcQueue<Object> output) {
+            this.def = def;
+            this.input = input;
+            this.output = output;
+            this.target = def.minThreads();
+        }
+
+        private double inputFill() {
+            return input == null ? 0 : (double) input.size() / input.capacity();
+        }
+
+        private double outputFill() {
+            return output == null ? 0 : (double) output.size() / output.capacity();
+        }
+
+        /** 积压程度：越大越需要线程（源头阶段以输出队列空闲程度衡量） */
+        private double pressure() {
+            return input == null ? 1 - outputFill() : inputFill();
+        }
+    }
+
+    private final List<StageDef> defs;
+    private final int queueCapacity;
+    private final int threadBudget;
+    private final long controlIntervalMillis;
+
+    private List<Stage> stages;
+    private long items;
+    private volatile boolean stopped;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicLong delivered = new AtomicLong();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+    private int rebalances;
+
+    private Pipeline(Config config) {
+        this.defs = List.copyOf(config.defs);
+        this.queueCapacity = config.queueCapacity;
+        int minTotal = defs.stream().mapToInt(StageDef::minThreads).sum();
+        int budget = config.threadBudget > 0 ? config.threadBudget
+                : Runtime.getRuntime().availableProcessors() + defs.size();
+        if (budget < minTotal) {
+            throw new IllegalArgumentException("线程预算 " + budget + " 小于各阶段最少线程数之和 " + minTotal);
+        }
+        this.threadBudget = budget;
+        this.controlIntervalMillis = config.controlIntervalMillis;
+    }
+
+    /**
+     * 运行流水线直至items个元素全部到达输出阶段（每个实例只能运行一次）
+     *
+     * @param items 元素总数
+     * @return 运行报告
+     */
+    public Report run(long items) throws Exception {
+        if (stages != null) {
+            throw new IllegalStateException("流水线只能运行一次");
+        }
+        if (items <= 0) {
+            throw new IllegalArgumentException("元素总数必须为正整数");
+        }
+        this.items = items;
+        List<Stage> list = new ArrayList<>(defs.size());
+        BoundedMpmcQueue<Object> upstream = null;
+        for (int i = 0; i < defs.size(); i++) {
+            BoundedMpmcQueue<Object> out = i == defs.size() - 1 ? null : new BoundedMpmcQueue<>(queueCapacity);
+            list.add(new Stage(defs.get(i), upstream, out));
+            upstream = out;
+        }
+        this.stages = list;
+
+        long start = System.nanoTime();
+        for (Stage st : stages) {
+            startThreads(st);
+        }
+        try {
+            while (!finished.await(controlIntervalMillis, TimeUnit.MILLISECONDS)) {
+                rebalance();
+            }
+        } finally {
+            stopped = true;
+            for (Thread t : new ArrayList<>(threads)) {
+                t.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        }
+        Throwable error = failure.get();
+        if (error instanceof Exception e) {
+            throw e;
+        } else if (error != null) {
+            throw new IllegalStateException("流水线执行失败: " + error.getMessage(), error);
+        }
+        return new Report(items, System.nanoTime() - start, rebalances, snapshot());
+    }
+
+    /**
+     * 各阶段当前统计（可在运行期间调用）
+     */
+    public List<StageStats> snapshot() {
+        List<StageStats> list = new ArrayList<>();
+        if (stages == null) {
+            return list;
+        }
+        for (Stage st : stages) {
+            long processed = st.processed.sum();
+            double service = processed == 0 ? 0 : st.busyNanos.sum() / 1e3 / processed;
+            list.add(new StageStats(st.def.name(), st.target, processed, service,
+                    st.blockedNanos.sum() / 1_000_000,
+                    st.input == null ? 0 : st.input.size(), st.input == null ? 0 : st.input.capacity()));
+        }
+        return list;
+    }
+
+    private void work(Stage st) {
+        boolean retired = false;
+        try {
+            int idleSpins = 0;
+            while (!stopped) {
+                int running = st.running.get();
+                if (running > st.target && st.running.compareAndSet(running, running - 1)) {
+                    retired = true;
+                    return;
+                }
+                Object in = null;
+                if (st.def.kind() == Kind.SOURCE) {
+                    if (st.claimed.getAndIncrement() >= items) {
+                        return;
+                    }
+                } else {
+                    if (st.claimed.get() >= items) {
+                        return;
+                    }
+                    in = st.input.poll();
+                    if (in == null) {
+                        idle(idleSpins++);
+                        continue;
+                    }
+                    st.claimed.incrementAndGet();
+                }
+                idleSpins = 0;
+
+                long t0 = System.nanoTime();
+                Object out = process(st, in);
+                st.busyNanos.add(System.nanoTime() - t0);
+                st.processed.increment();
+
+                if (st.output != null) {
+                    put(st, out);
+                } else if (delivered.incrementAndGet() == items) {
+                    finished.countDown();
+                }
+            }
+        } catch (Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                log.error("流水线阶段 {} 执行失败", st.def.name(), e);
+            }
+            stopped = true;
+            finished.countDown();
+        } finally {
+            if (!retired) {
+                st.running.decrementAndGet();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object process(Stage st, Object in) throws Exception {
+        return switch (st.def.kind()) {
+            case SOURCE -> ((Source<Object>) st.def.fn()).next();
+            case STEP -> ((Step<Object, Object>) st.def.fn()).apply(in);
+            case SINK -> {
+                ((Sink<Object>) st.def.fn()).accept(in);
+                yield null;
+            }
+        };
+    }
+
+    /**
+     * 入下游队列；队满即等待（反压），等待时间计入blockedNanos
+     */
+    private void put(Stage st, Object item) {
+        if (st.output.offer(item)) {
+            return;
+        }
+        long t0 = System.nanoTime();
+        int spins = 0;
+        while (!st.output.offer(item)) {
+            if (stopped) {
+                return;
+            }
+            idle(spins++);
+        }
+        st.blockedNanos.add(System.nanoTime() - t0);
+    }
+
+    /**
+     * 退避等待：先自旋，再让出CPU，最后短暂休眠
+     */
+    private static void idle(int spins) {
+        if (spins < 64) {
+            Thread.onSpinWait();
+        } else if (spins < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    private void startThreads(Stage st) {
+        synchronized (st) {
+            while (st.running.get() < st.target && st.claimed.get() < items && !stopped) {
+                st.running.incrementAndGet();
+                Thread t = new Thread(() -> work(st), "pipeline-" + st.def.name() + "-" + (++st.threadSeq));
+                t.setDaemon(true);
+                threads.add(t);
+                t.start();
+            }
+        }
+    }
+
+    /**
+     * 控制线程：按服务时间占比与队列深度调整各阶段目标线程数，每次每个阶段最多变化1个线程
+     */
+    private void rebalance() {
+        int n = stages.size();
+        double totalService = 0;
+        for (Stage st : stages) {
+            long processed = st.processed.sum();
+            long busy = st.busyNanos.sum();
+            long dp = processed - st.lastProcessed;
+            if (dp > 0) {
+                double sample = (double) (busy - st.lastBusyNanos) / dp;
+                st.serviceNanos = st.serviceNanos == 0 ? sample : st.serviceNanos * (1 - EWMA_ALPHA) + sample * EWMA_ALPHA;
+            }
+            st.lastProcessed = processed;
+            st.lastBusyNanos = busy;
+            totalService += st.serviceNanos;
+        }
+        if (totalService == 0) {
+            return;
+        }
+
+        int[] next = new int[n];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            Stage st = stages.get(i);
+            StageDef def = st.def;
+            int desired = (int) Math.round(threadBudget * st.serviceNanos / totalService);
+            if (st.pressure() > HIGH_WATER && st.outputFill() < LOW_WATER) {
+                // 瓶颈阶段：输入积压且下游有余量
+                desired = Math.max(desired, st.target + 1);
+            }
+            if (st.outputFill() > HIGH_WATER) {
+                // 下游已积压，增加线程只会增加阻塞等待
+                desired = Math.min(desired, st.target);
+            }
+            desired = Math.max(def.minThreads(), Math.min(def.maxThreads(), desired));
+            next[i] = st.target + Integer.signum(desired - st.target);
+            total += next[i];
+        }
+        // 超出总预算时，从积压最小的阶段开始回收
+        while (total > threadBudget) {
+            int victim = -1;
+            for (int i = 0; i < n; i++) {
+                if (next[i] > stages.get(i).def.minThreads()
+                        && (victim < 0 || stages.get(i).pressure() < stages.get(victim).pressure())) {
+                    victim = i;
+                }
+            }
+            if (victim < 0) {
+                break;
+            }
+            next[victim]--;
+            total--;
+        }
+
+        for (int i = 0; i < n; i++) {
+            Stage st = stages.get(i);
+            if (next[i] != st.target) {
+                log.debug("阶段 {} 线程数 {} -> {}（服务时间 {} µs，输入队列 {}）", st.def.name(), st.target, next[i],
+                        Math.round(st.serviceNanos / 1e3), st.input == null ? "-" : st.input.size());
+                st.target = next[i];
+                rebalances++;
+            }
+            startThreads(st);
+        }
+    }
+}
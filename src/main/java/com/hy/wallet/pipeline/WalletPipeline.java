@@ -0,0 +1,115 @@
+package com.hy.wallet.pipeline;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.job.WalletCsv;
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.utils.Bip39Seed;
+import com.hy.wallet.utils.CryptoUtils;
+import com.hy.wallet.validation.Validator;
+import org.bitcoinj.crypto.MnemonicCode;
+
+import java.io.Writer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 分阶段钱包生成流水线
+ * 熵 → 助记词 → PBKDF2种子 → secp256k1派生（BTC/ETH/TRON，含地址编码）→ Ed25519派生（SOL，含编码）
+ * → 校验（可选）→ CSV写出。
+ * 种子在最后一个用到它的阶段（Ed25519派生）完成后立即清零；输出写入较慢时反压至熵阶段，
+ * 在途钱包数不超过各队列容量之和。
+ */
+public final class WalletPipeline {
+
+    /**
+     * 运行参数
+     *
+     * @param queueCapacity         阶段间队列容量
+     * @param threadBudget          线程总数上限（0表示默认：CPU核数+阶段数）
+     * @param validate              是否对每个钱包执行 {@link Validator} 全量校验
+     * @param controlIntervalMillis 线程调整间隔（毫秒）
+     */
+    public record Options(int queueCapacity, int threadBudget, boolean validate, long controlIntervalMillis) {
+
+        /** 默认参数：队列1024、默认线程预算、开启校验、200毫秒调整一次 */
+        public static Options defaults() {
+            return new Options(1024, 0, true, 200);
+        }
+    }
+
+    /**
+     * 在阶段之间传递的单个钱包的中间状态
+     */
+    private static final class Task {
+        private byte[] entropy;
+        private List<String> mnemonic;
+        private byte[] seed;
+        private WalletInfo info;
+    }
+
+    private WalletPipeline() {
+    }
+
+    /**
+     * 生成count个随机钱包并按 {@link WalletCsv} 格式写出（含表头）
+     *
+     * @param count   钱包数量
+     * @param out     输出（仅由输出阶段的单个线程写入）
+     * @param options 运行参数
+     * @return 运行报告
+     */
+    public static Pipeline.Report generate(long count, Writer out, Options options) throws Exception {
+        int max = Math.max(1, Runtime.getRuntime().availableProcessors());
+        SecureRandom random = CryptoUtils.secureRandom();
+
+        Pipeline.Builder<WalletInfo> builder = Pipeline.<Task>source("entropy", () -> {
+                    Task t = new Task();
+                    t.entropy = new byte[16];
+                    random.nextBytes(t.entropy);
+                    return t;
+                }, 1, 2)
+                .<Task>then("mnemonic", t -> {
+                    t.mnemonic = MnemonicCode.INSTANCE.toMnemonic(t.entropy);
+                    Arrays.fill(t.entropy, (byte) 0);
+                    t.entropy = null;
+                    return t;
+                }, 1, 2)
+                .<Task>then("seed", t -> {
+                    t.seed = new byte[Bip39Seed.SEED_LENGTH];
+                    Bip39Seed.toSeed(t.mnemonic, "", t.seed, 0);
+                    t.info = new WalletInfo();
+                    t.info.setMnemonic(t.mnemonic);
+                    return t;
+                }, 1, max)
+                .<Task>then("secp256k1", t -> {
+                    WalletGenerator.deriveSecp256k1Chains(t.info, t.seed, 0);
+                    return t;
+                }, 1, max)
+                .then("ed25519", t -> {
+                    WalletGenerator.deriveSolana(t.info, t.seed, 0);
+                    Arrays.fill(t.seed, (byte) 0);
+                    t.seed = null;
+                    return t.info;
+                }, 1, max);
+        if (options.validate()) {
+            builder = builder.then("validation", info -> {
+                if (!Validator.passes(info)) {
+                    throw new IllegalStateException("钱包校验未通过：" + info.getEthAddress());
+                }
+                return info;
+            }, 1, max);
+        }
+        Pipeline pipeline = builder
+                .queueCapacity(options.queueCapacity())
+                .threadBudget(options.threadBudget())
+                .controlIntervalMillis(options.controlIntervalMillis())
+                .sink("sink", info -> WalletCsv.writeRow(info, out));
+
+        out.write(WalletCsv.HEADER);
+        out.write('\n');
+        Pipeline.Report report = pipeline.run(count);
+        out.flush();
+        return report;
+    }
+}
@@ -0,0 +1,342 @@
+package com.hy.wallet.pool;
+
+import com.hy.wallet.job.SegmentFiles;
+import com.hy.wallet.utils.CryptoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * 钱包池加密存储（仅追加，预生成的钱包在重启后仍可使用）
+ * <pre>
+ * 文件头（56字节）：magic "HYWP" | 版本(1) | KDF(1，1=PBKDF2-HMAC-SHA256) | 保留(2) | KDF迭代次数(4)
+ *                  | 盐(16) | 校验nonce前缀(4) | 槽位长度(4) | 链掩码(4) | 口令校验标签(16)
+ * 记录：           序号(8) | nonce(12) | AES-256-GCM(钱包槽位)，含16字节认证标签
+ * </pre>
+ * 每条记录的nonce在加密时随机生成并随记录保存，完整文件头与序号作为附加认证数据。
+ * 打开时会截断写入途中崩溃留下的不完整尾部记录，之后的追加会重新使用这些序号；nonce不由序号推出，
+ * 因此不会以同一nonce加密两个不同的钱包。口令校验标签是以 校验nonce前缀 || 2^64-1 加密空明文得到的认证标签
+ * （附加认证数据为文件头前40字节），打开时即可发现口令错误。记录序号连续递增，
+ * 已交出的记录由 {@link #compact(long)} 以新文件原子替换的方式清除。
+ * 实例非线程安全。
+ */
+final class PoolSpool implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(PoolSpool.class);
+
+    static final int DEFAULT_ITERATIONS = 600_000;
+
+    private static final byte[] MAGIC = "HYWP".getBytes(StandardCharsets.US_ASCII);
+    private static final byte VERSION = 2;
+    private static final byte KDF_PBKDF2_SHA256 = 1;
+    private static final int HEADER_LENGTH = 56;
+    private static final int CHECKED_HEADER_LENGTH = 40;
+    private static final int SALT_LENGTH = 16;
+    private static final int NONCE_PREFIX_LENGTH = 4;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int TAG_LENGTH = TAG_BITS / 8;
+    private static final long CHECK_COUNTER = -1L;
+
+    private final Path file;
+    private final SecretKey key;
+    private final byte[] header;
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+    private final byte[] aad;
+    private final int slotLength;
+    private final int recordLength;
+    private FileChannel channel;
+    /** 文件中第一条记录的序号（无记录时为下一条将写入的序号） */
+    private long firstSeq;
+    private long records;
+
+    private PoolSpool(Path file, FileChannel channel, SecretKey key, byte[] header, int slotLength,
+                      long firstSeq, long records) {
+        this.file = file;
+        this.channel = channel;
+        this.key = key;
+        this.header = header;
+        this.aad = Arrays.copyOf(header, HEADER_LENGTH + 8);
+        this.slotLength = slotLength;
+        this.recordLength = recordLength(slotLength);
+        this.firstSeq = firstSeq;
+        this.records = records;
+    }
+
+    /**
+     * 打开（不存在则创建）钱包池存储
+     *
+     * @param file       存储文件
+     * @param password   口令（不会被保留，调用方负责清零）
+     * @param slotLength 槽位长度
+     * @param chainMask  链掩码
+     * @param iterations 新建时的KDF迭代次数
+     * @param nextSeq    新建或存储为空时第一条记录应使用的序号
+     */
+    static PoolSpool open(Path file, char[] password, int slotLength, int chainMask, int iterations, long nextSeq)
+            throws IOException {
+        try {
+            if (!Files.exists(file)) {
+                return create(file, password, slotLength, chainMask, iterations, nextSeq);
+            }
+            FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                byte[] header = new byte[HEADER_LENGTH];
+                if (ch.size() < HEADER_LENGTH || ch.read(ByteBuffer.wrap(header), 0) != HEADER_LENGTH) {
+                    throw new IOException("钱包池存储文件头不完整：" + file);
+                }
+                ByteBuffer h = ByteBuffer.wrap(header);
+                byte[] magic = new byte[MAGIC.length];
+                h.get(magic);
+                byte version = h.get();
+                byte kdf = h.get();
+                h.getShort();
+                int iter = h.getInt();
+                byte[] salt = new byte[SALT_LENGTH];
+                h.get(salt);
+                byte[] prefix = new byte[NONCE_PREFIX_LENGTH];
+                h.get(prefix);
+                int storedSlot = h.getInt();
+                int storedMask = h.getInt();
+                if (!Arrays.equals(magic, MAGIC) || version != VERSION || kdf != KDF_PBKDF2_SHA256 || iter <= 0) {
+                    throw new IOException("不是钱包池存储文件或版本不受支持：" + file);
+                }
+                if (storedSlot != slotLength || storedMask != chainMask) {
+                    throw new IOException("钱包池存储的链配置与当前不一致，请使用相同的链配置或新的池目录");
+                }
+                SecretKey key = deriveKey(password, salt, iter);
+                byte[] check = checkTag(key, prefix, header);
+                if (!Arrays.equals(check, 0, TAG_LENGTH, header, CHECKED_HEADER_LENGTH, HEADER_LENGTH)) {
+                    throw new IOException("钱包池口令错误或存储文件头已被篡改");
+                }
+                int recordLength = recordLength(slotLength);
+                long size = ch.size();
+                long records = (size - HEADER_LENGTH) / recordLength;
+                long first = nextSeq;
+                if (records > 0) {
+                    ByteBuffer seq = ByteBuffer.allocate(8);
+                    ch.read(seq, HEADER_LENGTH);
+                    first = seq.flip().getLong();
+                    ByteBuffer last = ByteBuffer.allocate(8);
+                    ch.read(last, HEADER_LENGTH + (records - 1) * recordLength);
+                    if (last.flip().getLong() != first + records - 1) {
+                        throw new IOException("钱包池存储记录序号不连续：" + file);
+                    }
+                }
+                long valid = HEADER_LENGTH + records * recordLength;
+                if (valid < size) {
+                    log.warn("钱包池存储 {} 尾部存在 {} 字节不完整记录，已截断", file, size - valid);
+                    ch.truncate(valid);
+                    ch.force(true);
+                }
+                ch.position(valid);
+                PoolSpool spool = new PoolSpool(file, ch, key, header, slotLength, first, records);
+                ch = null;
+                return spool;
+            } finally {
+                if (ch != null) {
+                    ch.close();
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IOException("钱包池存储加密初始化失败", e);
+        }
+    }
+
+    private static PoolSpool create(Path file, char[] password, int slotLength, int chainMask, int iterations,
+                                    long nextSeq) throws IOException, GeneralSecurityException {
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] prefix = new byte[NONCE_PREFIX_LENGTH];
+        CryptoUtils.secureRandom().nextBytes(salt);
+        CryptoUtils.secureRandom().nextBytes(prefix);
+        ByteBuffer h = ByteBuffer.allocate(HEADER_LENGTH);
+        h.put(MAGIC).put(VERSION).put(KDF_PBKDF2_SHA256).putShort((short) 0).putInt(iterations)
+                .put(salt).put(prefix).putInt(slotLength).putInt(chainMask);
+        byte[] header = h.array();
+        SecretKey key = deriveKey(password, salt, iterations);
+        System.arraycopy(checkTag(key, prefix, header), 0, header, CHECKED_HEADER_LENGTH, TAG_LENGTH);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(ch, ByteBuffer.wrap(header));
+            ch.force(true);
+        }
+        SegmentFiles.promote(tmp, file);
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ch.position(HEADER_LENGTH);
+        return new PoolSpool(file, ch, key, header, slotLength, nextSeq, 0);
+    }
+
+    /** 文件中第一条记录的序号 */
+    long firstSeq() {
+        return firstSeq;
+    }
+
+    /** 下一条追加记录的序号 */
+    long nextSeq() {
+        return firstSeq + records;
+    }
+
+    /** 文件中的记录数 */
+    long records() {
+        return records;
+    }
+
+    /**
+     * 加密追加count个槽位（序号依次为 {@link #nextSeq()} 起）并落盘
+     *
+     * @param slots 槽位明文，第i个位于 i*slotLength
+     * @param count 槽位个数
+     * @return 第一个槽位的序号
+     */
+    long append(byte[] slots, int count) throws IOException {
+        long seq = nextSeq();
+        ByteBuffer out = ByteBuffer.allocate(count * recordLength);
+        try {
+            for (int i = 0; i < count; i++) {
+                CryptoUtils.secureRandom().nextBytes(nonce);
+                out.putLong(seq + i).put(nonce);
+                int n = cipher(Cipher.ENCRYPT_MODE, seq + i, nonce).doFinal(slots, i * slotLength, slotLength,
+                        out.array(), out.position());
+                out.position(out.position() + n);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IOException("钱包池存储加密失败", e);
+        }
+        out.flip();
+        writeFully(channel, out);
+        channel.force(false);
+        records += count;
+        return seq;
+    }
+
+    /**
+     * 解密序号不小于fromSeq的全部记录
+     *
+     * @param fromSeq 起始序号
+     * @param dst     明文输出，第i个槽位位于 i*slotLength，调用方负责清零
+     * @return 槽位个数
+     */
+    int readFrom(long fromSeq, byte[] dst) throws IOException {
+        long from = Math.max(fromSeq, firstSeq);
+        int count = (int) Math.max(0, nextSeq() - from);
+        if (count == 0) {
+            return 0;
+        }
+        ByteBuffer in = ByteBuffer.allocate(count * recordLength);
+        long pos = HEADER_LENGTH + (from - firstSeq) * recordLength;
+        while (in.hasRemaining()) {
+            int n = channel.read(in, pos + in.position());
+            if (n < 0) {
+                throw new IOException("钱包池存储被截断");
+            }
+        }
+        in.flip();
+        try {
+            for (int i = 0; i < count; i++) {
+                long seq = in.getLong();
+                if (seq != from + i) {
+                    throw new IOException("钱包池存储记录序号不符：期望 " + (from + i) + "，实际 " + seq);
+                }
+                in.get(nonce);
+                cipher(Cipher.DECRYPT_MODE, seq, nonce).doFinal(in.array(), in.position(), slotLength + TAG_LENGTH,
+                        dst, i * slotLength);
+                in.position(in.position() + slotLength + TAG_LENGTH);
+            }
+        } catch (AEADBadTagException e) {
+            throw new IOException("钱包池存储记录认证失败：文件已被篡改", e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("钱包池存储解密失败", e);
+        }
+        return count;
+    }
+
+    /**
+     * 清除序号不大于takenUpTo的记录：其余记录原样（密文）复制到新文件后原子替换
+     */
+    void compact(long takenUpTo) throws IOException {
+        long from = Math.max(takenUpTo + 1, firstSeq);
+        long live = Math.max(0, nextSeq() - from);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(ch, ByteBuffer.wrap(header));
+            channel.transferTo(HEADER_LENGTH + (from - firstSeq) * recordLength, live * recordLength, ch);
+            ch.force(true);
+        }
+        channel.close();
+        SegmentFiles.promote(tmp, file);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(HEADER_LENGTH + live * recordLength);
+        firstSeq = from;
+        records = live;
+    }
+
+    private static int recordLength(int slotLength) {
+        return 8 + NONCE_LENGTH + slotLength + TAG_LENGTH;
+    }
+
+    /**
+     * 记录的加解密器：附加认证数据为 文件头 || 序号，防止记录被调换位置
+     */
+    private Cipher cipher(int mode, long seq, byte[] recordNonce) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, key, new GCMParameterSpec(TAG_BITS, recordNonce));
+        ByteBuffer.wrap(aad).putLong(HEADER_LENGTH, seq);
+        cipher.updateAAD(aad);
+        return cipher;
+    }
+
+    private static byte[] checkTag(SecretKey key, byte[] prefix, byte[] header) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, nonce(prefix, CHECK_COUNTER));
+        cipher.updateAAD(header, 0, CHECKED_HEADER_LENGTH);
+        return cipher.doFinal();
+    }
+
+    private static GCMParameterSpec nonce(byte[] prefix, long counter) {
+        byte[] iv = ByteBuffer.allocate(NONCE_PREFIX_LENGTH + 8).put(prefix).putLong(counter).array();
+        return new GCMParameterSpec(TAG_BITS, iv);
+    }
+
+    private static SecretKey deriveKey(char[] password, byte[] salt, int iterations) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, 256);
+        byte[] raw = null;
+        try {
+            raw = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+            return new SecretKeySpec(raw, "AES");
+        } finally {
+            spec.clearPassword();
+            if (raw != null) {
+                Arrays.fill(raw, (byte) 0);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
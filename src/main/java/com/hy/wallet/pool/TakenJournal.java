@@ -0,0 +1,158 @@
+package com.hy.wallet.pool;
+
+import com.hy.wallet.job.SegmentFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 钱包池取出日志（仅追加）
+ * 每取出一个钱包先追加一条定长记录并fsync，之后才把钱包交给调用方：
+ * <pre>
+ * 序号(8) | CRC32(序号)(4)
+ * </pre>
+ * 钱包按序号先进先出地取出，因此只需最大序号即可判断哪些钱包已交出；重启后序号不大于它的钱包不会再次交出。
+ * 打开时从头校验，遇到不完整或校验失败的尾部记录（写入途中崩溃留下）即截断丢弃。
+ * 运行中写入或fsync失败时截断回最后一条完整记录，保证之后的记录不会追加在残缺记录之后（否则重启时会被一并截断，
+ * 已交出的钱包被再次交出）；截断也失败时日志不再接受新记录。实例非线程安全。
+ */
+final class TakenJournal implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(TakenJournal.class);
+
+    private static final int RECORD_LENGTH = 12;
+
+    private final Path file;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+    private FileChannel channel;
+    private long takenUpTo;
+    private long records;
+    private boolean broken;
+
+    private TakenJournal(Path file, FileChannel channel, long takenUpTo, long records) {
+        this.file = file;
+        this.channel = channel;
+        this.takenUpTo = takenUpTo;
+        this.records = records;
+    }
+
+    /**
+     * 打开（不存在则创建）取出日志并截断损坏的尾部
+     */
+    static TakenJournal open(Path file) throws IOException {
+        long takenUpTo = 0;
+        long valid = 0;
+        long size = 0;
+        if (Files.exists(file)) {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+            size = content.capacity();
+            while (content.remaining() >= RECORD_LENGTH) {
+                long seq = content.getLong();
+                int crc = content.getInt();
+                if (crc != crc(seq) || seq <= takenUpTo) {
+                    break;
+                }
+                takenUpTo = seq;
+                valid += RECORD_LENGTH;
+            }
+            if (valid < size) {
+                log.warn("钱包池取出日志 {} 尾部存在 {} 字节不完整记录，已截断", file, size - valid);
+            }
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(valid);
+            channel.position(valid);
+            channel.force(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new TakenJournal(file, channel, takenUpTo, valid / RECORD_LENGTH);
+    }
+
+    /** 已交出钱包的最大序号（从未交出时为0） */
+    long takenUpTo() {
+        return takenUpTo;
+    }
+
+    /** 日志中的记录数 */
+    long records() {
+        return records;
+    }
+
+    /**
+     * 记录序号为seq的钱包已交出并落盘
+     */
+    void record(long seq) throws IOException {
+        if (seq <= takenUpTo) {
+            throw new IllegalStateException("取出序号必须递增：" + seq + " <= " + takenUpTo);
+        }
+        if (broken) {
+            throw new IOException("钱包池取出日志 " + file + " 此前写入失败且无法回退，不再交出钱包");
+        }
+        long end = records * RECORD_LENGTH;
+        try {
+            write(channel, seq);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.truncate(end);
+                channel.position(end);
+                channel.force(false);
+            } catch (IOException | RuntimeException r) {
+                broken = true;
+                e.addSuppressed(r);
+            }
+            throw e;
+        }
+        takenUpTo = seq;
+        records++;
+    }
+
+    /**
+     * 压缩：以只含当前最大序号的新日志原子替换旧日志
+     */
+    void compact() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (takenUpTo > 0) {
+                write(ch, takenUpTo);
+            }
+            ch.force(true);
+        }
+        channel.close();
+        SegmentFiles.promote(tmp, file);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        records = takenUpTo > 0 ? 1 : 0;
+    }
+
+    private void write(FileChannel ch, long seq) throws IOException {
+        record.clear();
+        record.putLong(seq).putInt(crc(seq)).flip();
+        while (record.hasRemaining()) {
+            ch.write(record);
+        }
+    }
+
+    private static int crc(long seq) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (seq >>> shift));
+        }
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
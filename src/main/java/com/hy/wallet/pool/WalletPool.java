@@ -0,0 +1,525 @@
+package com.hy.wallet.pool;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.utils.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 预生成钱包池
+ * 后台补充线程预先完成BIP39种子（PBKDF2）与各链派生，请求路径上的 {@link #take()} 只需从环形缓冲区取出一个定长槽位
+ * 并编码为字符串（与池大小无关的O(1)操作）：
+ * - 就绪钱包以原始字节槽位（见 {@link WalletSlot}）保存在堆外直接内存中，交出或关闭时清零，不进入日志；
+ * - 高低水位：就绪数（含正在生成的）降到低水位时开始补充，补到高水位为止；
+ * - 持久模式（{@link #open}）下新生成的钱包先以AES-256-GCM加密追加到池目录的存储文件并落盘，才变为可取出；
+ *   每次取出先把序号写入取出日志并落盘，才交给调用方。钱包按序号先进先出，
+ *   重启后只恢复序号大于日志最大序号的钱包，因此同一个钱包至多交出一次（崩溃时最多损失一个已记账未交付的钱包）；
+ * - 持久模式的池在打开期间持有池目录的排他文件锁，同一目录不能被两个进程（或同一进程两次）同时打开；
+ * - 内存模式（{@link #inMemory}）不写文件，进程退出即丢弃未交出的钱包。
+ * 可由多个线程并发调用 {@link #take()}。
+ */
+public final class WalletPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WalletPool.class);
+
+    /** 持久模式的存储文件名 */
+    public static final String SPOOL_FILE = "pool.spool";
+    /** 持久模式的取出日志文件名 */
+    public static final String TAKEN_FILE = "pool.taken";
+    /** 持久模式的锁文件名 */
+    public static final String LOCK_FILE = "pool.lock";
+
+    /** 存储中已交出的记录数超过该值（且不少于高水位）时压缩存储文件 */
+    private static final int COMPACT_MIN_RECORDS = 4096;
+    /** 取出日志记录数超过该值时压缩日志 */
+    private static final int JOURNAL_COMPACT_RECORDS = 65536;
+
+    /**
+     * 池参数
+     *
+     * @param highWatermark 高水位（环形缓冲区容量）
+     * @param lowWatermark  低水位：就绪数（含正在生成的）不高于该值时开始补充
+     * @param refillThreads 补充线程数
+     * @param refillBatch   补充线程每次生成的钱包数
+     */
+    public record Options(int highWatermark, int lowWatermark, int refillThreads, int refillBatch) {
+        public static final int DEFAULT_HIGH_WATERMARK = 256;
+        public static final int DEFAULT_REFILL_BATCH = 16;
+
+        public Options {
+            if (highWatermark <= 0 || lowWatermark < 0 || lowWatermark >= highWatermark
+                    || refillThreads <= 0 || refillBatch <= 0) {
+                throw new IllegalArgumentException("钱包池参数无效：high=" + highWatermark + ", low=" + lowWatermark
+                        + ", threads=" + refillThreads + ", batch=" + refillBatch);
+            }
+        }
+
+        /**
+         * 默认参数：高水位256，低水位为其一半，补充线程数为CPU数减1（至少1），每批16个
+         */
+        public static Options defaults() {
+            return new Options(DEFAULT_HIGH_WATERMARK, DEFAULT_HIGH_WATERMARK / 2,
+                    Math.max(1, Runtime.getRuntime().availableProcessors() - 1), DEFAULT_REFILL_BATCH);
+        }
+
+        /** 以新的高低水位替换 */
+        public Options withWatermarks(int high, int low) {
+            return new Options(high, low, refillThreads, refillBatch);
+        }
+
+        /** 以新的补充线程数替换 */
+        public Options withRefillThreads(int threads) {
+            return new Options(highWatermark, lowWatermark, threads, refillBatch);
+        }
+    }
+
+    /**
+     * 运行指标
+     *
+     * @param ready       当前就绪数
+     * @param restored    打开时从存储恢复的钱包数
+     * @param taken       已交出数
+     * @param emptyTakes  取出时池为空、需要等待补充的次数
+     * @param refilled    已补充数
+     * @param takeLatency 取出耗时（含等待补充与落盘）
+     */
+    public record Metrics(int ready, int restored, long taken, long emptyTakes, long refilled,
+                          LatencyHistogram.Snapshot takeLatency) {
+    }
+
+    private final WalletGenerator generator;
+    private final Options options;
+    private final WalletSlot slot;
+    private final PoolSpool spool;
+    private final TakenJournal journal;
+    /** 持久模式下持有池目录排他锁的通道，关闭即释放 */
+    private final FileChannel lockChannel;
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final int restored;
+    private final byte[] zeros;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition needRefill = lock.newCondition();
+    /** 存储追加与入队按序号顺序进行 */
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final LatencyHistogram takeLatency = new LatencyHistogram();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private int head;
+    private int count;
+    private int inFlight;
+    private boolean filling = true;
+    /** 环形缓冲区队首钱包的序号（与存储记录序号一致） */
+    private long headSeq;
+    private long taken;
+    private long emptyTakes;
+    private long refilled;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    private WalletPool(WalletGenerator generator, Options options, PoolSpool spool, TakenJournal journal,
+                       FileChannel lockChannel, byte[] restoredSlots, int restoredCount, long firstSeq) {
+        this.generator = generator;
+        this.options = options;
+        this.slot = new WalletSlot(generator.chains());
+        this.spool = spool;
+        this.journal = journal;
+        this.lockChannel = lockChannel;
+        this.capacity = Math.max(options.highWatermark(), restoredCount);
+        this.ring = ByteBuffer.allocateDirect(capacity * slot.length());
+        this.zeros = new byte[slot.length()];
+        if (restoredCount > 0) {
+            ring.put(0, restoredSlots, 0, restoredCount * slot.length());
+        }
+        this.count = restoredCount;
+        this.restored = restoredCount;
+        this.headSeq = firstSeq;
+        this.filling = restoredCount <= options.lowWatermark();
+    }
+
+    /**
+     * 创建内存模式的钱包池并启动补充线程（进程退出时未交出的钱包随之丢弃）
+     *
+     * @param generator 钱包生成器（决定生成哪些链）
+     * @param options   池参数
+     * @return 钱包池
+     */
+    public static WalletPool inMemory(WalletGenerator generator, Options options) {
+        return new WalletPool(generator, options, null, null, null, null, 0, 1).start();
+    }
+
+    /**
+     * 打开（不存在则创建）持久模式的钱包池，恢复上次未交出的钱包并启动补充线程
+     * 池目录已被其他进程打开时抛出 {@link IllegalStateException}。
+     *
+     * @param dir       池目录
+     * @param password  存储口令（不会被保留，调用方负责清零）
+     * @param generator 钱包生成器（链配置须与创建时一致）
+     * @param options   池参数
+     * @return 钱包池
+     */
+    public static WalletPool open(Path dir, char[] password, WalletGenerator generator, Options options)
+            throws IOException {
+        Files.createDirectories(dir);
+        WalletSlot slot = new WalletSlot(generator.chains());
+        FileChannel lockChannel = lockDir(dir);
+        TakenJournal journal = null;
+        PoolSpool spool = null;
+        byte[] slots = null;
+        try {
+            journal = TakenJournal.open(dir.resolve(TAKEN_FILE));
+            long takenUpTo = journal.takenUpTo();
+            spool = PoolSpool.open(dir.resolve(SPOOL_FILE), password, slot.length(), slot.chainMask(),
+                    PoolSpool.DEFAULT_ITERATIONS, takenUpTo + 1);
+            if (spool.firstSeq() <= takenUpTo) {
+                spool.compact(takenUpTo);
+            }
+            long live = spool.nextSeq() - spool.firstSeq();
+            if (live > Integer.MAX_VALUE / slot.length()) {
+                throw new IOException("钱包池存储记录过多：" + live);
+            }
+            slots = new byte[(int) live * slot.length()];
+            int n = spool.readFrom(spool.firstSeq(), slots);
+            WalletPool pool = new WalletPool(generator, options, spool, journal, lockChannel, slots, n,
+                    spool.firstSeq());
+            if (n > 0) {
+                log.info("钱包池已恢复 {} 个未交出的钱包", n);
+            }
+            return pool.start();
+        } catch (IOException | RuntimeException e) {
+            if (journal != null) {
+                journal.close();
+            }
+            if (spool != null) {
+                spool.close();
+            }
+            lockChannel.close();
+            throw e;
+        } finally {
+            if (slots != null) {
+                Arrays.fill(slots, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * 取得池目录的排他锁，返回持有锁的通道
+     */
+    private static FileChannel lockDir(Path dir) throws IOException {
+        FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("钱包池正在被其他进程使用：" + dir);
+        }
+        return channel;
+    }
+
+    private WalletPool start() {
+        for (int i = 0; i < options.refillThreads(); i++) {
+            Thread t = new Thread(this::refillLoop, "wallet-pool-refill-" + i);
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            workers.add(t);
+            t.start();
+        }
+        return this;
+    }
+
+    /**
+     * 取出一个钱包；池为空时等待补充
+     *
+     * @return 钱包（每个钱包至多交出一次）
+     */
+    public WalletInfo take() throws IOException, InterruptedException {
+        return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 取出一个钱包，池为空时最多等待指定时间
+     *
+     * @param timeout 等待时长
+     * @param unit    时间单位
+     * @return 钱包，超时返回null
+     */
+    public WalletInfo poll(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        long begin = System.nanoTime();
+        byte[] buf = new byte[slot.length()];
+        try {
+            lock.lockInterruptibly();
+            try {
+                long remaining = unit.toNanos(timeout);
+                if (count == 0) {
+                    emptyTakes++;
+                }
+                while (count == 0) {
+                    checkUsable();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    remaining = notEmpty.awaitNanos(remaining);
+                }
+                checkUsable();
+                if (journal != null) {
+                    journal.record(headSeq);
+                }
+                int off = head * slot.length();
+                ring.get(off, buf);
+                ring.put(off, zeros);
+                head = (head + 1) % capacity;
+                count--;
+                headSeq++;
+                taken++;
+                if (!filling && count + inFlight <= options.lowWatermark()) {
+                    filling = true;
+                    needRefill.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+            WalletBatch scratch = slot.newScratch();
+            WalletInfo wallet = slot.read(buf, 0, scratch);
+            takeLatency.record(System.nanoTime() - begin);
+            return wallet;
+        } finally {
+            Arrays.fill(buf, (byte) 0);
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("钱包池已关闭");
+        }
+        Throwable f = failure;
+        if (f != null) {
+            throw new IOException("钱包池补充失败: " + f.getMessage(), f);
+        }
+    }
+
+    /**
+     * 等待就绪数达到指定值（不超过高水位）；就绪数高于低水位、补充线程空闲时先启动一轮补充
+     *
+     * @param wallets 就绪数
+     * @param timeout 等待时长
+     * @param unit    时间单位
+     * @return 是否在超时前达到
+     */
+    public boolean awaitReady(int wallets, long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        int target = Math.min(wallets, capacity);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (!filling && count + inFlight < target) {
+                filling = true;
+                needRefill.signalAll();
+            }
+            while (count < target) {
+                checkUsable();
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 当前就绪数 */
+    public int ready() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 运行指标 */
+    public Metrics metrics() {
+        lock.lock();
+        try {
+            return new Metrics(count, restored, taken, emptyTakes, refilled, takeLatency.snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 补充线程：等待进入补充状态，预留环形缓冲区空间后在锁外生成一批钱包，落盘后按序号入队
+     */
+    private void refillLoop() {
+        try {
+            while (true) {
+                int n;
+                lock.lock();
+                try {
+                    while (!closed && !filling) {
+                        needRefill.await();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    n = Math.min(options.refillBatch(), capacity - count - inFlight);
+                    if (n <= 0) {
+                        filling = false;
+                        continue;
+                    }
+                    inFlight += n;
+                    if (count + inFlight >= options.highWatermark()) {
+                        filling = false;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                refill(n);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            if (!closed) {
+                log.error("钱包池补充失败", e);
+                failure = e;
+                lock.lock();
+                try {
+                    notEmpty.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private void refill(int n) throws IOException {
+        byte[] slots = new byte[n * slot.length()];
+        WalletBatch batch = null;
+        try {
+            batch = generator.generateColumnar(n);
+            for (int i = 0; i < n; i++) {
+                slot.write(batch, i, slots, i * slot.length());
+            }
+            batch.clear();
+            appendLock.lock();
+            try {
+                if (spool != null) {
+                    spool.append(slots, n);
+                }
+                lock.lock();
+                try {
+                    int tail = (head + count) % capacity;
+                    for (int i = 0; i < n; i++) {
+                        ring.put(((tail + i) % capacity) * slot.length(), slots, i * slot.length(), slot.length());
+                    }
+                    count += n;
+                    inFlight -= n;
+                    refilled += n;
+                    notEmpty.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                compactIfNeeded();
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            if (batch != null) {
+                batch.clear();
+            }
+            Arrays.fill(slots, (byte) 0);
+        }
+    }
+
+    /**
+     * 清除存储中已交出的记录、压缩取出日志（持有appendLock时调用）
+     */
+    private void compactIfNeeded() throws IOException {
+        if (spool == null) {
+            return;
+        }
+        long takenUpTo;
+        lock.lock();
+        try {
+            takenUpTo = headSeq - 1;
+            if (journal.records() >= JOURNAL_COMPACT_RECORDS) {
+                journal.compact();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (takenUpTo - spool.firstSeq() + 1 >= Math.max(COMPACT_MIN_RECORDS, options.highWatermark())) {
+            spool.compact(takenUpTo);
+        }
+    }
+
+    /**
+     * 停止补充线程并清零堆外缓冲区；持久模式下未交出的钱包保留在存储中，下次打开时恢复
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        lock.lock();
+        try {
+            closed = true;
+            needRefill.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (int i = 0; i < capacity; i++) {
+            ring.put(i * slot.length(), zeros);
+        }
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } finally {
+            try {
+                if (spool != null) {
+                    spool.close();
+                }
+            } finally {
+                if (lockChannel != null) {
+                    lockChannel.close();
+                }
+            }
+        }
+    }
+}
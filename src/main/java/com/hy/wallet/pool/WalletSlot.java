@@ -0,0 +1,102 @@
+package com.hy.wallet.pool;
+
+import com.hy.wallet.core.Chain;
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.model.WalletInfo;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 钱包池中一个钱包的定长二进制槽位
+ * 直接沿用 {@link WalletBatch} 的原始列：熵(16) 之后按 BTC、ETH、SOL、TRON 顺序排列所选链的私钥与地址哈希/公钥，
+ * 全部链时共 16 + 2×(32+20) + (32+20) + (32+32) + (32+20) = 288 字节。
+ * 取出时把槽位放回单行批次，由 {@link WalletBatch.Row} 编码成字符串。
+ */
+final class WalletSlot {
+
+    private record Column(Function<WalletBatch, byte[]> column, int width) {
+    }
+
+    private final Set<Chain> chains;
+    private final List<Column> columns = new ArrayList<>();
+    private final int length;
+
+    WalletSlot(Set<Chain> chains) {
+        this.chains = EnumSet.copyOf(chains);
+        if (chains.contains(Chain.BTC)) {
+            columns.add(new Column(WalletBatch::btcLegacyKeyColumn, WalletBatch.KEY_LENGTH));
+            columns.add(new Column(WalletBatch::btcLegacyHashColumn, WalletBatch.HASH_LENGTH));
+            columns.add(new Column(WalletBatch::btcSegwitKeyColumn, WalletBatch.KEY_LENGTH));
+            columns.add(new Column(WalletBatch::btcSegwitHashColumn, WalletBatch.HASH_LENGTH));
+        }
+        if (chains.contains(Chain.ETH)) {
+            columns.add(new Column(WalletBatch::ethKeyColumn, WalletBatch.KEY_LENGTH));
+            columns.add(new Column(WalletBatch::ethAddressColumn, WalletBatch.HASH_LENGTH));
+        }
+        if (chains.contains(Chain.SOL)) {
+            columns.add(new Column(WalletBatch::solSecretKeyColumn, WalletBatch.KEY_LENGTH));
+            columns.add(new Column(WalletBatch::solPublicKeyColumn, WalletBatch.KEY_LENGTH));
+        }
+        if (chains.contains(Chain.TRON)) {
+            columns.add(new Column(WalletBatch::tronKeyColumn, WalletBatch.KEY_LENGTH));
+            columns.add(new Column(WalletBatch::tronAddressColumn, WalletBatch.HASH_LENGTH));
+        }
+        int n = WalletBatch.ENTROPY_LENGTH;
+        for (Column c : columns) {
+            n += c.width();
+        }
+        this.length = n;
+    }
+
+    /** 槽位字节数 */
+    int length() {
+        return length;
+    }
+
+    /** 所选链的位掩码（按 {@link Chain#ordinal()}），写入存储文件头以防以不同的链配置打开 */
+    int chainMask() {
+        int mask = 0;
+        for (Chain c : chains) {
+            mask |= 1 << c.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * 把批次第row行写入dst[off..off+length)
+     */
+    void write(WalletBatch batch, int row, byte[] dst, int off) {
+        System.arraycopy(batch.entropyColumn(), row * WalletBatch.ENTROPY_LENGTH, dst, off, WalletBatch.ENTROPY_LENGTH);
+        int p = off + WalletBatch.ENTROPY_LENGTH;
+        for (Column c : columns) {
+            System.arraycopy(c.column().apply(batch), row * c.width(), dst, p, c.width());
+            p += c.width();
+        }
+    }
+
+    /**
+     * 由槽位还原钱包；scratch为该链配置下容量为1的批次，用完即清零
+     */
+    WalletInfo read(byte[] src, int off, WalletBatch scratch) {
+        try {
+            scratch.add(src, off, 0);
+            int p = off + WalletBatch.ENTROPY_LENGTH;
+            for (Column c : columns) {
+                System.arraycopy(src, p, c.column().apply(scratch), 0, c.width());
+                p += c.width();
+            }
+            return scratch.row(0).toWalletInfo();
+        } finally {
+            scratch.clear();
+        }
+    }
+
+    /** 容量为1的还原用批次 */
+    WalletBatch newScratch() {
+        return new WalletBatch(1, chains);
+    }
+}
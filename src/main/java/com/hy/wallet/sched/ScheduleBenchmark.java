@@ -0,0 +1,167 @@
+package com.hy.wallet.sched;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.core.WarmUp;
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.utils.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调度对比
+ * 同一批量任务与同样节奏的交互请求，先交给FIFO线程池（批量任务按块提交），再交给 {@link WalletScheduler}，
+ * 比较交互请求延迟与批量任务耗时。交互请求按固定间隔开环发出（各由一个虚拟线程提交并等待结果），
+ * 不因前一个请求变慢而推迟。
+ */
+public final class ScheduleBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(ScheduleBenchmark.class);
+
+    /** 默认批量钱包数 */
+    public static final int DEFAULT_BULK = 400;
+    /** 默认交互请求数 */
+    public static final int DEFAULT_REQUESTS = 20;
+    /** 默认交互请求间隔（毫秒） */
+    public static final long DEFAULT_INTERVAL_MS = 25;
+
+    /**
+     * 对比结果
+     *
+     * @param bulk                  批量钱包数
+     * @param requests              交互请求数
+     * @param intervalMs            交互请求间隔（毫秒）
+     * @param options               调度器参数（FIFO线程池使用相同的线程数与块大小）
+     * @param fifoInteractive       FIFO线程池下的交互请求延迟
+     * @param schedInteractive      调度器下的交互请求延迟
+     * @param fifoBulkNanos         FIFO线程池下的批量任务耗时
+     * @param schedBulkNanos        调度器下的批量任务耗时
+     * @param progressAtLastRequest 调度器下最后一个交互请求完成时的批量任务进度
+     * @param metrics               调度器各通道指标
+     */
+    public record Result(int bulk, int requests, long intervalMs, WalletScheduler.Options options,
+                         LatencyHistogram.Snapshot fifoInteractive, LatencyHistogram.Snapshot schedInteractive,
+                         long fifoBulkNanos, long schedBulkNanos, WalletScheduler.Progress progressAtLastRequest,
+                         WalletScheduler.Metrics metrics) {
+
+        /**
+         * 输出对比表
+         */
+        public void print(PrintStream out) {
+            out.printf("调度对比：批量 %d 个钱包（每块 %d 个），交互请求 %d 个（每 %d 毫秒 1 个），工作线程 %d 个"
+                            + "（批量通道上限 %d），可用处理器 %d 个%n", bulk, options.chunkSize(), requests, intervalMs,
+                    options.workers(), options.bulkLimit(), Runtime.getRuntime().availableProcessors());
+            out.printf("最后一个交互请求完成时批量任务进度：%d / %d%n", progressAtLastRequest.done(),
+                    progressAtLastRequest.total());
+            out.println("=".repeat(80));
+            out.printf(" %-30s %20s %20s%n", "", "FIFO线程池", "优先级调度");
+            out.printf(" %-30s %20s %20s%n", "交互请求 p50 / p99（ms）", millis(fifoInteractive),
+                    millis(schedInteractive));
+            out.printf(" %-30s %20.2f %20.2f%n", "批量任务耗时（秒）", fifoBulkNanos / 1e9, schedBulkNanos / 1e9);
+            out.println("-".repeat(80));
+            printLane(out, "交互通道", metrics.interactive());
+            printLane(out, "批量通道（按块）", metrics.bulk());
+            out.println("=".repeat(80));
+        }
+
+        private static String millis(LatencyHistogram.Snapshot s) {
+            return String.format("%.1f / %.1f", s.p50Micros() / 1000, s.p99Micros() / 1000);
+        }
+
+        private static void printLane(PrintStream out, String name, WalletScheduler.LaneMetrics lane) {
+            out.printf(" %s：完成 %d 个单元，取消 %d 个任务；排队等待（ms）p50 %.1f，p99 %.1f，最大 %.1f%n", name,
+                    lane.completed(), lane.cancelled(), lane.queueWait().p50Micros() / 1000,
+                    lane.queueWait().p99Micros() / 1000, lane.queueWait().maxMicros() / 1000);
+        }
+    }
+
+    private ScheduleBenchmark() {
+    }
+
+    /**
+     * 预热后依次以FIFO线程池与调度器运行同一负载
+     *
+     * @param generator  钱包生成器
+     * @param bulk       批量钱包数
+     * @param requests   交互请求数
+     * @param intervalMs 交互请求间隔（毫秒）
+     * @param options    调度器参数
+     * @return 对比结果
+     */
+    public static Result run(WalletGenerator generator, int bulk, int requests, long intervalMs,
+                             WalletScheduler.Options options) throws Exception {
+        if (bulk <= 0 || requests <= 0 || intervalMs < 0) {
+            throw new IllegalArgumentException("数量必须为正整数！");
+        }
+        WarmUp.run(generator, WarmUp.DEFAULT_ROUNDS);
+        generator.generateBatch(WarmUp.DEFAULT_ROUNDS * 4);
+        long interval = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        int chunk = options.chunkSize();
+
+        LatencyHistogram fifoLatency = new LatencyHistogram();
+        ExecutorService fifo = Executors.newFixedThreadPool(options.workers());
+        long fifoBulkNanos;
+        try {
+            long begin = System.nanoTime();
+            List<Future<List<WalletInfo>>> parts = new ArrayList<>();
+            for (int off = 0; off < bulk; off += chunk) {
+                int n = Math.min(chunk, bulk - off);
+                parts.add(fifo.submit(() -> generator.generateBatch(n)));
+            }
+            interactiveLoad(requests, interval, () -> fifo.submit(generator::generateOne), fifoLatency);
+            for (Future<List<WalletInfo>> part : parts) {
+                part.get();
+            }
+            fifoBulkNanos = System.nanoTime() - begin;
+        } finally {
+            fifo.shutdownNow();
+        }
+
+        LatencyHistogram schedLatency = new LatencyHistogram();
+        try (WalletScheduler scheduler = new WalletScheduler(generator, options)) {
+            long begin = System.nanoTime();
+            WalletScheduler.Job<List<WalletInfo>> job = scheduler.submitBatch(bulk);
+            interactiveLoad(requests, interval, scheduler::submitOne, schedLatency);
+            WalletScheduler.Progress progress = job.progress();
+            job.get();
+            long schedBulkNanos = System.nanoTime() - begin;
+            return new Result(bulk, requests, intervalMs, options, fifoLatency.snapshot(), schedLatency.snapshot(),
+                    fifoBulkNanos, schedBulkNanos, progress, scheduler.metrics());
+        }
+    }
+
+    /**
+     * 每隔interval发出一个交互请求（各由一个虚拟线程提交并等待结果），等待全部完成
+     */
+    private static void interactiveLoad(int requests, long interval, Callable<Future<?>> submit,
+                                        LatencyHistogram latency) throws InterruptedException {
+        long start = System.nanoTime();
+        Thread[] threads = new Thread[requests];
+        for (int r = 0; r < requests; r++) {
+            long due = start + r * interval;
+            threads[r] = Thread.ofVirtual().start(() -> {
+                try {
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    long begin = System.nanoTime();
+                    submit.call().get();
+                    latency.record(System.nanoTime() - begin);
+                } catch (Exception e) {
+                    log.warn("交互请求失败：{}", e.getMessage());
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package com.hy.wallet.sched;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.utils.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 带优先级通道的钱包生成调度器
+ * 交互通道（单个钱包：generateOne / generateFromMnemonic）与批量通道（generateBatch / generateRange）各自排队、
+ * 各有并发上限；批量任务切成小块逐块调度，工作线程每次空闲时优先取交互请求，
+ * 因此交互请求最多等待一个正在执行的块，而不是排在整个批量任务之后。
+ * 任务可随时取消并查询进度；各通道的排队等待时间由 {@link #metrics()} 报告。
+ */
+public final class WalletScheduler implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(WalletScheduler.class);
+
+    /**
+     * 调度通道
+     */
+    public enum Lane {
+        /** 交互请求（单个钱包），优先调度 */
+        INTERACTIVE,
+        /** 批量任务（按块调度） */
+        BULK
+    }
+
+    /**
+     * 任务状态（区分排队与执行中，比 {@link Future#state()} 更细）
+     */
+    public enum Status {
+        /** 排队中，尚未开始 */
+        QUEUED,
+        /** 执行中（批量任务至少一块已开始） */
+        RUNNING,
+        /** 已完成 */
+        DONE,
+        /** 执行失败 */
+        FAILED,
+        /** 已取消 */
+        CANCELLED
+    }
+
+    /**
+     * 调度参数
+     *
+     * @param workers          工作线程数
+     * @param interactiveLimit 交互通道同时执行的上限
+     * @param bulkLimit        批量通道同时执行的块数上限（小于workers时为交互请求保留空闲线程）
+     * @param chunkSize        批量任务每块的钱包数
+     */
+    public record Options(int workers, int interactiveLimit, int bulkLimit, int chunkSize) {
+        /** 默认每块钱包数 */
+        public static final int DEFAULT_CHUNK_SIZE = 8;
+
+        public Options {
+            if (workers <= 0 || interactiveLimit <= 0 || interactiveLimit > workers || bulkLimit <= 0
+                    || bulkLimit > workers || chunkSize <= 0) {
+                throw new IllegalArgumentException("调度参数无效：workers=" + workers + ", interactive="
+                        + interactiveLimit + ", bulk=" + bulkLimit + ", chunk=" + chunkSize);
+            }
+        }
+
+        /**
+         * 默认参数：工作线程数为CPU数（至少2），交互通道可用全部线程，批量通道保留一个线程，每块8个钱包
+         */
+        public static Options defaults() {
+            return ofWorkers(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        }
+
+        /**
+         * 指定工作线程数，其余按默认规则：交互通道可用全部线程，批量通道保留一个线程（只有一个线程时不保留）
+         */
+        public static Options ofWorkers(int workers) {
+            return new Options(workers, workers, Math.max(1, workers - 1), DEFAULT_CHUNK_SIZE);
+        }
+
+        /** 以新的批量通道上限替换 */
+        public Options withBulkLimit(int limit) {
+            return new Options(workers, interactiveLimit, limit, chunkSize);
+        }
+
+        /** 以新的每块钱包数替换 */
+        public Options withChunkSize(int size) {
+            return new Options(workers, interactiveLimit, bulkLimit, size);
+        }
+    }
+
+    /**
+     * 任务进度
+     *
+     * @param done  已完成的钱包数
+     * @param total 钱包总数
+     */
+    public record Progress(long done, long total) {
+
+        /** 完成比例（0~1） */
+        public double fraction() {
+            return total == 0 ? 1 : (double) done / total;
+        }
+    }
+
+    /**
+     * 单个通道的指标
+     *
+     * @param queued    排队中的单元数（交互请求数；批量任务尚未开始的块数）
+     * @param running   执行中的单元数
+     * @param completed 已完成的单元数
+     * @param cancelled 已取消的任务数
+     * @param queueWait 单元从可执行到开始执行的等待时间
+     */
+    public record LaneMetrics(long queued, int running, long completed, long cancelled,
+                              LatencyHistogram.Snapshot queueWait) {
+    }
+
+    /**
+     * 调度器指标
+     *
+     * @param interactive 交互通道
+     * @param bulk        批量通道
+     */
+    public record Metrics(LaneMetrics interactive, LaneMetrics bulk) {
+    }
+
+    /**
+     * 批量任务的一块：生成从 offset 起的 n 个钱包
+     */
+    private interface Chunk {
+        List<WalletInfo> run(long offset, int n);
+    }
+
+    /**
+     * 调度任务句柄
+     * 交互请求的结果为钱包，批量任务的结果为按顺序排列的钱包列表。cancel 不中断正在执行的块，
+     * 已开始的块执行完毕后结果直接丢弃。
+     *
+     * @param <T> 结果类型
+     */
+    public final class Job<T> implements Future<T> {
+        private final long id;
+        private final Lane lane;
+        private final long total;
+        private final Callable<T> single;
+        private final Chunk chunk;
+        private final int chunks;
+        private final List<List<WalletInfo>> parts;
+        private int claimed;
+        private int finished;
+        private long done;
+        private long eligibleSince;
+        private Status state = Status.QUEUED;
+        private T result;
+        private Throwable error;
+
+        private Job(Lane lane, long total, Callable<T> single, Chunk chunk) {
+            this.id = ids.incrementAndGet();
+            this.lane = lane;
+            this.total = total;
+            this.single = single;
+            this.chunk = chunk;
+            this.chunks = chunk == null ? 1 : (int) ((total + options.chunkSize() - 1) / options.chunkSize());
+            this.parts = chunk == null ? null : new ArrayList<>(chunks);
+            if (parts != null) {
+                for (int i = 0; i < chunks; i++) {
+                    parts.add(null);
+                }
+            }
+            this.eligibleSince = System.nanoTime();
+        }
+
+        /** 任务编号 */
+        public long id() {
+            return id;
+        }
+
+        /** 所在通道 */
+        public Lane lane() {
+            return lane;
+        }
+
+        /** 当前状态 */
+        public Status status() {
+            lock.lock();
+            try {
+                return state;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** 当前进度 */
+        public Progress progress() {
+            lock.lock();
+            try {
+                return new Progress(done, total);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            lock.lock();
+            try {
+                if (isTerminal()) {
+                    return false;
+                }
+                state = Status.CANCELLED;
+                laneState(lane).cancelled++;
+                laneState(lane).queue.remove(this);
+                release();
+                jobDone.signalAll();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return status() == Status.CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            lock.lock();
+            try {
+                return isTerminal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            lock.lockInterruptibly();
+            try {
+                while (!isTerminal()) {
+                    jobDone.await();
+                }
+                return outcome();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long remaining = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                while (!isTerminal()) {
+                    if (remaining <= 0) {
+                        throw new TimeoutException("任务 " + id + " 未在限定时间内完成");
+                    }
+                    remaining = jobDone.awaitNanos(remaining);
+                }
+                return outcome();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isTerminal() {
+            return state == Status.DONE || state == Status.FAILED || state == Status.CANCELLED;
+        }
+
+        private T outcome() throws ExecutionException {
+            return switch (state) {
+                case DONE -> result;
+                case FAILED -> throw new ExecutionException("任务 " + id + " 执行失败: " + error.getMessage(), error);
+                default -> throw new CancellationException("任务 " + id + " 已取消");
+            };
+        }
+
+        /** 释放已生成的部分结果（持有锁时调用） */
+        private void release() {
+            if (parts != null) {
+                for (int i = 0; i < chunks; i++) {
+                    parts.set(i, null);
+                }
+            }
+        }
+
+        /** 批量任务是否还有未开始的块 */
+        private boolean hasUnclaimed() {
+            return claimed < chunks;
+        }
+    }
+
+    /**
+     * 通道运行状态（全部字段由lock保护，等待时间直方图除外）
+     */
+    private static final class LaneState {
+        final ArrayDeque<Job<?>> queue = new ArrayDeque<>();
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        final int limit;
+        int running;
+        long completed;
+        long cancelled;
+
+        LaneState(int limit) {
+            this.limit = limit;
+        }
+
+        boolean ready() {
+            return !queue.isEmpty() && running < limit;
+        }
+    }
+
+    private final WalletGenerator generator;
+    private final Options options;
+    private final AtomicLong ids = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition jobDone = lock.newCondition();
+    private final LaneState interactive;
+    private final LaneState bulk;
+    private final List<Thread> workers = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * 创建调度器并启动工作线程
+     *
+     * @param generator 钱包生成器（由全部工作线程共用）
+     * @param options   调度参数
+     */
+    public WalletScheduler(WalletGenerator generator, Options options) {
+        this.generator = generator;
+        this.options = options;
+        this.interactive = new LaneState(options.interactiveLimit());
+        this.bulk = new LaneState(options.bulkLimit());
+        for (int i = 0; i < options.workers(); i++) {
+            Thread t = new Thread(this::workLoop, "wallet-scheduler-" + i);
+            t.setDaemon(true);
+            workers.add(t);
+            t.start();
+        }
+    }
+
+    /** 调度参数 */
+    public Options options() {
+        return options;
+    }
+
+    /**
+     * 交互通道：生成单个钱包
+     */
+    public Job<WalletInfo> submitOne() {
+        return submit(new Job<>(Lane.INTERACTIVE, 1, generator::generateOne, null));
+    }
+
+    /**
+     * 交互通道：由助记词生成指定索引的钱包（BIP39校验应在调用前完成）
+     *
+     * @param mnemonic 12个英文助记词（规范化为小写）
+     * @param index    地址索引
+     */
+    public Job<WalletInfo> submitFromMnemonic(List<String> mnemonic, int index) {
+        List<String> words = List.copyOf(mnemonic);
+        return submit(new Job<>(Lane.INTERACTIVE, 1, () -> generator.generateFromMnemonic(words, index), null));
+    }
+
+    /**
+     * 批量通道：生成count个随机钱包，按块调度
+     *
+     * @param count 数量
+     */
+    public Job<List<WalletInfo>> submitBatch(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("数量必须为正整数：" + count);
+        }
+        return submit(new Job<>(Lane.BULK, count, null, (offset, n) -> generator.generateBatch(n)));
+    }
+
+    /**
+     * 批量通道：派生助记词的索引区间 [start, start+count)，按块调度，结果按索引顺序排列
+     *
+     * @param mnemonic 12个英文助记词（规范化为小写）
+     * @param start    起始地址索引
+     * @param count    数量
+     */
+    public Job<List<WalletInfo>> submitRange(List<String> mnemonic, int start, int count) {
+        if (start < 0 || count <= 0 || (long) start + count > (1L << 31)) {
+            throw new IllegalArgumentException("索引区间无效：start=" + start + ", count=" + count);
+        }
+        List<String> words = List.copyOf(mnemonic);
+        return submit(new Job<>(Lane.BULK, count, null,
+                (offset, n) -> generator.generateRange(words, (int) (start + offset), n)));
+    }
+
+    private <T> Job<T> submit(Job<T> job) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("调度器已关闭");
+            }
+            laneState(job.lane).queue.add(job);
+            workAvailable.signal();
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 调度器指标 */
+    public Metrics metrics() {
+        lock.lock();
+        try {
+            long bulkQueued = 0;
+            for (Job<?> job : bulk.queue) {
+                bulkQueued += job.chunks - job.claimed;
+            }
+            return new Metrics(laneMetrics(interactive, interactive.queue.size()), laneMetrics(bulk, bulkQueued));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static LaneMetrics laneMetrics(LaneState s, long queued) {
+        return new LaneMetrics(queued, s.running, s.completed, s.cancelled, s.queueWait.snapshot());
+    }
+
+    private LaneState laneState(Lane lane) {
+        return lane == Lane.INTERACTIVE ? interactive : bulk;
+    }
+
+    /**
+     * 工作线程：优先取交互请求，其次取队首批量任务的下一块；锁外执行，完成后更新任务状态
+     */
+    private void workLoop() {
+        while (true) {
+            Job<?> job;
+            int index;
+            lock.lock();
+            try {
+                while (!closed && !interactive.ready() && !bulk.ready()) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                long now = System.nanoTime();
+                if (interactive.ready()) {
+                    job = interactive.queue.poll();
+                    index = 0;
+                } else {
+                    job = bulk.queue.peek();
+                    index = job.claimed++;
+                    if (!job.hasUnclaimed()) {
+                        bulk.queue.poll();
+                    }
+                }
+                LaneState lane = laneState(job.lane);
+                lane.running++;
+                lane.queueWait.record(now - job.eligibleSince);
+                job.eligibleSince = now;
+                job.state = Status.RUNNING;
+                if (interactive.ready() || bulk.ready()) {
+                    // 批量任务还有块可取（或仍有交互请求）时唤醒下一个空闲线程
+                    workAvailable.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            execute(job, index);
+        }
+    }
+
+    private <T> void execute(Job<T> job, int index) {
+        T value = null;
+        List<WalletInfo> part = null;
+        Throwable failure = null;
+        long offset = (long) index * options.chunkSize();
+        int n = (int) Math.min(options.chunkSize(), job.total - offset);
+        try {
+            if (job.single != null) {
+                value = job.single.call();
+            } else {
+                part = job.chunk.run(offset, n);
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+        lock.lock();
+        try {
+            LaneState lane = laneState(job.lane);
+            lane.running--;
+            lane.completed++;
+            if (job.state == Status.RUNNING) {
+                if (failure != null) {
+                    log.error("调度任务 {} 执行失败", job.id, failure);
+                    job.state = Status.FAILED;
+                    job.error = failure;
+                    lane.queue.remove(job);
+                    job.release();
+                } else if (job.single != null) {
+                    job.result = value;
+                    job.done = 1;
+                    job.state = Status.DONE;
+                } else {
+                    job.parts.set(index, part);
+                    job.done += n;
+                    if (++job.finished == job.chunks) {
+                        List<WalletInfo> all = new ArrayList<>((int) job.total);
+                        job.parts.forEach(all::addAll);
+                        job.release();
+                        @SuppressWarnings("unchecked")
+                        T list = (T) all;
+                        job.result = list;
+                        job.state = Status.DONE;
+                    }
+                }
+            }
+            workAvailable.signalAll();
+            jobDone.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取消全部未完成的任务并停止工作线程（等待正在执行的单元结束）
+     */
+    @Override
+    public void close() {
+        List<Job<?>> pending = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.addAll(interactive.queue);
+            pending.addAll(bulk.queue);
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        pending.forEach(job -> job.cancel(false));
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        lock.lock();
+        try {
+            jobDone.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
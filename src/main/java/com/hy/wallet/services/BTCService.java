@@ -1,20 +1,24 @@
 package com.hy.wallet.services;
 
-import org.bitcoinj.core.ECKey;
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.utils.Bip32;
+import org.bitcoinj.core.Base58;
 import org.bitcoinj.core.LegacyAddress;
 import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.core.SegwitAddress;
-import org.bitcoinj.crypto.ChildNumber;
-import org.bitcoinj.crypto.DeterministicKey;
-import org.bitcoinj.crypto.HDKeyDerivation;
+import org.bitcoinj.core.Utils;
 import org.bitcoinj.params.MainNetParams;
-// 使用ECKey自带方法输出WIF，无需依赖DumpedPrivateKey类
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * BTC服务类
  * 负责使用BIP32/BIP44派生路径生成：
  * - Legacy (P2PKH) 地址：m/44'/0'/0'/0/0
  * - Native SegWit (P2WPKH/Bech32) 地址：m/84'/0'/0'/0/0
+ * 并可导出账户层级（m/44'/0'/0'、m/84'/0'/0'）的扩展公钥，供观察钱包使用。
+ * 传入 {@link Bip32} 节点与种子缓冲区的方法在该节点上派生（批量时复用同一节点，见 {@link Bip44Keys}）。
  */
 public class BTCService {
 
@@ -25,7 +29,12 @@ public class BTCService {
      */
     public record BtcPair(String address, String wif) {}
 
-    private static final NetworkParameters MAIN = MainNetParams.get();
+    /**
+     * 主网参数延迟到首次使用时初始化（MainNetParams 会连带加载大量bitcoinj类）
+     */
+    private static final class Params {
+        private static final NetworkParameters MAIN = MainNetParams.get();
+    }
 
     /**
      * 生成Legacy (P2PKH) 地址与私钥（WIF）
@@ -34,18 +43,27 @@ public class BTCService {
      * @return 地址与WIF私钥
      */
     public static BtcPair generateLegacy(byte[] seedBytes, int index) {
+        Bip32 node = new Bip32();
+        try {
+            return generateLegacy(node, ByteBuffer.wrap(seedBytes), index);
+        } finally {
+            node.wipe();
+        }
+    }
+
+    /**
+     * 在给定节点上生成Legacy (P2PKH) 地址与私钥（WIF）
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @param index 地址索引
+     * @return 地址与WIF私钥
+     */
+    public static BtcPair generateLegacy(Bip32 node, ByteBuffer seed, int index) {
         // m/44'/0'/0'/0/index
-        DeterministicKey root = HDKeyDerivation.createMasterPrivateKey(seedBytes);
-        DeterministicKey purpose44 = HDKeyDerivation.deriveChildKey(root, new ChildNumber(44, true));
-        DeterministicKey coinType0 = HDKeyDerivation.deriveChildKey(purpose44, new ChildNumber(0, true));
-        DeterministicKey account0 = HDKeyDerivation.deriveChildKey(coinType0, new ChildNumber(0, true));
-        DeterministicKey change0 = HDKeyDerivation.deriveChildKey(account0, new ChildNumber(0, false));
-        DeterministicKey indexKey = HDKeyDerivation.deriveChildKey(change0, new ChildNumber(index, false));
-
-        ECKey ecKey = ECKey.fromPrivate(indexKey.getPrivKeyBytes());
-        String address = LegacyAddress.fromKey(MAIN, ecKey).toString();
-        String wif = ecKey.getPrivateKeyAsWiF(MAIN);
-        return new BtcPair(address, wif);
+        byte[] priv = new byte[32];
+        byte[] pubKey = Bip44Keys.deriveAddressKey(node, seed, 44, 0, index, true, priv, 0);
+        String address = legacyAddressFromPubKey(pubKey);
+        return new BtcPair(address, wifAndWipe(priv));
     }
 
     /**
@@ -55,17 +73,105 @@ public class BTCService {
      * @return 地址与WIF私钥
      */
     public static BtcPair generateSegwit(byte[] seedBytes, int index) {
+        Bip32 node = new Bip32();
+        try {
+            return generateSegwit(node, ByteBuffer.wrap(seedBytes), index);
+        } finally {
+            node.wipe();
+        }
+    }
+
+    /**
+     * 在给定节点上生成Native SegWit (Bech32/P2WPKH) 地址与私钥（WIF）
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @param index 地址索引
+     * @return 地址与WIF私钥
+     */
+    public static BtcPair generateSegwit(Bip32 node, ByteBuffer seed, int index) {
         // m/84'/0'/0'/0/index
-        DeterministicKey root = HDKeyDerivation.createMasterPrivateKey(seedBytes);
-        DeterministicKey purpose84 = HDKeyDerivation.deriveChildKey(root, new ChildNumber(84, true));
-        DeterministicKey coinType0 = HDKeyDerivation.deriveChildKey(purpose84, new ChildNumber(0, true));
-        DeterministicKey account0 = HDKeyDerivation.deriveChildKey(coinType0, new ChildNumber(0, true));
-        DeterministicKey change0 = HDKeyDerivation.deriveChildKey(account0, new ChildNumber(0, false));
-        DeterministicKey indexKey = HDKeyDerivation.deriveChildKey(change0, new ChildNumber(index, false));
-
-        ECKey ecKey = ECKey.fromPrivate(indexKey.getPrivKeyBytes());
-        String address = SegwitAddress.fromKey(MAIN, ecKey).toString();
-        String wif = ecKey.getPrivateKeyAsWiF(MAIN);
-        return new BtcPair(address, wif);
+        byte[] priv = new byte[32];
+        byte[] pubKey = Bip44Keys.deriveAddressKey(node, seed, 84, 0, index, true, priv, 0);
+        String address = segwitAddressFromPubKey(pubKey);
+        return new BtcPair(address, wifAndWipe(priv));
+    }
+
+    /**
+     * WIF（压缩公钥）：Base58Check(0x80 || 私钥 || 0x01)，编码后清零私钥
+     */
+    private static String wifAndWipe(byte[] priv) {
+        byte[] payload = Arrays.copyOf(priv, 33);
+        payload[32] = 0x01;
+        try {
+            return Base58.encodeChecked(0x80, payload);
+        } finally {
+            Arrays.fill(payload, (byte) 0);
+            Arrays.fill(priv, (byte) 0);
+        }
+    }
+
+    /**
+     * 在给定节点上派生Legacy与Native SegWit地址并把私钥与公钥hash160写入列式批次的指定行
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @param index 地址索引
+     * @param batch 列式批次
+     * @param row 行号
+     */
+    public static void deriveInto(Bip32 node, ByteBuffer seed, int index, WalletBatch batch, int row) {
+        int keyOff = row * WalletBatch.KEY_LENGTH;
+        int hashOff = row * WalletBatch.HASH_LENGTH;
+        byte[] legacy = Bip44Keys.deriveAddressKey(node, seed, 44, 0, index, true, batch.btcLegacyKeyColumn(), keyOff);
+        System.arraycopy(Utils.sha256hash160(legacy), 0, batch.btcLegacyHashColumn(), hashOff,
+                WalletBatch.HASH_LENGTH);
+        byte[] segwit = Bip44Keys.deriveAddressKey(node, seed, 84, 0, index, true, batch.btcSegwitKeyColumn(), keyOff);
+        System.arraycopy(Utils.sha256hash160(segwit), 0, batch.btcSegwitHashColumn(), hashOff,
+                WalletBatch.HASH_LENGTH);
+    }
+
+    /**
+     * 导出Legacy账户层级扩展公钥（xpub）：m/44'/0'/0'
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @return xpub字符串
+     */
+    public static String legacyAccountXpub(Bip32 node, ByteBuffer seed) {
+        return Bip44Keys.accountXpub(node, seed, 44, 0, Bip44Keys.XPUB_VERSION);
+    }
+
+    /**
+     * 导出Native SegWit账户层级扩展公钥（zpub）：m/84'/0'/0'
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @return zpub字符串
+     */
+    public static String segwitAccountZpub(Bip32 node, ByteBuffer seed) {
+        return Bip44Keys.accountXpub(node, seed, 84, 0, Bip44Keys.ZPUB_VERSION);
+    }
+
+    /**
+     * 由压缩公钥计算Legacy (P2PKH) 地址
+     * @param compressedPubKey 33字节压缩公钥
+     * @return 地址
+     */
+    public static String legacyAddressFromPubKey(byte[] compressedPubKey) {
+        return LegacyAddress.fromPubKeyHash(Params.MAIN, Utils.sha256hash160(compressedPubKey)).toString();
+    }
+
+    /**
+     * 由压缩公钥计算Native SegWit (P2WPKH) 地址
+     * @param compressedPubKey 33字节压缩公钥
+     * @return 地址
+     */
+    public static String segwitAddressFromPubKey(byte[] compressedPubKey) {
+        return SegwitAddress.fromHash(Params.MAIN, Utils.sha256hash160(compressedPubKey)).toString();
+    }
+
+    /**
+     * 获取BTC主网参数（解析xpub/zpub、序列化扩展公钥与校验地址时使用）
+     * 返回类型为 NetworkParameters：调用方字节码校验时无需加载 MainNetParams，未用到BTC的流程不会触发其加载。
+     */
+    public static NetworkParameters params() {
+        return Params.MAIN;
     }
 }
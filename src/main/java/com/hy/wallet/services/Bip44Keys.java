@@ -0,0 +1,75 @@
+package com.hy.wallet.services;
+
+import com.hy.wallet.utils.Bip32;
+import org.bitcoinj.core.Base58;
+import org.bitcoinj.core.Sha256Hash;
+
+import java.nio.ByteBuffer;
+
+/**
+ * secp256k1链公用的BIP32/BIP44私钥派生
+ * 基于 {@link Bip32} 引擎，只在原始私钥与链码缓冲区上计算；公钥仅在非硬化层级与末级地址处计算，
+ * 末级公钥直接交给地址计算，无需再经 ECKey / DeterministicKey。
+ * 节点与种子缓冲区由调用方传入并复用（批量派生时通常都在同一个 {@link com.hy.wallet.utils.SecretArena} 中），
+ * 节点保留最近一次派生的私钥，直到下一次派生覆盖或调用方清零。
+ */
+final class Bip44Keys {
+
+    /** 扩展公钥版本号：xpub（BIP44） */
+    static final int XPUB_VERSION = 0x0488B21E;
+
+    /** 扩展公钥版本号：zpub（BIP84） */
+    static final int ZPUB_VERSION = 0x04B24746;
+
+    private Bip44Keys() {
+    }
+
+    /**
+     * 在给定节点上派生 m/purpose'/coinType'/0'/0/index，节点保留末级私钥直到下一次派生或清零
+     *
+     * @param node       复用的BIP32节点
+     * @param seed       BIP32种子（缓冲区的全部容量）
+     * @param purpose    用途层（44/84）
+     * @param coinType   币种层（0/60/195）
+     * @param index      地址索引
+     * @param compressed 返回的公钥格式：true=33字节压缩，false=65字节未压缩
+     * @param keyDst     私钥输出缓冲区（32字节大端）
+     * @param keyOff     私钥输出偏移
+     * @return 末级节点公钥
+     */
+    static byte[] deriveAddressKey(Bip32 node, ByteBuffer seed, int purpose, int coinType, int index,
+                                   boolean compressed, byte[] keyDst, int keyOff) {
+        node.master(seed)
+                .deriveHardened(purpose)
+                .deriveHardened(coinType)
+                .deriveHardened(0)
+                .derive(0)
+                .derive(index);
+        node.copyPrivateKey(keyDst, keyOff);
+        return node.publicKey(compressed);
+    }
+
+    /**
+     * 导出账户层级 m/purpose'/coinType'/0' 的Base58Check扩展公钥
+     *
+     * @param node     复用的BIP32节点（派生后保留账户私钥，直到下一次派生或清零）
+     * @param seed     BIP32种子（缓冲区的全部容量）
+     * @param purpose  用途层（44/84）
+     * @param coinType 币种层（0/60/195）
+     * @param version  版本号（{@link #XPUB_VERSION} / {@link #ZPUB_VERSION}）
+     * @return 扩展公钥字符串
+     */
+    static String accountXpub(Bip32 node, ByteBuffer seed, int purpose, int coinType, int version) {
+        node.master(seed).deriveHardened(purpose).deriveHardened(coinType);
+        int parentFingerprint = node.fingerprint();
+        node.deriveHardened(0);
+        // version(4) | depth(1) | 父指纹(4) | 子索引(4) | 链码(32) | 压缩公钥(33) | 校验(4)；链码随扩展公钥公开
+        byte[] b = new byte[82];
+        ByteBuffer.wrap(b).putInt(version).put((byte) node.depth()).putInt(parentFingerprint)
+                .putInt(node.childNumber());
+        node.copyChainCode(b, 13);
+        System.arraycopy(node.publicKey(true), 0, b, 45, 33);
+        System.arraycopy(Sha256Hash.hashTwice(b, 0, 78), 0, b, 78, 4);
+        return Base58.encode(b);
+    }
+}
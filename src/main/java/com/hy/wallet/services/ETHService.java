@@ -1,13 +1,14 @@
 package com.hy.wallet.services;
 
-import org.bitcoinj.crypto.ChildNumber;
-import org.bitcoinj.crypto.DeterministicKey;
-import org.bitcoinj.crypto.HDKeyDerivation;
-import org.web3j.crypto.ECKeyPair;
-import org.web3j.crypto.Keys;
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.utils.Bip32;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.bouncycastle.util.encoders.Hex;
 import com.hy.wallet.utils.EthChecksum;
+import com.hy.wallet.utils.MultiHash;
 
-import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * ETH服务类
@@ -32,30 +33,103 @@ public class ETHService {
      * @return 地址与私钥
      */
     public static EthPair generateEth(byte[] seedBytes, int index) {
-        // 使用bitcoinj进行BIP32派生，获取最终私钥
-        DeterministicKey root = HDKeyDerivation.createMasterPrivateKey(seedBytes);
-        DeterministicKey purpose44 = HDKeyDerivation.deriveChildKey(root, new ChildNumber(44, true));
-        DeterministicKey coinType60 = HDKeyDerivation.deriveChildKey(purpose44, new ChildNumber(60, true));
-        DeterministicKey account0 = HDKeyDerivation.deriveChildKey(coinType60, new ChildNumber(0, true));
-        DeterministicKey change0 = HDKeyDerivation.deriveChildKey(account0, new ChildNumber(0, false));
-        DeterministicKey indexKey = HDKeyDerivation.deriveChildKey(change0, new ChildNumber(index, false));
-
-        BigInteger priv = new BigInteger(1, indexKey.getPrivKeyBytes());
-        ECKeyPair ecKeyPair = ECKeyPair.create(priv);
-        // 以web3j获得地址（小写无校验），再转换为EIP-55校验和地址
-        String lower = Keys.getAddress(ecKeyPair.getPublicKey());
-        String address = EthChecksum.toChecksumAddress(lower);
-        // 私钥统一输出为0x前缀的64位小写hex（左侧补零）
-        String privateHexNoPrefix = leftPad64(priv.toString(16));
-        String privateHex = "0x" + privateHexNoPrefix;
+        Bip32 node = new Bip32();
+        try {
+            return generateEth(node, ByteBuffer.wrap(seedBytes), index);
+        } finally {
+            node.wipe();
+        }
+    }
+
+    /**
+     * 在给定节点上生成ETH地址与私钥
+     *
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @param index 地址索引
+     * @return 地址与私钥
+     */
+    public static EthPair generateEth(Bip32 node, ByteBuffer seed, int index) {
+        // m/44'/60'/0'/0/index
+        byte[] priv = new byte[32];
+        byte[] uncompressedPubKey = Bip44Keys.deriveAddressKey(node, seed, 44, 60, index, false, priv, 0); // 65字节，首字节0x04
+        String address = addressFromPubKey(Arrays.copyOfRange(uncompressedPubKey, 1, uncompressedPubKey.length));
+        // 私钥统一输出为0x前缀的64位小写hex
+        String privateHex = "0x" + Hex.toHexString(priv);
+        Arrays.fill(priv, (byte) 0);
         return new EthPair(address, privateHex);
     }
 
+    /** 未压缩公钥去掉0x04前缀后的长度（Keccak地址哈希的输入） */
+    public static final int PUBLIC_KEY_LENGTH = 64;
+
+    /**
+     * 派生ETH私钥写入列式批次的指定行，并把64字节公钥（不含0x04前缀）写入pubKeys[pubOff..pubOff+64)；
+     * 地址随后由 {@link #hashAddressesInto} 对一组公钥批量计算
+     *
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @param index 地址索引
+     * @param batch 列式批次
+     * @param row 行号
+     * @param pubKeys 公钥暂存缓冲区
+     * @param pubOff 公钥写入偏移
+     */
+    public static void deriveKeyInto(Bip32 node, ByteBuffer seed, int index, WalletBatch batch, int row,
+                                     byte[] pubKeys, int pubOff) {
+        byte[] uncompressedPubKey = Bip44Keys.deriveAddressKey(node, seed, 44, 60, index, false,
+                batch.ethKeyColumn(), row * WalletBatch.KEY_LENGTH);
+        System.arraycopy(uncompressedPubKey, 1, pubKeys, pubOff, PUBLIC_KEY_LENGTH);
+    }
+
+    /**
+     * 批量计算ETH地址：count个连续存放的64字节公钥经 {@link MultiHash#keccak256} 后，
+     * 末20字节依次写入批次第firstRow行起的地址列
+     *
+     * @param pubKeys 公钥缓冲区（第i个公钥位于 i*64）
+     * @param count 公钥个数
+     * @param batch 列式批次
+     * @param firstRow 第一个公钥对应的行号
+     */
+    public static void hashAddressesInto(byte[] pubKeys, int count, WalletBatch batch, int firstRow) {
+        addressHashes(pubKeys, count, batch.ethAddressColumn(), firstRow);
+    }
+
+    /**
+     * keccak-256(64字节公钥) 的末20字节依次写入dst第firstRow行起（ETH与TRON共用）
+     */
+    static void addressHashes(byte[] pubKeys, int count, byte[] dst, int firstRow) {
+        byte[] hashes = new byte[count * 32];
+        MultiHash.keccak256(pubKeys, 0, PUBLIC_KEY_LENGTH, count, hashes, 0);
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(hashes, i * 32 + 12, dst, (firstRow + i) * WalletBatch.HASH_LENGTH, WalletBatch.HASH_LENGTH);
+        }
+    }
+
+    /**
+     * 导出账户层级扩展公钥（xpub）：m/44'/60'/0'
+     *
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @return xpub字符串
+     */
+    public static String accountXpub(Bip32 node, ByteBuffer seed) {
+        return Bip44Keys.accountXpub(node, seed, 44, 60, Bip44Keys.XPUB_VERSION);
+    }
+
     /**
-     * 左侧补零至64位hex字符串
+     * 由未压缩公钥（64字节，不含0x04前缀）计算EIP-55校验和地址
+     *
+     * @param pubKeyNoPrefix 64字节公钥
+     * @return 0x前缀的校验和地址
      */
-    private static String leftPad64(String hex) {
-        String lower = hex.toLowerCase();
-        return "0".repeat(Math.max(0, 64 - lower.length())) + lower;
+    public static String addressFromPubKey(byte[] pubKeyNoPrefix) {
+        // 直接使用轻量Keccak摘要：web3j的Keys类初始化时会注册整个BouncyCastle JCA提供者，首次调用耗时数百毫秒
+        KeccakDigest keccak = new KeccakDigest(256);
+        keccak.update(pubKeyNoPrefix, 0, pubKeyNoPrefix.length);
+        byte[] hash = new byte[32];
+        keccak.doFinal(hash, 0);
+        String lower = Hex.toHexString(hash, 12, 20);
+        return EthChecksum.toChecksumAddress(lower);
     }
 }
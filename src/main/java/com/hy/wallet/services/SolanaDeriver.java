@@ -0,0 +1,183 @@
+package com.hy.wallet.services;
+
+import com.hy.wallet.utils.HmacSha512;
+import com.hy.wallet.utils.SecretArena;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Solana批量派生引擎（SLIP-0010 Ed25519）
+ * - {@link #master} 对同一种子只计算一次 m/44'/501' 节点并缓存，之后可派生任意账户区间
+ * - 账户区间派生复用两份HMAC-SHA512状态与固定缓冲区，逐个索引派生过程中不分配新对象
+ * - 私钥全部派生完成后再统一计算Ed25519公钥，按批写入连续缓冲区
+ * - 缓存节点的私钥材料与HMAC输入输出缓冲区可由 {@link SecretArena} 在堆外分配，随区关闭清零
+ * 支持两种常见路径约定，见 {@link PathStyle}。实例非线程安全，可对多个种子反复调用 {@link #master} 复用。
+ */
+public final class SolanaDeriver {
+
+    /**
+     * Solana派生路径约定
+     */
+    public enum PathStyle {
+        /** m/44'/501'/index'/0'（Phantom、Solflare默认，本工具默认） */
+        ACCOUNT_CHANGE,
+        /** m/44'/501'/index'（Ledger Live、Trust Wallet等） */
+        ACCOUNT
+    }
+
+    private static final int HARDENED = 0x8000_0000;
+    private static final byte[] ED25519_SEED_KEY = "ed25519 seed".getBytes(StandardCharsets.US_ASCII);
+
+    /** 缓存的 m/44'/501' 节点私钥材料（链码已吸收进coinMac） */
+    private final ByteBuffer coinKey;
+    private final HmacSha512 coinMac = new HmacSha512();
+    private final HmacSha512 accountMac = new HmacSha512();
+    /** HMAC输入：0x00 || key || ser32(index | 0x80000000) */
+    private final ByteBuffer data;
+    /** HMAC输出：子节点私钥材料 || 链码 */
+    private final ByteBuffer out;
+
+    static {
+        Ed25519.precompute();
+    }
+
+    /**
+     * 使用堆内缓冲区，派生前需先调用 {@link #master}
+     */
+    public SolanaDeriver() {
+        this(ByteBuffer.allocate(32), ByteBuffer.allocate(37), ByteBuffer.allocate(64));
+    }
+
+    /**
+     * 缓存节点与HMAC输入输出缓冲区分配在给定的堆外敏感数据区中，派生前需先调用 {@link #master}
+     *
+     * @param arena 敏感数据区（本实例的生命周期不应超过它）
+     */
+    public SolanaDeriver(SecretArena arena) {
+        this(arena.allocate(32), arena.allocate(37), arena.allocate(64));
+    }
+
+    private SolanaDeriver(ByteBuffer coinKey, ByteBuffer data, ByteBuffer out) {
+        this.coinKey = coinKey;
+        this.data = data;
+        this.out = out;
+    }
+
+    /**
+     * 由种子（缓冲区的全部容量）计算并缓存 m/44'/501' 节点，替换此前缓存的节点
+     *
+     * @param seed BIP39种子
+     * @return this
+     */
+    public SolanaDeriver master(ByteBuffer seed) {
+        // 主节点：I = HMAC-SHA512("ed25519 seed", seed)
+        accountMac.init(ED25519_SEED_KEY, 0, ED25519_SEED_KEY.length);
+        accountMac.update(seed, 0, seed.capacity());
+        accountMac.doFinal(out, 0);
+        // m/44'、m/44'/501'：以父链码为密钥硬化派生（hardened先把父私钥材料复制进data，再覆盖out）
+        accountMac.init(out, 32, 32);
+        hardened(accountMac, out, 0, 44);
+        accountMac.init(out, 32, 32);
+        hardened(accountMac, out, 0, 501);
+        coinKey.put(0, out, 0, 32);
+        // m/44'/501' 的链码作为所有账户节点的HMAC密钥，只需设置一次
+        coinMac.init(out, 32, 32);
+        accountMac.wipe();
+        SecretArena.wipe(out);
+        SecretArena.wipe(data);
+        return this;
+    }
+
+    /**
+     * 派生单个账户
+     *
+     * @param index 账户索引
+     * @param style 路径约定
+     * @return 地址与私钥
+     */
+    public SolanaService.SolPair derive(int index, PathStyle style) {
+        byte[] secret = new byte[32];
+        byte[] pub = new byte[32];
+        deriveRange(index, 1, style, secret, pub);
+        try {
+            return SolanaService.toPair(secret, 0, pub, 0);
+        } finally {
+            Arrays.fill(secret, (byte) 0);
+        }
+    }
+
+    /**
+     * 派生连续账户区间 [start, start+count)
+     *
+     * @param start      起始账户索引
+     * @param count      数量
+     * @param style      路径约定
+     * @param secretKeys 输出：count个32字节Ed25519私钥（种子），连续存放
+     * @param publicKeys 输出：count个32字节Ed25519公钥，连续存放
+     */
+    public void deriveRange(int start, int count, PathStyle style, byte[] secretKeys, byte[] publicKeys) {
+        deriveRange(start, count, style, secretKeys, 0, publicKeys, 0);
+    }
+
+    /**
+     * 派生连续账户区间 [start, start+count)，写入输出数组的指定位置（如列式批次的某一行起）
+     *
+     * @param start      起始账户索引
+     * @param count      数量
+     * @param style      路径约定
+     * @param secretKeys 输出：count个32字节Ed25519私钥（种子），自skBase起连续存放
+     * @param skBase     私钥输出起始偏移
+     * @param publicKeys 输出：count个32字节Ed25519公钥，自pkBase起连续存放
+     * @param pkBase     公钥输出起始偏移
+     */
+    public void deriveRange(int start, int count, PathStyle style, byte[] secretKeys, int skBase,
+                            byte[] publicKeys, int pkBase) {
+        if (start < 0 || count <= 0 || (long) start + count > (1L << 31)) {
+            throw new IllegalArgumentException("账户区间无效：start=" + start + ", count=" + count);
+        }
+        if (skBase < 0 || pkBase < 0 || secretKeys.length - skBase < count * 32 || publicKeys.length - pkBase < count * 32) {
+            throw new IllegalArgumentException("输出缓冲区长度不足");
+        }
+        for (int i = 0; i < count; i++) {
+            // m/44'/501'/index'
+            hardened(coinMac, coinKey, 0, start + i);
+            if (style == PathStyle.ACCOUNT_CHANGE) {
+                // m/44'/501'/index'/0'：以账户链码为密钥再派生一级
+                accountMac.init(out, 32, 32);
+                hardened(accountMac, out, 0, 0);
+            }
+            out.get(0, secretKeys, skBase + i * 32, 32);
+        }
+        accountMac.wipe();
+        SecretArena.wipe(out);
+        SecretArena.wipe(data);
+        for (int i = 0; i < count; i++) {
+            Ed25519.generatePublicKey(secretKeys, skBase + i * 32, publicKeys, pkBase + i * 32);
+        }
+    }
+
+    /**
+     * 清除缓存的 m/44'/501' 节点与HMAC密钥状态
+     */
+    public void wipe() {
+        SecretArena.wipe(coinKey);
+        SecretArena.wipe(data);
+        SecretArena.wipe(out);
+        coinMac.wipe();
+        accountMac.wipe();
+    }
+
+    /**
+     * 硬化派生：HMAC(chainCode, 0x00 || key || ser32(index | 0x80000000))，结果写入out
+     */
+    private void hardened(HmacSha512 mac, ByteBuffer key, int keyOff, int index) {
+        data.put(0, (byte) 0x00);
+        data.put(1, key, keyOff, 32);
+        data.putInt(33, index | HARDENED);
+        mac.update(data, 0, 37);
+        mac.doFinal(out, 0);
+    }
+}
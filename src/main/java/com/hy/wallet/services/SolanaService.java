@@ -1,16 +1,19 @@
 package com.hy.wallet.services;
 
-import com.hy.wallet.utils.Slip10Ed25519;
+import com.hy.wallet.model.WalletBatch;
 import org.bitcoinj.core.Base58;
-import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
-import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Solana服务类
  * 使用SLIP-0010 Ed25519硬化派生规则，路径 m/44'/501'/0'/0' 生成Keypair。
  * 地址即为Ed25519公钥的Base58表示；私钥以Base58格式输出（64字节密钥，含公钥部分）。
+ * 派生计算由 {@link SolanaDeriver} 完成，批量区间派生时 m/44'/501' 节点只计算一次；
+ * 传入派生器与种子缓冲区的方法在该派生器上计算（批量时复用同一派生器）。
  */
 public class SolanaService {
 
@@ -31,26 +34,96 @@ public class SolanaService {
      * @return 地址与私钥
      */
     public static SolPair generateSol(byte[] seedBytes, int index) {
-        // 路径：m/44'/501'/index'/0'
-        Slip10Ed25519.Node master = Slip10Ed25519.master(seedBytes);
-        Slip10Ed25519.Node m44 = Slip10Ed25519.deriveHardened(master, 44);
-        Slip10Ed25519.Node c501 = Slip10Ed25519.deriveHardened(m44, 501);
-        Slip10Ed25519.Node acc = Slip10Ed25519.deriveHardened(c501, index);
-        Slip10Ed25519.Node change0 = Slip10Ed25519.deriveHardened(acc, 0);
-
-        byte[] privKey32 = change0.getKey();
-        Ed25519PrivateKeyParameters priv = new Ed25519PrivateKeyParameters(privKey32, 0);
-        Ed25519PublicKeyParameters pub = priv.generatePublicKey();
-
-        byte[] pubBytes = pub.getEncoded();
+        SolanaDeriver deriver = new SolanaDeriver();
+        try {
+            return generateSol(deriver, ByteBuffer.wrap(seedBytes), index);
+        } finally {
+            deriver.wipe();
+        }
+    }
+
+    /**
+     * 在给定派生器上生成Solana地址与私钥
+     *
+     * @param deriver 复用的派生器
+     * @param seed BIP32种子
+     * @param index 账户索引（m/44'/501'/index'/0'）
+     * @return 地址与私钥
+     */
+    public static SolPair generateSol(SolanaDeriver deriver, ByteBuffer seed, int index) {
+        return deriver.master(seed).derive(index, SolanaDeriver.PathStyle.ACCOUNT_CHANGE);
+    }
+
+    /**
+     * 批量生成连续账户区间的Solana地址与私钥（m/44'/501' 节点只计算一次）
+     * 
+     * @param deriver 复用的派生器
+     * @param seed BIP32种子
+     * @param start 起始账户索引
+     * @param count 数量
+     * @param style 路径约定
+     * @return 地址与私钥列表，按索引顺序排列
+     */
+    public static List<SolPair> generateSolRange(SolanaDeriver deriver, ByteBuffer seed, int start, int count,
+                                                 SolanaDeriver.PathStyle style) {
+        byte[] secretKeys = new byte[count * 32];
+        byte[] publicKeys = new byte[count * 32];
+        try {
+            deriver.master(seed).deriveRange(start, count, style, secretKeys, publicKeys);
+            List<SolPair> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(toPair(secretKeys, i * 32, publicKeys, i * 32));
+            }
+            return list;
+        } finally {
+            Arrays.fill(secretKeys, (byte) 0);
+        }
+    }
+
+    /**
+     * 派生账户 m/44'/501'/index'/0' 并把私钥与公钥写入列式批次的指定行
+     *
+     * @param deriver 复用的派生器
+     * @param seed    BIP32种子
+     * @param index   账户索引
+     * @param batch   列式批次
+     * @param row     行号
+     */
+    public static void deriveInto(SolanaDeriver deriver, ByteBuffer seed, int index, WalletBatch batch, int row) {
+        deriveRangeInto(deriver, seed, index, 1, batch, row);
+    }
+
+    /**
+     * 派生连续账户区间并写入列式批次自firstRow起的连续行（m/44'/501' 节点只计算一次）
+     *
+     * @param deriver  复用的派生器
+     * @param seed     BIP32种子
+     * @param start    起始账户索引
+     * @param count    数量
+     * @param batch    列式批次
+     * @param firstRow 起始行号
+     */
+    public static void deriveRangeInto(SolanaDeriver deriver, ByteBuffer seed, int start, int count, WalletBatch batch,
+                                       int firstRow) {
+        deriver.master(seed).deriveRange(start, count, SolanaDeriver.PathStyle.ACCOUNT_CHANGE,
+                batch.solSecretKeyColumn(), firstRow * WalletBatch.KEY_LENGTH,
+                batch.solPublicKeyColumn(), firstRow * WalletBatch.KEY_LENGTH);
+    }
+
+    /**
+     * 由32字节私钥与32字节公钥组装地址与64字节Base58私钥
+     */
+    static SolPair toPair(byte[] secretKeys, int skOff, byte[] publicKeys, int pkOff) {
+        byte[] pubBytes = Arrays.copyOfRange(publicKeys, pkOff, pkOff + 32);
         String address = Base58.encode(pubBytes);
 
         // Solana常见的私钥导出为64字节（32私钥+32公钥），这里按此方式输出Base58，兼容常见工具
         byte[] secret64 = new byte[64];
-        System.arraycopy(privKey32, 0, secret64, 0, 32);
+        System.arraycopy(secretKeys, skOff, secret64, 0, 32);
         System.arraycopy(pubBytes, 0, secret64, 32, 32);
 
         String privateBase58 = Base58.encode(secret64);
+        Arrays.fill(secret64, (byte) 0);
         return new SolPair(address, privateBase58);
     }
 }
@@ -1,12 +1,12 @@
 package com.hy.wallet.services;
 
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.utils.Bip32;
 import org.bitcoinj.core.Base58;
-import org.bitcoinj.crypto.ChildNumber;
-import org.bitcoinj.crypto.DeterministicKey;
-import org.bitcoinj.crypto.HDKeyDerivation;
 import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.bouncycastle.util.encoders.Hex;
 
-import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -37,19 +37,85 @@ public class TronService {
      * @return 地址与私钥
      */
     public static TronPair generateTron(byte[] seedBytes, int index) {
+        Bip32 node = new Bip32();
+        try {
+            return generateTron(node, ByteBuffer.wrap(seedBytes), index);
+        } finally {
+            node.wipe();
+        }
+    }
+
+    /**
+     * 在给定节点上生成TRON地址与私钥
+     *
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @param index 地址索引
+     * @return 地址与私钥
+     */
+    public static TronPair generateTron(Bip32 node, ByteBuffer seed, int index) {
         // m/44'/195'/0'/0/index
-        DeterministicKey root = HDKeyDerivation.createMasterPrivateKey(seedBytes);
-        DeterministicKey purpose44 = HDKeyDerivation.deriveChildKey(root, new ChildNumber(44, true));
-        DeterministicKey coinType195 = HDKeyDerivation.deriveChildKey(purpose44, new ChildNumber(195, true));
-        DeterministicKey account0 = HDKeyDerivation.deriveChildKey(coinType195, new ChildNumber(0, true));
-        DeterministicKey change0 = HDKeyDerivation.deriveChildKey(account0, new ChildNumber(0, false));
-        DeterministicKey indexKey = HDKeyDerivation.deriveChildKey(change0, new ChildNumber(index, false));
-
-        BigInteger priv = new BigInteger(1, indexKey.getPrivKeyBytes());
-        // 计算未压缩公钥
-        byte[] uncompressedPubKey = indexKey.getPubKeyPoint().getEncoded(false); // 65字节，首字节0x04
+        byte[] priv = new byte[32];
+        byte[] uncompressedPubKey = Bip44Keys.deriveAddressKey(node, seed, 44, 195, index, false, priv, 0); // 65字节，首字节0x04
         byte[] pubKeyNoPrefix = Arrays.copyOfRange(uncompressedPubKey, 1, uncompressedPubKey.length);
 
+        String base58Addr = addressFromPubKey(pubKeyNoPrefix);
+
+        // 私钥统一输出为0x前缀的64位小写hex
+        String privateHex = "0x" + Hex.toHexString(priv);
+        Arrays.fill(priv, (byte) 0);
+        return new TronPair(base58Addr, privateHex);
+    }
+
+    /**
+     * 派生TRON私钥写入列式批次的指定行，并把64字节公钥（不含0x04前缀）写入pubKeys[pubOff..pubOff+64)；
+     * 地址随后由 {@link #hashAddressesInto} 对一组公钥批量计算
+     * 
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @param index 地址索引
+     * @param batch 列式批次
+     * @param row 行号
+     * @param pubKeys 公钥暂存缓冲区
+     * @param pubOff 公钥写入偏移
+     */
+    public static void deriveKeyInto(Bip32 node, ByteBuffer seed, int index, WalletBatch batch, int row,
+                                     byte[] pubKeys, int pubOff) {
+        byte[] uncompressedPubKey = Bip44Keys.deriveAddressKey(node, seed, 44, 195, index, false,
+                batch.tronKeyColumn(), row * WalletBatch.KEY_LENGTH);
+        System.arraycopy(uncompressedPubKey, 1, pubKeys, pubOff, ETHService.PUBLIC_KEY_LENGTH);
+    }
+
+    /**
+     * 批量计算TRON地址哈希（keccak末20字节，不含0x41前缀），依次写入批次第firstRow行起的地址列
+     * 
+     * @param pubKeys 公钥缓冲区（第i个公钥位于 i*64）
+     * @param count 公钥个数
+     * @param batch 列式批次
+     * @param firstRow 第一个公钥对应的行号
+     */
+    public static void hashAddressesInto(byte[] pubKeys, int count, WalletBatch batch, int firstRow) {
+        ETHService.addressHashes(pubKeys, count, batch.tronAddressColumn(), firstRow);
+    }
+
+    /**
+     * 导出账户层级扩展公钥（xpub）：m/44'/195'/0'
+     * 
+     * @param node 复用的BIP32节点
+     * @param seed BIP32种子
+     * @return xpub字符串
+     */
+    public static String accountXpub(Bip32 node, ByteBuffer seed) {
+        return Bip44Keys.accountXpub(node, seed, 44, 195, Bip44Keys.XPUB_VERSION);
+    }
+
+    /**
+     * 由未压缩公钥（64字节，不含0x04前缀）计算TRON Base58Check地址
+     * 
+     * @param pubKeyNoPrefix 64字节公钥
+     * @return Base58地址
+     */
+    public static String addressFromPubKey(byte[] pubKeyNoPrefix) {
         // keccak-256
         byte[] keccak = keccak256(pubKeyNoPrefix);
         byte[] last20 = Arrays.copyOfRange(keccak, keccak.length - 20, keccak.length);
@@ -64,11 +130,7 @@ public class TronService {
         byte[] addrWithChecksum = new byte[tronAddr.length + 4];
         System.arraycopy(tronAddr, 0, addrWithChecksum, 0, tronAddr.length);
         System.arraycopy(checksum, 0, addrWithChecksum, tronAddr.length, 4);
-        String base58Addr = Base58.encode(addrWithChecksum);
-
-        // 私钥统一输出为0x前缀的64位小写hex（左侧补零）
-        String privateHex = "0x" + leftPad64(priv.toString(16));
-        return new TronPair(base58Addr, privateHex);
+        return Base58.encode(addrWithChecksum);
     }
 
     /**
@@ -101,12 +163,4 @@ public class TronService {
             throw new RuntimeException("SHA-256计算失败", e);
         }
     }
-
-    /**
-     * 左侧补零至64位hex字符串
-     */
-    private static String leftPad64(String hex) {
-        String lower = hex.toLowerCase();
-        return "0".repeat(Math.max(0, 64 - lower.length())) + lower;
-    }
 }
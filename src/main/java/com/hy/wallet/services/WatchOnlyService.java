@@ -0,0 +1,182 @@
+package com.hy.wallet.services;
+
+import com.hy.wallet.utils.HmacSha512;
+import com.hy.wallet.utils.Secp256k1;
+import org.bitcoinj.core.Base58;
+import org.bitcoinj.crypto.ChildNumber;
+import org.bitcoinj.crypto.DeterministicKey;
+import org.bitcoinj.crypto.HDKeyDerivation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 观察钱包服务类（仅公钥派生）
+ * 输入账户层级扩展公钥（xpub/zpub），按BIP32非硬化CKDpub规则派生 0/index 路径下的地址：
+ * - BTC Legacy：m/44'/0'/0' 的xpub
+ * - BTC Native SegWit：m/84'/0'/0' 的zpub
+ * - ETH：m/44'/60'/0' 的xpub
+ * - TRON：m/44'/195'/0' 的xpub
+ * 只接受账户层级（深度3）且版本号与链匹配的扩展公钥，避免在非预期路径上派生收款地址。
+ * 全程不接触种子与私钥，无需PBKDF2；子公钥 IL*G + Kpar 由 {@link Secp256k1} 引擎批量计算，整段区间只做一次模逆完成仿射归一化。
+ */
+public class WatchOnlyService {
+
+    /**
+     * 带索引的观察地址
+     *
+     * @param index   地址索引（路径末级）
+     * @param address 地址
+     */
+    public record IndexedAddress(int index, String address) {
+    }
+
+    /**
+     * 派生BTC Legacy (P2PKH) 地址区间
+     *
+     * @param xpub  m/44'/0'/0' 扩展公钥
+     * @param start 起始索引
+     * @param count 数量
+     * @return 地址列表
+     */
+    public static List<IndexedAddress> deriveBtcLegacy(String xpub, int start, int count) {
+        byte[] pubKeys = deriveReceivePubKeys(xpub, Bip44Keys.XPUB_VERSION, start, count, true);
+        List<IndexedAddress> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] pub = Arrays.copyOfRange(pubKeys, i * 33, i * 33 + 33);
+            list.add(new IndexedAddress(start + i, BTCService.legacyAddressFromPubKey(pub)));
+        }
+        return list;
+    }
+
+    /**
+     * 派生BTC Native SegWit (P2WPKH) 地址区间
+     *
+     * @param zpub  m/84'/0'/0' 扩展公钥（zpub）
+     * @param start 起始索引
+     * @param count 数量
+     * @return 地址列表
+     */
+    public static List<IndexedAddress> deriveBtcSegwit(String zpub, int start, int count) {
+        byte[] pubKeys = deriveReceivePubKeys(zpub, Bip44Keys.ZPUB_VERSION, start, count, true);
+        List<IndexedAddress> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] pub = Arrays.copyOfRange(pubKeys, i * 33, i * 33 + 33);
+            list.add(new IndexedAddress(start + i, BTCService.segwitAddressFromPubKey(pub)));
+        }
+        return list;
+    }
+
+    /**
+     * 派生ETH地址区间（EIP-55校验和格式）
+     *
+     * @param xpub  m/44'/60'/0' 扩展公钥
+     * @param start 起始索引
+     * @param count 数量
+     * @return 地址列表
+     */
+    public static List<IndexedAddress> deriveEth(String xpub, int start, int count) {
+        byte[] pubKeys = deriveReceivePubKeys(xpub, Bip44Keys.XPUB_VERSION, start, count, false);
+        List<IndexedAddress> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // 去掉0x04前缀后的64字节
+            byte[] pub = Arrays.copyOfRange(pubKeys, i * 65 + 1, i * 65 + 65);
+            list.add(new IndexedAddress(start + i, ETHService.addressFromPubKey(pub)));
+        }
+        return list;
+    }
+
+    /**
+     * 派生TRON地址区间
+     *
+     * @param xpub  m/44'/195'/0' 扩展公钥
+     * @param start 起始索引
+     * @param count 数量
+     * @return 地址列表
+     */
+    public static List<IndexedAddress> deriveTron(String xpub, int start, int count) {
+        byte[] pubKeys = deriveReceivePubKeys(xpub, Bip44Keys.XPUB_VERSION, start, count, false);
+        List<IndexedAddress> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] pub = Arrays.copyOfRange(pubKeys, i * 65 + 1, i * 65 + 65);
+            list.add(new IndexedAddress(start + i, TronService.addressFromPubKey(pub)));
+        }
+        return list;
+    }
+
+    /**
+     * 由账户扩展公钥派生 0/start .. 0/(start+count-1) 的子公钥
+     *
+     * @param version 该链要求的扩展公钥版本号（{@link Bip44Keys#XPUB_VERSION} / {@link Bip44Keys#ZPUB_VERSION}）
+     * @return 连续存放的count个公钥编码（压缩33字节/未压缩65字节）
+     */
+    private static byte[] deriveReceivePubKeys(String accountXpub, int version, int start, int count,
+                                               boolean compressed) {
+        if (start < 0 || count <= 0 || (long) start + count > (1L << 31)) {
+            throw new IllegalArgumentException("索引区间无效：start=" + start + ", count=" + count);
+        }
+        DeterministicKey account = parseAccountKey(accountXpub.trim(), version);
+        // 外部链（change=0）只需一次CKDpub
+        DeterministicKey external = HDKeyDerivation.deriveChildKey(account, ChildNumber.ZERO);
+        byte[] parentUncompressed = external.getPubKeyPoint().getEncoded(false);
+
+        // 同一父链码下HMAC仅初始化一次，doFinal后自动回到已keyed状态
+        HmacSha512 hmac = new HmacSha512();
+        hmac.init(external.getChainCode());
+        byte[] data = Arrays.copyOf(external.getPubKey(), 37);
+        byte[] out = new byte[64];
+        byte[] tweaks = new byte[count * 32];
+        for (int i = 0; i < count; i++) {
+            int index = start + i;
+            data[33] = (byte) (index >>> 24);
+            data[34] = (byte) (index >>> 16);
+            data[35] = (byte) (index >>> 8);
+            data[36] = (byte) index;
+            hmac.update(data, 0, data.length);
+            hmac.doFinal(out, 0);
+            if (!Secp256k1.isValidPrivateKey(out, 0)) {
+                throw new IllegalStateException("索引" + index + "派生无效（IL>=n），请跳过该索引");
+            }
+            System.arraycopy(out, 0, tweaks, i * 32, 32);
+        }
+        // Ki = IL*G + Kpar，整批一次模逆归一化
+        byte[] pubKeys = new byte[count * (compressed ? 33 : 65)];
+        Secp256k1.publicKeys(tweaks, 0, count, parentUncompressed, pubKeys, 0, compressed);
+        return pubKeys;
+    }
+
+    /**
+     * 解析账户层级扩展公钥，拒绝扩展私钥、版本号与链不符以及非账户层级（深度不为3）的密钥
+     */
+    private static DeterministicKey parseAccountKey(String accountXpub, int version) {
+        // version(4) | depth(1) | 父指纹(4) | 子索引(4) | 链码(32) | 密钥(33)
+        byte[] payload = Base58.decodeChecked(accountXpub);
+        if (payload.length != 78) {
+            throw new IllegalArgumentException("扩展公钥长度无效：" + payload.length + " 字节");
+        }
+        if (payload[45] == 0) {
+            throw new IllegalArgumentException("观察钱包只接受扩展公钥（xpub/zpub），请勿输入扩展私钥");
+        }
+        int actual = ((payload[0] & 0xFF) << 24) | ((payload[1] & 0xFF) << 16) | ((payload[2] & 0xFF) << 8)
+                | (payload[3] & 0xFF);
+        if (actual != version) {
+            throw new IllegalArgumentException("扩展公钥版本不符：该链需要 " + versionName(version) + "，输入的是 "
+                    + versionName(actual));
+        }
+        DeterministicKey account = DeterministicKey.deserializeB58(accountXpub, BTCService.params());
+        if (account.getDepth() != 3) {
+            throw new IllegalArgumentException("观察钱包只接受账户层级（深度3，如 m/44'/0'/0'）的扩展公钥，输入的深度为 "
+                    + account.getDepth());
+        }
+        return account;
+    }
+
+    private static String versionName(int version) {
+        return switch (version) {
+            case Bip44Keys.XPUB_VERSION -> "xpub";
+            case Bip44Keys.ZPUB_VERSION -> "zpub";
+            default -> String.format("未知版本 0x%08X", version);
+        };
+    }
+}
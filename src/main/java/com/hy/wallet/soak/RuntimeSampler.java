@@ -0,0 +1,162 @@
+package com.hy.wallet.soak;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于平台MXBean的运行时采样器
+ * - 堆占用、直接内存与线程数：按采样时刻读取；
+ * - 分配速率：所有线程累计分配字节数（HotSpot扩展 ThreadMXBean）的差值；
+ * - GC停顿：订阅GC通知，逐次累计停顿时长、最大停顿与GC后的堆占用。
+ *   名称以 “Cycles” 结尾的收集器（ZGC/Shenandoah 的并发周期）不计入停顿。
+ */
+final class RuntimeSampler implements AutoCloseable {
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    /**
+     * 一个采样区间的指标
+     *
+     * @param heapUsedMb       采样时刻堆占用（MB）
+     * @param heapCommittedMb  采样时刻堆已提交（MB）
+     * @param heapAfterGcMb    区间内最近一次GC后的堆占用（MB），区间内无GC时为NaN
+     * @param allocMbPerSecond 区间内平均分配速率（MB/秒），JVM不支持时为NaN
+     * @param gcCount          区间内GC停顿次数
+     * @param gcPauseMillis    区间内GC停顿总时长（毫秒）
+     * @param gcMaxPauseMillis 区间内最长单次停顿（毫秒）
+     * @param directMb         直接内存占用（MB）
+     * @param threads          存活线程数
+     */
+    record Sample(double heapUsedMb, double heapCommittedMb, double heapAfterGcMb, double allocMbPerSecond,
+                  long gcCount, long gcPauseMillis, long gcMaxPauseMillis, double directMb, int threads) {
+    }
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.ThreadMXBean hotspotThreads;
+    private final BufferPoolMXBean directPool;
+    private final Set<String> heapPools = new HashSet<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::onGc;
+
+    private long intervalGcCount;
+    private long intervalPauseMillis;
+    private long intervalMaxPauseMillis;
+    private double intervalHeapAfterGcMb = Double.NaN;
+
+    private long lastAllocatedBytes;
+    private long lastSampleNanos;
+
+    RuntimeSampler() {
+        if (threads instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemorySupported()) {
+            t.setThreadAllocatedMemoryEnabled(true);
+            hotspotThreads = t;
+        } else {
+            hotspotThreads = null;
+        }
+        BufferPoolMXBean direct = null;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                direct = pool;
+            }
+        }
+        directPool = direct;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter && !gc.getName().endsWith("Cycles")) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+        lastAllocatedBytes = allocatedBytes();
+        lastSampleNanos = System.nanoTime();
+    }
+
+    /**
+     * 结束当前区间并返回其指标
+     */
+    Sample sample() {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        double seconds = Math.max(1e-9, (now - lastSampleNanos) / 1e9);
+        double allocRate = allocated < 0 ? Double.NaN : (allocated - lastAllocatedBytes) / MB / seconds;
+        lastAllocatedBytes = allocated;
+        lastSampleNanos = now;
+
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        long gcCount;
+        long pause;
+        long maxPause;
+        double afterGc;
+        synchronized (this) {
+            gcCount = intervalGcCount;
+            pause = intervalPauseMillis;
+            maxPause = intervalMaxPauseMillis;
+            afterGc = intervalHeapAfterGcMb;
+            intervalGcCount = 0;
+            intervalPauseMillis = 0;
+            intervalMaxPauseMillis = 0;
+            intervalHeapAfterGcMb = Double.NaN;
+        }
+        double direct = directPool == null ? 0 : directPool.getMemoryUsed() / MB;
+        return new Sample(heap.getUsed() / MB, heap.getCommitted() / MB, afterGc, allocRate,
+                gcCount, pause, maxPause, direct, threads.getThreadCount());
+    }
+
+    private long allocatedBytes() {
+        return hotspotThreads == null ? -1 : hotspotThreads.getTotalThreadAllocatedBytes();
+    }
+
+    private void onGc(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GcInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+        long heapAfter = 0;
+        for (Map.Entry<String, MemoryUsage> e : info.getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(e.getKey())) {
+                heapAfter += e.getValue().getUsed();
+            }
+        }
+        synchronized (this) {
+            intervalGcCount++;
+            intervalPauseMillis += info.getDuration();
+            intervalMaxPauseMillis = Math.max(intervalMaxPauseMillis, info.getDuration());
+            intervalHeapAfterGcMb = heapAfter / MB;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // 已移除
+            }
+        }
+    }
+}
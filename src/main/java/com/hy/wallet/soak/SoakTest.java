@@ -0,0 +1,384 @@
+package com.hy.wallet.soak;
+
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.utils.CryptoUtils;
+import com.hy.wallet.validation.Validator;
+import org.bitcoinj.crypto.MnemonicCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 长时间浸泡/负载测试
+ * 多个工作线程在指定时长内交替执行批量随机生成（{@link WalletGenerator#generateBatch}）与
+ * 助记词区间派生（{@link WalletGenerator#generateRange}），并可对每个钱包执行 {@link Validator} 全量校验；
+ * 可按目标速率限速或全速运行。调用线程按固定间隔采样吞吐、堆占用、分配速率与GC停顿，逐行写出时间序列CSV，
+ * 结束时对照阈值给出通过/不通过结论。
+ * 预热期（时长的10%，最长5分钟）内的样本不参与稳态吞吐与堆增长斜率计算。
+ */
+public final class SoakTest {
+    private static final Logger log = LoggerFactory.getLogger(SoakTest.class);
+
+    /** 时间序列CSV表头（不含换行） */
+    public static final String CSV_HEADER = "elapsed_s,wallets,wallets_per_s,heap_used_mb,heap_committed_mb,"
+            + "heap_after_gc_mb,alloc_mb_per_s,gc_count,gc_pause_ms,gc_max_pause_ms,gc_time_pct,direct_mb,threads,errors";
+
+    /** 预热期上限 */
+    private static final Duration MAX_WARM_UP = Duration.ofMinutes(5);
+
+    /**
+     * 判定阈值
+     *
+     * @param maxPauseMillis         单次GC停顿上限（毫秒）
+     * @param maxGcTimePercent       GC停顿总时长占比上限（%）
+     * @param maxHeapGrowthMbPerHour 稳态期GC后堆占用的增长斜率上限（MB/小时）
+     * @param minWalletsPerSecond    稳态吞吐下限（个/秒，0表示不检查）
+     */
+    public record Thresholds(long maxPauseMillis, double maxGcTimePercent, double maxHeapGrowthMbPerHour,
+                             double minWalletsPerSecond) {
+
+        /** 默认阈值：停顿200毫秒、GC占比10%、堆增长64MB/小时、不检查吞吐 */
+        public static Thresholds defaults() {
+            return new Thresholds(200, 10.0, 64.0, 0);
+        }
+    }
+
+    /**
+     * 运行参数
+     *
+     * @param duration       运行时长
+     * @param targetRate     目标速率（个/秒，0表示全速）
+     * @param threads        工作线程数
+     * @param sampleInterval 采样间隔
+     * @param batchSize      每次调用生成/派生的钱包数
+     * @param validate       是否校验每个钱包
+     * @param thresholds     判定阈值
+     */
+    public record Options(Duration duration, double targetRate, int threads, Duration sampleInterval,
+                          int batchSize, boolean validate, Thresholds thresholds) {
+
+        public Options {
+            if (duration.isNegative() || duration.isZero() || sampleInterval.isNegative() || sampleInterval.isZero()) {
+                throw new IllegalArgumentException("运行时长与采样间隔必须为正");
+            }
+            if (targetRate < 0 || threads <= 0 || batchSize <= 0) {
+                throw new IllegalArgumentException("速率不能为负，线程数与批大小必须为正整数");
+            }
+        }
+
+        /** 默认参数：全速、CPU核数个线程、10秒采样、每批16个、开启校验、默认阈值 */
+        public static Options of(Duration duration) {
+            return new Options(duration, 0, Math.max(1, Runtime.getRuntime().availableProcessors()),
+                    Duration.ofSeconds(10), 16, true, Thresholds.defaults());
+        }
+    }
+
+    /**
+     * 测试结论
+     *
+     * @param elapsedSeconds         实际运行时长（秒）
+     * @param wallets                生成的钱包数
+     * @param walletsPerSecond       稳态吞吐（个/秒）
+     * @param peakHeapMb             采样到的最大堆占用（MB）
+     * @param heapGrowthMbPerHour    稳态期GC后堆占用增长斜率（MB/小时），样本不足时为NaN
+     * @param avgAllocMbPerSecond    平均分配速率（MB/秒），JVM不支持时为NaN
+     * @param gcCount                GC停顿次数
+     * @param maxPauseMillis         最长单次停顿（毫秒）
+     * @param gcTimePercent          GC停顿总时长占比（%）
+     * @param errors                 执行出错次数
+     * @param validationFailures     校验未通过的钱包数
+     * @param failures               未满足的判定项（为空即通过）
+     */
+    public record Result(double elapsedSeconds, long wallets, double walletsPerSecond, double peakHeapMb,
+                         double heapGrowthMbPerHour, double avgAllocMbPerSecond, long gcCount, long maxPauseMillis,
+                         double gcTimePercent, long errors, long validationFailures, List<String> failures) {
+
+        /** 是否通过 */
+        public boolean passed() {
+            return failures.isEmpty();
+        }
+
+        /**
+         * 输出结论：吞吐、堆、GC与出错统计，未通过时列出未满足的判定项
+         */
+        public void print(PrintStream out) {
+            out.println("=".repeat(80));
+            out.printf(" 运行 %.0f 秒，共 %d 个钱包，稳态吞吐 %.1f 个/秒%n", elapsedSeconds, wallets, walletsPerSecond);
+            out.printf(" 堆峰值 %.1f MB，GC后堆增长 %s MB/小时，平均分配 %.1f MB/秒%n", peakHeapMb,
+                    Double.isNaN(heapGrowthMbPerHour) ? "（样本不足）" : String.format("%.1f", heapGrowthMbPerHour),
+                    avgAllocMbPerSecond);
+            out.printf(" GC停顿 %d 次，最长 %d 毫秒，占比 %.2f%%；出错 %d 次，校验未通过 %d 个%n", gcCount,
+                    maxPauseMillis, gcTimePercent, errors, validationFailures);
+            out.println("-".repeat(80));
+            if (passed()) {
+                out.println(" 结论：通过");
+            } else {
+                out.println(" 结论：不通过");
+                failures.forEach(f -> out.println("  - " + f));
+            }
+            out.println("=".repeat(80));
+        }
+    }
+
+    private SoakTest() {
+    }
+
+    /**
+     * 运行浸泡测试（阻塞至结束）
+     *
+     * @param options 运行参数
+     * @param csv     时间序列输出（每个采样点写一行并刷新）
+     * @return 测试结论
+     */
+    public static Result run(Options options, Writer csv) throws IOException, InterruptedException {
+        long durationNanos = options.duration().toNanos();
+        long warmUpNanos = Math.min(durationNanos / 10, MAX_WARM_UP.toNanos());
+        long intervalNanos = options.sampleInterval().toNanos();
+
+        byte[] entropy = new byte[16];
+        CryptoUtils.secureRandom().nextBytes(entropy);
+        List<String> rangeMnemonic;
+        try {
+            rangeMnemonic = MnemonicCode.INSTANCE.toMnemonic(entropy);
+        } catch (Exception e) {
+            throw new IllegalStateException("生成区间派生助记词失败", e);
+        } finally {
+            Arrays.fill(entropy, (byte) 0);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder wallets = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder invalid = new LongAdder();
+        AtomicLong rangeCursor = new AtomicLong();
+        AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+        long nanosPerWallet = options.targetRate() > 0 ? (long) (1e9 / options.targetRate()) : 0;
+
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        csv.flush();
+
+        List<Thread> workers = new ArrayList<>(options.threads());
+        try (RuntimeSampler sampler = new RuntimeSampler()) {
+            long start = System.nanoTime();
+            for (int i = 0; i < options.threads(); i++) {
+                Thread t = new Thread(() -> work(options, rangeMnemonic, stop, wallets, errors, invalid,
+                        rangeCursor, nextSlot, nanosPerWallet), "soak-" + i);
+                t.setDaemon(true);
+                t.start();
+                workers.add(t);
+            }
+
+            long deadline = start + durationNanos;
+            long lastWallets = 0;
+            long lastNanos = start;
+            double peakHeap = 0;
+            double allocSum = 0;
+            int allocSamples = 0;
+            long gcCount = 0;
+            long totalPause = 0;
+            long maxPause = 0;
+            long steadyStartWallets = -1;
+            long steadyStartNanos = 0;
+            List<double[]> heapAfterGc = new ArrayList<>();
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.sleep(Math.min(intervalNanos, deadline - now));
+                    now = System.nanoTime();
+                    RuntimeSampler.Sample s = sampler.sample();
+                    long total = wallets.sum();
+                    double seconds = (now - lastNanos) / 1e9;
+                    double elapsed = (now - start) / 1e9;
+                    double rate = (total - lastWallets) / seconds;
+                    csv.write(String.format(Locale.ROOT, "%.1f,%d,%.2f,%.1f,%.1f,%s,%s,%d,%d,%d,%.2f,%.2f,%d,%d%n",
+                            elapsed, total, rate, s.heapUsedMb(), s.heapCommittedMb(), num(s.heapAfterGcMb()),
+                            num(s.allocMbPerSecond()), s.gcCount(), s.gcPauseMillis(), s.gcMaxPauseMillis(),
+                            100.0 * s.gcPauseMillis() / (seconds * 1000), s.directMb(), s.threads(), errors.sum()));
+                    csv.flush();
+
+                    peakHeap = Math.max(peakHeap, s.heapUsedMb());
+                    if (!Double.isNaN(s.allocMbPerSecond())) {
+                        allocSum += s.allocMbPerSecond();
+                        allocSamples++;
+                    }
+                    gcCount += s.gcCount();
+                    totalPause += s.gcPauseMillis();
+                    maxPause = Math.max(maxPause, s.gcMaxPauseMillis());
+                    if (now - start >= warmUpNanos) {
+                        if (steadyStartWallets < 0) {
+                            steadyStartWallets = lastWallets;
+                            steadyStartNanos = lastNanos;
+                        }
+                        if (!Double.isNaN(s.heapAfterGcMb())) {
+                            heapAfterGc.add(new double[]{elapsed / 3600.0, s.heapAfterGcMb()});
+                        }
+                    }
+                    lastWallets = total;
+                    lastNanos = now;
+                    log.debug("浸泡测试 {}s：{} 个，{} 个/秒，堆 {} MB", (long) elapsed, total, (long) rate,
+                            (long) s.heapUsedMb());
+                }
+            } finally {
+                stop.set(true);
+                for (Thread t : workers) {
+                    t.join();
+                }
+            }
+
+            double elapsedSeconds = (lastNanos - start) / 1e9;
+            double steadyRate = steadyStartWallets < 0 ? lastWallets / Math.max(1e-9, elapsedSeconds)
+                    : (lastWallets - steadyStartWallets) / Math.max(1e-9, (lastNanos - steadyStartNanos) / 1e9);
+            double growth = slope(heapAfterGc);
+            double gcPercent = 100.0 * totalPause / Math.max(1.0, elapsedSeconds * 1000);
+
+            Thresholds th = options.thresholds();
+            List<String> failures = new ArrayList<>();
+            if (errors.sum() > 0) {
+                failures.add("执行出错 " + errors.sum() + " 次");
+            }
+            if (invalid.sum() > 0) {
+                failures.add("校验未通过的钱包 " + invalid.sum() + " 个");
+            }
+            if (maxPause > th.maxPauseMillis()) {
+                failures.add("最长GC停顿 " + maxPause + " 毫秒，超过阈值 " + th.maxPauseMillis() + " 毫秒");
+            }
+            if (gcPercent > th.maxGcTimePercent()) {
+                failures.add(String.format(Locale.ROOT, "GC停顿占比 %.2f%%，超过阈值 %.2f%%", gcPercent,
+                        th.maxGcTimePercent()));
+            }
+            if (!Double.isNaN(growth) && growth > th.maxHeapGrowthMbPerHour()) {
+                failures.add(String.format(Locale.ROOT, "GC后堆占用增长 %.1f MB/小时，超过阈值 %.1f MB/小时", growth,
+                        th.maxHeapGrowthMbPerHour()));
+            }
+            if (th.minWalletsPerSecond() > 0 && steadyRate < th.minWalletsPerSecond()) {
+                failures.add(String.format(Locale.ROOT, "稳态吞吐 %.1f 个/秒，低于阈值 %.1f 个/秒", steadyRate,
+                        th.minWalletsPerSecond()));
+            }
+            return new Result(elapsedSeconds, lastWallets, steadyRate, peakHeap, growth,
+                    allocSamples == 0 ? Double.NaN : allocSum / allocSamples, gcCount, maxPause, gcPercent,
+                    errors.sum(), invalid.sum(), List.copyOf(failures));
+        }
+    }
+
+    /**
+     * 工作线程：交替执行批量生成与区间派生，直至收到停止信号
+     */
+    private static void work(Options options, List<String> rangeMnemonic, AtomicBoolean stop, LongAdder wallets,
+                             LongAdder errors, LongAdder invalid, AtomicLong rangeCursor, AtomicLong nextSlot,
+                             long nanosPerWallet) {
+        WalletGenerator generator = new WalletGenerator();
+        int k = options.batchSize();
+        long maxStart = Integer.MAX_VALUE - (long) k;
+        for (long iteration = 0; !stop.get(); iteration++) {
+            try {
+                if (nanosPerWallet > 0 && !pace(nextSlot, nanosPerWallet * k, stop)) {
+                    break;
+                }
+                List<WalletInfo> batch;
+                if (iteration % 2 == 0) {
+                    batch = generator.generateBatch(k);
+                } else {
+                    int startIndex = (int) (rangeCursor.getAndAdd(k) % maxStart);
+                    batch = generator.generateRange(rangeMnemonic, startIndex, k);
+                }
+                if (options.validate()) {
+                    for (WalletInfo wallet : batch) {
+                        if (!Validator.passes(wallet)) {
+                            invalid.increment();
+                        }
+                    }
+                }
+                wallets.add(batch.size());
+            } catch (RuntimeException e) {
+                errors.increment();
+                if (errors.sum() == 1) {
+                    log.error("浸泡测试执行出错（后续错误只计数）", e);
+                }
+                LockSupport.parkNanos(100_000_000L);
+            }
+        }
+    }
+
+    /**
+     * 限速：领取下一个时间槽并等待至该时刻；落后于计划时不补发（避免突发）
+     *
+     * @return 等待期间收到停止信号时返回false
+     */
+    private static boolean pace(AtomicLong nextSlot, long cost, AtomicBoolean stop) {
+        long now = System.nanoTime();
+        long slot = Math.max(nextSlot.getAndAccumulate(cost, (v, d) -> Math.max(v, now) + d), now);
+        while (!stop.get()) {
+            long wait = slot - System.nanoTime();
+            if (wait <= 0) {
+                return true;
+            }
+            LockSupport.parkNanos(Math.min(wait, 100_000_000L));
+        }
+        return false;
+    }
+
+    /**
+     * 最小二乘斜率，点数少于3时返回NaN
+     */
+    private static double slope(List<double[]> points) {
+        int n = points.size();
+        if (n < 3) {
+            return Double.NaN;
+        }
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (double[] p : points) {
+            sx += p[0];
+            sy += p[1];
+            sxx += p[0] * p[0];
+            sxy += p[0] * p[1];
+        }
+        double d = n * sxx - sx * sx;
+        return d == 0 ? Double.NaN : (n * sxy - sx * sy) / d;
+    }
+
+    private static String num(double v) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, "%.1f", v);
+    }
+
+    /**
+     * 解析时长：支持 ms/s/m/h 后缀（如 500ms、90s、30m、2h），无后缀按秒
+     *
+     * @param text 时长文本
+     * @return 时长
+     */
+    public static Duration parseDuration(String text) {
+        String t = text.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (t.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(t.substring(0, t.length() - 2)));
+            } else if (t.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(t.substring(0, t.length() - 1)));
+            } else if (t.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(t.substring(0, t.length() - 1)));
+            } else if (t.endsWith("h")) {
+                return Duration.ofHours(Long.parseLong(t.substring(0, t.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(t));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("时长格式错误：" + text + "（示例：90s、30m、2h）");
+        }
+    }
+}
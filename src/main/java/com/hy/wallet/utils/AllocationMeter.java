@@ -0,0 +1,41 @@
+package com.hy.wallet.utils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 线程堆分配计数（基于 {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}）
+ * 返回当前线程自启动以来在堆上分配的累计字节数（TLAB粒度统计，读取本身不分配），
+ * 两次读取之差即其间代码的分配量。只统计调用线程，其他线程（如并发派生的虚拟线程）的分配不计入。
+ */
+public final class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean BEAN = bean();
+
+    private AllocationMeter() {
+    }
+
+    private static com.sun.management.ThreadMXBean bean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean b)
+                || !b.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!b.isThreadAllocatedMemoryEnabled()) {
+            b.setThreadAllocatedMemoryEnabled(true);
+        }
+        return b;
+    }
+
+    /** 当前JVM是否支持线程分配计数 */
+    public static boolean supported() {
+        return BEAN != null;
+    }
+
+    /**
+     * 当前线程累计分配的字节数
+     *
+     * @return 字节数；不支持时为-1
+     */
+    public static long allocatedBytes() {
+        return BEAN == null ? -1 : BEAN.getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,263 @@
+package com.hy.wallet.utils;
+
+import org.bouncycastle.crypto.digests.RIPEMD160Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * secp256k1 BIP32私钥派生引擎
+ * 参考规范：https://github.com/bitcoin/bips/blob/master/bip-0032.mediawiki
+ * 与bitcoinj的 DeterministicKey / HDKeyDerivation 相比：
+ * - 节点只保存32字节私钥与32字节链码（固定缓冲区），不构造路径列表、父节点引用与BigInteger
+ * - 公钥按需计算：硬化派生不需要父公钥，只有非硬化派生（CKDpriv需要serP(父公钥)）与调用方取末级公钥时
+ *   才调用 {@link Secp256k1} 引擎；m/44'/c'/0'/0/i 整条路径只需3次基点乘法（bitcoinj每级1次，共6次）
+ * - 子私钥 = (IL + k_par) mod n 以8个32比特limb（long承载）定长计算，按掩码选择是否减n，不依赖BigInteger
+ * - 逐级更换密钥的HMAC-SHA512使用同一个 {@link HmacSha512} 实例，派生过程中不分配新对象
+ * - 私钥、链码与HMAC输入输出缓冲区可由 {@link SecretArena} 在堆外分配（{@link #Bip32(SecretArena)}），
+ *   随区关闭清零；无参构造时使用堆内缓冲区
+ * 实例保存当前节点，非线程安全，可对多个种子反复调用 {@link #master} 复用；用完应调用 {@link #wipe()} 清零。
+ */
+public final class Bip32 {
+
+    /** 硬化派生标志位 */
+    public static final int HARDENED = 0x8000_0000;
+
+    private static final byte[] BITCOIN_SEED_KEY = "Bitcoin seed".getBytes(StandardCharsets.US_ASCII);
+    private static final long M32 = 0xFFFFFFFFL;
+
+    /** 群阶n，8个32比特limb，下标0为最高位 */
+    private static final long[] N = {
+            0xFFFFFFFFL, 0xFFFFFFFFL, 0xFFFFFFFFL, 0xFFFFFFFEL,
+            0xBAAEDCE6L, 0xAF48A03BL, 0xBFD25E8CL, 0xD0364141L};
+
+    private final HmacSha512 mac = new HmacSha512();
+    private final ByteBuffer key;
+    private final ByteBuffer chainCode;
+    /** HMAC输入：0x00 || k || ser32(i)（硬化）或 serP(K) || ser32(i)（非硬化） */
+    private final ByteBuffer data;
+    private final ByteBuffer out;
+    /** 非硬化派生时的父压缩公钥（不含秘密） */
+    private final byte[] parentPub = new byte[33];
+    private final long[] sum = new long[8];
+    private final long[] diff = new long[8];
+
+    private int depth;
+    private int childNumber;
+
+    /**
+     * 使用堆内缓冲区
+     */
+    public Bip32() {
+        this(ByteBuffer.allocate(32), ByteBuffer.allocate(32), ByteBuffer.allocate(37), ByteBuffer.allocate(64));
+    }
+
+    /**
+     * 私钥、链码与HMAC输入输出缓冲区分配在给定的堆外敏感数据区中
+     *
+     * @param arena 敏感数据区（本实例的生命周期不应超过它）
+     */
+    public Bip32(SecretArena arena) {
+        this(arena.allocate(32), arena.allocate(32), arena.allocate(37), arena.allocate(64));
+    }
+
+    private Bip32(ByteBuffer key, ByteBuffer chainCode, ByteBuffer data, ByteBuffer out) {
+        this.key = key;
+        this.chainCode = chainCode;
+        this.data = data;
+        this.out = out;
+    }
+
+    /**
+     * 由种子设置主节点：I = HMAC-SHA512("Bitcoin seed", seed)
+     *
+     * @param seed BIP32种子
+     * @param off  起始偏移
+     * @param len  长度
+     * @return this
+     */
+    public Bip32 master(ByteBuffer seed, int off, int len) {
+        mac.init(BITCOIN_SEED_KEY);
+        mac.update(seed, off, len);
+        mac.doFinal(out, 0);
+        if (!Secp256k1.isValidPrivateKey(out, 0)) {
+            SecretArena.wipe(out);
+            throw new IllegalStateException("种子生成的主私钥无效，请更换种子");
+        }
+        key.put(0, out, 0, 32);
+        chainCode.put(0, out, 32, 32);
+        SecretArena.wipe(out);
+        depth = 0;
+        childNumber = 0;
+        return this;
+    }
+
+    /**
+     * 由种子设置主节点（缓冲区的全部容量）
+     */
+    public Bip32 master(ByteBuffer seed) {
+        return master(seed, 0, seed.capacity());
+    }
+
+    /**
+     * 由种子设置主节点（整个数组）
+     */
+    public Bip32 master(byte[] seed) {
+        return master(ByteBuffer.wrap(seed), 0, seed.length);
+    }
+
+    /**
+     * 硬化派生子节点 index'
+     *
+     * @param index 子索引（不含硬化位）
+     * @return this
+     */
+    public Bip32 deriveHardened(int index) {
+        return derive(index | HARDENED);
+    }
+
+    /**
+     * 派生子节点（CKDpriv），当前节点替换为子节点
+     *
+     * @param index 子索引，最高位为1表示硬化派生
+     * @return this
+     */
+    public Bip32 derive(int index) {
+        if ((index & HARDENED) != 0) {
+            data.put(0, (byte) 0);
+            data.put(1, key, 0, 32);
+        } else {
+            Secp256k1.publicKeys(key, 0, 1, null, parentPub, 0, true);
+            data.put(0, parentPub);
+        }
+        data.putInt(33, index);
+        mac.init(chainCode, 0, 32);
+        mac.update(data, 0, 37);
+        mac.doFinal(out, 0);
+        SecretArena.wipe(data);
+        try {
+            // BIP32：IL >= n 或子私钥为0时该索引无效（概率约2^-127）
+            if (!lessThanN(out) || !addModN(out, key)) {
+                throw new IllegalStateException("派生得到无效子私钥，索引 " + Integer.toUnsignedString(index & ~HARDENED)
+                        + ((index & HARDENED) != 0 ? "'" : "") + " 不可用");
+            }
+            chainCode.put(0, out, 32, 32);
+        } finally {
+            SecretArena.wipe(out);
+        }
+        depth++;
+        childNumber = index;
+        return this;
+    }
+
+    /**
+     * IL（out[0..32)）是否小于n
+     */
+    private boolean lessThanN(ByteBuffer il) {
+        long borrow = 0;
+        for (int i = 7; i >= 0; i--) {
+            long d = word(il, i * 4) - N[i] - borrow;
+            borrow = (d >>> 63);
+        }
+        return borrow == 1;
+    }
+
+    /**
+     * key = (IL + key) mod n（IL、key均小于n，和小于2n，至多减一次n）
+     *
+     * @return false表示结果为0
+     */
+    private boolean addModN(ByteBuffer il, ByteBuffer k) {
+        long carry = 0;
+        for (int i = 7; i >= 0; i--) {
+            long s = word(il, i * 4) + word(k, i * 4) + carry;
+            sum[i] = s & M32;
+            carry = s >>> 32;
+        }
+        long borrow = 0;
+        for (int i = 7; i >= 0; i--) {
+            long d = sum[i] - N[i] - borrow;
+            diff[i] = d & M32;
+            borrow = d >>> 63;
+        }
+        // 和 >= n（进位溢出或减n无借位）时取差
+        long mask = -(carry | (borrow ^ 1));
+        long nonZero = 0;
+        for (int i = 0; i < 8; i++) {
+            long w = (diff[i] & mask) | (sum[i] & ~mask);
+            nonZero |= w;
+            k.putInt(i * 4, (int) w);
+        }
+        Arrays.fill(sum, 0);
+        Arrays.fill(diff, 0);
+        return nonZero != 0;
+    }
+
+    private static long word(ByteBuffer b, int off) {
+        return b.getInt(off) & M32;
+    }
+
+    /**
+     * 把当前节点私钥（32字节大端）写入dst[off..off+32)
+     */
+    public void copyPrivateKey(byte[] dst, int off) {
+        key.get(0, dst, off, 32);
+    }
+
+    /**
+     * 把当前节点链码写入dst[off..off+32)
+     */
+    public void copyChainCode(byte[] dst, int off) {
+        chainCode.get(0, dst, off, 32);
+    }
+
+    /**
+     * 计算当前节点公钥
+     *
+     * @param compressed true=33字节压缩格式，false=65字节未压缩格式
+     * @return 公钥编码
+     */
+    public byte[] publicKey(boolean compressed) {
+        return Secp256k1.publicKey(key, 0, compressed);
+    }
+
+    /**
+     * 当前节点的指纹：hash160(压缩公钥) 的前4字节（作为子节点扩展密钥中的父指纹）
+     */
+    public int fingerprint() {
+        byte[] pub = publicKey(true);
+        byte[] h = new byte[32];
+        SHA256Digest sha = new SHA256Digest();
+        sha.update(pub, 0, pub.length);
+        sha.doFinal(h, 0);
+        RIPEMD160Digest ripemd = new RIPEMD160Digest();
+        ripemd.update(h, 0, 32);
+        ripemd.doFinal(h, 0);
+        return ByteBuffer.wrap(h).getInt(0);
+    }
+
+    /** 当前节点深度（主节点为0） */
+    public int depth() {
+        return depth;
+    }
+
+    /** 当前节点的子索引（含硬化位，主节点为0） */
+    public int childNumber() {
+        return childNumber;
+    }
+
+    /**
+     * 清零当前节点与HMAC状态
+     */
+    public void wipe() {
+        SecretArena.wipe(key);
+        SecretArena.wipe(chainCode);
+        SecretArena.wipe(data);
+        SecretArena.wipe(out);
+        mac.wipe();
+        depth = 0;
+        childNumber = 0;
+    }
+}
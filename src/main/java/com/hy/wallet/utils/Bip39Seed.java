@@ -0,0 +1,70 @@
+package com.hy.wallet.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BIP39种子计算工具类
+ * PBKDF2-HMAC-SHA512（2048轮，64字节输出），结果与 bitcoinj MnemonicCode.toSeed 一致，
+ * 但直接写入调用方提供的缓冲区。2048轮迭代使用线程内复用的 {@link HmacSha512}：密钥只处理一次，
+ * 每轮只恢复已吸收密钥的摘要状态，迭代过程不分配对象（JDK的Mac.doFinal每次调用都会在内部分配数组）。
+ * 输出可以是 {@link SecretArena} 分配的堆外缓冲区，各轮结果直接异或进输出，种子不经过堆上的累加数组。
+ */
+public class Bip39Seed {
+
+    /** 种子字节数 */
+    public static final int SEED_LENGTH = 64;
+
+    private static final int ITERATIONS = 2048;
+    private static final byte[] BLOCK_INDEX_1 = {0, 0, 0, 1};
+
+    private static final ThreadLocal<HmacSha512> MAC = ThreadLocal.withInitial(HmacSha512::new);
+
+    /**
+     * 由助记词与口令计算64字节BIP39种子
+     *
+     * @param mnemonic   助记词单词列表
+     * @param passphrase 口令（无口令传空字符串）
+     * @param out        输出缓冲区
+     * @param off        输出偏移
+     */
+    public static void toSeed(List<String> mnemonic, String passphrase, byte[] out, int off) {
+        toSeed(mnemonic, passphrase, ByteBuffer.wrap(out), off);
+    }
+
+    /**
+     * 由助记词与口令计算64字节BIP39种子，写入缓冲区的指定位置（按绝对位置写入）
+     *
+     * @param mnemonic   助记词单词列表
+     * @param passphrase 口令（无口令传空字符串）
+     * @param out        输出缓冲区
+     * @param off        输出位置
+     */
+    public static void toSeed(List<String> mnemonic, String passphrase, ByteBuffer out, int off) {
+        byte[] password = String.join(" ", mnemonic).getBytes(StandardCharsets.UTF_8);
+        byte[] salt = ("mnemonic" + passphrase).getBytes(StandardCharsets.UTF_8);
+        byte[] u = new byte[SEED_LENGTH];
+        HmacSha512 mac = MAC.get();
+        try {
+            mac.init(password);
+            // 输出64字节恰为一个HMAC块：T1 = U1 ^ U2 ^ ... ^ U2048
+            mac.update(salt, 0, salt.length);
+            mac.update(BLOCK_INDEX_1, 0, BLOCK_INDEX_1.length);
+            mac.doFinal(u, 0);
+            out.put(off, u, 0, SEED_LENGTH);
+            for (int i = 1; i < ITERATIONS; i++) {
+                mac.update(u, 0, SEED_LENGTH);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < SEED_LENGTH; j++) {
+                    out.put(off + j, (byte) (out.get(off + j) ^ u[j]));
+                }
+            }
+        } finally {
+            mac.wipe();
+            Arrays.fill(password, (byte) 0);
+            Arrays.fill(u, (byte) 0);
+        }
+    }
+}
@@ -16,11 +16,21 @@ public class EthChecksum {
      */
     public static String toChecksumAddress(String lowerNoPrefix) {
         String lower = lowerNoPrefix.toLowerCase();
-        byte[] hash = keccak256(lower.getBytes());
+        return toChecksumAddress(lower, keccak256(lower.getBytes()), 0);
+    }
+
+    /**
+     * 根据EIP-55生成校验和地址（Keccak-256已由调用方计算，如 {@link MultiHash#keccak256} 批量计算）。
+     * @param lower 小写地址（不含0x），长度40
+     * @param hash keccak256(lower的ASCII字节)，至少20字节
+     * @param hashOff 哈希在数组中的偏移
+     * @return 0x前缀的校验和地址
+     */
+    public static String toChecksumAddress(String lower, byte[] hash, int hashOff) {
         StringBuilder sb = new StringBuilder("0x");
         for (int i = 0; i < lower.length(); i++) {
             char c = lower.charAt(i);
-            int hashNibble = (hash[i / 2] >> ((i % 2 == 0) ? 4 : 0)) & 0x0F; // 取对应半字节
+            int hashNibble = (hash[hashOff + i / 2] >> ((i % 2 == 0) ? 4 : 0)) & 0x0F; // 取对应半字节
             if (Character.isDigit(c)) {
                 sb.append(c);
             } else {
@@ -0,0 +1,160 @@
+package com.hy.wallet.utils;
+
+import org.bouncycastle.crypto.digests.SHA512Digest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 可复用的HMAC-SHA512计算状态
+ * 与BouncyCastle的HMac相比：
+ * - init 时把 ipad/opad 吸收后的摘要状态保存下来，之后每次 doFinal 只需恢复状态，不重新处理密钥
+ * - 重新设置密钥（init）与计算过程均不分配新对象，适合派生链中大量、逐级更换密钥的场景
+ * 密钥、输入与输出也可以是 {@link ByteBuffer}（如 {@link SecretArena} 分配的堆外缓冲区），按绝对位置读写，
+ * 不改变缓冲区的position。
+ * 实例非线程安全，应在单线程内复用。
+ */
+public final class HmacSha512 {
+
+    private static final int BLOCK_SIZE = 128;
+    private static final int MAC_SIZE = 64;
+
+    private final SHA512Digest inner = new SHA512Digest();
+    private final SHA512Digest outer = new SHA512Digest();
+    private final SHA512Digest innerKeyed = new SHA512Digest();
+    private final SHA512Digest outerKeyed = new SHA512Digest();
+    private final byte[] pad = new byte[BLOCK_SIZE];
+    private final byte[] innerHash = new byte[MAC_SIZE];
+
+    /**
+     * 设置密钥
+     *
+     * @param key 密钥
+     * @param off 起始偏移
+     * @param len 长度
+     */
+    public void init(byte[] key, int off, int len) {
+        Arrays.fill(pad, (byte) 0);
+        if (len > BLOCK_SIZE) {
+            outer.reset();
+            outer.update(key, off, len);
+            outer.doFinal(pad, 0);
+        } else {
+            System.arraycopy(key, off, pad, 0, len);
+        }
+        absorbPad();
+    }
+
+    /**
+     * 设置密钥
+     *
+     * @param key 密钥缓冲区
+     * @param off 起始位置
+     * @param len 长度
+     */
+    public void init(ByteBuffer key, int off, int len) {
+        Arrays.fill(pad, (byte) 0);
+        if (len > BLOCK_SIZE) {
+            outer.reset();
+            for (int i = 0; i < len; i++) {
+                outer.update(key.get(off + i));
+            }
+            outer.doFinal(pad, 0);
+        } else {
+            key.get(off, pad, 0, len);
+        }
+        absorbPad();
+    }
+
+    /**
+     * 由pad中的密钥计算并保存 ipad/opad 吸收后的摘要状态，随后清零pad
+     */
+    private void absorbPad() {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            pad[i] ^= 0x36;
+        }
+        inner.reset();
+        inner.update(pad, 0, BLOCK_SIZE);
+        innerKeyed.reset(inner);
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            pad[i] ^= 0x36 ^ 0x5C;
+        }
+        outer.reset();
+        outer.update(pad, 0, BLOCK_SIZE);
+        outerKeyed.reset(outer);
+        Arrays.fill(pad, (byte) 0);
+    }
+
+    /**
+     * 设置密钥（整个数组）
+     *
+     * @param key 密钥
+     */
+    public void init(byte[] key) {
+        init(key, 0, key.length);
+    }
+
+    /**
+     * 输入数据
+     */
+    public void update(byte[] in, int off, int len) {
+        inner.update(in, off, len);
+    }
+
+    /**
+     * 输入数据
+     */
+    public void update(ByteBuffer in, int off, int len) {
+        for (int i = 0; i < len; i++) {
+            inner.update(in.get(off + i));
+        }
+    }
+
+    /**
+     * 输入单个字节
+     */
+    public void update(byte b) {
+        inner.update(b);
+    }
+
+    /**
+     * 输出64字节MAC，并恢复到刚完成 init 的状态，可直接用同一密钥计算下一条消息
+     *
+     * @param out 输出缓冲区
+     * @param off 输出偏移
+     */
+    public void doFinal(byte[] out, int off) {
+        inner.doFinal(innerHash, 0);
+        outer.update(innerHash, 0, MAC_SIZE);
+        outer.doFinal(out, off);
+        inner.reset(innerKeyed);
+        outer.reset(outerKeyed);
+    }
+
+    /**
+     * 输出64字节MAC到缓冲区的指定位置，并恢复到刚完成 init 的状态
+     *
+     * @param out 输出缓冲区
+     * @param off 输出位置
+     */
+    public void doFinal(ByteBuffer out, int off) {
+        inner.doFinal(innerHash, 0);
+        outer.update(innerHash, 0, MAC_SIZE);
+        outer.doFinal(innerHash, 0);
+        out.put(off, innerHash, 0, MAC_SIZE);
+        Arrays.fill(innerHash, (byte) 0);
+        inner.reset(innerKeyed);
+        outer.reset(outerKeyed);
+    }
+
+    /**
+     * 清除已保存的密钥状态
+     */
+    public void wipe() {
+        inner.reset();
+        outer.reset();
+        innerKeyed.reset();
+        outerKeyed.reset();
+        Arrays.fill(innerHash, (byte) 0);
+    }
+}
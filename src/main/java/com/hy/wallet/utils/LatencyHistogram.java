@@ -0,0 +1,103 @@
+package com.hy.wallet.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图（纳秒记录，微秒报告）
+ * 对数-线性分桶：每个2的幂区间再等分为8个子桶，相对误差不超过12.5%，固定488个桶覆盖全部long取值。
+ * 记录操作无锁、无分配，可由多个线程并发调用；分位数按桶上界报告（偏保守）。
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    /**
+     * 统计快照（单位：微秒）
+     *
+     * @param count      样本数
+     * @param meanMicros 平均值
+     * @param p50Micros  中位数
+     * @param p99Micros  99分位
+     * @param maxMicros  最大值
+     */
+    public record Snapshot(long count, double meanMicros, double p50Micros, double p99Micros, double maxMicros) {
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 纳秒（负值按0计）
+     */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(index(v));
+        total.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /** 样本数 */
+    public long count() {
+        return total.sum();
+    }
+
+    /**
+     * 分位数
+     *
+     * @param q 0~1
+     * @return 微秒，无样本时为0
+     */
+    public double percentileMicros(double q) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get()) / 1000.0;
+            }
+        }
+        return max.get() / 1000.0;
+    }
+
+    /**
+     * 当前统计快照（并发记录时各字段可能来自略有先后的时刻）
+     */
+    public Snapshot snapshot() {
+        long n = total.sum();
+        return new Snapshot(n, n == 0 ? 0 : sum.sum() / 1000.0 / n, percentileMicros(0.5), percentileMicros(0.99),
+                max.get() / 1000.0);
+    }
+
+    static int index(long v) {
+        if (v < SUB) {
+            return (int) v;
+        }
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return (e - SUB_BITS + 1) * SUB + (int) ((v >>> (e - SUB_BITS)) & (SUB - 1));
+    }
+
+    private static long lowerBound(int index) {
+        if (index < SUB) {
+            return index;
+        }
+        int e = index / SUB + SUB_BITS - 1;
+        return (1L << e) | ((long) (index % SUB) << (e - SUB_BITS));
+    }
+
+    private static long upperBound(int index) {
+        return index == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(index + 1) - 1;
+    }
+}
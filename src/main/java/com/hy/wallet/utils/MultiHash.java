@@ -0,0 +1,127 @@
+package com.hy.wallet.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 多消息批量哈希
+ * 地址生成要对大量互相独立的短消息分别求哈希：ETH/TRON的64字节公钥（Keccak-256）、
+ * WIF与Base58Check地址的21~34字节载荷（双重SHA-256）、EIP-55的40字符十六进制地址（Keccak-256）。
+ * 本类一次接收一批等长消息（连续存放，第i条位于 inOff + i*len），结果依次写出，每条32字节。
+ * 运行时添加了 jdk.incubator.vector 模块（--add-modules jdk.incubator.vector）时使用多路向量内核，
+ * 否则使用逐条计算的标量内核；两者结果逐位一致。
+ * 系统属性 {@value #PROPERTY}：auto（默认，模块可用即启用）/ false（强制标量）。
+ */
+public final class MultiHash {
+    private static final Logger log = LoggerFactory.getLogger(MultiHash.class);
+
+    /** 向量内核开关 */
+    public static final String PROPERTY = "hy.wallet.hash.vector";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.hy.wallet.utils.VectorHashKernel";
+
+    /**
+     * 哈希内核：对count条长度为len的连续消息分别求哈希
+     */
+    interface Kernel {
+        String name();
+
+        void keccak256(byte[] in, int inOff, int len, int count, byte[] out, int outOff);
+
+        void sha256(byte[] in, int inOff, int len, int count, byte[] out, int outOff);
+    }
+
+    private static final Kernel SCALAR = new ScalarHashKernel();
+    private static final Kernel KERNEL = select();
+
+    private MultiHash() {
+    }
+
+    private static Kernel select() {
+        if ("false".equalsIgnoreCase(System.getProperty(PROPERTY, "auto").trim())) {
+            return SCALAR;
+        }
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            // 反射加载：未添加向量模块时不解析、不加载向量内核类
+            Kernel kernel = (Kernel) Class.forName(VECTOR_KERNEL)
+                    .getDeclaredConstructor(Kernel.class).newInstance(SCALAR);
+            log.debug("多路哈希内核：{}", kernel.name());
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("向量哈希内核不可用，使用标量实现：{}", e.toString());
+            return SCALAR;
+        }
+    }
+
+    /**
+     * 当前使用的内核名称
+     */
+    public static String kernel() {
+        return KERNEL.name();
+    }
+
+    /**
+     * 是否使用向量内核
+     */
+    public static boolean vectorized() {
+        return KERNEL != SCALAR;
+    }
+
+    /**
+     * 批量Keccak-256（原始Keccak填充，与BouncyCastle KeccakDigest(256)一致）
+     *
+     * @param in     输入缓冲区
+     * @param inOff  第一条消息的偏移
+     * @param len    每条消息的长度
+     * @param count  消息条数
+     * @param out    输出缓冲区（每条32字节）
+     * @param outOff 输出偏移
+     */
+    public static void keccak256(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        checkRange(in, inOff, len, count, out, outOff);
+        KERNEL.keccak256(in, inOff, len, count, out, outOff);
+    }
+
+    /**
+     * 批量SHA-256
+     *
+     * @param in     输入缓冲区
+     * @param inOff  第一条消息的偏移
+     * @param len    每条消息的长度
+     * @param count  消息条数
+     * @param out    输出缓冲区（每条32字节）
+     * @param outOff 输出偏移
+     */
+    public static void sha256(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        checkRange(in, inOff, len, count, out, outOff);
+        KERNEL.sha256(in, inOff, len, count, out, outOff);
+    }
+
+    /**
+     * 批量双重SHA-256：SHA-256(SHA-256(m))，Base58Check校验码取结果前4字节
+     *
+     * @param in     输入缓冲区
+     * @param inOff  第一条消息的偏移
+     * @param len    每条消息的长度
+     * @param count  消息条数
+     * @param out    输出缓冲区（每条32字节）
+     * @param outOff 输出偏移
+     */
+    public static void doubleSha256(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        checkRange(in, inOff, len, count, out, outOff);
+        byte[] first = new byte[count * 32];
+        KERNEL.sha256(in, inOff, len, count, first, 0);
+        KERNEL.sha256(first, 0, 32, count, out, outOff);
+    }
+
+    private static void checkRange(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        if (len < 0 || count < 0 || inOff < 0 || outOff < 0
+                || (long) inOff + (long) len * count > in.length || (long) outOff + 32L * count > out.length) {
+            throw new IndexOutOfBoundsException("批量哈希参数越界：len=" + len + ", count=" + count);
+        }
+    }
+}
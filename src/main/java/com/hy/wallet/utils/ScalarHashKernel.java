@@ -0,0 +1,42 @@
+package com.hy.wallet.utils;
+
+import org.bouncycastle.crypto.digests.KeccakDigest;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 标量哈希内核：逐条调用BouncyCastle KeccakDigest与JDK SHA-256
+ * 向量内核不可用时的默认实现，也用于向量内核凑不满一组通道的尾部消息。
+ */
+final class ScalarHashKernel implements MultiHash.Kernel {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void keccak256(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        KeccakDigest keccak = new KeccakDigest(256);
+        for (int i = 0; i < count; i++) {
+            keccak.update(in, inOff + i * len, len);
+            keccak.doFinal(out, outOff + i * 32);
+        }
+    }
+
+    @Override
+    public void sha256(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < count; i++) {
+                sha.update(in, inOff + i * len, len);
+                sha.digest(out, outOff + i * 32, 32);
+            }
+        } catch (NoSuchAlgorithmException | DigestException e) {
+            throw new IllegalStateException("SHA-256计算失败", e);
+        }
+    }
+}
@@ -0,0 +1,795 @@
+package com.hy.wallet.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * secp256k1 固定基点乘法引擎
+ * 为BTC/ETH/TRON等secp256k1链统一提供公钥计算：
+ * - 域元素采用10个26比特limb（long[10]）的定长表示，乘法全部在long内完成，不依赖BigInteger
+ * - 基点G的预计算表：64个4比特窗口 × 15个非零倍点（仿射坐标），类加载时一次生成，多线程只读共享
+ * - k*G = Σ table[i][k_i]，仅需64次混合加法、无倍点运算；表项选择按掩码遍历整个窗口，不以私钥作为数组下标
+ * - 批量接口对整批结果做一次模逆的仿射归一化（Montgomery技巧）
+ */
+public final class Secp256k1 {
+
+    private static final long M26 = 0x3FFFFFFL;
+    private static final long M22 = 0x3FFFFFL;
+
+    /** 模数p = 2^256 - 2^32 - 977 */
+    private static final long[] P = {0x3FFFC2FL, 0x3FFFFBFL, M26, M26, M26, M26, M26, M26, M26, M22};
+
+    /** 群阶n（大端32字节） */
+    private static final byte[] N = hexToBytes("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEBAAEDCE6AF48A03BBFD25E8CD0364141");
+
+    private static final byte[] GX = hexToBytes("79BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798");
+    private static final byte[] GY = hexToBytes("483ADA7726A3C4655DA4FBFC0E1108A8FD17B448A68554199C47D08FFB10D4B8");
+
+    /** 窗口宽度（比特）与窗口个数 */
+    private static final int WINDOW_BITS = 4;
+    private static final int WINDOWS = 256 / WINDOW_BITS;
+    private static final int WINDOW_SIZE = 1 << WINDOW_BITS;
+
+    /** 预计算表：下标 window*16 + digit，值为 digit * 16^window * G 的仿射坐标（digit=0不使用） */
+    private static final long[][] TABLE_X = new long[WINDOWS * WINDOW_SIZE][];
+    private static final long[][] TABLE_Y = new long[WINDOWS * WINDOW_SIZE][];
+
+    static {
+        buildTable();
+    }
+
+    private Secp256k1() {
+    }
+
+    /**
+     * 由32字节私钥计算公钥
+     *
+     * @param privKey    32字节私钥（大端，需满足 0 < k < n）
+     * @param compressed true=33字节压缩格式，false=65字节未压缩格式（0x04前缀）
+     * @return 公钥编码
+     */
+    public static byte[] publicKey(byte[] privKey, boolean compressed) {
+        byte[] out = new byte[compressed ? 33 : 65];
+        publicKeys(privKey, 0, 1, null, out, 0, compressed);
+        return out;
+    }
+
+    /**
+     * 由缓冲区中的32字节私钥计算公钥（私钥可在 {@link SecretArena} 分配的堆外缓冲区中，按绝对位置读取）
+     *
+     * @param privKey    私钥缓冲区（大端，需满足 0 < k < n）
+     * @param off        私钥位置
+     * @param compressed true=33字节压缩格式，false=65字节未压缩格式（0x04前缀）
+     * @return 公钥编码
+     */
+    public static byte[] publicKey(ByteBuffer privKey, int off, boolean compressed) {
+        byte[] out = new byte[compressed ? 33 : 65];
+        publicKeys(privKey, off, 1, null, out, 0, compressed);
+        return out;
+    }
+
+    /**
+     * 批量计算 k_i*G (+ A)，整批只做一次模逆
+     * 用于私钥到公钥的批量计算（addend为null），以及BIP32 CKDpub：子公钥 = IL*G + 父公钥（addend为父公钥）。
+     *
+     * @param scalars    连续存放的count个32字节标量（大端，需满足 0 < k < n）
+     * @param scalarOff  标量起始偏移
+     * @param count      数量
+     * @param addend     可选的加数点（65字节未压缩编码），为null时仅计算 k*G
+     * @param out        输出缓冲区，依次写入count个公钥编码
+     * @param outOff     输出起始偏移
+     * @param compressed true=33字节压缩格式，false=65字节未压缩格式
+     */
+    public static void publicKeys(byte[] scalars, int scalarOff, int count, byte[] addend,
+                                  byte[] out, int outOff, boolean compressed) {
+        publicKeys(ByteBuffer.wrap(scalars), scalarOff, count, addend, out, outOff, compressed);
+    }
+
+    /**
+     * 批量计算 k_i*G (+ A)，标量从缓冲区按绝对位置读取，见 {@link #publicKeys(byte[], int, int, byte[], byte[], int, boolean)}
+     */
+    public static void publicKeys(ByteBuffer scalars, int scalarOff, int count, byte[] addend,
+                                  byte[] out, int outOff, boolean compressed) {
+        if (count <= 0) {
+            return;
+        }
+        long[] ax = null;
+        long[] ay = null;
+        if (addend != null) {
+            ax = new long[10];
+            ay = new long[10];
+            decodeUncompressed(addend, ax, ay);
+        }
+        Scratch s = new Scratch();
+        Jacobian[] points = new Jacobian[count];
+        for (int i = 0; i < count; i++) {
+            int off = scalarOff + i * 32;
+            if (!isValidPrivateKey(scalars, off)) {
+                throw new IllegalArgumentException("标量超出范围（需满足 0 < k < n）");
+            }
+            Jacobian r = new Jacobian();
+            mulG(r, scalars, off, s);
+            if (ax != null) {
+                addAffineVar(r, r, ax, ay, s);
+                if (r.infinity) {
+                    throw new IllegalStateException("结果为无穷远点，该标量不可用");
+                }
+            }
+            points[i] = r;
+        }
+        int len = compressed ? 33 : 65;
+        long[][] xs = new long[count][10];
+        long[][] ys = new long[count][10];
+        toAffineBatch(points, xs, ys, count);
+        for (int i = 0; i < count; i++) {
+            encode(xs[i], ys[i], out, outOff + i * len, compressed);
+        }
+    }
+
+    /**
+     * 判断32字节私钥是否有效（0 < k < n）
+     *
+     * @param key 私钥缓冲区
+     * @param off 起始偏移
+     * @return true=有效
+     */
+    public static boolean isValidPrivateKey(byte[] key, int off) {
+        return isValidPrivateKey(ByteBuffer.wrap(key), off);
+    }
+
+    /**
+     * 判断缓冲区中的32字节私钥是否有效（0 < k < n），按绝对位置读取
+     *
+     * @param key 私钥缓冲区
+     * @param off 起始位置
+     * @return true=有效
+     */
+    public static boolean isValidPrivateKey(ByteBuffer key, int off) {
+        int nonZero = 0;
+        int cmp = 0; // 首个不同字节处 key 与 n 的大小关系
+        for (int i = 0; i < 32; i++) {
+            int k = key.get(off + i) & 0xFF;
+            int n = N[i] & 0xFF;
+            nonZero |= k;
+            if (cmp == 0 && k != n) {
+                cmp = k < n ? -1 : 1;
+            }
+        }
+        return nonZero != 0 && cmp < 0;
+    }
+
+    // ------------------------------------------------------------------
+    // 点运算（Jacobian坐标，曲线 y^2 = x^3 + 7）
+    // ------------------------------------------------------------------
+
+    /** Jacobian坐标点：(X, Y, Z) 表示仿射点 (X/Z^2, Y/Z^3) */
+    private static final class Jacobian {
+        final long[] x = new long[10];
+        final long[] y = new long[10];
+        final long[] z = new long[10];
+        boolean infinity;
+    }
+
+    /** 点运算临时变量，单线程内复用 */
+    private static final class Scratch {
+        final long[] t1 = new long[10], t2 = new long[10], t3 = new long[10], t4 = new long[10];
+        final long[] t5 = new long[10], t6 = new long[10], t7 = new long[10];
+        final long[] selX = new long[10], selY = new long[10];
+        final Jacobian sum = new Jacobian();
+    }
+
+    /**
+     * 固定基点乘法：r = k*G
+     * 每个窗口都执行一次混合加法，并按掩码在"保持/取表项/取和"之间选择，避免依赖私钥的分支。
+     */
+    private static void mulG(Jacobian r, ByteBuffer k, int off, Scratch s) {
+        feSetInt(r.x, 0);
+        feSetInt(r.y, 0);
+        feSetInt(r.z, 1);
+        long rInf = -1L;
+        for (int w = 0; w < WINDOWS; w++) {
+            int b = k.get(off + 31 - (w >>> 1)) & 0xFF;
+            int digit = (w & 1) == 0 ? (b & 0x0F) : (b >>> 4);
+
+            // 常量时间查表：遍历窗口内全部表项
+            long[] sx = s.selX;
+            long[] sy = s.selY;
+            for (int i = 0; i < 10; i++) {
+                sx[i] = 0;
+                sy[i] = 0;
+            }
+            int base = w * WINDOW_SIZE;
+            for (int d = 1; d < WINDOW_SIZE; d++) {
+                long m = ((long) ((d ^ digit) - 1)) >> 63;
+                long[] tx = TABLE_X[base + d];
+                long[] ty = TABLE_Y[base + d];
+                for (int i = 0; i < 10; i++) {
+                    sx[i] |= tx[i] & m;
+                    sy[i] |= ty[i] & m;
+                }
+            }
+
+            Jacobian sum = s.sum;
+            addAffine(sum, r, sx, sy, s);
+
+            long zeroDigit = ((long) (digit - 1)) >> 63;
+            long useSel = ~zeroDigit & rInf;
+            long useSum = ~zeroDigit & ~rInf;
+            for (int i = 0; i < 10; i++) {
+                r.x[i] = (sx[i] & useSel) | (sum.x[i] & useSum) | (r.x[i] & zeroDigit);
+                r.y[i] = (sy[i] & useSel) | (sum.y[i] & useSum) | (r.y[i] & zeroDigit);
+                long one = i == 0 ? 1L : 0L;
+                r.z[i] = (one & useSel) | (sum.z[i] & useSum) | (r.z[i] & zeroDigit);
+            }
+            rInf &= zeroDigit;
+        }
+        r.infinity = rInf != 0;
+    }
+
+    /**
+     * 混合加法 r = p + (ax, ay)，不处理特殊情况（p为无穷远点、两点相等或互逆）。
+     * 固定基点乘法中各窗口的倍数互不相同，不会出现上述情况。r可与p为同一对象。
+     */
+    private static void addAffine(Jacobian r, Jacobian p, long[] ax, long[] ay, Scratch s) {
+        long[] z1z1 = s.t1, u2 = s.t2, s2 = s.t3, h = s.t4, rr = s.t5, hh = s.t6, t = s.t7;
+        feSqr(z1z1, p.z);
+        feMul(u2, ax, z1z1);
+        feMul(s2, p.z, z1z1);
+        feMul(s2, ay, s2);
+        feSub(h, u2, p.x);
+        feSub(rr, s2, p.y);
+        feMul(r.z, p.z, h);
+        feSqr(hh, h);
+        feMul(t, h, hh);          // HHH
+        feMul(u2, p.x, hh);       // V
+        feMul(s2, p.y, t);        // Y1*HHH
+        feSqr(z1z1, rr);
+        feSub(z1z1, z1z1, t);
+        feSub(z1z1, z1z1, u2);
+        feSub(z1z1, z1z1, u2);    // X3 = r^2 - HHH - 2V
+        feSub(u2, u2, z1z1);
+        feMul(u2, rr, u2);
+        feSub(r.y, u2, s2);       // Y3 = r*(V - X3) - Y1*HHH
+        feCopy(r.x, z1z1);
+        r.infinity = false;
+    }
+
+    /**
+     * 带特殊情况处理的混合加法（变时实现，仅用于公开数据：建表与CKDpub加父公钥）
+     */
+    private static void addAffineVar(Jacobian r, Jacobian p, long[] ax, long[] ay, Scratch s) {
+        if (p.infinity) {
+            feCopy(r.x, ax);
+            feCopy(r.y, ay);
+            feSetInt(r.z, 1);
+            r.infinity = false;
+            return;
+        }
+        long[] z1z1 = s.t1, u2 = s.t2, s2 = s.t3;
+        feSqr(z1z1, p.z);
+        feMul(u2, ax, z1z1);
+        feMul(s2, p.z, z1z1);
+        feMul(s2, ay, s2);
+        feSub(u2, u2, p.x);
+        feSub(s2, s2, p.y);
+        if (feIsZero(u2)) {
+            if (feIsZero(s2)) {
+                Jacobian a = new Jacobian();
+                feCopy(a.x, ax);
+                feCopy(a.y, ay);
+                feSetInt(a.z, 1);
+                pointDouble(r, a, s);
+            } else {
+                r.infinity = true;
+            }
+            return;
+        }
+        addAffine(r, p, ax, ay, s);
+    }
+
+    /**
+     * 倍点 r = 2p（a=0曲线，dbl-2009-l公式）。r可与p为同一对象。
+     */
+    private static void pointDouble(Jacobian r, Jacobian p, Scratch s) {
+        long[] a = s.t1, b = s.t2, c = s.t3, d = s.t4, e = s.t5, f = s.t6;
+        feSqr(a, p.x);
+        feSqr(b, p.y);
+        feSqr(c, b);
+        feAdd(d, p.x, b);
+        feSqr(d, d);
+        feSub(d, d, a);
+        feSub(d, d, c);
+        feAdd(d, d, d);           // D = 2*((X+B)^2 - A - C)
+        feMulSmall(e, a, 3);      // E = 3A
+        feSqr(f, e);              // F = E^2
+        feMul(r.z, p.y, p.z);
+        feAdd(r.z, r.z, r.z);     // Z3 = 2*Y*Z
+        feSub(f, f, d);
+        feSub(r.x, f, d);         // X3 = F - 2D
+        feSub(d, d, r.x);
+        feMul(d, e, d);
+        feMulSmall(c, c, 8);
+        feSub(r.y, d, c);         // Y3 = E*(D - X3) - 8C
+        r.infinity = false;
+    }
+
+    /**
+     * 批量转换为仿射坐标：Montgomery技巧，count个点只做一次模逆
+     */
+    private static void toAffineBatch(Jacobian[] points, long[][] xs, long[][] ys, int count) {
+        long[][] acc = new long[count][10];
+        feCopy(acc[0], points[0].z);
+        for (int i = 1; i < count; i++) {
+            feMul(acc[i], acc[i - 1], points[i].z);
+        }
+        long[] inv = new long[10];
+        feInv(inv, acc[count - 1]);
+        long[] zInv = new long[10];
+        long[] zInv2 = new long[10];
+        for (int i = count - 1; i >= 0; i--) {
+            if (i > 0) {
+                feMul(zInv, inv, acc[i - 1]);
+                feMul(inv, inv, points[i].z);
+            } else {
+                feCopy(zInv, inv);
+            }
+            feSqr(zInv2, zInv);
+            feMul(xs[i], points[i].x, zInv2);
+            feMul(zInv2, zInv2, zInv);
+            feMul(ys[i], points[i].y, zInv2);
+        }
+    }
+
+    /**
+     * 生成预计算表：窗口w的基点为 16^w * G，表项 d*16^w*G (d=1..15)
+     */
+    private static void buildTable() {
+        Scratch s = new Scratch();
+        long[] bx = new long[10];
+        long[] by = new long[10];
+        feFromBytes(bx, GX, 0);
+        feFromBytes(by, GY, 0);
+        Jacobian[] pts = new Jacobian[WINDOW_SIZE];
+        long[][] xs = new long[WINDOW_SIZE][10];
+        long[][] ys = new long[WINDOW_SIZE][10];
+        for (int w = 0; w < WINDOWS; w++) {
+            // pts[j] = (j+1) * base，j = 0..15；pts[15] 即下一窗口的基点
+            pts[0] = new Jacobian();
+            feCopy(pts[0].x, bx);
+            feCopy(pts[0].y, by);
+            feSetInt(pts[0].z, 1);
+            pts[1] = new Jacobian();
+            pointDouble(pts[1], pts[0], s);
+            for (int j = 2; j < WINDOW_SIZE; j++) {
+                pts[j] = new Jacobian();
+                addAffineVar(pts[j], pts[j - 1], bx, by, s);
+            }
+            toAffineBatch(pts, xs, ys, WINDOW_SIZE);
+            for (int d = 1; d < WINDOW_SIZE; d++) {
+                long[] x = xs[d - 1].clone();
+                long[] y = ys[d - 1].clone();
+                feNormalize(x);
+                feNormalize(y);
+                TABLE_X[w * WINDOW_SIZE + d] = x;
+                TABLE_Y[w * WINDOW_SIZE + d] = y;
+            }
+            feCopy(bx, xs[WINDOW_SIZE - 1]);
+            feCopy(by, ys[WINDOW_SIZE - 1]);
+        }
+    }
+
+    /**
+     * 解析65字节未压缩公钥，并校验点在曲线上
+     */
+    private static void decodeUncompressed(byte[] encoded, long[] x, long[] y) {
+        if (encoded.length != 65 || encoded[0] != 0x04) {
+            throw new IllegalArgumentException("公钥须为65字节未压缩格式");
+        }
+        feFromBytes(x, encoded, 1);
+        feFromBytes(y, encoded, 33);
+        long[] lhs = new long[10];
+        long[] rhs = new long[10];
+        feSqr(lhs, y);
+        feSqr(rhs, x);
+        feMul(rhs, rhs, x);
+        long[] seven = new long[10];
+        feSetInt(seven, 7);
+        feAdd(rhs, rhs, seven);
+        feSub(lhs, lhs, rhs);
+        if (!feIsZero(lhs)) {
+            throw new IllegalArgumentException("公钥不在secp256k1曲线上");
+        }
+    }
+
+    /**
+     * 仿射坐标编码为33字节压缩或65字节未压缩格式
+     */
+    private static void encode(long[] x, long[] y, byte[] out, int off, boolean compressed) {
+        feNormalize(x);
+        feNormalize(y);
+        if (compressed) {
+            out[off] = (byte) ((y[0] & 1) == 0 ? 0x02 : 0x03);
+            feToBytes(x, out, off + 1);
+        } else {
+            out[off] = 0x04;
+            feToBytes(x, out, off + 1);
+            feToBytes(y, out, off + 33);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // 域运算（mod p，10×26比特limb）
+    // 约定：所有运算结果均为"弱规约"形式——limb0..8 < 2^26，limb9 < 2^23，数值可能 >= p
+    // ------------------------------------------------------------------
+
+    /** r = a * b mod p（r可与a、b为同一数组） */
+    static void feMul(long[] r, long[] a, long[] b) {
+        long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4], a5 = a[5], a6 = a[6], a7 = a[7], a8 = a[8], a9 = a[9];
+        long b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3], b4 = b[4], b5 = b[5], b6 = b[6], b7 = b[7], b8 = b[8], b9 = b[9];
+        long t0 = a0 * b0;
+        long t1 = a0 * b1 + a1 * b0;
+        long t2 = a0 * b2 + a1 * b1 + a2 * b0;
+        long t3 = a0 * b3 + a1 * b2 + a2 * b1 + a3 * b0;
+        long t4 = a0 * b4 + a1 * b3 + a2 * b2 + a3 * b1 + a4 * b0;
+        long t5 = a0 * b5 + a1 * b4 + a2 * b3 + a3 * b2 + a4 * b1 + a5 * b0;
+        long t6 = a0 * b6 + a1 * b5 + a2 * b4 + a3 * b3 + a4 * b2 + a5 * b1 + a6 * b0;
+        long t7 = a0 * b7 + a1 * b6 + a2 * b5 + a3 * b4 + a4 * b3 + a5 * b2 + a6 * b1 + a7 * b0;
+        long t8 = a0 * b8 + a1 * b7 + a2 * b6 + a3 * b5 + a4 * b4 + a5 * b3 + a6 * b2 + a7 * b1 + a8 * b0;
+        long t9 = a0 * b9 + a1 * b8 + a2 * b7 + a3 * b6 + a4 * b5 + a5 * b4 + a6 * b3 + a7 * b2 + a8 * b1 + a9 * b0;
+        long t10 = a1 * b9 + a2 * b8 + a3 * b7 + a4 * b6 + a5 * b5 + a6 * b4 + a7 * b3 + a8 * b2 + a9 * b1;
+        long t11 = a2 * b9 + a3 * b8 + a4 * b7 + a5 * b6 + a6 * b5 + a7 * b4 + a8 * b3 + a9 * b2;
+        long t12 = a3 * b9 + a4 * b8 + a5 * b7 + a6 * b6 + a7 * b5 + a8 * b4 + a9 * b3;
+        long t13 = a4 * b9 + a5 * b8 + a6 * b7 + a7 * b6 + a8 * b5 + a9 * b4;
+        long t14 = a5 * b9 + a6 * b8 + a7 * b7 + a8 * b6 + a9 * b5;
+        long t15 = a6 * b9 + a7 * b8 + a8 * b7 + a9 * b6;
+        long t16 = a7 * b9 + a8 * b8 + a9 * b7;
+        long t17 = a8 * b9 + a9 * b8;
+        long t18 = a9 * b9;
+        // 先将19个部分积进位为26比特limb
+        t1 += t0 >>> 26; t0 &= M26;
+        t2 += t1 >>> 26; t1 &= M26;
+        t3 += t2 >>> 26; t2 &= M26;
+        t4 += t3 >>> 26; t3 &= M26;
+        t5 += t4 >>> 26; t4 &= M26;
+        t6 += t5 >>> 26; t5 &= M26;
+        t7 += t6 >>> 26; t6 &= M26;
+        t8 += t7 >>> 26; t7 &= M26;
+        t9 += t8 >>> 26; t8 &= M26;
+        t10 += t9 >>> 26; t9 &= M26;
+        t11 += t10 >>> 26; t10 &= M26;
+        t12 += t11 >>> 26; t11 &= M26;
+        t13 += t12 >>> 26; t12 &= M26;
+        t14 += t13 >>> 26; t13 &= M26;
+        t15 += t14 >>> 26; t14 &= M26;
+        t16 += t15 >>> 26; t15 &= M26;
+        t17 += t16 >>> 26; t16 &= M26;
+        t18 += t17 >>> 26; t17 &= M26;
+        long t19 = t18 >>> 26; t18 &= M26;
+        // 2^260 ≡ 2^36 + 15632 (mod p)：高10个limb折叠回低位
+        long r0 = t0 + t10 * 15632L;
+        long r1 = t1 + t11 * 15632L + (t10 << 10);
+        long r2 = t2 + t12 * 15632L + (t11 << 10);
+        long r3 = t3 + t13 * 15632L + (t12 << 10);
+        long r4 = t4 + t14 * 15632L + (t13 << 10);
+        long r5 = t5 + t15 * 15632L + (t14 << 10);
+        long r6 = t6 + t16 * 15632L + (t15 << 10);
+        long r7 = t7 + t17 * 15632L + (t16 << 10);
+        long r8 = t8 + t18 * 15632L + (t17 << 10);
+        long r9 = t9 + t19 * 15632L + (t18 << 10);
+        long r10 = t19 << 10;
+        r1 += r0 >>> 26; r0 &= M26;
+        r2 += r1 >>> 26; r1 &= M26;
+        r3 += r2 >>> 26; r2 &= M26;
+        r4 += r3 >>> 26; r3 &= M26;
+        r5 += r4 >>> 26; r4 &= M26;
+        r6 += r5 >>> 26; r5 &= M26;
+        r7 += r6 >>> 26; r6 &= M26;
+        r8 += r7 >>> 26; r7 &= M26;
+        r9 += r8 >>> 26; r8 &= M26;
+        r10 += r9 >>> 26; r9 &= M26;
+        r0 += r10 * 15632L;
+        r1 += r10 << 10;
+        // 2^256 ≡ 2^32 + 977 (mod p)：折叠第256比特以上部分
+        long c = r9 >>> 22; r9 &= M22;
+        r0 += c * 977L;
+        r1 += c << 6;
+        r1 += r0 >>> 26; r0 &= M26;
+        r2 += r1 >>> 26; r1 &= M26;
+        r3 += r2 >>> 26; r2 &= M26;
+        r4 += r3 >>> 26; r3 &= M26;
+        r5 += r4 >>> 26; r4 &= M26;
+        r6 += r5 >>> 26; r5 &= M26;
+        r7 += r6 >>> 26; r6 &= M26;
+        r8 += r7 >>> 26; r7 &= M26;
+        r9 += r8 >>> 26; r8 &= M26;
+        r[0] = r0;
+        r[1] = r1;
+        r[2] = r2;
+        r[3] = r3;
+        r[4] = r4;
+        r[5] = r5;
+        r[6] = r6;
+        r[7] = r7;
+        r[8] = r8;
+        r[9] = r9;
+    }
+
+    /** r = a^2 mod p（r可与a为同一数组） */
+    static void feSqr(long[] r, long[] a) {
+        long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4], a5 = a[5], a6 = a[6], a7 = a[7], a8 = a[8], a9 = a[9];
+        long t0 = a0 * a0;
+        long t1 = (a0 * a1 << 1);
+        long t2 = (a0 * a2 << 1) + a1 * a1;
+        long t3 = (a0 * a3 << 1) + (a1 * a2 << 1);
+        long t4 = (a0 * a4 << 1) + (a1 * a3 << 1) + a2 * a2;
+        long t5 = (a0 * a5 << 1) + (a1 * a4 << 1) + (a2 * a3 << 1);
+        long t6 = (a0 * a6 << 1) + (a1 * a5 << 1) + (a2 * a4 << 1) + a3 * a3;
+        long t7 = (a0 * a7 << 1) + (a1 * a6 << 1) + (a2 * a5 << 1) + (a3 * a4 << 1);
+        long t8 = (a0 * a8 << 1) + (a1 * a7 << 1) + (a2 * a6 << 1) + (a3 * a5 << 1) + a4 * a4;
+        long t9 = (a0 * a9 << 1) + (a1 * a8 << 1) + (a2 * a7 << 1) + (a3 * a6 << 1) + (a4 * a5 << 1);
+        long t10 = (a1 * a9 << 1) + (a2 * a8 << 1) + (a3 * a7 << 1) + (a4 * a6 << 1) + a5 * a5;
+        long t11 = (a2 * a9 << 1) + (a3 * a8 << 1) + (a4 * a7 << 1) + (a5 * a6 << 1);
+        long t12 = (a3 * a9 << 1) + (a4 * a8 << 1) + (a5 * a7 << 1) + a6 * a6;
+        long t13 = (a4 * a9 << 1) + (a5 * a8 << 1) + (a6 * a7 << 1);
+        long t14 = (a5 * a9 << 1) + (a6 * a8 << 1) + a7 * a7;
+        long t15 = (a6 * a9 << 1) + (a7 * a8 << 1);
+        long t16 = (a7 * a9 << 1) + a8 * a8;
+        long t17 = (a8 * a9 << 1);
+        long t18 = a9 * a9;
+        // 先将19个部分积进位为26比特limb
+        t1 += t0 >>> 26; t0 &= M26;
+        t2 += t1 >>> 26; t1 &= M26;
+        t3 += t2 >>> 26; t2 &= M26;
+        t4 += t3 >>> 26; t3 &= M26;
+        t5 += t4 >>> 26; t4 &= M26;
+        t6 += t5 >>> 26; t5 &= M26;
+        t7 += t6 >>> 26; t6 &= M26;
+        t8 += t7 >>> 26; t7 &= M26;
+        t9 += t8 >>> 26; t8 &= M26;
+        t10 += t9 >>> 26; t9 &= M26;
+        t11 += t10 >>> 26; t10 &= M26;
+        t12 += t11 >>> 26; t11 &= M26;
+        t13 += t12 >>> 26; t12 &= M26;
+        t14 += t13 >>> 26; t13 &= M26;
+        t15 += t14 >>> 26; t14 &= M26;
+        t16 += t15 >>> 26; t15 &= M26;
+        t17 += t16 >>> 26; t16 &= M26;
+        t18 += t17 >>> 26; t17 &= M26;
+        long t19 = t18 >>> 26; t18 &= M26;
+        // 2^260 ≡ 2^36 + 15632 (mod p)：高10个limb折叠回低位
+        long r0 = t0 + t10 * 15632L;
+        long r1 = t1 + t11 * 15632L + (t10 << 10);
+        long r2 = t2 + t12 * 15632L + (t11 << 10);
+        long r3 = t3 + t13 * 15632L + (t12 << 10);
+        long r4 = t4 + t14 * 15632L + (t13 << 10);
+        long r5 = t5 + t15 * 15632L + (t14 << 10);
+        long r6 = t6 + t16 * 15632L + (t15 << 10);
+        long r7 = t7 + t17 * 15632L + (t16 << 10);
+        long r8 = t8 + t18 * 15632L + (t17 << 10);
+        long r9 = t9 + t19 * 15632L + (t18 << 10);
+        long r10 = t19 << 10;
+        r1 += r0 >>> 26; r0 &= M26;
+        r2 += r1 >>> 26; r1 &= M26;
+        r3 += r2 >>> 26; r2 &= M26;
+        r4 += r3 >>> 26; r3 &= M26;
+        r5 += r4 >>> 26; r4 &= M26;
+        r6 += r5 >>> 26; r5 &= M26;
+        r7 += r6 >>> 26; r6 &= M26;
+        r8 += r7 >>> 26; r7 &= M26;
+        r9 += r8 >>> 26; r8 &= M26;
+        r10 += r9 >>> 26; r9 &= M26;
+        r0 += r10 * 15632L;
+        r1 += r10 << 10;
+        // 2^256 ≡ 2^32 + 977 (mod p)：折叠第256比特以上部分
+        long c = r9 >>> 22; r9 &= M22;
+        r0 += c * 977L;
+        r1 += c << 6;
+        r1 += r0 >>> 26; r0 &= M26;
+        r2 += r1 >>> 26; r1 &= M26;
+        r3 += r2 >>> 26; r2 &= M26;
+        r4 += r3 >>> 26; r3 &= M26;
+        r5 += r4 >>> 26; r4 &= M26;
+        r6 += r5 >>> 26; r5 &= M26;
+        r7 += r6 >>> 26; r6 &= M26;
+        r8 += r7 >>> 26; r7 &= M26;
+        r9 += r8 >>> 26; r8 &= M26;
+        r[0] = r0;
+        r[1] = r1;
+        r[2] = r2;
+        r[3] = r3;
+        r[4] = r4;
+        r[5] = r5;
+        r[6] = r6;
+        r[7] = r7;
+        r[8] = r8;
+        r[9] = r9;
+    }
+
+    /** r = a + b */
+    static void feAdd(long[] r, long[] a, long[] b) {
+        for (int i = 0; i < 10; i++) {
+            r[i] = a[i] + b[i];
+        }
+        feReduceWeak(r);
+    }
+
+    /** r = a - b（先加8p保证各limb非负） */
+    static void feSub(long[] r, long[] a, long[] b) {
+        for (int i = 0; i < 10; i++) {
+            r[i] = a[i] + (P[i] << 3) - b[i];
+        }
+        feReduceWeak(r);
+    }
+
+    /** r = a * k（k为小整数） */
+    static void feMulSmall(long[] r, long[] a, int k) {
+        for (int i = 0; i < 10; i++) {
+            r[i] = a[i] * k;
+        }
+        feReduceWeak(r);
+    }
+
+    /** r = a^(p-2) = a^-1 mod p（费马小定理，加法链：255次平方+15次乘法） */
+    static void feInv(long[] r, long[] a) {
+        long[] x2 = new long[10], x3 = new long[10], x6 = new long[10], x9 = new long[10], x11 = new long[10];
+        long[] x22 = new long[10], x44 = new long[10], x88 = new long[10], x176 = new long[10];
+        long[] x220 = new long[10], x223 = new long[10], t = new long[10];
+        powChain(a, x2, x3, x6, x9, x11, x22, x44, x88, x176, x220, x223);
+        feSqrN(t, x223, 23);
+        feMul(t, t, x22);
+        feSqrN(t, t, 5);
+        feMul(t, t, a);
+        feSqrN(t, t, 3);
+        feMul(t, t, x2);
+        feSqrN(t, t, 2);
+        feMul(r, t, a);
+    }
+
+    /**
+     * r = a^((p+1)/4)，即模p平方根（p ≡ 3 mod 4）
+     *
+     * @return 若a为二次剩余返回true
+     */
+    static boolean feSqrt(long[] r, long[] a) {
+        long[] x2 = new long[10], x3 = new long[10], x6 = new long[10], x9 = new long[10], x11 = new long[10];
+        long[] x22 = new long[10], x44 = new long[10], x88 = new long[10], x176 = new long[10];
+        long[] x220 = new long[10], x223 = new long[10], t = new long[10];
+        powChain(a, x2, x3, x6, x9, x11, x22, x44, x88, x176, x220, x223);
+        feSqrN(t, x223, 23);
+        feMul(t, t, x22);
+        feSqrN(t, t, 6);
+        feMul(t, t, x2);
+        feSqrN(r, t, 2);
+        feSqr(t, r);
+        feSub(t, t, a);
+        return feIsZero(t);
+    }
+
+    /** 公共加法链：xN = a^(2^N - 1) */
+    private static void powChain(long[] a, long[] x2, long[] x3, long[] x6, long[] x9, long[] x11,
+                                 long[] x22, long[] x44, long[] x88, long[] x176, long[] x220, long[] x223) {
+        feSqr(x2, a);
+        feMul(x2, x2, a);
+        feSqr(x3, x2);
+        feMul(x3, x3, a);
+        feSqrN(x6, x3, 3);
+        feMul(x6, x6, x3);
+        feSqrN(x9, x6, 3);
+        feMul(x9, x9, x3);
+        feSqrN(x11, x9, 2);
+        feMul(x11, x11, x2);
+        feSqrN(x22, x11, 11);
+        feMul(x22, x22, x11);
+        feSqrN(x44, x22, 22);
+        feMul(x44, x44, x22);
+        feSqrN(x88, x44, 44);
+        feMul(x88, x88, x44);
+        feSqrN(x176, x88, 88);
+        feMul(x176, x176, x88);
+        feSqrN(x220, x176, 44);
+        feMul(x220, x220, x44);
+        feSqrN(x223, x220, 3);
+        feMul(x223, x223, x3);
+    }
+
+    /** r = a^(2^n) */
+    private static void feSqrN(long[] r, long[] a, int n) {
+        feSqr(r, a);
+        for (int i = 1; i < n; i++) {
+            feSqr(r, r);
+        }
+    }
+
+    /** 弱规约：处理进位并折叠2^256以上部分 */
+    private static void feReduceWeak(long[] r) {
+        for (int pass = 0; pass < 2; pass++) {
+            long c = r[9] >>> 22;
+            r[9] &= M22;
+            r[0] += c * 977L;
+            r[1] += c << 6;
+            for (int i = 0; i < 9; i++) {
+                r[i + 1] += r[i] >>> 26;
+                r[i] &= M26;
+            }
+        }
+    }
+
+    /** 完全规约到 [0, p) */
+    static void feNormalize(long[] r) {
+        feReduceWeak(r);
+        // t = r + (2^256 - p)，若产生第256比特进位则 r >= p，取 t - 2^256
+        long[] t = new long[10];
+        System.arraycopy(r, 0, t, 0, 10);
+        t[0] += 977L;
+        t[1] += 1L << 6;
+        for (int i = 0; i < 9; i++) {
+            t[i + 1] += t[i] >>> 26;
+            t[i] &= M26;
+        }
+        long mask = -(t[9] >>> 22);
+        t[9] &= M22;
+        for (int i = 0; i < 10; i++) {
+            r[i] = (t[i] & mask) | (r[i] & ~mask);
+        }
+    }
+
+    /** 是否为0（mod p） */
+    static boolean feIsZero(long[] a) {
+        long[] t = a.clone();
+        feNormalize(t);
+        long acc = 0;
+        for (int i = 0; i < 10; i++) {
+            acc |= t[i];
+        }
+        return acc == 0;
+    }
+
+    private static void feCopy(long[] r, long[] a) {
+        System.arraycopy(a, 0, r, 0, 10);
+    }
+
+    private static void feSetInt(long[] r, int v) {
+        for (int i = 1; i < 10; i++) {
+            r[i] = 0;
+        }
+        r[0] = v;
+    }
+
+    /** 由32字节大端整数构造域元素 */
+    static void feFromBytes(long[] r, byte[] b, int off) {
+        for (int i = 0; i < 10; i++) {
+            r[i] = 0;
+        }
+        for (int i = 0; i < 32; i++) {
+            long v = b[off + 31 - i] & 0xFF;
+            int bit = i * 8;
+            int limb = bit / 26;
+            int shift = bit % 26;
+            r[limb] |= (v << shift) & M26;
+            if (shift > 18) {
+                r[limb + 1] |= v >>> (26 - shift);
+            }
+        }
+    }
+
+    /** 已完全规约的域元素写出为32字节大端整数 */
+    static void feToBytes(long[] a, byte[] out, int off) {
+        for (int i = 0; i < 32; i++) {
+            int bit = i * 8;
+            int limb = bit / 26;
+            int shift = bit % 26;
+            long v = a[limb] >>> shift;
+            if (shift > 18 && limb < 9) {
+                v |= a[limb + 1] << (26 - shift);
+            }
+            out[off + 31 - i] = (byte) v;
+        }
+    }
+
+    private static byte[] hexToBytes(String hex) {
+        byte[] out = new byte[hex.length() / 2];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return out;
+    }
+}
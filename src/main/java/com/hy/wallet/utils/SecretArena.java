@@ -0,0 +1,133 @@
+package com.hy.wallet.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆外敏感数据区：按批分配种子、链码、私钥等定长缓冲区
+ * - 以直接内存（DirectByteBuffer）slab承载，{@link #allocate} 只在slab内切片，一批内的敏感缓冲区不在堆上，
+ *   也不会被GC复制到别处留下残余副本
+ * - {@link #close()} 确定性清零全部slab，之后不能再分配；切片在清零后内容全为0
+ * - 未关闭即被回收的区由Cleaner兜底清零；调试模式（-D{@value #DEBUG_PROPERTY}=true）下记录创建位置，
+ *   并在发现未关闭的区时输出告警
+ * Java 21 的 FFM Arena/MemorySegment 仍为预览API（构建未开启预览特性），因此使用直接缓冲区。
+ * 实例非线程安全，由单个批处理独占使用。
+ */
+public final class SecretArena implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SecretArena.class);
+
+    /** 调试模式的系统属性 */
+    public static final String DEBUG_PROPERTY = "hy.wallet.secret.debug";
+
+    /** 默认slab字节数 */
+    public static final int DEFAULT_SLAB_SIZE = 1024;
+
+    private static final boolean DEBUG = Boolean.getBoolean(DEBUG_PROPERTY);
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final byte[] ZEROS = new byte[1024];
+
+    private final int slabSize;
+    private final Slabs slabs;
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * 使用默认slab大小
+     */
+    public SecretArena() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * @param slabSize 单个slab的字节数；当前slab剩余空间不足时另开一个，单次分配超过该值时按实际大小分配
+     */
+    public SecretArena(int slabSize) {
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("slab大小必须为正整数：" + slabSize);
+        }
+        this.slabSize = slabSize;
+        this.slabs = new Slabs(DEBUG ? new Throwable("SecretArena创建位置") : null);
+        this.cleanable = CLEANER.register(this, slabs);
+    }
+
+    /**
+     * 分配一块初始内容为0的缓冲区（大端字节序，位置0，容量为size）
+     *
+     * @param size 字节数
+     * @return 堆外缓冲区切片，随区关闭而清零
+     */
+    public ByteBuffer allocate(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("分配大小必须为正整数：" + size);
+        }
+        if (slabs.closed) {
+            throw new IllegalStateException("SecretArena已关闭");
+        }
+        ByteBuffer slab = slabs.list.isEmpty() ? null : slabs.list.get(slabs.list.size() - 1);
+        if (slab == null || slab.remaining() < size) {
+            slab = ByteBuffer.allocateDirect(Math.max(slabSize, size));
+            slabs.list.add(slab);
+        }
+        int offset = slab.position();
+        slab.position(offset + size);
+        return slab.slice(offset, size);
+    }
+
+    /**
+     * 清零一块缓冲区的全部容量（堆内或堆外均可）
+     */
+    public static void wipe(ByteBuffer buf) {
+        int capacity = buf.capacity();
+        for (int pos = 0; pos < capacity; pos += ZEROS.length) {
+            buf.put(pos, ZEROS, 0, Math.min(ZEROS.length, capacity - pos));
+        }
+    }
+
+    /**
+     * 清零全部slab并关闭，可重复调用
+     */
+    @Override
+    public void close() {
+        if (!slabs.closed) {
+            slabs.closed = true;
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * 调试模式是否开启
+     */
+    public static boolean debugEnabled() {
+        return DEBUG;
+    }
+
+    /**
+     * slab列表与关闭状态；作为Cleaner动作时不能引用外层实例
+     */
+    private static final class Slabs implements Runnable {
+        private final List<ByteBuffer> list = new ArrayList<>(1);
+        private final Throwable createdAt;
+        private volatile boolean closed;
+
+        Slabs(Throwable createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        @Override
+        public void run() {
+            if (!closed) {
+                closed = true;
+                if (createdAt != null) {
+                    log.warn("SecretArena未关闭即被回收，已清零 {} 个slab", list.size(), createdAt);
+                }
+            }
+            for (ByteBuffer slab : list) {
+                wipe(slab);
+            }
+        }
+    }
+}
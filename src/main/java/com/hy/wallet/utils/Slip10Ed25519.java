@@ -5,6 +5,7 @@ import org.bouncycastle.crypto.macs.HMac;
 import org.bouncycastle.crypto.params.KeyParameter;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * SLIP-0010 Ed25519硬化派生实现工具类
@@ -37,6 +38,12 @@ public class Slip10Ed25519 {
         public byte[] getChainCode() {
             return chainCode;
         }
+
+        /** 清零私钥材料与链码 */
+        public void wipe() {
+            Arrays.fill(key, (byte) 0);
+            Arrays.fill(chainCode, (byte) 0);
+        }
     }
 
     /**
@@ -51,6 +58,7 @@ public class Slip10Ed25519 {
         byte[] chainCode = new byte[32];
         System.arraycopy(out, 0, key, 0, 32);
         System.arraycopy(out, 32, chainCode, 0, 32);
+        Arrays.fill(out, (byte) 0);
         return new Node(key, chainCode);
     }
 
@@ -74,6 +82,8 @@ public class Slip10Ed25519 {
         byte[] chainCode = new byte[32];
         System.arraycopy(out, 0, key, 0, 32);
         System.arraycopy(out, 32, chainCode, 0, 32);
+        Arrays.fill(out, (byte) 0);
+        Arrays.fill(bb.array(), (byte) 0);
         return new Node(key, chainCode);
     }
 
@@ -0,0 +1,240 @@
+package com.hy.wallet.utils;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 基于 jdk.incubator.vector 的多路哈希内核（由 {@link MultiHash} 反射加载，运行时未添加该模块时不会被加载）
+ * 每个向量通道对应一条消息：LongVector的第i个通道保存第i条消息的Keccak状态字，
+ * 一次置换同时处理 通道数 条消息（AVX2：4路；AVX-512：8路）。
+ * 消息按块转置装入通道（填充规则与BouncyCastle KeccakDigest一致），不足一组的尾部交给标量内核。
+ * SHA-256直接交给标量内核：JDK在x86上有SHA-NI内建实现，16路向量版本每条只快约20ns（双块消息反而更慢），
+ * 相对每行数十微秒的地址生成可以忽略，不值得维护一份向量实现。
+ * 轮函数以循环而非完全展开实现，保证方法字节码低于HotSpot的JIT大小上限。
+ */
+final class VectorHashKernel implements MultiHash.Kernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    private static final VectorOperators.Binary XOR = VectorOperators.XOR;
+    private static final VectorOperators.Binary AND_NOT = VectorOperators.AND_NOT;
+    private static final VectorOperators.Binary ROL = VectorOperators.ROL;
+
+    private static final VarHandle LE_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int KECCAK_RATE = 136;
+    private static final int KECCAK_RATE_WORDS = KECCAK_RATE / 8;
+
+    private static final long[] RC = {
+            0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+            0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+            0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+            0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+            0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+            0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L};
+
+    private final MultiHash.Kernel tail;
+
+    VectorHashKernel(MultiHash.Kernel tail) {
+        this.tail = tail;
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + LONGS.vectorBitSize() + " bit, keccak x" + LONGS.length() + ", sha256 jdk)";
+    }
+
+    @Override
+    public void keccak256(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        int lanes = LONGS.length();
+        int groups = count / lanes;
+        if (groups > 0) {
+            long[] words = new long[KECCAK_RATE_WORDS * lanes];
+            byte[] block = new byte[KECCAK_RATE];
+            for (int g = 0; g < groups; g++) {
+                int first = g * lanes;
+                keccakGroup(in, inOff + first * len, len, lanes, out, outOff + first * 32, words, block);
+            }
+            Arrays.fill(block, (byte) 0);
+            Arrays.fill(words, 0);
+        }
+        int done = groups * lanes;
+        if (done < count) {
+            tail.keccak256(in, inOff + done * len, len, count - done, out, outOff + done * 32);
+        }
+    }
+
+    /**
+     * 同时计算lanes条等长消息的Keccak-256（原始Keccak填充：0x01 ... 0x80）
+     */
+    private static void keccakGroup(byte[] in, int inOff, int len, int lanes, byte[] out, int outOff,
+                                    long[] words, byte[] block) {
+        LongVector zero = LongVector.zero(LONGS);
+        LongVector a00 = zero;
+        LongVector a10 = zero;
+        LongVector a20 = zero;
+        LongVector a30 = zero;
+        LongVector a40 = zero;
+        LongVector a01 = zero;
+        LongVector a11 = zero;
+        LongVector a21 = zero;
+        LongVector a31 = zero;
+        LongVector a41 = zero;
+        LongVector a02 = zero;
+        LongVector a12 = zero;
+        LongVector a22 = zero;
+        LongVector a32 = zero;
+        LongVector a42 = zero;
+        LongVector a03 = zero;
+        LongVector a13 = zero;
+        LongVector a23 = zero;
+        LongVector a33 = zero;
+        LongVector a43 = zero;
+        LongVector a04 = zero;
+        LongVector a14 = zero;
+        LongVector a24 = zero;
+        LongVector a34 = zero;
+        LongVector a44 = zero;
+        int blocks = len / KECCAK_RATE + 1;
+        for (int blk = 0; blk < blocks; blk++) {
+            int start = blk * KECCAK_RATE;
+            int n = Math.min(KECCAK_RATE, len - start);
+            for (int m = 0; m < lanes; m++) {
+                Arrays.fill(block, (byte) 0);
+                System.arraycopy(in, inOff + m * len + start, block, 0, n);
+                if (blk == blocks - 1) {
+                    block[n] ^= 0x01;
+                    block[KECCAK_RATE - 1] ^= (byte) 0x80;
+                }
+                for (int j = 0; j < KECCAK_RATE_WORDS; j++) {
+                    words[j * lanes + m] = (long) LE_LONG.get(block, j * 8);
+                }
+            }
+            a00 = a00.lanewise(XOR, LongVector.fromArray(LONGS, words, 0));
+            a10 = a10.lanewise(XOR, LongVector.fromArray(LONGS, words, lanes));
+            a20 = a20.lanewise(XOR, LongVector.fromArray(LONGS, words, 2 * lanes));
+            a30 = a30.lanewise(XOR, LongVector.fromArray(LONGS, words, 3 * lanes));
+            a40 = a40.lanewise(XOR, LongVector.fromArray(LONGS, words, 4 * lanes));
+            a01 = a01.lanewise(XOR, LongVector.fromArray(LONGS, words, 5 * lanes));
+            a11 = a11.lanewise(XOR, LongVector.fromArray(LONGS, words, 6 * lanes));
+            a21 = a21.lanewise(XOR, LongVector.fromArray(LONGS, words, 7 * lanes));
+            a31 = a31.lanewise(XOR, LongVector.fromArray(LONGS, words, 8 * lanes));
+            a41 = a41.lanewise(XOR, LongVector.fromArray(LONGS, words, 9 * lanes));
+            a02 = a02.lanewise(XOR, LongVector.fromArray(LONGS, words, 10 * lanes));
+            a12 = a12.lanewise(XOR, LongVector.fromArray(LONGS, words, 11 * lanes));
+            a22 = a22.lanewise(XOR, LongVector.fromArray(LONGS, words, 12 * lanes));
+            a32 = a32.lanewise(XOR, LongVector.fromArray(LONGS, words, 13 * lanes));
+            a42 = a42.lanewise(XOR, LongVector.fromArray(LONGS, words, 14 * lanes));
+            a03 = a03.lanewise(XOR, LongVector.fromArray(LONGS, words, 15 * lanes));
+            a13 = a13.lanewise(XOR, LongVector.fromArray(LONGS, words, 16 * lanes));
+            for (int round = 0; round < 24; round++) {
+                LongVector c0 = a00.lanewise(XOR, a01).lanewise(XOR, a02).lanewise(XOR, a03).lanewise(XOR, a04);
+                LongVector c1 = a10.lanewise(XOR, a11).lanewise(XOR, a12).lanewise(XOR, a13).lanewise(XOR, a14);
+                LongVector c2 = a20.lanewise(XOR, a21).lanewise(XOR, a22).lanewise(XOR, a23).lanewise(XOR, a24);
+                LongVector c3 = a30.lanewise(XOR, a31).lanewise(XOR, a32).lanewise(XOR, a33).lanewise(XOR, a34);
+                LongVector c4 = a40.lanewise(XOR, a41).lanewise(XOR, a42).lanewise(XOR, a43).lanewise(XOR, a44);
+                LongVector d0 = c4.lanewise(XOR, c1.lanewise(ROL, 1));
+                LongVector d1 = c0.lanewise(XOR, c2.lanewise(ROL, 1));
+                LongVector d2 = c1.lanewise(XOR, c3.lanewise(ROL, 1));
+                LongVector d3 = c2.lanewise(XOR, c4.lanewise(ROL, 1));
+                LongVector d4 = c3.lanewise(XOR, c0.lanewise(ROL, 1));
+                a00 = a00.lanewise(XOR, d0);
+                a01 = a01.lanewise(XOR, d0);
+                a02 = a02.lanewise(XOR, d0);
+                a03 = a03.lanewise(XOR, d0);
+                a04 = a04.lanewise(XOR, d0);
+                a10 = a10.lanewise(XOR, d1);
+                a11 = a11.lanewise(XOR, d1);
+                a12 = a12.lanewise(XOR, d1);
+                a13 = a13.lanewise(XOR, d1);
+                a14 = a14.lanewise(XOR, d1);
+                a20 = a20.lanewise(XOR, d2);
+                a21 = a21.lanewise(XOR, d2);
+                a22 = a22.lanewise(XOR, d2);
+                a23 = a23.lanewise(XOR, d2);
+                a24 = a24.lanewise(XOR, d2);
+                a30 = a30.lanewise(XOR, d3);
+                a31 = a31.lanewise(XOR, d3);
+                a32 = a32.lanewise(XOR, d3);
+                a33 = a33.lanewise(XOR, d3);
+                a34 = a34.lanewise(XOR, d3);
+                a40 = a40.lanewise(XOR, d4);
+                a41 = a41.lanewise(XOR, d4);
+                a42 = a42.lanewise(XOR, d4);
+                a43 = a43.lanewise(XOR, d4);
+                a44 = a44.lanewise(XOR, d4);
+                LongVector b00 = a00;
+                LongVector b13 = a01.lanewise(ROL, 36);
+                LongVector b21 = a02.lanewise(ROL, 3);
+                LongVector b34 = a03.lanewise(ROL, 41);
+                LongVector b42 = a04.lanewise(ROL, 18);
+                LongVector b02 = a10.lanewise(ROL, 1);
+                LongVector b10 = a11.lanewise(ROL, 44);
+                LongVector b23 = a12.lanewise(ROL, 10);
+                LongVector b31 = a13.lanewise(ROL, 45);
+                LongVector b44 = a14.lanewise(ROL, 2);
+                LongVector b04 = a20.lanewise(ROL, 62);
+                LongVector b12 = a21.lanewise(ROL, 6);
+                LongVector b20 = a22.lanewise(ROL, 43);
+                LongVector b33 = a23.lanewise(ROL, 15);
+                LongVector b41 = a24.lanewise(ROL, 61);
+                LongVector b01 = a30.lanewise(ROL, 28);
+                LongVector b14 = a31.lanewise(ROL, 55);
+                LongVector b22 = a32.lanewise(ROL, 25);
+                LongVector b30 = a33.lanewise(ROL, 21);
+                LongVector b43 = a34.lanewise(ROL, 56);
+                LongVector b03 = a40.lanewise(ROL, 27);
+                LongVector b11 = a41.lanewise(ROL, 20);
+                LongVector b24 = a42.lanewise(ROL, 39);
+                LongVector b32 = a43.lanewise(ROL, 8);
+                LongVector b40 = a44.lanewise(ROL, 14);
+                a00 = b20.lanewise(AND_NOT, b10).lanewise(XOR, b00);
+                a10 = b30.lanewise(AND_NOT, b20).lanewise(XOR, b10);
+                a20 = b40.lanewise(AND_NOT, b30).lanewise(XOR, b20);
+                a30 = b00.lanewise(AND_NOT, b40).lanewise(XOR, b30);
+                a40 = b10.lanewise(AND_NOT, b00).lanewise(XOR, b40);
+                a01 = b21.lanewise(AND_NOT, b11).lanewise(XOR, b01);
+                a11 = b31.lanewise(AND_NOT, b21).lanewise(XOR, b11);
+                a21 = b41.lanewise(AND_NOT, b31).lanewise(XOR, b21);
+                a31 = b01.lanewise(AND_NOT, b41).lanewise(XOR, b31);
+                a41 = b11.lanewise(AND_NOT, b01).lanewise(XOR, b41);
+                a02 = b22.lanewise(AND_NOT, b12).lanewise(XOR, b02);
+                a12 = b32.lanewise(AND_NOT, b22).lanewise(XOR, b12);
+                a22 = b42.lanewise(AND_NOT, b32).lanewise(XOR, b22);
+                a32 = b02.lanewise(AND_NOT, b42).lanewise(XOR, b32);
+                a42 = b12.lanewise(AND_NOT, b02).lanewise(XOR, b42);
+                a03 = b23.lanewise(AND_NOT, b13).lanewise(XOR, b03);
+                a13 = b33.lanewise(AND_NOT, b23).lanewise(XOR, b13);
+                a23 = b43.lanewise(AND_NOT, b33).lanewise(XOR, b23);
+                a33 = b03.lanewise(AND_NOT, b43).lanewise(XOR, b33);
+                a43 = b13.lanewise(AND_NOT, b03).lanewise(XOR, b43);
+                a04 = b24.lanewise(AND_NOT, b14).lanewise(XOR, b04);
+                a14 = b34.lanewise(AND_NOT, b24).lanewise(XOR, b14);
+                a24 = b44.lanewise(AND_NOT, b34).lanewise(XOR, b24);
+                a34 = b04.lanewise(AND_NOT, b44).lanewise(XOR, b34);
+                a44 = b14.lanewise(AND_NOT, b04).lanewise(XOR, b44);
+                a00 = a00.lanewise(XOR, RC[round]);
+            }
+        }
+        a00.intoArray(words, 0);
+        a10.intoArray(words, lanes);
+        a20.intoArray(words, 2 * lanes);
+        a30.intoArray(words, 3 * lanes);
+        for (int m = 0; m < lanes; m++) {
+            for (int j = 0; j < 4; j++) {
+                LE_LONG.set(out, outOff + m * 32 + j * 8, words[j * lanes + m]);
+            }
+        }
+    }
+
+    @Override
+    public void sha256(byte[] in, int inOff, int len, int count, byte[] out, int outOff) {
+        tail.sha256(in, inOff, len, count, out, outOff);
+    }
+}
@@ -0,0 +1,248 @@
+package com.hy.wallet.verify;
+
+import com.hy.wallet.core.Chain;
+import com.hy.wallet.core.WalletGenerator;
+import com.hy.wallet.model.WalletInfo;
+import com.hy.wallet.services.BTCService;
+import com.hy.wallet.services.ETHService;
+import com.hy.wallet.services.SolanaDeriver;
+import com.hy.wallet.services.SolanaService;
+import com.hy.wallet.services.TronService;
+import com.hy.wallet.utils.AllocationMeter;
+import com.hy.wallet.utils.Bip39Seed;
+import com.hy.wallet.utils.CryptoUtils;
+import com.hy.wallet.utils.MultiHash;
+import com.hy.wallet.validation.Validator;
+import org.bitcoinj.crypto.MnemonicCode;
+import org.bitcoinj.crypto.MnemonicException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 分配预算检查
+ * 用 {@link AllocationMeter} 测量各公开生成接口、各阶段（助记词、种子、校验）与各链服务每个钱包在堆上分配的字节数，
+ * 与预算文件（properties，键为测量项名称，值为每个钱包的字节数上限）比较，任一项超出即不通过。
+ * 列式接口的Keccak/校验码经 {@link MultiHash} 计算，分配量取决于哈希内核，因此标量与向量内核各有一份预算。
+ * 每项先按固定时长预热再测量，反映JIT编译后的稳态，测量值与测量钱包数无关；生成器使用顺序模式，各链派生都在测量线程上执行。
+ */
+public final class AllocationBudget {
+
+    /** 随JAR发布的默认预算（类路径资源），标量哈希内核 */
+    public static final String DEFAULT_RESOURCE = "/alloc-budget.properties";
+    /** 随JAR发布的默认预算（类路径资源），向量哈希内核 */
+    public static final String VECTOR_RESOURCE = "/alloc-budget-vector.properties";
+    /** 默认每项测量的钱包数 */
+    public static final int DEFAULT_WALLETS = 100;
+    /** 写出新预算时默认在测量值上乘的余量 */
+    public static final double DEFAULT_HEADROOM = 1.25;
+    /** 每项测量前的预热时长（毫秒） */
+    public static final long WARMUP_MILLIS = 1000;
+    /** 批量类接口每次调用的钱包数 */
+    public static final int BATCH_SIZE = 64;
+
+    /**
+     * 单项测量结果
+     *
+     * @param name           测量项名称（预算文件中的键）
+     * @param bytesPerWallet 每个钱包分配的字节数（exportAccountXpubs 为每次调用）
+     * @param budget         预算，未配置时为-1
+     */
+    public record Measurement(String name, double bytesPerWallet, long budget) {
+
+        /** 是否超出预算 */
+        public boolean over() {
+            return budget >= 0 && bytesPerWallet > budget;
+        }
+    }
+
+    /**
+     * 检查报告
+     *
+     * @param kernel       测量时的哈希内核（{@link MultiHash#kernel()}）
+     * @param wallets      每项测量的钱包数
+     * @param measurements 各项结果（按测量顺序）
+     */
+    public record Report(String kernel, int wallets, List<Measurement> measurements) {
+
+        /** 超出预算的项 */
+        public List<Measurement> violations() {
+            return measurements.stream().filter(Measurement::over).toList();
+        }
+
+        /** 全部项都在预算内 */
+        public boolean passed() {
+            return violations().isEmpty();
+        }
+
+        /**
+         * 输出各项测量值与预算，超出的项标出
+         */
+        public void print(PrintStream out) {
+            out.println("=".repeat(80));
+            out.printf(" %-28s %16s %16s%n", "测量项", "字节/钱包", "预算");
+            for (Measurement m : measurements) {
+                out.printf(" %-28s %16.0f %16s%s%n", m.name(), m.bytesPerWallet(),
+                        m.budget() < 0 ? "-" : Long.toString(m.budget()), m.over() ? "  超出" : "");
+            }
+            out.println("=".repeat(80));
+        }
+    }
+
+    /**
+     * 测量项：一次调用生成 walletsPerCall 个钱包
+     */
+    private record Probe(String name, int walletsPerCall, Runnable call) {
+    }
+
+    private AllocationBudget() {
+    }
+
+    /**
+     * 当前哈希内核对应的默认预算资源
+     */
+    public static String defaultResource() {
+        return MultiHash.vectorized() ? VECTOR_RESOURCE : DEFAULT_RESOURCE;
+    }
+
+    /**
+     * 读取预算文件
+     *
+     * @param file 预算文件，为null时读取随JAR发布、与当前哈希内核对应的默认预算
+     * @return 预算
+     */
+    public static Properties loadBudgets(Path file) throws IOException {
+        Properties budgets = new Properties();
+        if (file != null) {
+            try (InputStream in = Files.newInputStream(file)) {
+                budgets.load(in);
+            }
+            return budgets;
+        }
+        String resource = defaultResource();
+        try (InputStream in = AllocationBudget.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("未找到默认分配预算：" + resource);
+            }
+            budgets.load(in);
+        }
+        return budgets;
+    }
+
+    /**
+     * 测量全部项并与预算比较
+     *
+     * @param wallets 每项测量的钱包数（预热固定 {@value #WARMUP_MILLIS} 毫秒，与该值无关）
+     * @param budgets 预算
+     * @return 报告
+     */
+    public static Report run(int wallets, Properties budgets) {
+        if (wallets <= 0) {
+            throw new IllegalArgumentException("测量钱包数必须为正整数：" + wallets);
+        }
+        if (!AllocationMeter.supported()) {
+            throw new IllegalStateException("当前JVM不支持线程分配计数（ThreadMXBean.getThreadAllocatedBytes）");
+        }
+        List<Measurement> results = new ArrayList<>();
+        for (Probe probe : probes()) {
+            double bytes = measure(probe, wallets);
+            String budget = budgets.getProperty(probe.name());
+            results.add(new Measurement(probe.name(), bytes, budget == null ? -1 : Long.parseLong(budget.trim())));
+        }
+        return new Report(MultiHash.kernel(), wallets, results);
+    }
+
+    /**
+     * 以测量值乘以余量写出新的预算文件（向上取整到64字节）
+     *
+     * @param report   报告
+     * @param headroom 余量系数（不小于1）
+     * @param out      输出
+     */
+    public static void writeBudgets(Report report, double headroom, Writer out) throws IOException {
+        if (headroom < 1) {
+            throw new IllegalArgumentException("余量系数不能小于1：" + headroom);
+        }
+        out.write("# 每个钱包的堆分配预算（字节），由 alloc --record 生成：测量值 x " + headroom
+                + "，哈希内核 " + report.kernel() + "\n");
+        for (Measurement m : report.measurements()) {
+            long budget = ((long) Math.ceil(m.bytesPerWallet() * headroom) + 63) / 64 * 64;
+            out.write(m.name() + "=" + budget + "\n");
+        }
+        out.flush();
+    }
+
+    private static double measure(Probe probe, int wallets) {
+        // 按时长而非调用次数预热：批量项每次调用64个钱包，按次数预热时小钱包数下还未完成JIT编译
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000;
+        do {
+            probe.call().run();
+        } while (System.nanoTime() - warmupEnd < 0);
+        int calls = Math.max(1, wallets / probe.walletsPerCall());
+        long before = AllocationMeter.allocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            probe.call().run();
+        }
+        long after = AllocationMeter.allocatedBytes();
+        return (double) (after - before) / ((long) calls * probe.walletsPerCall());
+    }
+
+    /**
+     * 全部测量项：各阶段、各链服务（共用一个固定种子）与各公开生成接口
+     */
+    private static List<Probe> probes() {
+        List<String> mnemonic = mnemonic(new byte[16]);
+        byte[] seed = new byte[Bip39Seed.SEED_LENGTH];
+        Bip39Seed.toSeed(mnemonic, "", seed, 0);
+        byte[] entropy = new byte[16];
+        WalletGenerator generator = new WalletGenerator(EnumSet.allOf(Chain.class), false);
+        WalletInfo wallet = generator.generateFromMnemonic(mnemonic, 0);
+        int[] index = {0};
+        List<Probe> probes = new ArrayList<>();
+        probes.add(new Probe("stage.mnemonic", 1, () -> {
+            CryptoUtils.secureRandom().nextBytes(entropy);
+            mnemonic(entropy);
+        }));
+        probes.add(new Probe("stage.seed", 1, () -> Bip39Seed.toSeed(mnemonic, "", seed, 0)));
+        probes.add(new Probe("stage.validate", 1, () -> Validator.passes(wallet)));
+        probes.add(new Probe("chain.btc-legacy", 1, () -> BTCService.generateLegacy(seed, next(index))));
+        probes.add(new Probe("chain.btc-segwit", 1, () -> BTCService.generateSegwit(seed, next(index))));
+        probes.add(new Probe("chain.eth", 1, () -> ETHService.generateEth(seed, next(index))));
+        probes.add(new Probe("chain.sol", 1, () -> SolanaService.generateSol(seed, next(index))));
+        probes.add(new Probe("chain.tron", 1, () -> TronService.generateTron(seed, next(index))));
+        probes.add(new Probe("api.generateOne", 1, generator::generateOne));
+        probes.add(new Probe("api.generateFromMnemonic", 1, () -> generator.generateFromMnemonic(mnemonic, next(index))));
+        probes.add(new Probe("api.generateBatch", BATCH_SIZE, () -> generator.generateBatch(BATCH_SIZE)));
+        probes.add(new Probe("api.generateRange", BATCH_SIZE,
+                () -> generator.generateRange(mnemonic, next(index) * BATCH_SIZE, BATCH_SIZE)));
+        probes.add(new Probe("api.generateColumnar", BATCH_SIZE, () -> generator.generateColumnar(BATCH_SIZE).clear()));
+        probes.add(new Probe("api.deriveRangeColumnar", BATCH_SIZE,
+                () -> generator.deriveRangeColumnar(mnemonic, next(index) * BATCH_SIZE, BATCH_SIZE).clear()));
+        probes.add(new Probe("api.generateSolRange", BATCH_SIZE, () -> generator.generateSolRange(mnemonic,
+                next(index) * BATCH_SIZE, BATCH_SIZE, SolanaDeriver.PathStyle.ACCOUNT_CHANGE)));
+        probes.add(new Probe("api.exportAccountXpubs", 1, () -> generator.exportAccountXpubs(mnemonic)));
+        return probes;
+    }
+
+    /** 递增的索引（保持在非硬化索引范围内） */
+    private static int next(int[] index) {
+        index[0] = (index[0] + 1) & 0xffff;
+        return index[0];
+    }
+
+    private static List<String> mnemonic(byte[] entropy) {
+        try {
+            return MnemonicCode.INSTANCE.toMnemonic(entropy);
+        } catch (MnemonicException.MnemonicLengthException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
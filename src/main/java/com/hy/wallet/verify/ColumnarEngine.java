@@ -0,0 +1,130 @@
+package com.hy.wallet.verify;
+
+import com.hy.wallet.core.Chain;
+import com.hy.wallet.model.WalletBatch;
+import com.hy.wallet.services.BTCService;
+import com.hy.wallet.services.ETHService;
+import com.hy.wallet.services.SolanaDeriver;
+import com.hy.wallet.services.SolanaService;
+import com.hy.wallet.services.TronService;
+import com.hy.wallet.utils.Bip32;
+import com.hy.wallet.utils.SecretArena;
+
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列式批量生产路径：各链派生写入 {@link WalletBatch}，ETH/TRON地址由多路Keccak批量计算，
+ * 再经 {@link WalletBatch#precomputeEncodings()} 批量求校验码后由行视图编码（即CSV、导出与钱包池使用的实现）。
+ * 与 WalletGenerator 的列式路径一样，整批复用同一个堆外BIP32节点与Solana派生器。
+ * 每次 compute 使用新的批次与敏感数据区，用完清零，可由多个线程并发调用。
+ */
+public final class ColumnarEngine implements DerivationEngine {
+
+    /** 引擎名称 */
+    public static final String NAME = "columnar";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Set<Target> targets() {
+        return EnumSet.of(Target.BTC_LEGACY, Target.BTC_SEGWIT, Target.ETH, Target.SOL, Target.TRON,
+                Target.ETH_CHECKSUM);
+    }
+
+    @Override
+    public void compute(List<DifferentialHarness.Case> cases, Map<Target, String[]> out) {
+        Set<Chain> chains = EnumSet.noneOf(Chain.class);
+        for (Target t : out.keySet()) {
+            if (t != Target.ETH_CHECKSUM) {
+                chains.add(t.chain());
+            }
+        }
+        if (!chains.isEmpty()) {
+            derive(cases, chains, out);
+        }
+        String[] checksums = out.get(Target.ETH_CHECKSUM);
+        if (checksums != null) {
+            checksum(cases, checksums);
+        }
+    }
+
+    private static void derive(List<DifferentialHarness.Case> cases, Set<Chain> chains, Map<Target, String[]> out) {
+        int n = cases.size();
+        WalletBatch batch = new WalletBatch(n, chains);
+        byte[] ethPubKeys = chains.contains(Chain.ETH) ? new byte[n * ETHService.PUBLIC_KEY_LENGTH] : null;
+        byte[] tronPubKeys = chains.contains(Chain.TRON) ? new byte[n * ETHService.PUBLIC_KEY_LENGTH] : null;
+        try (SecretArena arena = new SecretArena()) {
+            Bip32 node = new Bip32(arena);
+            SolanaDeriver sol = chains.contains(Chain.SOL) ? new SolanaDeriver(arena) : null;
+            for (DifferentialHarness.Case c : cases) {
+                int row = batch.add(c.entropy(), 0, c.index());
+                ByteBuffer seed = ByteBuffer.wrap(c.seed());
+                if (chains.contains(Chain.BTC)) {
+                    BTCService.deriveInto(node, seed, c.index(), batch, row);
+                }
+                if (ethPubKeys != null) {
+                    ETHService.deriveKeyInto(node, seed, c.index(), batch, row, ethPubKeys,
+                            row * ETHService.PUBLIC_KEY_LENGTH);
+                }
+                if (sol != null) {
+                    SolanaService.deriveInto(sol, seed, c.index(), batch, row);
+                }
+                if (tronPubKeys != null) {
+                    TronService.deriveKeyInto(node, seed, c.index(), batch, row, tronPubKeys,
+                            row * ETHService.PUBLIC_KEY_LENGTH);
+                }
+            }
+            if (ethPubKeys != null) {
+                ETHService.hashAddressesInto(ethPubKeys, n, batch, 0);
+            }
+            if (tronPubKeys != null) {
+                TronService.hashAddressesInto(tronPubKeys, n, batch, 0);
+            }
+            batch.precomputeEncodings();
+            WalletBatch.Row row = batch.row(0);
+            for (int i = 0; i < n; i++) {
+                row.at(i);
+                for (Map.Entry<Target, String[]> e : out.entrySet()) {
+                    String[] results = e.getValue();
+                    switch (e.getKey()) {
+                        case BTC_LEGACY -> results[i] = row.getBtcLegacyAddress() + " " + row.getBtcLegacyWif();
+                        case BTC_SEGWIT -> results[i] = row.getBtcSegwitAddress() + " " + row.getBtcSegwitWif();
+                        case ETH -> results[i] = row.getEthAddress() + " " + row.getEthPrivateHex();
+                        case SOL -> results[i] = row.getSolAddress() + " " + row.getSolPrivate();
+                        case TRON -> results[i] = row.getTronAddress() + " " + row.getTronPrivateHex();
+                        default -> {
+                        }
+                    }
+                }
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * 随机地址直接写入ETH地址列，校验和哈希由批量Keccak计算
+     */
+    private static void checksum(List<DifferentialHarness.Case> cases, String[] out) {
+        int n = cases.size();
+        WalletBatch batch = new WalletBatch(n, EnumSet.of(Chain.ETH));
+        for (DifferentialHarness.Case c : cases) {
+            int row = batch.add(c.entropy(), 0, c.index());
+            System.arraycopy(c.address(), 0, batch.ethAddressColumn(), row * WalletBatch.HASH_LENGTH,
+                    WalletBatch.HASH_LENGTH);
+        }
+        batch.precomputeEncodings();
+        WalletBatch.Row row = batch.row(0);
+        for (int i = 0; i < n; i++) {
+            out[i] = row.at(i).getEthAddress();
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,29 @@
+package com.hy.wallet.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 参与差分校验的派生/编码引擎
+ * 参照实现为 {@link ReferenceEngine}（bitcoinj/web3j/BouncyCastle），其余引擎通过
+ * {@link DifferentialHarness#register(DerivationEngine)} 注册，只在其声明支持的比较项上与参照实现比较。
+ * 同一实例由全部工作线程共用，compute 可能被并发调用，实现不应在调用之间共享可变状态。
+ */
+public interface DerivationEngine {
+
+    /** 引擎名称（出现在不一致报告中） */
+    String name();
+
+    /** 支持的比较项 */
+    Set<Target> targets();
+
+    /**
+     * 对一组用例计算结果
+     *
+     * @param cases 用例
+     * @param out   需要计算的比较项 → 结果数组（第i个元素对应第i个用例，长度不小于用例数）；
+     *              只包含本引擎支持的项
+     */
+    void compute(List<DifferentialHarness.Case> cases, Map<Target, String[]> out);
+}
@@ -0,0 +1,425 @@
+package com.hy.wallet.verify;
+
+import org.bitcoinj.crypto.MnemonicCode;
+import org.bitcoinj.crypto.MnemonicException;
+import org.bouncycastle.util.encoders.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 差分校验：同一批随机输入分别交给参照实现（{@link ReferenceEngine}）与已注册的各引擎计算，逐项比较结果
+ * - 用例由（运行种子, 用例编号）确定性生成，任何一个用例都可以单独重放（见 {@link Mismatch#describe()}）
+ * - 多个工作线程按块领取用例；发现不一致后不再领取编号更大的块，最终报告编号最小的不一致
+ * - 随机用例之外，每次运行先检查BIP32/BIP39/SLIP-10公开测试向量（{@link KnownVectors}）
+ * 派生类比较项直接使用64字节随机种子（跳过PBKDF2）；BIP39种子项按 {@link Options#bip39Every()} 抽样比较。
+ */
+public final class DifferentialHarness {
+    private static final Logger log = LoggerFactory.getLogger(DifferentialHarness.class);
+
+    /** 地址索引边界值 */
+    private static final int[] EDGE_INDEXES = {0, 1, 255, 256, 65535, 65536, 0x7FFF_FFFE, 0x7FFF_FFFF};
+
+    /**
+     * 一个差分用例
+     *
+     * @param number  用例编号
+     * @param seed    64字节BIP32种子
+     * @param index   地址/账户索引
+     * @param entropy 16字节熵（BIP39种子项的输入）
+     * @param address 20字节地址（EIP-55校验和项的输入）
+     */
+    public record Case(long number, byte[] seed, int index, byte[] entropy, byte[] address) {
+
+        /**
+         * 由运行种子与用例编号确定性生成用例
+         * 索引一半取 [0, 1000)，四分之一取全部非硬化范围，四分之一取边界值；
+         * 地址有四分之一只含数字或只含字母（EIP-55的两种极端情形）。
+         */
+        public static Case generate(long runSeed, long number) {
+            SplittableRandom r = new SplittableRandom(runSeed ^ (number * 0x9E37_79B9_7F4A_7C15L));
+            byte[] seed = new byte[64];
+            byte[] entropy = new byte[16];
+            byte[] address = new byte[20];
+            r.nextBytes(seed);
+            r.nextBytes(entropy);
+            int index = switch (r.nextInt(4)) {
+                case 0, 1 -> r.nextInt(1000);
+                case 2 -> r.nextInt(Integer.MAX_VALUE);
+                default -> EDGE_INDEXES[r.nextInt(EDGE_INDEXES.length)];
+            };
+            int style = r.nextInt(8);
+            for (int i = 0; i < address.length; i++) {
+                address[i] = (byte) switch (style) {
+                    case 0 -> r.nextInt(10) << 4 | r.nextInt(10);
+                    case 1 -> (10 + r.nextInt(6)) << 4 | (10 + r.nextInt(6));
+                    default -> r.nextInt(256);
+                };
+            }
+            return new Case(number, seed, index, entropy, address);
+        }
+
+        /** 熵对应的12词助记词 */
+        public List<String> mnemonic() {
+            try {
+                return MnemonicCode.INSTANCE.toMnemonic(entropy);
+            } catch (MnemonicException.MnemonicLengthException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 运行参数
+     *
+     * @param cases      用例数
+     * @param firstCase  起始用例编号（重放某个用例时使用）
+     * @param runSeed    运行种子
+     * @param threads    工作线程数
+     * @param blockSize  每次领取的用例数
+     * @param bip39Every BIP39种子项每多少个用例比较一次（编号整除者），0表示不比较
+     * @param targets    比较项
+     */
+    public record Options(long cases, long firstCase, long runSeed, int threads, int blockSize, int bip39Every,
+                          Set<Target> targets) {
+        public static final long DEFAULT_CASES = 2000;
+        public static final int DEFAULT_BLOCK_SIZE = 64;
+        public static final int DEFAULT_BIP39_EVERY = 64;
+
+        public Options {
+            if (cases <= 0 || firstCase < 0 || threads <= 0 || blockSize <= 0 || bip39Every < 0 || targets.isEmpty()) {
+                throw new IllegalArgumentException("差分校验参数无效：cases=" + cases + ", from=" + firstCase
+                        + ", threads=" + threads + ", block=" + blockSize + ", bip39-every=" + bip39Every
+                        + ", targets=" + targets);
+            }
+            targets = Collections.unmodifiableSet(EnumSet.copyOf(targets));
+        }
+
+        /**
+         * 默认参数：随机运行种子，线程数为CPU数，全部比较项
+         *
+         * @param cases 用例数
+         */
+        public static Options defaults(long cases) {
+            return new Options(cases, 0, ThreadLocalRandom.current().nextLong(),
+                    Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_SIZE, DEFAULT_BIP39_EVERY,
+                    EnumSet.allOf(Target.class));
+        }
+    }
+
+    /**
+     * 一处不一致
+     *
+     * @param runSeed  运行种子
+     * @param input    用例
+     * @param target   比较项
+     * @param engine   引擎名称
+     * @param expected 参照实现的结果
+     * @param actual   该引擎的结果
+     */
+    public record Mismatch(long runSeed, Case input, Target target, String engine, String expected, String actual) {
+
+        /** 含完整输入与重放参数的多行描述 */
+        public String describe() {
+            return "比较项 " + target + "：引擎 " + engine + " 与参照实现不一致\n"
+                    + "  用例编号 " + input.number() + "，运行种子 " + runSeed
+                    + "（重放：verify 1 --seed=" + runSeed + " --from=" + input.number() + "）\n"
+                    + "  种子     " + Hex.toHexString(input.seed()) + "\n"
+                    + "  索引     " + input.index() + "\n"
+                    + "  熵       " + Hex.toHexString(input.entropy()) + "（" + String.join(" ", input.mnemonic()) + "）\n"
+                    + "  地址输入 " + Hex.toHexString(input.address()) + "\n"
+                    + "  参照结果 " + expected + "\n"
+                    + "  引擎结果 " + actual;
+        }
+    }
+
+    /**
+     * 运行结果
+     *
+     * @param cases          完成的用例数
+     * @param comparisons    各比较项的比较次数（用例数 × 参与比较的引擎数）
+     * @param vectors        检查的公开测试向量数
+     * @param vectorFailures 公开测试向量不一致项
+     * @param mismatch       编号最小的随机用例不一致，没有时为null
+     * @param elapsedNanos   耗时
+     */
+    public record Report(long cases, Map<Target, Long> comparisons, int vectors, List<String> vectorFailures,
+                         Mismatch mismatch, long elapsedNanos) {
+
+        /** 公开向量与随机用例均一致 */
+        public boolean passed() {
+            return vectorFailures.isEmpty() && mismatch == null;
+        }
+
+        /** 每秒完成的用例数 */
+        public double casesPerSecond() {
+            return elapsedNanos == 0 ? 0 : cases * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * 输出结论：公开向量与随机用例的统计，不一致时列出各项并给出编号最小的随机用例及其重放参数
+         */
+        public void print(PrintStream out) {
+            out.println("=".repeat(80));
+            out.printf(" 公开测试向量 %d 个，不一致 %d 处%n", vectors, vectorFailures.size());
+            out.printf(" 随机用例 %d 个，耗时 %.1f 秒，%.1f 个/秒%n", cases, elapsedNanos / 1e9, casesPerSecond());
+            comparisons.forEach((t, n) -> out.printf("   %-13s 比较 %d 次%n", t, n));
+            out.println("-".repeat(80));
+            if (passed()) {
+                out.println(" 结论：一致");
+            } else {
+                out.println(" 结论：不一致");
+                vectorFailures.forEach(f -> out.println("  - " + f));
+                if (mismatch != null) {
+                    out.println(mismatch.describe());
+                }
+            }
+            out.println("=".repeat(80));
+        }
+    }
+
+    private final Options options;
+    private final DerivationEngine reference = new ReferenceEngine();
+    private final List<DerivationEngine> engines = new ArrayList<>();
+
+    public DifferentialHarness(Options options) {
+        this.options = options;
+    }
+
+    /**
+     * 使用内置的生产路径引擎（{@link ServiceEngine}、{@link ColumnarEngine}）
+     */
+    public static DifferentialHarness withDefaultEngines(Options options) {
+        return new DifferentialHarness(options).register(new ServiceEngine()).register(new ColumnarEngine());
+    }
+
+    /**
+     * 按名称使用内置的生产路径引擎
+     *
+     * @param names 逗号分隔的引擎名称（{@value ServiceEngine#NAME}、{@value ColumnarEngine#NAME}）
+     */
+    public static DifferentialHarness withEngines(Options options, String names) {
+        DifferentialHarness harness = new DifferentialHarness(options);
+        for (String name : names.split(",")) {
+            switch (name.trim()) {
+                case ServiceEngine.NAME -> harness.register(new ServiceEngine());
+                case ColumnarEngine.NAME -> harness.register(new ColumnarEngine());
+                default -> throw new IllegalArgumentException("未知引擎：" + name + "（可选 "
+                        + ServiceEngine.NAME + "、" + ColumnarEngine.NAME + "）");
+            }
+        }
+        return harness;
+    }
+
+    /**
+     * 注册参与比较的引擎
+     *
+     * @param engine 引擎（名称不可重复）
+     * @return this
+     */
+    public DifferentialHarness register(DerivationEngine engine) {
+        for (DerivationEngine e : engines) {
+            if (e.name().equals(engine.name())) {
+                throw new IllegalArgumentException("引擎名称重复：" + engine.name());
+            }
+        }
+        engines.add(engine);
+        return this;
+    }
+
+    /** 已注册的引擎 */
+    public List<DerivationEngine> engines() {
+        return Collections.unmodifiableList(engines);
+    }
+
+    /**
+     * 检查公开测试向量并运行全部随机用例（发现不一致时提前结束）
+     */
+    public Report run() throws InterruptedException {
+        if (engines.isEmpty()) {
+            throw new IllegalStateException("没有注册参与比较的引擎");
+        }
+        long begin = System.nanoTime();
+        List<String> vectorFailures = KnownVectors.check();
+        vectorFailures.forEach(f -> log.error("公开测试向量不一致：{}", f));
+
+        Run run = new Run();
+        Thread[] workers = new Thread[options.threads()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(run::work, "differential-" + i);
+            workers[i].start();
+        }
+        try {
+            for (Thread t : workers) {
+                t.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread t : workers) {
+                t.interrupt();
+            }
+            throw e;
+        }
+        if (run.failure.get() != null) {
+            throw new IllegalStateException("差分校验执行失败：" + run.failure.get().getMessage(), run.failure.get());
+        }
+        Map<Target, Long> comparisons = new EnumMap<>(Target.class);
+        run.comparisons.forEach((t, n) -> {
+            if (n.sum() > 0) {
+                comparisons.put(t, n.sum());
+            }
+        });
+        return new Report(run.done.get(), comparisons, KnownVectors.count(), vectorFailures, run.first.get(),
+                System.nanoTime() - begin);
+    }
+
+    /**
+     * 一次运行的共享状态
+     */
+    private final class Run {
+        private final AtomicLong next = new AtomicLong();
+        private final AtomicLong done = new AtomicLong();
+        private final AtomicReference<Mismatch> first = new AtomicReference<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final Map<Target, LongAdder> comparisons = new EnumMap<>(Target.class);
+        private final Set<Target> derived = EnumSet.noneOf(Target.class);
+
+        Run() {
+            for (Target t : Target.values()) {
+                comparisons.put(t, new LongAdder());
+            }
+            derived.addAll(options.targets());
+            derived.remove(Target.BIP39_SEED);
+        }
+
+        void work() {
+            try {
+                while (!Thread.currentThread().isInterrupted() && failure.get() == null) {
+                    long offset = next.getAndAdd(options.blockSize());
+                    if (offset >= options.cases()) {
+                        return;
+                    }
+                    long from = options.firstCase() + offset;
+                    Mismatch m = first.get();
+                    if (m != null && from > m.input().number()) {
+                        return;
+                    }
+                    int n = (int) Math.min(options.blockSize(), options.cases() - offset);
+                    List<Case> cases = new ArrayList<>(n);
+                    List<Case> bip39 = new ArrayList<>();
+                    for (int i = 0; i < n; i++) {
+                        Case c = Case.generate(options.runSeed(), from + i);
+                        cases.add(c);
+                        if (options.bip39Every() > 0 && c.number() % options.bip39Every() == 0) {
+                            bip39.add(c);
+                        }
+                    }
+                    compare(cases, derived);
+                    if (!bip39.isEmpty() && options.targets().contains(Target.BIP39_SEED)) {
+                        compare(bip39, EnumSet.of(Target.BIP39_SEED));
+                    }
+                    progress(done.addAndGet(n), n);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private void progress(long total, int n) {
+            long step = Math.max(1, options.cases() / 10);
+            if (total / step != (total - n) / step) {
+                log.info("差分校验进度 {}/{}", total, options.cases());
+            }
+        }
+
+        private void compare(List<Case> cases, Set<Target> targets) {
+            int n = cases.size();
+            Map<Target, String[]> expected = new EnumMap<>(Target.class);
+            for (Target t : targets) {
+                for (DerivationEngine e : engines) {
+                    if (e.targets().contains(t)) {
+                        expected.put(t, new String[n]);
+                        break;
+                    }
+                }
+            }
+            if (expected.isEmpty()) {
+                return;
+            }
+            computeSafely(reference, cases, expected);
+            for (DerivationEngine engine : engines) {
+                Map<Target, String[]> actual = new EnumMap<>(Target.class);
+                for (Target t : expected.keySet()) {
+                    if (engine.targets().contains(t)) {
+                        actual.put(t, new String[n]);
+                    }
+                }
+                if (actual.isEmpty()) {
+                    continue;
+                }
+                computeSafely(engine, cases, actual);
+                for (Map.Entry<Target, String[]> e : actual.entrySet()) {
+                    String[] want = expected.get(e.getKey());
+                    String[] got = e.getValue();
+                    for (int i = 0; i < n; i++) {
+                        if (!Objects.equals(want[i], got[i])) {
+                            report(new Mismatch(options.runSeed(), cases.get(i), e.getKey(), engine.name(),
+                                    want[i], got[i]));
+                            break;
+                        }
+                    }
+                    comparisons.get(e.getKey()).add(n);
+                }
+            }
+        }
+
+        /**
+         * 引擎抛出异常时逐个用例重算，把异常作为该用例的结果参与比较（参照实现与引擎同时异常也视为一致）
+         */
+        private void computeSafely(DerivationEngine engine, List<Case> cases, Map<Target, String[]> out) {
+            try {
+                engine.compute(cases, out);
+                return;
+            } catch (RuntimeException e) {
+                log.debug("引擎 {} 批量计算异常，逐个用例重算", engine.name(), e);
+            }
+            for (int i = 0; i < cases.size(); i++) {
+                Map<Target, String[]> single = new EnumMap<>(Target.class);
+                for (Target t : out.keySet()) {
+                    single.put(t, new String[1]);
+                }
+                try {
+                    engine.compute(List.of(cases.get(i)), single);
+                    for (Map.Entry<Target, String[]> e : single.entrySet()) {
+                        out.get(e.getKey())[i] = e.getValue()[0];
+                    }
+                } catch (RuntimeException e) {
+                    for (String[] results : out.values()) {
+                        results[i] = "异常：" + e;
+                    }
+                }
+            }
+        }
+
+        private void report(Mismatch m) {
+            Mismatch prev = first.getAndAccumulate(m,
+                    (a, b) -> a == null || b.input().number() < a.input().number() ? b : a);
+            if (prev == null) {
+                log.error("发现不一致，停止领取后续用例：{} / {} / 用例 {}", m.target(), m.engine(), m.input().number());
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.hy.wallet.verify;
+
+import com.hy.wallet.utils.Bip32;
+import com.hy.wallet.utils.Bip39Seed;
+import com.hy.wallet.utils.HmacSha512;
+import com.hy.wallet.utils.Slip10Ed25519;
+import org.bitcoinj.core.Base58;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.crypto.ChildNumber;
+import org.bitcoinj.crypto.DeterministicKey;
+import org.bitcoinj.crypto.HDKeyDerivation;
+import org.bitcoinj.crypto.MnemonicCode;
+import org.bitcoinj.crypto.MnemonicException;
+import org.bitcoinj.crypto.PBKDF2SHA512;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 公开测试向量
+ * - BIP32：规范中的测试向量1~4（含私钥前导零、硬化索引上界等边界），比较xpub/xprv序列化
+ * - BIP39：Trezor参考实现的12词向量（口令 "TREZOR"），比较助记词与种子
+ * - SLIP-10：Ed25519测试向量1~2，比较链码、私钥与公钥
+ * 每个向量同时用参照实现（bitcoinj / BouncyCastle）与本项目的快速实现（{@link Bip32}、{@link Bip39Seed}、
+ * {@link HmacSha512} + RFC 8032 Ed25519）计算，两者都必须与公布值一致。
+ */
+public final class KnownVectors {
+
+    private record Bip32Vector(String seed, String path, String xpub, String xprv) {
+    }
+
+    private record Bip39Vector(String entropy, String mnemonic, String seed) {
+    }
+
+    private record Slip10Vector(String seed, String path, String chainCode, String privateKey, String publicKey) {
+    }
+
+    private static final String BIP32_SEED_1 = "000102030405060708090a0b0c0d0e0f";
+    private static final String BIP32_SEED_2 = "fffcf9f6f3f0edeae7e4e1dedbd8d5d2cfccc9c6c3c0bdbab7b4b1aeaba8a5a2"
+            + "9f9c999693908d8a8784817e7b7875726f6c696663605d5a5754514e4b484542";
+    private static final String BIP32_SEED_3 = "4b381541583be4423346c643850da4b320e46a87ae3d2a4e6da11eba819cd4ac"
+            + "ba45d239319ac14f863b8d5ab5a0d0c64d2e8a1e7d1457df2e5a3c51c73235be";
+    private static final String BIP32_SEED_4 = "3ddd5602285899a946114506157c7997e5444528f3003f6134712147db19b678";
+
+    private static final List<Bip32Vector> BIP32 = List.of(
+            new Bip32Vector(BIP32_SEED_1, "m",
+                    "xpub661MyMwAqRbcFtXgS5sYJABqqG9YLmC4Q1Rdap9gSE8NqtwybGhePY2gZ29ESFjqJoCu1Rupje8YtGqsefD265TMg7usUDFdp6W1EGMcet8",
+                    "xprv9s21ZrQH143K3QTDL4LXw2F7HEK3wJUD2nW2nRk4stbPy6cq3jPPqjiChkVvvNKmPGJxWUtg6LnF5kejMRNNU3TGtRBeJgk33yuGBxrMPHi"),
+            new Bip32Vector(BIP32_SEED_1, "m/0H",
+                    "xpub68Gmy5EdvgibQVfPdqkBBCHxA5htiqg55crXYuXoQRKfDBFA1WEjWgP6LHhwBZeNK1VTsfTFUHCdrfp1bgwQ9xv5ski8PX9rL2dZXvgGDnw",
+                    "xprv9uHRZZhk6KAJC1avXpDAp4MDc3sQKNxDiPvvkX8Br5ngLNv1TxvUxt4cV1rGL5hj6KCesnDYUhd7oWgT11eZG7XnxHrnYeSvkzY7d2bhkJ7"),
+            new Bip32Vector(BIP32_SEED_1, "m/0H/1",
+                    "xpub6ASuArnXKPbfEwhqN6e3mwBcDTgzisQN1wXN9BJcM47sSikHjJf3UFHKkNAWbWMiGj7Wf5uMash7SyYq527Hqck2AxYysAA7xmALppuCkwQ",
+                    "xprv9wTYmMFdV23N2TdNG573QoEsfRrWKQgWeibmLntzniatZvR9BmLnvSxqu53Kw1UmYPxLgboyZQaXwTCg8MSY3H2EU4pWcQDnRnrVA1xe8fs"),
+            new Bip32Vector(BIP32_SEED_1, "m/0H/1/2H",
+                    "xpub6D4BDPcP2GT577Vvch3R8wDkScZWzQzMMUm3PWbmWvVJrZwQY4VUNgqFJPMM3No2dFDFGTsxxpG5uJh7n7epu4trkrX7x7DogT5Uv6fcLW5",
+                    "xprv9z4pot5VBttmtdRTWfWQmoH1taj2axGVzFqSb8C9xaxKymcFzXBDptWmT7FwuEzG3ryjH4ktypQSAewRiNMjANTtpgP4mLTj34bhnZX7UiM"),
+            new Bip32Vector(BIP32_SEED_1, "m/0H/1/2H/2",
+                    "xpub6FHa3pjLCk84BayeJxFW2SP4XRrFd1JYnxeLeU8EqN3vDfZmbqBqaGJAyiLjTAwm6ZLRQUMv1ZACTj37sR62cfN7fe5JnJ7dh8zL4fiyLHV",
+                    "xprvA2JDeKCSNNZky6uBCviVfJSKyQ1mDYahRjijr5idH2WwLsEd4Hsb2Tyh8RfQMuPh7f7RtyzTtdrbdqqsunu5Mm3wDvUAKRHSC34sJ7in334"),
+            new Bip32Vector(BIP32_SEED_1, "m/0H/1/2H/2/1000000000",
+                    "xpub6H1LXWLaKsWFhvm6RVpEL9P4KfRZSW7abD2ttkWP3SSQvnyA8FSVqNTEcYFgJS2UaFcxupHiYkro49S8yGasTvXEYBVPamhGW6cFJodrTHy",
+                    "xprvA41z7zogVVwxVSgdKUHDy1SKmdb533PjDz7J6N6mV6uS3ze1ai8FHa8kmHScGpWmj4WggLyQjgPie1rFSruoUihUZREPSL39UNdE3BBDu76"),
+            new Bip32Vector(BIP32_SEED_2, "m",
+                    "xpub661MyMwAqRbcFW31YEwpkMuc5THy2PSt5bDMsktWQcFF8syAmRUapSCGu8ED9W6oDMSgv6Zz8idoc4a6mr8BDzTJY47LJhkJ8UB7WEGuduB",
+                    "xprv9s21ZrQH143K31xYSDQpPDxsXRTUcvj2iNHm5NUtrGiGG5e2DtALGdso3pGz6ssrdK4PFmM8NSpSBHNqPqm55Qn3LqFtT2emdEXVYsCzC2U"),
+            new Bip32Vector(BIP32_SEED_2, "m/0",
+                    "xpub69H7F5d8KSRgmmdJg2KhpAK8SR3DjMwAdkxj3ZuxV27CprR9LgpeyGmXUbC6wb7ERfvrnKZjXoUmmDznezpbZb7ap6r1D3tgFxHmwMkQTPH",
+                    "xprv9vHkqa6EV4sPZHYqZznhT2NPtPCjKuDKGY38FBWLvgaDx45zo9WQRUT3dKYnjwih2yJD9mkrocEZXo1ex8G81dwSM1fwqWpWkeS3v86pgKt"),
+            new Bip32Vector(BIP32_SEED_2, "m/0/2147483647H",
+                    "xpub6ASAVgeehLbnwdqV6UKMHVzgqAG8Gr6riv3Fxxpj8ksbH9ebxaEyBLZ85ySDhKiLDBrQSARLq1uNRts8RuJiHjaDMBU4Zn9h8LZNnBC5y4a",
+                    "xprv9wSp6B7kry3Vj9m1zSnLvN3xH8RdsPP1Mh7fAaR7aRLcQMKTR2vidYEeEg2mUCTAwCd6vnxVrcjfy2kRgVsFawNzmjuHc2YmYRmagcEPdU9"),
+            new Bip32Vector(BIP32_SEED_2, "m/0/2147483647H/1",
+                    "xpub6DF8uhdarytz3FWdA8TvFSvvAh8dP3283MY7p2V4SeE2wyWmG5mg5EwVvmdMVCQcoNJxGoWaU9DCWh89LojfZ537wTfunKau47EL2dhHKon",
+                    "xprv9zFnWC6h2cLgpmSA46vutJzBcfJ8yaJGg8cX1e5StJh45BBciYTRXSd25UEPVuesF9yog62tGAQtHjXajPPdbRCHuWS6T8XA2ECKADdw4Ef"),
+            new Bip32Vector(BIP32_SEED_2, "m/0/2147483647H/1/2147483646H",
+                    "xpub6ERApfZwUNrhLCkDtcHTcxd75RbzS1ed54G1LkBUHQVHQKqhMkhgbmJbZRkrgZw4koxb5JaHWkY4ALHY2grBGRjaDMzQLcgJvLJuZZvRcEL",
+                    "xprvA1RpRA33e1JQ7ifknakTFpgNXPmW2YvmhqLQYMmrj4xJXXWYpDPS3xz7iAxn8L39njGVyuoseXzU6rcxFLJ8HFsTjSyQbLYnMpCqE2VbFWc"),
+            new Bip32Vector(BIP32_SEED_2, "m/0/2147483647H/1/2147483646H/2",
+                    "xpub6FnCn6nSzZAw5Tw7cgR9bi15UV96gLZhjDstkXXxvCLsUXBGXPdSnLFbdpq8p9HmGsApME5hQTZ3emM2rnY5agb9rXpVGyy3bdW6EEgAtqt",
+                    "xprvA2nrNbFZABcdryreWet9Ea4LvTJcGsqrMzxHx98MMrotbir7yrKCEXw7nadnHM8Dq38EGfSh6dqA9QWTyefMLEcBYJUuekgW4BYPJcr9E7j"),
+            // 向量3：私钥存在前导零，序列化时必须保留
+            new Bip32Vector(BIP32_SEED_3, "m",
+                    "xpub661MyMwAqRbcEZVB4dScxMAdx6d4nFc9nvyvH3v4gJL378CSRZiYmhRoP7mBy6gSPSCYk6SzXPTf3ND1cZAceL7SfJ1Z3GC8vBgp2epUt13",
+                    "xprv9s21ZrQH143K25QhxbucbDDuQ4naNntJRi4KUfWT7xo4EKsHt2QJDu7KXp1A3u7Bi1j8ph3EGsZ9Xvz9dGuVrtHHs7pXeTzjuxBrCmmhgC6"),
+            new Bip32Vector(BIP32_SEED_3, "m/0H",
+                    "xpub68NZiKmJWnxxS6aaHmn81bvJeTESw724CRDs6HbuccFQN9Ku14VQrADWgqbhhTHBaohPX4CjNLf9fq9MYo6oDaPPLPxSb7gwQN3ih19Zm4Y",
+                    "xprv9uPDJpEQgRQfDcW7BkF7eTya6RPxXeJCqCJGHuCJ4GiRVLzkTXBAJMu2qaMWPrS7AANYqdq6vcBcBUdJCVVFceUvJFjaPdGZ2y9WACViL4L"),
+            // 向量4：子私钥存在前导零
+            new Bip32Vector(BIP32_SEED_4, "m",
+                    "xpub661MyMwAqRbcGczjuMoRm6dXaLDEhW1u34gKenbeYqAix21mdUKJyuyu5F1rzYGVxyL6tmgBUAEPrEz92mBXjByMRiJdba9wpnN37RLLAXa",
+                    "xprv9s21ZrQH143K48vGoLGRPxgo2JNkJ3J3fqkirQC2zVdk5Dgd5w14S7fRDyHH4dWNHUgkvsvNDCkvAwcSHNAQwhwgNMgZhLtQC63zxwhQmRv"),
+            new Bip32Vector(BIP32_SEED_4, "m/0H",
+                    "xpub69AUMk3qDBi3uW1sXgjCmVjJ2G6WQoYSnNHyzkmdCHEhSZ4tBok37xfFEqHd2AddP56Tqp4o56AePAgCjYdvpW2PU2jbUPFKsav5ut6Ch1m",
+                    "xprv9vB7xEWwNp9kh1wQRfCCQMnZUEG21LpbR9NPCNN1dwhiZkjjeGRnaALmPXCX7SgjFTiCTT6bXes17boXtjq3xLpcDjzEuGLQBM5ohqkao9G"),
+            new Bip32Vector(BIP32_SEED_4, "m/0H/1H",
+                    "xpub6BJA1jSqiukeaesWfxe6sNK9CCGaujFFSJLomWHprUL9DePQ4JDkM5d88n49sMGJxrhpjazuXYWdMf17C9T5XnxkopaeS7jGk1GyyVziaMt",
+                    "xprv9xJocDuwtYCMNAo3Zw76WENQeAS6WGXQ55RCy7tDJ8oALr4FWkuVoHJeHVAcAqiZLE7Je3vZJHxspZdFHfnBEjHqU5hG1Jaj32dVoS6XLT1"));
+
+    private static final String BIP39_PASSPHRASE = "TREZOR";
+
+    private static final List<Bip39Vector> BIP39 = List.of(
+            new Bip39Vector("00000000000000000000000000000000",
+                    "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon about",
+                    "c55257c360c07c72029aebc1b53c05ed0362ada38ead3e3e9efa3708e53495531f09a6987599d18264c1e1c92f2cf141630c7a3c4ab7c81b2f001698e7463b04"),
+            new Bip39Vector("7f7f7f7f7f7f7f7f7f7f7f7f7f7f7f7f",
+                    "legal winner thank year wave sausage worth useful legal winner thank yellow",
+                    "2e8905819b8723fe2c1d161860e5ee1830318dbf49a83bd451cfb8440c28bd6fa457fe1296106559a3c80937a1c1069be3a3a5bd381ee6260e8d9739fce1f607"),
+            new Bip39Vector("80808080808080808080808080808080",
+                    "letter advice cage absurd amount doctor acoustic avoid letter advice cage above",
+                    "d71de856f81a8acc65e6fc851a38d4d7ec216fd0796d0a6827a3ad6ed5511a30fa280f12eb2e47ed2ac03b5c462a0358d18d69fe4f985ec81778c1b370b652a8"),
+            new Bip39Vector("ffffffffffffffffffffffffffffffff",
+                    "zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo zoo wrong",
+                    "ac27495480225222079d7be181583751e86f571027b0497b5b5d11218e0a8a13332572917f0f8e5a589620c6f15b11c61dee327651a14c34e18231052e48c069"),
+            new Bip39Vector("9e885d952ad362caeb4efe34a8e91bd2",
+                    "ozone drill grab fiber curtain grace pudding thank cruise elder eight picnic",
+                    "274ddc525802f7c828d8ef7ddbcdc5304e87ac3535913611fbbfa986d0c9e5476c91689f9c8a54fd55bd38606aa6a8595ad213d4c9c9f9aca3fb217069a41028"),
+            new Bip39Vector("c0ba5a8e914111210f2bd131f3d5e08d",
+                    "scheme spot photo card baby mountain device kick cradle pact join borrow",
+                    "ea725895aaae8d4c1cf682c1bfd2d358d52ed9f0f0591131b559e2724bb234fca05aa9c02c57407e04ee9dc3b454aa63fbff483a8b11de949624b9f1831a9612"));
+
+    private static final List<Slip10Vector> SLIP10 = List.of(
+            new Slip10Vector(BIP32_SEED_1, "m",
+                    "90046a93de5380a72b5e45010748567d5ea02bbf6522f979e05c0d8d8ca9fffb",
+                    "2b4be7f19ee27bbf30c667b642d5f4aa69fd169872f8fc3059c08ebae2eb19e7",
+                    "00a4b2856bfec510abab89753fac1ac0e1112364e7d250545963f135f2a33188ed"),
+            new Slip10Vector(BIP32_SEED_1, "m/0H",
+                    "8b59aa11380b624e81507a27fedda59fea6d0b779a778918a2fd3590e16e9c69",
+                    "68e0fe46dfb67e368c75379acec591dad19df3cde26e63b93a8e704f1dade7a3",
+                    "008c8a13df77a28f3445213a0f432fde644acaa215fc72dcdf300d5efaa85d350c"),
+            new Slip10Vector(BIP32_SEED_1, "m/0H/1H",
+                    "a320425f77d1b5c2505a6b1b27382b37368ee640e3557c315416801243552f14",
+                    "b1d0bad404bf35da785a64ca1ac54b2617211d2777696fbffaf208f746ae84f2",
+                    "001932a5270f335bed617d5b935c80aedb1a35bd9fc1e31acafd5372c30f5c1187"),
+            new Slip10Vector(BIP32_SEED_1, "m/0H/1H/2H",
+                    "2e69929e00b5ab250f49c3fb1c12f252de4fed2c1db88387094a0f8c4c9ccd6c",
+                    "92a5b23c0b8a99e37d07df3fb9966917f5d06e02ddbd909c7e184371463e9fc9",
+                    "00ae98736566d30ed0e9d2f4486a64bc95740d89c7db33f52121f8ea8f76ff0fc1"),
+            new Slip10Vector(BIP32_SEED_1, "m/0H/1H/2H/2H",
+                    "8f6d87f93d750e0efccda017d662a1b31a266e4a6f5993b15f5c1f07f74dd5cc",
+                    "30d1dc7e5fc04c31219ab25a27ae00b50f6fd66622f6e9c913253d6511d1e662",
+                    "008abae2d66361c879b900d204ad2cc4984fa2aa344dd7ddc46007329ac76c429c"),
+            new Slip10Vector(BIP32_SEED_1, "m/0H/1H/2H/2H/1000000000H",
+                    "68789923a0cac2cd5a29172a475fe9e0fb14cd6adb5ad98a3fa70333e7afa230",
+                    "8f94d394a8e8fd6b1bc2f3f49f5c47e385281d5c17e65324b0f62483e37e8793",
+                    "003c24da049451555d51a7014a37337aa4e12d41e485abccfa46b47dfb2af54b7a"),
+            new Slip10Vector(BIP32_SEED_2, "m",
+                    "ef70a74db9c3a5af931b5fe73ed8e1a53464133654fd55e7a66f8570b8e33c3b",
+                    "171cb88b1b3c1db25add599712e36245d75bc65a1a5c9e18d76f9f2b1eab4012",
+                    "008fe9693f8fa62a4305a140b9764c5ee01e455963744fe18204b4fb948249308a"),
+            new Slip10Vector(BIP32_SEED_2, "m/0H",
+                    "0b78a3226f915c082bf118f83618a618ab6dec793752624cbeb622acb562862d",
+                    "1559eb2bbec5790b0c65d8693e4d0875b1747f4970ae8b650486ed7470845635",
+                    "0086fab68dcb57aa196c77c5f264f215a112c22a912c10d123b0d03c3c28ef1037"),
+            new Slip10Vector(BIP32_SEED_2, "m/0H/2147483647H",
+                    "138f0b2551bcafeca6ff2aa88ba8ed0ed8de070841f0c4ef0165df8181eaad7f",
+                    "ea4f5bfe8694d8bb74b7b59404632fd5968b774ed545e810de9c32a4fb4192f4",
+                    "005ba3b9ac6e90e83effcd25ac4e58a1365a9e35a3d3ae5eb07b9e4d90bcf7506d"),
+            new Slip10Vector(BIP32_SEED_2, "m/0H/2147483647H/1H",
+                    "73bd9fff1cfbde33a1b846c27085f711c0fe2d66fd32e139d3ebc28e5a4a6b90",
+                    "3757c7577170179c7868353ada796c839135b3d30554bbb74a4b1e4a5a58505c",
+                    "002e66aa57069c86cc18249aecf5cb5a9cebbfd6fadeab056254763874a9352b45"),
+            new Slip10Vector(BIP32_SEED_2, "m/0H/2147483647H/1H/2147483646H",
+                    "0902fe8a29f9140480a00ef244bd183e8a13288e4412d8389d140aac1794825a",
+                    "5837736c89570de861ebc173b1086da4f505d4adb387c6a1b1342d5e4ac9ec72",
+                    "00e33c0f7d81d843c572275f287498e8d408654fdf0d1e065b84e2e6f157aab09b"),
+            new Slip10Vector(BIP32_SEED_2, "m/0H/2147483647H/1H/2147483646H/2H",
+                    "5d70af781f3a37b829f0d060924d5e960bdc02e85423494afc0b1a41bbe196d4",
+                    "551d333177df541ad876a60ea71f00447931c0a9da16f227c11ea080d7391b8d",
+                    "0047150c75db263559a70d5778bf36abbab30fb061ad69f69ece61a72b0cfa4fc0"));
+
+    private static final int XPUB_VERSION = 0x0488B21E;
+    private static final int XPRV_VERSION = 0x0488ADE4;
+    private static final byte[] ED25519_SEED_KEY = "ed25519 seed".getBytes(StandardCharsets.US_ASCII);
+
+    private KnownVectors() {
+    }
+
+    /** 向量总数（每个向量分别以参照实现与快速实现各检查一次） */
+    public static int count() {
+        return BIP32.size() + BIP39.size() + SLIP10.size();
+    }
+
+    /**
+     * 检查全部向量
+     *
+     * @return 不一致项的描述，全部通过时为空列表
+     */
+    public static List<String> check() {
+        List<String> failures = new ArrayList<>();
+        for (Bip32Vector v : BIP32) {
+            expect(failures, "BIP32 bitcoinj " + v.path(), v.xpub() + " " + v.xprv(), v, KnownVectors::bitcoinjBip32);
+            expect(failures, "BIP32 Bip32 " + v.path(), v.xpub() + " " + v.xprv(), v, KnownVectors::fastBip32);
+        }
+        for (Bip39Vector v : BIP39) {
+            String expected = v.mnemonic() + " " + v.seed();
+            expect(failures, "BIP39 bitcoinj " + v.entropy(), expected, v, KnownVectors::bitcoinjBip39);
+            expect(failures, "BIP39 Bip39Seed " + v.entropy(), expected, v, KnownVectors::fastBip39);
+        }
+        for (Slip10Vector v : SLIP10) {
+            String expected = v.chainCode() + " " + v.privateKey() + " " + v.publicKey();
+            expect(failures, "SLIP-10 Slip10Ed25519 " + v.path(), expected, v, KnownVectors::referenceSlip10);
+            expect(failures, "SLIP-10 HmacSha512 " + v.path(), expected, v, KnownVectors::fastSlip10);
+        }
+        return failures;
+    }
+
+    private static <V> void expect(List<String> failures, String label, String expected, V vector,
+                                   Function<V, String> impl) {
+        String actual;
+        try {
+            actual = impl.apply(vector);
+        } catch (RuntimeException e) {
+            actual = "异常：" + e;
+        }
+        if (!expected.equals(actual)) {
+            failures.add(label + "（" + vector + "）：期望 " + expected + "，实际 " + actual);
+        }
+    }
+
+    /**
+     * 解析 m/0H/1/2H 形式的路径（H或'表示硬化）
+     */
+    private static int[] parsePath(String path) {
+        String[] parts = path.split("/");
+        int[] indexes = new int[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            String p = parts[i];
+            boolean hardened = p.endsWith("H") || p.endsWith("'");
+            int index = Integer.parseInt(hardened ? p.substring(0, p.length() - 1) : p);
+            indexes[i - 1] = hardened ? index | Bip32.HARDENED : index;
+        }
+        return indexes;
+    }
+
+    private static String bitcoinjBip32(Bip32Vector v) {
+        DeterministicKey key = HDKeyDerivation.createMasterPrivateKey(Hex.decode(v.seed()));
+        for (int index : parsePath(v.path())) {
+            key = HDKeyDerivation.deriveChildKey(key, new ChildNumber(index));
+        }
+        return key.serializePubB58(ReferenceEngine.params()) + " " + key.serializePrivB58(ReferenceEngine.params());
+    }
+
+    private static String fastBip32(Bip32Vector v) {
+        Bip32 node = new Bip32();
+        try {
+            node.master(Hex.decode(v.seed()));
+            int parentFingerprint = 0;
+            for (int index : parsePath(v.path())) {
+                parentFingerprint = node.fingerprint();
+                node.derive(index);
+            }
+            byte[] chainCode = new byte[32];
+            byte[] key = new byte[33];
+            node.copyChainCode(chainCode, 0);
+            node.copyPrivateKey(key, 1);
+            return serialize(XPUB_VERSION, node, parentFingerprint, chainCode, node.publicKey(true)) + " "
+                    + serialize(XPRV_VERSION, node, parentFingerprint, chainCode, key);
+        } finally {
+            node.wipe();
+        }
+    }
+
+    /**
+     * 扩展密钥序列化：version(4) | depth(1) | 父指纹(4) | 子索引(4) | 链码(32) | 密钥(33) | 校验(4)
+     */
+    private static String serialize(int version, Bip32 node, int parentFingerprint, byte[] chainCode, byte[] key) {
+        ByteBuffer b = ByteBuffer.allocate(82);
+        b.putInt(version).put((byte) node.depth()).putInt(parentFingerprint).putInt(node.childNumber())
+                .put(chainCode).put(key);
+        b.put(Sha256Hash.hashTwice(b.array(), 0, 78), 0, 4);
+        return Base58.encode(b.array());
+    }
+
+    private static String bitcoinjBip39(Bip39Vector v) {
+        List<String> words;
+        try {
+            words = MnemonicCode.INSTANCE.toMnemonic(Hex.decode(v.entropy()));
+        } catch (MnemonicException.MnemonicLengthException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] seed = PBKDF2SHA512.derive(String.join(" ", words), "mnemonic" + BIP39_PASSPHRASE, 2048, 64);
+        return String.join(" ", words) + " " + Hex.toHexString(seed);
+    }
+
+    private static String fastBip39(Bip39Vector v) {
+        List<String> words = Arrays.asList(v.mnemonic().split(" "));
+        byte[] seed = new byte[Bip39Seed.SEED_LENGTH];
+        Bip39Seed.toSeed(words, BIP39_PASSPHRASE, seed, 0);
+        return v.mnemonic() + " " + Hex.toHexString(seed);
+    }
+
+    private static String referenceSlip10(Slip10Vector v) {
+        Slip10Ed25519.Node node = Slip10Ed25519.master(Hex.decode(v.seed()));
+        for (int index : parsePath(v.path())) {
+            node = Slip10Ed25519.deriveHardened(node, index & ~Bip32.HARDENED);
+        }
+        byte[] pub = new Ed25519PrivateKeyParameters(node.getKey(), 0).generatePublicKey().getEncoded();
+        return Hex.toHexString(node.getChainCode()) + " " + Hex.toHexString(node.getKey()) + " 00"
+                + Hex.toHexString(pub);
+    }
+
+    /**
+     * 与 {@link com.hy.wallet.services.SolanaDeriver} 相同的计算方式：复用HMAC状态逐级硬化派生，RFC 8032直接计算公钥
+     */
+    private static String fastSlip10(Slip10Vector v) {
+        HmacSha512 mac = new HmacSha512();
+        byte[] out = new byte[64];
+        byte[] data = new byte[37];
+        mac.init(ED25519_SEED_KEY);
+        byte[] seed = Hex.decode(v.seed());
+        mac.update(seed, 0, seed.length);
+        mac.doFinal(out, 0);
+        for (int index : parsePath(v.path())) {
+            if ((index & Bip32.HARDENED) == 0) {
+                throw new IllegalArgumentException("Ed25519只支持硬化派生：" + v.path());
+            }
+            data[0] = 0;
+            System.arraycopy(out, 0, data, 1, 32);
+            ByteBuffer.wrap(data, 33, 4).putInt(index);
+            mac.init(out, 32, 32);
+            mac.update(data, 0, data.length);
+            mac.doFinal(out, 0);
+        }
+        byte[] pub = new byte[32];
+        Ed25519.generatePublicKey(out, 0, pub, 0);
+        return Hex.toHexString(out, 32, 32) + " " + Hex.toHexString(out, 0, 32) + " 00" + Hex.toHexString(pub);
+    }
+}
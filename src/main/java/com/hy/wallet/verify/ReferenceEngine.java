@@ -0,0 +1,130 @@
+package com.hy.wallet.verify;
+
+import com.hy.wallet.utils.Slip10Ed25519;
+import org.bitcoinj.core.Base58;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.LegacyAddress;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.SegwitAddress;
+import org.bitcoinj.crypto.ChildNumber;
+import org.bitcoinj.crypto.DeterministicKey;
+import org.bitcoinj.crypto.HDKeyDerivation;
+import org.bitcoinj.crypto.PBKDF2SHA512;
+import org.bitcoinj.params.MainNetParams;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.util.encoders.Hex;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.utils.Numeric;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 参照实现：按库的标准用法逐个用例计算，不做任何缓存或批量优化
+ * - BIP32：bitcoinj HDKeyDerivation / DeterministicKey，地址与WIF经 ECKey、LegacyAddress、SegwitAddress
+ * - BIP39：bitcoinj PBKDF2SHA512
+ * - ETH/TRON：web3j ECKeyPair + Keys（Keccak地址与EIP-55校验和）
+ * - SOL：SLIP-0010（BouncyCastle HMac）+ BouncyCastle Ed25519
+ * 各方法无共享的可变状态，可由多个线程并发调用。
+ */
+public final class ReferenceEngine implements DerivationEngine {
+
+    /** 引擎名称 */
+    public static final String NAME = "reference";
+
+    private static final int TRON_PREFIX = 0x41;
+
+    /**
+     * 主网参数延迟到首次使用时初始化
+     */
+    private static final class Params {
+        private static final NetworkParameters MAIN = MainNetParams.get();
+    }
+
+    static NetworkParameters params() {
+        return Params.MAIN;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Set<Target> targets() {
+        return EnumSet.allOf(Target.class);
+    }
+
+    @Override
+    public void compute(List<DifferentialHarness.Case> cases, Map<Target, String[]> out) {
+        for (Map.Entry<Target, String[]> e : out.entrySet()) {
+            String[] results = e.getValue();
+            for (int i = 0; i < cases.size(); i++) {
+                results[i] = compute(e.getKey(), cases.get(i));
+            }
+        }
+    }
+
+    private static String compute(Target target, DifferentialHarness.Case c) {
+        return switch (target) {
+            case BIP39_SEED -> bip39Seed(c.mnemonic());
+            case BTC_LEGACY -> {
+                ECKey key = ECKey.fromPrivate(derive(c.seed(), 44, 0, c.index()).getPrivKeyBytes());
+                yield LegacyAddress.fromKey(params(), key) + " " + key.getPrivateKeyAsWiF(params());
+            }
+            case BTC_SEGWIT -> {
+                ECKey key = ECKey.fromPrivate(derive(c.seed(), 84, 0, c.index()).getPrivKeyBytes());
+                yield SegwitAddress.fromKey(params(), key) + " " + key.getPrivateKeyAsWiF(params());
+            }
+            case ETH -> {
+                ECKeyPair pair = ECKeyPair.create(derive(c.seed(), 44, 60, c.index()).getPrivKey());
+                yield Keys.toChecksumAddress(Keys.getAddress(pair.getPublicKey())) + " " + privateHex(pair);
+            }
+            case SOL -> sol(c.seed(), c.index());
+            case TRON -> {
+                ECKeyPair pair = ECKeyPair.create(derive(c.seed(), 44, 195, c.index()).getPrivKey());
+                byte[] hash = Numeric.hexStringToByteArray(Keys.getAddress(pair.getPublicKey()));
+                yield Base58.encodeChecked(TRON_PREFIX, hash) + " " + privateHex(pair);
+            }
+            case ETH_CHECKSUM -> Keys.toChecksumAddress(Hex.toHexString(c.address()));
+        };
+    }
+
+    /**
+     * m/purpose'/coinType'/0'/0/index，逐级构造 DeterministicKey
+     */
+    private static DeterministicKey derive(byte[] seed, int purpose, int coinType, int index) {
+        DeterministicKey key = HDKeyDerivation.createMasterPrivateKey(seed);
+        key = HDKeyDerivation.deriveChildKey(key, new ChildNumber(purpose, true));
+        key = HDKeyDerivation.deriveChildKey(key, new ChildNumber(coinType, true));
+        key = HDKeyDerivation.deriveChildKey(key, new ChildNumber(0, true));
+        key = HDKeyDerivation.deriveChildKey(key, new ChildNumber(0, false));
+        return HDKeyDerivation.deriveChildKey(key, new ChildNumber(index, false));
+    }
+
+    private static String privateHex(ECKeyPair pair) {
+        return Numeric.toHexStringWithPrefixZeroPadded(pair.getPrivateKey(), 64);
+    }
+
+    private static String bip39Seed(List<String> words) {
+        return Hex.toHexString(PBKDF2SHA512.derive(String.join(" ", words), "mnemonic", 2048, 64));
+    }
+
+    /**
+     * m/44'/501'/index'/0'
+     */
+    private static String sol(byte[] seed, int index) {
+        Slip10Ed25519.Node node = Slip10Ed25519.master(seed);
+        for (int i : new int[]{44, 501, index, 0}) {
+            node = Slip10Ed25519.deriveHardened(node, i);
+        }
+        byte[] pub = new Ed25519PrivateKeyParameters(node.getKey(), 0).generatePublicKey().getEncoded();
+        byte[] secret = new byte[64];
+        System.arraycopy(node.getKey(), 0, secret, 0, 32);
+        System.arraycopy(pub, 0, secret, 32, 32);
+        return Base58.encode(pub) + " " + Base58.encode(secret);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hy.wallet.verify;
+
+import com.hy.wallet.services.BTCService;
+import com.hy.wallet.services.ETHService;
+import com.hy.wallet.services.SolanaService;
+import com.hy.wallet.services.TronService;
+import com.hy.wallet.utils.Bip39Seed;
+import com.hy.wallet.utils.EthChecksum;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 逐个钱包的生产路径：{@link BTCService}、{@link ETHService}、{@link SolanaService}、{@link TronService}、
+ * {@link Bip39Seed} 与 {@link EthChecksum}（即 generateOne / generateFromMnemonic 使用的实现）
+ */
+public final class ServiceEngine implements DerivationEngine {
+
+    /** 引擎名称 */
+    public static final String NAME = "service";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Set<Target> targets() {
+        return EnumSet.allOf(Target.class);
+    }
+
+    @Override
+    public void compute(List<DifferentialHarness.Case> cases, Map<Target, String[]> out) {
+        for (Map.Entry<Target, String[]> e : out.entrySet()) {
+            String[] results = e.getValue();
+            for (int i = 0; i < cases.size(); i++) {
+                results[i] = compute(e.getKey(), cases.get(i));
+            }
+        }
+    }
+
+    private static String compute(Target target, DifferentialHarness.Case c) {
+        return switch (target) {
+            case BIP39_SEED -> {
+                byte[] seed = new byte[Bip39Seed.SEED_LENGTH];
+                Bip39Seed.toSeed(c.mnemonic(), "", seed, 0);
+                yield Hex.toHexString(seed);
+            }
+            case BTC_LEGACY -> {
+                BTCService.BtcPair p = BTCService.generateLegacy(c.seed(), c.index());
+                yield p.address() + " " + p.wif();
+            }
+            case BTC_SEGWIT -> {
+                BTCService.BtcPair p = BTCService.generateSegwit(c.seed(), c.index());
+                yield p.address() + " " + p.wif();
+            }
+            case ETH -> {
+                ETHService.EthPair p = ETHService.generateEth(c.seed(), c.index());
+                yield p.address() + " " + p.privateHex();
+            }
+            case SOL -> {
+                SolanaService.SolPair p = SolanaService.generateSol(c.seed(), c.index());
+                yield p.address() + " " + p.privateEncoded();
+            }
+            case TRON -> {
+                TronService.TronPair p = TronService.generateTron(c.seed(), c.index());
+                yield p.address() + " " + p.privateHex();
+            }
+            case ETH_CHECKSUM -> EthChecksum.toChecksumAddress(Hex.toHexString(c.address()));
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.hy.wallet.verify;
+
+import com.hy.wallet.core.Chain;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 差分校验的比较项
+ * 每一项是由同一输入计算出的一个字符串结果（地址与私钥以空格相连），两个引擎在该项上的结果必须逐字相同。
+ */
+public enum Target {
+    /** 助记词 → BIP39种子（16进制）；PBKDF2 2048轮，开销约为其余各项总和的数倍，默认每64个用例比较一次 */
+    BIP39_SEED(null),
+    /** m/44'/0'/0'/0/i：Legacy地址 + WIF */
+    BTC_LEGACY(Chain.BTC),
+    /** m/84'/0'/0'/0/i：SegWit地址 + WIF */
+    BTC_SEGWIT(Chain.BTC),
+    /** m/44'/60'/0'/0/i：EIP-55地址 + 私钥hex */
+    ETH(Chain.ETH),
+    /** m/44'/501'/i'/0'：地址 + 64字节Base58私钥 */
+    SOL(Chain.SOL),
+    /** m/44'/195'/0'/0/i：Base58Check地址 + 私钥hex */
+    TRON(Chain.TRON),
+    /** 20字节随机地址 → EIP-55校验和编码（不经派生，单次比较只需微秒级） */
+    ETH_CHECKSUM(Chain.ETH);
+
+    private final Chain chain;
+
+    Target(Chain chain) {
+        this.chain = chain;
+    }
+
+    /** 所属链；BIP39种子与链无关，返回null */
+    public Chain chain() {
+        return chain;
+    }
+
+    /**
+     * 解析逗号分隔的比较项列表（不区分大小写）
+     *
+     * @param spec 比较项列表，如 eth,sol
+     * @return 比较项集合
+     */
+    public static Set<Target> parse(String spec) {
+        EnumSet<Target> targets = EnumSet.noneOf(Target.class);
+        for (String part : spec.split(",")) {
+            try {
+                targets.add(Target.valueOf(part.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("未知比较项：" + part.trim() + "（可选 "
+                        + Arrays.toString(Target.values()) + "）");
+            }
+        }
+        return targets;
+    }
+}